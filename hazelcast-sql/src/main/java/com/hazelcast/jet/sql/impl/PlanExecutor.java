@@ -120,6 +120,7 @@ import java.util.stream.Stream;
 
 import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
 import static com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_COLUMNAR_ROW_BATCHES_ENABLED;
 import static com.hazelcast.jet.config.JobConfigArguments.KEY_SQL_QUERY_TEXT;
 import static com.hazelcast.jet.config.JobConfigArguments.KEY_SQL_UNBOUNDED;
 import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
@@ -131,6 +132,7 @@ import static com.hazelcast.jet.sql.impl.SqlPlanImpl.CreateDataConnectionPlan;
 import static com.hazelcast.jet.sql.impl.parse.SqlCreateIndex.UNIQUE_KEY;
 import static com.hazelcast.jet.sql.impl.parse.SqlCreateIndex.UNIQUE_KEY_TRANSFORMATION;
 import static com.hazelcast.jet.sql.impl.validate.types.HazelcastTypeUtils.toHazelcastType;
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_COLUMNAR_ROW_BATCHES_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.SQL_CUSTOM_TYPES_ENABLED;
 import static com.hazelcast.sql.SqlColumnType.JSON;
 import static com.hazelcast.sql.SqlColumnType.VARCHAR;
@@ -271,6 +273,7 @@ public class PlanExecutor {
                 .setArgument(SQL_ARGUMENTS_KEY_NAME, args)
                 .setArgument(KEY_SQL_QUERY_TEXT, plan.getQuery())
                 .setArgument(KEY_SQL_UNBOUNDED, isStreamingJob);
+        setColumnarRowBatchesArgument(jobConfig);
         if (!jobConfig.isSuspendOnFailure()) {
             jobConfig.setSuspendOnFailure(isStreamingJob);
         }
@@ -501,6 +504,7 @@ public class PlanExecutor {
                 .setArgument(KEY_SQL_QUERY_TEXT, plan.getQuery())
                 .setArgument(KEY_SQL_UNBOUNDED, plan.isStreaming())
                 .setTimeoutMillis(timeout);
+        setColumnarRowBatchesArgument(jobConfig);
 
         QueryResultProducerImpl queryResultProducer = new QueryResultProducerImpl(!plan.isStreaming());
         AbstractJetInstance<?> jet = (AbstractJetInstance<?>) hazelcastInstance.getJet();
@@ -539,6 +543,7 @@ public class PlanExecutor {
                 .setArgument(KEY_SQL_QUERY_TEXT, plan.getQuery())
                 .setArgument(KEY_SQL_UNBOUNDED, plan.isInfiniteRows())
                 .setTimeoutMillis(timeout);
+        setColumnarRowBatchesArgument(jobConfig);
 
         Job job = hazelcastInstance.getJet().newLightJob(plan.getDag(), jobConfig);
         job.join();
@@ -729,6 +734,12 @@ public class PlanExecutor {
         return UpdateSqlResultImpl.createUpdateCountResult(0);
     }
 
+    private void setColumnarRowBatchesArgument(JobConfig jobConfig) {
+        if (nodeEngine.getProperties().getBoolean(SQL_COLUMNAR_ROW_BATCHES_ENABLED)) {
+            jobConfig.setArgument(KEY_COLUMNAR_ROW_BATCHES_ENABLED, true);
+        }
+    }
+
     private List<Object> prepareArguments(QueryParameterMetadata parameterMetadata, List<Object> arguments) {
         assert arguments != null;
 
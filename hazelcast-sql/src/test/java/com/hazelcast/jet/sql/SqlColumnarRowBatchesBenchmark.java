@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.sql.impl.connector.map.model.Person;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.sql.SqlResult;
+import com.hazelcast.sql.SqlRow;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the end-to-end time of SQL aggregations and of a projection on a
+ * two-member cluster with and without the {@linkplain
+ * ClusterProperty#SQL_COLUMNAR_ROW_BATCHES_ENABLED columnar row batches}.
+ * <p>
+ * The aggregations are done in two stages, so the rows with the partial
+ * accumulators are sent over the network between the members.
+ * <p>
+ * This is no JUnit test.
+ */
+public class SqlColumnarRowBatchesBenchmark {
+
+    private static final int ITEM_COUNT = 2_000_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final String MAP_NAME = "people";
+    private static final String[] QUERIES = {
+            "SELECT name, COUNT(*), SUM(id) FROM " + MAP_NAME + " GROUP BY name",
+            "SELECT id % 100000, COUNT(*), MAX(id) FROM " + MAP_NAME + " GROUP BY id % 100000",
+            "SELECT id, name FROM " + MAP_NAME + " WHERE id % 2 = 0",
+    };
+
+    public static void main(String[] args) {
+        run(false);
+        run(true);
+    }
+
+    private static void run(boolean columnarRowBatches) {
+        Config config = new Config();
+        config.setClusterName("columnar-row-batches-" + columnarRowBatches);
+        config.getJetConfig().setEnabled(true);
+        config.setProperty(ClusterProperty.SQL_COLUMNAR_ROW_BATCHES_ENABLED.getName(), Boolean.toString(columnarRowBatches));
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        try {
+            hz1.getSql().execute("CREATE MAPPING " + MAP_NAME + " TYPE IMap OPTIONS ("
+                    + "'keyFormat'='int', 'valueFormat'='java', 'valueJavaClass'='" + Person.class.getName() + "')");
+            IMap<Integer, Person> map = hz1.getMap(MAP_NAME);
+            Map<Integer, Person> batch = new HashMap<>();
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                batch.put(i, new Person(i, "name-" + i % 1000));
+                if (batch.size() == 10_000) {
+                    map.putAll(batch);
+                    batch.clear();
+                }
+            }
+            map.putAll(batch);
+
+            for (String query : QUERIES) {
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    execute(hz1, query);
+                }
+                long start = System.nanoTime();
+                long rows = 0;
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    rows = execute(hz1, query);
+                }
+                double avgMillis = (System.nanoTime() - start) / 1e6 / MEASURED_ITERATIONS;
+                System.out.printf("columnarRowBatches=%s: %.1f ms per query, %,d rows: %s%n",
+                        columnarRowBatches, avgMillis, rows, query);
+            }
+        } finally {
+            hz2.shutdown();
+            hz1.shutdown();
+        }
+    }
+
+    private static long execute(HazelcastInstance hz, String query) {
+        long rows = 0;
+        try (SqlResult result = hz.getSql().execute(query)) {
+            for (SqlRow ignored : result) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
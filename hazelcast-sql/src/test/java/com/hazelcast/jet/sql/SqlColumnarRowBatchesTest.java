@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.sql.impl.connector.map.model.Person;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SqlColumnarRowBatchesTest extends SqlTestSupport {
+
+    private static final int ITEM_COUNT = 1000;
+    private static final int GROUP_COUNT = 10;
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.SQL_COLUMNAR_ROW_BATCHES_ENABLED.getName(), "true");
+        initialize(2, config);
+    }
+
+    @Test
+    public void test_aggregationAndProjection() {
+        String mapName = randomName();
+        createMapping(mapName, Integer.class, Person.class);
+        IMap<Integer, Person> map = instance().getMap(mapName);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            map.put(i, new Person(i, i % 3 == 0 ? null : "name-" + i % GROUP_COUNT));
+        }
+
+        List<Row> expectedGroups = new ArrayList<>();
+        long[] counts = new long[GROUP_COUNT];
+        long[] sums = new long[GROUP_COUNT];
+        long nullCount = 0;
+        long nullSum = 0;
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            if (i % 3 == 0) {
+                nullCount++;
+                nullSum += i;
+            } else {
+                counts[i % GROUP_COUNT]++;
+                sums[i % GROUP_COUNT] += i;
+            }
+        }
+        for (int g = 0; g < GROUP_COUNT; g++) {
+            expectedGroups.add(new Row("name-" + g, counts[g], sums[g]));
+        }
+        expectedGroups.add(new Row(null, nullCount, nullSum));
+        assertRowsAnyOrder("SELECT name, COUNT(*), SUM(id) FROM " + mapName + " GROUP BY name", expectedGroups);
+
+        List<Row> expectedRows = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            if (i % 2 == 0) {
+                expectedRows.add(new Row(i * 2L, i % 3 == 0 ? null : "name-" + i % GROUP_COUNT));
+            }
+        }
+        assertRowsAnyOrder("SELECT id * 2, name FROM " + mapName + " WHERE id % 2 = 0", expectedRows);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.row;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.core.JetDataSerializerHook;
+import com.hazelcast.sql.impl.CoreSqlTestSupport;
+import com.hazelcast.sql.impl.SqlCustomClass;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class JetSqlRowBatchTest extends CoreSqlTestSupport {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void when_differentFieldCount_then_notAdded() {
+        JetSqlRowBatch batch = new JetSqlRowBatch(ss, 2);
+
+        assertTrue(batch.add(row(1, "a"), 0));
+        assertFalse(batch.add(row(1), 1));
+        assertEquals(1, batch.size());
+    }
+
+    @Test
+    public void when_full_then_notAdded() {
+        JetSqlRowBatch batch = new JetSqlRowBatch(ss, 2);
+
+        assertTrue(batch.add(row(1), 0));
+        assertTrue(batch.add(row(2), 1));
+        assertFalse(batch.add(row(3), 2));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertTrue(batch.add(row(3), 2));
+    }
+
+    @Test
+    public void testSerialization() {
+        // more rows than one word of the null bitmap
+        int rowCount = 100;
+        JetSqlRowBatch original = new JetSqlRowBatch(ss, rowCount);
+        Data serializedValue = ss.toData("serialized");
+        for (int i = 0; i < rowCount; i++) {
+            original.add(row(
+                    i % 7 == 0 ? null : i,
+                    (long) i,
+                    i / 2d,
+                    "value-" + i,
+                    i % 2 == 0,
+                    new SqlCustomClass(i),
+                    i % 2 == 0 ? i : "mixed-" + i,
+                    i % 3 == 0 ? serializedValue : "deserialized",
+                    null,
+                    BigDecimal.valueOf(i)
+            ), i * 10);
+        }
+
+        JetSqlRowBatch restored = serializeAndCheck(original, JetDataSerializerHook.FACTORY_ID,
+                JetDataSerializerHook.JET_SQL_ROW_BATCH);
+
+        assertEquals(rowCount, restored.size());
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(i * 10, restored.partitionId(i));
+            assertEquals(original.row(i), restored.row(i));
+            assertEquals(i % 7 == 0 ? null : i, restored.row(i).get(0));
+            assertEquals(new SqlCustomClass(i), restored.row(i).get(5));
+            assertNull(restored.row(i).get(8));
+        }
+    }
+
+    @Test
+    public void testSerialization_empty() {
+        JetSqlRowBatch restored = serializeAndCheck(new JetSqlRowBatch(ss, 1), JetDataSerializerHook.FACTORY_ID,
+                JetDataSerializerHook.JET_SQL_ROW_BATCH);
+
+        assertEquals(0, restored.size());
+    }
+
+    private JetSqlRow row(Object... values) {
+        return new JetSqlRow(ss, values);
+    }
+}
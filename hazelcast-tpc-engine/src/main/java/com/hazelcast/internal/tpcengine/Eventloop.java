@@ -16,6 +16,9 @@
 
 package com.hazelcast.internal.tpcengine;
 
+import com.hazelcast.internal.tpcengine.file.AsyncFile;
+import com.hazelcast.internal.tpcengine.file.BlockingAsyncFile;
+import com.hazelcast.internal.tpcengine.file.BlockingIOPool;
 import com.hazelcast.internal.tpcengine.logging.TpcLogger;
 import com.hazelcast.internal.tpcengine.logging.TpcLoggerLocator;
 import com.hazelcast.internal.tpcengine.util.BoundPriorityQueue;
@@ -60,6 +63,7 @@ public abstract class Eventloop {
 
     protected long earliestDeadlineNanos = -1;
     protected boolean stop;
+    protected BlockingIOPool blockingIOPool;
 
     protected Eventloop(Reactor reactor, ReactorBuilder builder) {
         this.reactor = reactor;
@@ -95,6 +99,45 @@ public abstract class Eventloop {
      */
     @SuppressWarnings("java:S112")
     protected void destroy() throws Exception {
+        if (blockingIOPool != null) {
+            blockingIOPool.shutdown();
+        }
+    }
+
+    /**
+     * Creates a new {@link Promise}. The promise is taken from the promise pool of
+     * this Eventloop.
+     * <p/>
+     * Should only be called from the eventloop thread.
+     *
+     * @param <E> the type of the value of the promise.
+     * @return the created Promise.
+     */
+    @SuppressWarnings("unchecked")
+    public final <E> Promise<E> newPromise() {
+        return promiseAllocator.allocate();
+    }
+
+    /**
+     * Creates a new {@link AsyncFile} for the given path. The file is not opened.
+     * <p/>
+     * The default implementation offloads the blocking file I/O to a bounded
+     * {@link BlockingIOPool} that is created on demand.
+     * <p/>
+     * Should only be called from the eventloop thread.
+     *
+     * @param path the path to the file.
+     * @return the created AsyncFile.
+     * @throws NullPointerException if path is <code>null</code>.
+     */
+    public AsyncFile newAsyncFile(String path) {
+        checkNotNull(path, "path");
+
+        if (blockingIOPool == null) {
+            blockingIOPool = new BlockingIOPool(reactor.name(),
+                    builder.blockingIOThreadCount, builder.blockingIOQueueCapacity);
+        }
+        return new BlockingAsyncFile(path, this, reactor, blockingIOPool);
     }
 
     protected final boolean runScheduledTasks() {
@@ -38,6 +38,8 @@ public abstract class ReactorBuilder {
     public static final String NAME_CLOCK_REFRESH_PERIOD = "hazelcast.tpc.clock.refreshPeriod";
     public static final String NAME_REACTOR_SPIN = "hazelcast.tpc.reactor.spin";
     public static final String NAME_REACTOR_AFFINITY = "hazelcast.tpc.reactor.affinity";
+    public static final String NAME_BLOCKING_IO_THREAD_COUNT = "hazelcast.tpc.blockingio.threadCount";
+    public static final String NAME_BLOCKING_IO_QUEUE_CAPACITY = "hazelcast.tpc.blockingio.queue.capacity";
 
     private static final int DEFAULT_LOCAL_TASK_QUEUE_CAPACITY = 65536;
     private static final int DEFAULT_EXTERNAL_TASK_QUEUE_CAPACITY = 65536;
@@ -45,6 +47,8 @@ public abstract class ReactorBuilder {
     private static final int DEFAULT_BATCH_SIZE = 64;
     private static final int DEFAULT_CLOCK_REFRESH_INTERVAL = 16;
     private static final boolean DEFAULT_SPIN = false;
+    private static final int DEFAULT_BLOCKING_IO_THREAD_COUNT = 4;
+    private static final int DEFAULT_BLOCKING_IO_QUEUE_CAPACITY = 4096;
 
     protected final ReactorType type;
     Supplier<Scheduler> schedulerSupplier = NopScheduler::new;
@@ -67,6 +71,8 @@ public abstract class ReactorBuilder {
     int scheduledTaskQueueCapacity;
     int batchSize;
     int clockRefreshPeriod;
+    int blockingIOThreadCount;
+    int blockingIOQueueCapacity;
     TpcEngine engine;
 
     protected ReactorBuilder(ReactorType type) {
@@ -80,6 +86,10 @@ public abstract class ReactorBuilder {
         this.batchSize = Integer.getInteger(NAME_BATCH_SIZE, DEFAULT_BATCH_SIZE);
         this.clockRefreshPeriod = Integer.getInteger(NAME_CLOCK_REFRESH_PERIOD, DEFAULT_CLOCK_REFRESH_INTERVAL);
         this.spin = Boolean.parseBoolean(getProperty(NAME_REACTOR_SPIN, Boolean.toString(DEFAULT_SPIN)));
+        this.blockingIOThreadCount = Integer.getInteger(
+                NAME_BLOCKING_IO_THREAD_COUNT, DEFAULT_BLOCKING_IO_THREAD_COUNT);
+        this.blockingIOQueueCapacity = Integer.getInteger(
+                NAME_BLOCKING_IO_QUEUE_CAPACITY, DEFAULT_BLOCKING_IO_QUEUE_CAPACITY);
     }
 
     /**
@@ -196,6 +206,28 @@ public abstract class ReactorBuilder {
         this.scheduledTaskQueueCapacity = checkPositive(scheduledTaskQueueCapacity, "scheduledTaskQueueCapacity");
     }
 
+    /**
+     * Sets the number of threads that run blocking I/O calls (e.g. file access) on
+     * behalf of the eventloop. The threads are only created when needed.
+     *
+     * @param blockingIOThreadCount the number of threads.
+     * @throws IllegalArgumentException if blockingIOThreadCount not positive.
+     */
+    public void setBlockingIOThreadCount(int blockingIOThreadCount) {
+        this.blockingIOThreadCount = checkPositive(blockingIOThreadCount, "blockingIOThreadCount");
+    }
+
+    /**
+     * Sets the maximum number of blocking I/O calls that can be pending. When this
+     * limit is reached, new calls are rejected instead of blocking the eventloop.
+     *
+     * @param blockingIOQueueCapacity the capacity
+     * @throws IllegalArgumentException if blockingIOQueueCapacity not positive.
+     */
+    public void setBlockingIOQueueCapacity(int blockingIOQueueCapacity) {
+        this.blockingIOQueueCapacity = checkPositive(blockingIOQueueCapacity, "blockingIOQueueCapacity");
+    }
+
     // In the future we want to have better policies than only spinning.
     // See BackoffIdleStrategy
     public final void setSpin(boolean spin) {
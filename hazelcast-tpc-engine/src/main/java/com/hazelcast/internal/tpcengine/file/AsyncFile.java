@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import com.hazelcast.internal.tpcengine.Eventloop;
+import com.hazelcast.internal.tpcengine.Promise;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkNotNull;
+
+/**
+ * A File that can be accessed asynchronously from the {@link Eventloop}. All I/O
+ * operations return a {@link Promise} that is completed on the eventloop thread, so
+ * the eventloop thread is never blocked on disk access.
+ * <p/>
+ * This class is not thread-safe and should only be used from the eventloop thread
+ * of the {@link Eventloop} that created it. An AsyncFile is created using
+ * {@link Eventloop#newAsyncFile(String)}.
+ * <p/>
+ * The {@link IOBuffer} passed to {@link #pread(long, int, IOBuffer)} or
+ * {@link #pwrite(long, int, IOBuffer)} should not be touched until the returned
+ * Promise has completed.
+ * <p/>
+ * The open flags are modelled after the Linux open flags so that in the future an
+ * io_uring based implementation can pass them directly to the kernel.
+ */
+public abstract class AsyncFile {
+
+    public static final int O_RDONLY = 0x0;
+    public static final int O_WRONLY = 0x1;
+    public static final int O_RDWR = 0x2;
+    public static final int O_CREAT = 0x40;
+    public static final int O_TRUNC = 0x200;
+    public static final int O_DSYNC = 0x1000;
+    public static final int O_SYNC = 0x101000;
+
+    protected final AsyncFileMetrics metrics = new AsyncFileMetrics();
+    protected final String path;
+
+    protected AsyncFile(String path) {
+        this.path = checkNotNull(path, "path");
+    }
+
+    /**
+     * Returns the path to the file.
+     *
+     * @return the path to the file.
+     */
+    public final String path() {
+        return path;
+    }
+
+    /**
+     * Returns the {@link AsyncFileMetrics} of this AsyncFile.
+     * <p/>
+     * This method is thread-safe.
+     *
+     * @return the metrics.
+     */
+    public final AsyncFileMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Opens the file.
+     *
+     * @param flags the open flags, e.g. <code>O_RDWR | O_CREAT</code>.
+     * @return a Promise that completes when the file has been opened.
+     * @throws IllegalStateException if the file already is open.
+     */
+    public abstract Promise<Integer> open(int flags);
+
+    /**
+     * Closes the file. If the file isn't open, the call is ignored.
+     *
+     * @return a Promise that completes when the file has been closed.
+     */
+    public abstract Promise<Integer> close();
+
+    /**
+     * Deletes the file. If the file doesn't exist, the call is ignored.
+     *
+     * @return a Promise that completes when the file has been deleted.
+     */
+    public abstract Promise<Integer> delete();
+
+    /**
+     * Reads up to <code>length</code> bytes from the file starting at <code>offset</code>
+     * into the dst {@link IOBuffer}. The bytes are written to the dst starting at its
+     * current position; the dst will grow if needed.
+     * <p/>
+     * The returned Promise completes with the number of bytes read or -1 if offset is
+     * beyond the end of the file.
+     *
+     * @param offset the offset in the file to read from.
+     * @param length the maximum number of bytes to read.
+     * @param dst    the IOBuffer to read into.
+     * @return the Promise with the number of bytes read.
+     * @throws NullPointerException     if dst is <code>null</code>.
+     * @throws IllegalArgumentException if offset or length is negative.
+     */
+    public abstract Promise<Integer> pread(long offset, int length, IOBuffer dst);
+
+    /**
+     * Writes <code>length</code> bytes from the src {@link IOBuffer} starting at its
+     * current position to the file at the given <code>offset</code>.
+     * <p/>
+     * The returned Promise completes with the number of bytes written.
+     *
+     * @param offset the offset in the file to write to.
+     * @param length the number of bytes to write.
+     * @param src    the IOBuffer to write from.
+     * @return the Promise with the number of bytes written.
+     * @throws NullPointerException     if src is <code>null</code>.
+     * @throws IllegalArgumentException if offset or length is negative or if length is
+     *                                  larger than the remaining bytes in src.
+     */
+    public abstract Promise<Integer> pwrite(long offset, int length, IOBuffer src);
+
+    /**
+     * Flushes the content and the metadata of the file to the storage device.
+     *
+     * @return a Promise that completes when the data has been flushed.
+     */
+    public abstract Promise<Integer> fsync();
+
+    /**
+     * Flushes the content of the file to the storage device, but unlike {@link #fsync()}
+     * the metadata isn't flushed unless it is needed to read the content back.
+     *
+     * @return a Promise that completes when the data has been flushed.
+     */
+    public abstract Promise<Integer> fdatasync();
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + path + "]";
+    }
+}
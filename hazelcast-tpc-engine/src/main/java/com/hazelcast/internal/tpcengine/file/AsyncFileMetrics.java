@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Contains the metrics for an {@link AsyncFile}.
+ * <p/>
+ * The metrics are only updated by the eventloop thread, but can be read by any thread.
+ */
+public class AsyncFileMetrics {
+
+    private static final VarHandle READS;
+    private static final VarHandle WRITES;
+    private static final VarHandle SYNCS;
+    private static final VarHandle BYTES_READ;
+    private static final VarHandle BYTES_WRITTEN;
+
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            READS = l.findVarHandle(AsyncFileMetrics.class, "reads", long.class);
+            WRITES = l.findVarHandle(AsyncFileMetrics.class, "writes", long.class);
+            SYNCS = l.findVarHandle(AsyncFileMetrics.class, "syncs", long.class);
+            BYTES_READ = l.findVarHandle(AsyncFileMetrics.class, "bytesRead", long.class);
+            BYTES_WRITTEN = l.findVarHandle(AsyncFileMetrics.class, "bytesWritten", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long reads;
+    private volatile long writes;
+    private volatile long syncs;
+    private volatile long bytesRead;
+    private volatile long bytesWritten;
+
+    /**
+     * Returns the number of completed read operations.
+     *
+     * @return the number of reads.
+     */
+    public long reads() {
+        return (long) READS.getOpaque(this);
+    }
+
+    /**
+     * Increases the number of reads by 1.
+     */
+    public void incReads() {
+        READS.setOpaque(this, (long) READS.getOpaque(this) + 1);
+    }
+
+    /**
+     * Returns the number of completed write operations.
+     *
+     * @return the number of writes.
+     */
+    public long writes() {
+        return (long) WRITES.getOpaque(this);
+    }
+
+    /**
+     * Increases the number of writes by 1.
+     */
+    public void incWrites() {
+        WRITES.setOpaque(this, (long) WRITES.getOpaque(this) + 1);
+    }
+
+    /**
+     * Returns the number of completed fsync/fdatasync operations.
+     *
+     * @return the number of syncs.
+     */
+    public long syncs() {
+        return (long) SYNCS.getOpaque(this);
+    }
+
+    /**
+     * Increases the number of syncs by 1.
+     */
+    public void incSyncs() {
+        SYNCS.setOpaque(this, (long) SYNCS.getOpaque(this) + 1);
+    }
+
+    /**
+     * Returns bytes read.
+     *
+     * @return bytes read.
+     */
+    public long bytesRead() {
+        return (long) BYTES_READ.getOpaque(this);
+    }
+
+    /**
+     * Increases the bytes read.
+     *
+     * @param delta the amount to increase.
+     */
+    public void incBytesRead(long delta) {
+        BYTES_READ.setOpaque(this, (long) BYTES_READ.getOpaque(this) + delta);
+    }
+
+    /**
+     * Returns the bytes written.
+     *
+     * @return the bytes written.
+     */
+    public long bytesWritten() {
+        return (long) BYTES_WRITTEN.getOpaque(this);
+    }
+
+    /**
+     * Increases the bytes written.
+     *
+     * @param delta the amount to increase.
+     */
+    public void incBytesWritten(long delta) {
+        BYTES_WRITTEN.setOpaque(this, (long) BYTES_WRITTEN.getOpaque(this) + delta);
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import com.hazelcast.internal.tpcengine.Eventloop;
+import com.hazelcast.internal.tpcengine.Promise;
+import com.hazelcast.internal.tpcengine.Reactor;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+import com.hazelcast.internal.tpcengine.logging.TpcLogger;
+import com.hazelcast.internal.tpcengine.logging.TpcLoggerLocator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.tpcengine.Reactor.State.RUNNING;
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkNotNegative;
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkNotNull;
+
+/**
+ * An {@link AsyncFile} that offloads the blocking {@link FileChannel} calls to a
+ * {@link BlockingIOPool}. Once the call completes, the result is handed back to the
+ * {@link Reactor} so that the {@link Promise} is completed on the eventloop thread.
+ * <p/>
+ * This implementation works on every platform and is the default for every
+ * {@link Eventloop}. Eventloops with native support for asynchronous file I/O (e.g.
+ * io_uring) can provide their own {@link AsyncFile}.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class BlockingAsyncFile extends AsyncFile {
+
+    private static final long COMPLETION_BACKOFF_NANOS = 10_000;
+
+    private final TpcLogger logger = TpcLoggerLocator.getLogger(getClass());
+    private final Eventloop eventloop;
+    private final Reactor reactor;
+    private final BlockingIOPool pool;
+    private FileChannel channel;
+
+    /**
+     * Creates a new BlockingAsyncFile.
+     *
+     * @param path      the path to the file.
+     * @param eventloop the Eventloop that owns this AsyncFile.
+     * @param reactor   the Reactor of the eventloop.
+     * @param pool      the BlockingIOPool to offload the blocking calls to.
+     * @throws NullPointerException if any of the arguments is <code>null</code>.
+     */
+    public BlockingAsyncFile(String path, Eventloop eventloop, Reactor reactor, BlockingIOPool pool) {
+        super(path);
+        this.eventloop = checkNotNull(eventloop, "eventloop");
+        this.reactor = checkNotNull(reactor, "reactor");
+        this.pool = checkNotNull(pool, "pool");
+    }
+
+    @Override
+    public Promise<Integer> open(int flags) {
+        if (channel != null) {
+            throw new IllegalStateException(this + " is already open");
+        }
+
+        Set<OpenOption> options = toOpenOptions(flags);
+        return submit(new IOTask(eventloop.newPromise()) {
+            private FileChannel openedChannel;
+
+            @Override
+            int execute() throws IOException {
+                openedChannel = FileChannel.open(Paths.get(path), options);
+                return 0;
+            }
+
+            @Override
+            void onSuccess(int result) {
+                channel = openedChannel;
+            }
+        });
+    }
+
+    @Override
+    public Promise<Integer> close() {
+        FileChannel channel0 = channel;
+        // the channel is cleared immediately so that no new operations can be
+        // submitted; operations already in flight still have their own reference.
+        channel = null;
+        return submit(new IOTask(eventloop.newPromise()) {
+            @Override
+            int execute() throws IOException {
+                if (channel0 != null) {
+                    channel0.close();
+                }
+                return 0;
+            }
+        });
+    }
+
+    @Override
+    public Promise<Integer> delete() {
+        return submit(new IOTask(eventloop.newPromise()) {
+            @Override
+            int execute() throws IOException {
+                Files.deleteIfExists(Paths.get(path));
+                return 0;
+            }
+        });
+    }
+
+    @Override
+    public Promise<Integer> pread(long offset, int length, IOBuffer dst) {
+        checkNotNegative(offset, "offset");
+        checkNotNegative(length, "length");
+        checkNotNull(dst, "dst");
+
+        Promise<Integer> promise = eventloop.newPromise();
+        FileChannel channel0 = channel;
+        if (channel0 == null) {
+            promise.completeExceptionally(new ClosedChannelException());
+            return promise;
+        }
+
+        // growing the buffer is done on the eventloop thread; the IOBuffer
+        // is not touched by the eventloop while the read is in flight.
+        dst.ensureRemaining(length);
+        return submit(new IOTask(promise) {
+            @Override
+            int execute() throws IOException {
+                ByteBuffer buffer = dst.byteBuffer();
+                int limit = buffer.limit();
+                buffer.limit(buffer.position() + length);
+                try {
+                    int total = 0;
+                    while (buffer.hasRemaining()) {
+                        int read = channel0.read(buffer, offset + total);
+                        if (read == -1) {
+                            return total == 0 ? -1 : total;
+                        }
+                        total += read;
+                    }
+                    return total;
+                } finally {
+                    buffer.limit(limit);
+                }
+            }
+
+            @Override
+            void onSuccess(int result) {
+                metrics.incReads();
+                if (result > 0) {
+                    metrics.incBytesRead(result);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Promise<Integer> pwrite(long offset, int length, IOBuffer src) {
+        checkNotNegative(offset, "offset");
+        checkNotNegative(length, "length");
+        checkNotNull(src, "src");
+        if (length > src.remaining()) {
+            throw new IllegalArgumentException("length " + length
+                    + " is larger than the remaining bytes " + src.remaining() + " in src");
+        }
+
+        Promise<Integer> promise = eventloop.newPromise();
+        FileChannel channel0 = channel;
+        if (channel0 == null) {
+            promise.completeExceptionally(new ClosedChannelException());
+            return promise;
+        }
+
+        return submit(new IOTask(promise) {
+            @Override
+            int execute() throws IOException {
+                ByteBuffer buffer = src.byteBuffer();
+                int limit = buffer.limit();
+                buffer.limit(buffer.position() + length);
+                try {
+                    int total = 0;
+                    while (buffer.hasRemaining()) {
+                        total += channel0.write(buffer, offset + total);
+                    }
+                    return total;
+                } finally {
+                    buffer.limit(limit);
+                }
+            }
+
+            @Override
+            void onSuccess(int result) {
+                metrics.incWrites();
+                metrics.incBytesWritten(result);
+            }
+        });
+    }
+
+    @Override
+    public Promise<Integer> fsync() {
+        return sync(true);
+    }
+
+    @Override
+    public Promise<Integer> fdatasync() {
+        return sync(false);
+    }
+
+    private Promise<Integer> sync(boolean metadata) {
+        Promise<Integer> promise = eventloop.newPromise();
+        FileChannel channel0 = channel;
+        if (channel0 == null) {
+            promise.completeExceptionally(new ClosedChannelException());
+            return promise;
+        }
+
+        return submit(new IOTask(promise) {
+            @Override
+            int execute() throws IOException {
+                channel0.force(metadata);
+                return 0;
+            }
+
+            @Override
+            void onSuccess(int result) {
+                metrics.incSyncs();
+            }
+        });
+    }
+
+    private Promise<Integer> submit(IOTask task) {
+        if (!pool.offer(task)) {
+            task.promise.completeExceptionally(
+                    new RejectedExecutionException("BlockingIOPool of " + reactor + " is saturated"));
+        }
+        return task.promise;
+    }
+
+    static Set<OpenOption> toOpenOptions(int flags) {
+        Set<OpenOption> options = new HashSet<>();
+        switch (flags & (O_WRONLY | O_RDWR)) {
+            case O_RDONLY:
+                options.add(StandardOpenOption.READ);
+                break;
+            case O_WRONLY:
+                options.add(StandardOpenOption.WRITE);
+                break;
+            case O_RDWR:
+                options.add(StandardOpenOption.READ);
+                options.add(StandardOpenOption.WRITE);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid access mode in flags: " + flags);
+        }
+
+        if ((flags & O_CREAT) != 0) {
+            options.add(StandardOpenOption.CREATE);
+        }
+
+        if ((flags & O_TRUNC) != 0) {
+            options.add(StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        if ((flags & O_SYNC) == O_SYNC) {
+            options.add(StandardOpenOption.SYNC);
+        } else if ((flags & O_DSYNC) != 0) {
+            options.add(StandardOpenOption.DSYNC);
+        }
+        return options;
+    }
+
+    /**
+     * A task that first runs the blocking call on a thread of the {@link BlockingIOPool}
+     * and then runs again on the eventloop thread to complete the promise.
+     * <p/>
+     * The hand-off in both directions goes through a concurrent queue, so the fields
+     * are safely published without being volatile.
+     */
+    private abstract class IOTask implements Runnable {
+        final Promise<Integer> promise;
+        private boolean executed;
+        private int result;
+        private Throwable failure;
+
+        IOTask(Promise<Integer> promise) {
+            this.promise = promise;
+        }
+
+        @SuppressWarnings("java:S1181")
+        @Override
+        public void run() {
+            if (executed) {
+                complete();
+                return;
+            }
+
+            try {
+                result = execute();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            executed = true;
+            offerCompletion();
+        }
+
+        /**
+         * Runs the blocking call. Is called from a thread of the {@link BlockingIOPool}.
+         */
+        abstract int execute() throws IOException;
+
+        /**
+         * Is called on the eventloop thread when the blocking call was successful and
+         * before the promise is completed.
+         */
+        void onSuccess(int result) {
+        }
+
+        private void complete() {
+            if (failure == null) {
+                onSuccess(result);
+                promise.complete(result);
+            } else {
+                promise.completeExceptionally(failure);
+            }
+        }
+
+        private void offerCompletion() {
+            // The completion must not be lost because the caller would wait forever. So when
+            // the task queue of the reactor is full, we back off and try again for as long as
+            // the reactor is running.
+            while (!reactor.offer((Runnable) this)) {
+                if (reactor.state() != RUNNING) {
+                    logger.warning("Dropping completion of " + BlockingAsyncFile.this
+                            + " because " + reactor + " isn't running.");
+                    return;
+                }
+                LockSupport.parkNanos(COMPLETION_BACKOFF_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkPositive;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A bounded pool of threads that runs blocking I/O calls on behalf of an eventloop.
+ * <p/>
+ * Both the number of threads and the number of pending tasks are bounded. When the
+ * pool is saturated, {@link #offer(Runnable)} returns <code>false</code> instead of
+ * blocking the caller; the caller is typically the eventloop thread and should
+ * never be blocked.
+ * <p/>
+ * This class is thread-safe.
+ */
+public final class BlockingIOPool {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a new BlockingIOPool.
+     *
+     * @param name          the name used as prefix for the names of the threads.
+     * @param threadCount   the number of threads.
+     * @param queueCapacity the maximum number of pending tasks.
+     * @throws NullPointerException     if name is <code>null</code>.
+     * @throws IllegalArgumentException if threadCount or queueCapacity is not positive.
+     */
+    public BlockingIOPool(String name, int threadCount, int queueCapacity) {
+        checkNotNull(name, "name");
+        checkPositive(threadCount, "threadCount");
+        checkPositive(queueCapacity, "queueCapacity");
+
+        AtomicInteger threadIdGenerator = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0, SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, name + "-blockingio-" + threadIdGenerator.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Offers a task to this pool.
+     *
+     * @param task the task to run.
+     * @return <code>true</code> if the task was accepted, <code>false</code> if the pool
+     * is saturated or has been shut down.
+     * @throws NullPointerException if task is <code>null</code>.
+     */
+    public boolean offer(Runnable task) {
+        checkNotNull(task, "task");
+
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to be processed.
+     *
+     * @return the number of pending tasks.
+     */
+    public int pending() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Shuts down this pool. Already submitted tasks are still processed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Awaits the termination of this pool.
+     *
+     * @param timeout the timeout
+     * @param unit    the TimeUnit of the timeout.
+     * @return <code>true</code> if the pool has terminated.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -62,6 +62,8 @@ public class IOBuffer {
     boolean trackRelease;
     IOBufferAllocator allocator;
     boolean concurrent;
+    // only set when leak detection is enabled on the SizeClassIOBufferAllocator.
+    SizeClassIOBufferAllocator.LeakRecord leakRecord;
 
     // make field?
     AtomicInteger refCount = new AtomicInteger();
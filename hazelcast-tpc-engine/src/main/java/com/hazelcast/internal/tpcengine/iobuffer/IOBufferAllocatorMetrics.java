@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.iobuffer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contains the metrics for a {@link IOBufferAllocator}.
+ * <p/>
+ * An allocator can be used by many threads concurrently, so the counters are
+ * striped to prevent contention between the allocating threads.
+ * <p/>
+ * This class is thread-safe.
+ */
+public class IOBufferAllocatorMetrics {
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder bytesAllocated = new LongAdder();
+    private final LongAdder newAllocations = new LongAdder();
+    private final LongAdder frees = new LongAdder();
+    private final LongAdder arenaFrees = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    /**
+     * Returns the number of allocate calls.
+     *
+     * @return the number of allocations.
+     */
+    public long allocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * Returns the total capacity in bytes of the IOBuffers handed out by the allocate calls.
+     *
+     * @return the bytes allocated.
+     */
+    public long bytesAllocated() {
+        return bytesAllocated.sum();
+    }
+
+    /**
+     * Increases the number of allocations by 1 and the bytes allocated by the given capacity.
+     *
+     * @param capacity the capacity of the allocated IOBuffer.
+     */
+    public void incAllocations(int capacity) {
+        allocations.increment();
+        bytesAllocated.add(capacity);
+    }
+
+    /**
+     * Returns the number of allocations that could not be served from the pool and
+     * needed new memory.
+     *
+     * @return the number of new allocations.
+     */
+    public long newAllocations() {
+        return newAllocations.sum();
+    }
+
+    /**
+     * Increases the number of new allocations by 1.
+     */
+    public void incNewAllocations() {
+        newAllocations.increment();
+    }
+
+    /**
+     * Returns the number of IOBuffers returned to the allocator.
+     *
+     * @return the number of frees.
+     */
+    public long frees() {
+        return frees.sum();
+    }
+
+    /**
+     * Increases the number of frees by 1.
+     */
+    public void incFrees() {
+        frees.increment();
+    }
+
+    /**
+     * Returns the number of frees that could not be kept by the freeing thread and were
+     * handed to the shared arena. This is typically caused by IOBuffers being freed by
+     * a different thread than the one that allocated them.
+     *
+     * @return the number of arena frees.
+     */
+    public long arenaFrees() {
+        return arenaFrees.sum();
+    }
+
+    /**
+     * Increases the number of arena frees by 1.
+     */
+    public void incArenaFrees() {
+        arenaFrees.increment();
+    }
+
+    /**
+     * Returns the number of IOBuffers that were garbage collected without being released.
+     * Only tracked when leak detection is enabled.
+     *
+     * @return the number of leaks.
+     */
+    public long leaks() {
+        return leaks.sum();
+    }
+
+    /**
+     * Increases the number of leaks by 1.
+     */
+    public void incLeaks() {
+        leaks.increment();
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.iobuffer;
+
+import com.hazelcast.internal.tpcengine.logging.TpcLogger;
+import com.hazelcast.internal.tpcengine.logging.TpcLoggerLocator;
+import org.jctools.queues.MpmcArrayQueue;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.tpcengine.util.BitUtil.nextPowerOfTwo;
+import static com.hazelcast.internal.tpcengine.util.Preconditions.checkPositive;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.System.getProperty;
+
+/**
+ * A pooling {@link IOBufferAllocator} that hands out IOBuffers from a set of power of
+ * two size classes.
+ * <p>
+ * Every thread that allocates gets its own cache with a bounded stack of IOBuffers per
+ * size class, so in the common case an allocate or free doesn't need any synchronization.
+ * When the cache of a thread is empty, it is refilled in batches from a shared arena.
+ * When the cache of a thread is full, or the thread never allocated (e.g. a reactor
+ * freeing an IOBuffer that was allocated by an operation thread), the IOBuffer is
+ * handed to the arena so that it can be picked up by the allocating threads. So an
+ * IOBuffer can be freed by a different thread than the one that allocated it.
+ * <p>
+ * Requests larger than the maximum size class are not pooled. An IOBuffer that grew
+ * beyond its size class (see {@link IOBuffer#ensureRemaining(int)}) is returned to the
+ * size class that matches its new capacity.
+ * <p>
+ * When leak detection is enabled (see {@link #NAME_LEAK_DETECTION}), the allocation site
+ * of every IOBuffer is recorded and an IOBuffer that is garbage collected without being
+ * released is logged. This is expensive and should only be used for debugging.
+ * <p>
+ * This class is thread-safe.
+ */
+@SuppressWarnings({"checkstyle:MagicNumber", "java:S5164"})
+public class SizeClassIOBufferAllocator implements IOBufferAllocator {
+
+    public static final String NAME_LEAK_DETECTION = "hazelcast.tpc.iobuffer.leakDetection";
+    public static final boolean DEFAULT_LEAK_DETECTION = false;
+
+    static final int CACHE_CAPACITY = 128;
+    static final int ARENA_CAPACITY = 4096;
+    static final int REFILL_BATCH = 32;
+
+    private static final TpcLogger LOGGER = TpcLoggerLocator.getLogger(SizeClassIOBufferAllocator.class);
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final ThreadLocal<Cache> caches = new ThreadLocal<>();
+    private final IOBufferAllocatorMetrics metrics = new IOBufferAllocatorMetrics();
+    private final MpmcArrayQueue<IOBuffer>[] arena;
+    private final int minSize;
+    private final int maxSize;
+    private final int minShift;
+    private final boolean direct;
+    private final boolean leakDetection;
+
+    /**
+     * Creates a SizeClassIOBufferAllocator with leak detection configured through the
+     * {@link #NAME_LEAK_DETECTION} system property.
+     *
+     * @param minSize the size of the smallest size class. Will be rounded up to the next power of two.
+     * @param maxSize the size of the largest size class. Will be rounded up to the next power of two.
+     * @param direct  if the IOBuffers should be backed by direct ByteBuffers.
+     * @throws IllegalArgumentException if minSize or maxSize is not positive or when maxSize
+     *                                  is smaller than minSize.
+     */
+    public SizeClassIOBufferAllocator(int minSize, int maxSize, boolean direct) {
+        this(minSize, maxSize, direct,
+                Boolean.parseBoolean(getProperty(NAME_LEAK_DETECTION, Boolean.toString(DEFAULT_LEAK_DETECTION))));
+    }
+
+    /**
+     * Creates a SizeClassIOBufferAllocator.
+     *
+     * @param minSize       the size of the smallest size class. Will be rounded up to the next power of two.
+     * @param maxSize       the size of the largest size class. Will be rounded up to the next power of two.
+     * @param direct        if the IOBuffers should be backed by direct ByteBuffers.
+     * @param leakDetection if leak detection should be enabled.
+     * @throws IllegalArgumentException if minSize or maxSize is not positive or when maxSize
+     *                                  is smaller than minSize.
+     */
+    @SuppressWarnings("unchecked")
+    public SizeClassIOBufferAllocator(int minSize, int maxSize, boolean direct, boolean leakDetection) {
+        checkPositive(minSize, "minSize");
+        checkPositive(maxSize, "maxSize");
+        if (maxSize < minSize) {
+            throw new IllegalArgumentException("maxSize " + maxSize + " can't be smaller than minSize " + minSize);
+        }
+
+        this.minSize = nextPowerOfTwo(minSize);
+        this.maxSize = nextPowerOfTwo(maxSize);
+        this.minShift = numberOfTrailingZeros(this.minSize);
+        this.direct = direct;
+        this.leakDetection = leakDetection;
+
+        int sizeClassCount = numberOfTrailingZeros(this.maxSize) - minShift + 1;
+        this.arena = new MpmcArrayQueue[sizeClassCount];
+        for (int k = 0; k < sizeClassCount; k++) {
+            arena[k] = new MpmcArrayQueue<>(ARENA_CAPACITY);
+        }
+    }
+
+    /**
+     * Returns the {@link IOBufferAllocatorMetrics} of this allocator.
+     *
+     * @return the metrics.
+     */
+    public IOBufferAllocatorMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of size classes.
+     *
+     * @return the number of size classes.
+     */
+    public int sizeClassCount() {
+        return arena.length;
+    }
+
+    @Override
+    public IOBuffer allocate() {
+        return allocate(minSize);
+    }
+
+    @Override
+    public IOBuffer allocate(int minSize) {
+        IOBuffer buf;
+        if (minSize > maxSize) {
+            buf = newBuffer(nextPowerOfTwo(minSize));
+        } else {
+            int sizeClass = sizeClass(minSize);
+            Cache cache = caches.get();
+            if (cache == null) {
+                cache = new Cache(arena.length);
+                caches.set(cache);
+            }
+
+            buf = cache.pop(sizeClass);
+            if (buf == null) {
+                buf = cache.refill(sizeClass, arena[sizeClass]);
+                if (buf == null) {
+                    buf = newBuffer(this.minSize << sizeClass);
+                }
+            }
+        }
+
+        if (!buf.refCount.compareAndSet(0, 1)) {
+            throw new IllegalStateException("refCount should be 0, but was: " + buf.refCount());
+        }
+
+        if (leakDetection) {
+            LeakRecord record = new LeakRecord(metrics);
+            record.cleanable = CLEANER.register(buf, record);
+            buf.leakRecord = record;
+        }
+
+        metrics.incAllocations(buf.byteBuffer().capacity());
+        return buf;
+    }
+
+    @Override
+    public void free(IOBuffer buf) {
+        if (buf.refCount.get() != 0) {
+            throw new IllegalStateException("refCount should be 0, but was: " + buf.refCount());
+        }
+
+        LeakRecord record = buf.leakRecord;
+        if (record != null) {
+            buf.leakRecord = null;
+            record.released = true;
+            record.cleanable.clean();
+        }
+
+        metrics.incFrees();
+        buf.clear();
+        buf.next = null;
+
+        ByteBuffer byteBuffer = buf.byteBuffer();
+        int capacity = byteBuffer.capacity();
+        if (capacity > maxSize
+                || capacity < minSize
+                || Integer.bitCount(capacity) != 1
+                || byteBuffer.isDirect() != direct) {
+            // not poolable; the ByteBuffer is left to the GC.
+            return;
+        }
+
+        int sizeClass = sizeClass(capacity);
+        Cache cache = caches.get();
+        if (cache != null && cache.push(sizeClass, buf)) {
+            return;
+        }
+
+        metrics.incArenaFrees();
+        // if the arena is full, the IOBuffer is left to the GC.
+        arena[sizeClass].offer(buf);
+    }
+
+    private int sizeClass(int size) {
+        if (size <= minSize) {
+            return 0;
+        }
+        return numberOfTrailingZeros(nextPowerOfTwo(size)) - minShift;
+    }
+
+    private IOBuffer newBuffer(int capacity) {
+        metrics.incNewAllocations();
+        ByteBuffer byteBuffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        IOBuffer buf = new IOBuffer(byteBuffer);
+        buf.concurrent = true;
+        buf.allocator = this;
+        return buf;
+    }
+
+    /**
+     * The per thread cache with a stack of IOBuffers for every size class.
+     */
+    private static final class Cache {
+        private final IOBuffer[][] stacks;
+        private final int[] sizes;
+
+        private Cache(int sizeClassCount) {
+            this.stacks = new IOBuffer[sizeClassCount][CACHE_CAPACITY];
+            this.sizes = new int[sizeClassCount];
+        }
+
+        private IOBuffer pop(int sizeClass) {
+            int size = sizes[sizeClass];
+            if (size == 0) {
+                return null;
+            }
+
+            size--;
+            IOBuffer[] stack = stacks[sizeClass];
+            IOBuffer buf = stack[size];
+            stack[size] = null;
+            sizes[sizeClass] = size;
+            return buf;
+        }
+
+        private boolean push(int sizeClass, IOBuffer buf) {
+            int size = sizes[sizeClass];
+            if (size == CACHE_CAPACITY) {
+                return false;
+            }
+
+            stacks[sizeClass][size] = buf;
+            sizes[sizeClass] = size + 1;
+            return true;
+        }
+
+        // Moves a batch of IOBuffers from the arena to the cache and returns one of them.
+        private IOBuffer refill(int sizeClass, MpmcArrayQueue<IOBuffer> queue) {
+            IOBuffer first = queue.poll();
+            if (first == null) {
+                return null;
+            }
+
+            for (int k = 1; k < REFILL_BATCH; k++) {
+                IOBuffer buf = queue.poll();
+                if (buf == null || !push(sizeClass, buf)) {
+                    if (buf != null) {
+                        queue.offer(buf);
+                    }
+                    break;
+                }
+            }
+            return first;
+        }
+    }
+
+    /**
+     * Tracks a single allocation of an IOBuffer when leak detection is enabled.
+     * <p>
+     * The record must not reference the IOBuffer; otherwise the IOBuffer would never
+     * become unreachable.
+     */
+    static final class LeakRecord implements Runnable {
+        private final Throwable allocationSite = new Throwable("IOBuffer allocation site");
+        private final IOBufferAllocatorMetrics metrics;
+        private Cleaner.Cleanable cleanable;
+        private volatile boolean released;
+
+        private LeakRecord(IOBufferAllocatorMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void run() {
+            if (!released) {
+                metrics.incLeaks();
+                LOGGER.warning("IOBuffer was garbage collected without being released.", allocationSite);
+            }
+        }
+    }
+}
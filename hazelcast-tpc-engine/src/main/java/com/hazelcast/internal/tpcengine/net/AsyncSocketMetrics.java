@@ -31,6 +31,7 @@ public class AsyncSocketMetrics {
     private static final VarHandle BYTES_WRITTEN;
     private static final VarHandle WRITE_EVENTS;
     private static final VarHandle READ_EVENTS;
+    private static final VarHandle IOBUFFERS_WRITTEN;
 
     static {
         try {
@@ -39,6 +40,7 @@ public class AsyncSocketMetrics {
             BYTES_WRITTEN = l.findVarHandle(AsyncSocketMetrics.class, "bytesWritten", long.class);
             WRITE_EVENTS = l.findVarHandle(AsyncSocketMetrics.class, "writeEvents", long.class);
             READ_EVENTS = l.findVarHandle(AsyncSocketMetrics.class, "readEvents", long.class);
+            IOBUFFERS_WRITTEN = l.findVarHandle(AsyncSocketMetrics.class, "ioBuffersWritten", long.class);
         } catch (ReflectiveOperationException e) {
             throw new ExceptionInInitializerError(e);
         }
@@ -48,6 +50,7 @@ public class AsyncSocketMetrics {
     private volatile long bytesWritten;
     private volatile long writeEvents;
     private volatile long readEvents;
+    private volatile long ioBuffersWritten;
 
     /**
      * Returns bytes read.
@@ -118,4 +121,26 @@ public class AsyncSocketMetrics {
     public void incReadEvents() {
         READ_EVENTS.setOpaque(this, (long) READ_EVENTS.getOpaque(this) + 1);
     }
+
+    /**
+     * Returns the number of IOBuffers that have been completely written and released.
+     * Every IOBuffer written to the socket is allocated once, so this is the buffer
+     * allocation rate on the write path of the {@link AsyncSocket}. The allocator side
+     * of the picture, e.g. how many of those allocations were served from a pool, is
+     * available through {@link com.hazelcast.internal.tpcengine.iobuffer.IOBufferAllocatorMetrics}.
+     *
+     * @return number of IOBuffers written.
+     */
+    public long ioBuffersWritten() {
+        return (long) IOBUFFERS_WRITTEN.getOpaque(this);
+    }
+
+    /**
+     * Increases the number of IOBuffers written.
+     *
+     * @param delta the amount to increase.
+     */
+    public void incIOBuffersWritten(long delta) {
+        IOBUFFERS_WRITTEN.setOpaque(this, (long) IOBUFFERS_WRITTEN.getOpaque(this) + delta);
+    }
 }
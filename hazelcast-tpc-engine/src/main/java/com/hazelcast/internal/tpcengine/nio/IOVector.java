@@ -75,9 +75,17 @@ public final class IOVector {
         }
     }
 
-    public void compact(long written) {
+    /**
+     * Removes and releases the IOBuffers that have been completely written.
+     *
+     * @param written the number of bytes written.
+     * @return the number of IOBuffers that have been completely written.
+     */
+    public int compact(long written) {
+        int completed;
         if (written == pending) {
             // everything was written
+            completed = length;
             for (int k = 0; k < length; k++) {
                 array[k] = null;
                 bufs[k].release();
@@ -87,6 +95,7 @@ public final class IOVector {
             pending = 0;
         } else {
             // not everything was written
+            completed = 0;
             int toIndex = 0;
             int length0 = this.length;
             for (int k = 0; k < length0; k++) {
@@ -102,6 +111,7 @@ public final class IOVector {
                         toIndex++;
                     }
                 } else {
+                    completed++;
                     this.length--;
                     array[k] = null;
                     bufs[k].release();
@@ -110,5 +120,6 @@ public final class IOVector {
             }
             pending -= written;
         }
+        return completed;
     }
 }
@@ -440,9 +440,10 @@ public final class NioAsyncSocket extends AsyncSocket {
                     ? socketChannel.write(srcs[0])
                     : socketChannel.write(srcs, 0, length);
 
-            ioVector.compact(written);
+            int completed = ioVector.compact(written);
 
             metrics.incBytesWritten(written);
+            metrics.incIOBuffersWritten(completed);
             //System.out.println(NioAsyncSocket.this + " bytes written:" + written);
 
             if (ioVector.isEmpty()) {
@@ -98,7 +98,9 @@ class NioEventloop extends Eventloop {
     }
 
     @Override
-    protected void destroy() {
+    protected void destroy() throws Exception {
+        super.destroy();
+
         for (SelectionKey key : selector.keys()) {
             NioHandler handler = (NioHandler) key.attachment();
 
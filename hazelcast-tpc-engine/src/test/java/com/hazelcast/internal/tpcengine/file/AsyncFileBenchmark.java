@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import com.hazelcast.internal.tpcengine.Eventloop;
+import com.hazelcast.internal.tpcengine.Reactor;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+import com.hazelcast.internal.tpcengine.nio.NioReactorBuilder;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.terminate;
+import static com.hazelcast.internal.tpcengine.file.AsyncFile.O_CREAT;
+import static com.hazelcast.internal.tpcengine.file.AsyncFile.O_RDWR;
+
+/**
+ * Measures the throughput of random 4KB reads and writes through an {@link AsyncFile}
+ * on a single reactor with a configurable number of requests in flight.
+ * <p>
+ * This is no JUnit test.
+ */
+public class AsyncFileBenchmark {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+    private static final long OPERATIONS = 1_000_000;
+    private static final int CONCURRENCY = 64;
+    private static final int BLOCKING_IO_THREADS = 4;
+    private static final boolean WRITE = true;
+    private static final int FSYNC_INTERVAL = 0;
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("asyncfilebenchmark", ".dat");
+        file.deleteOnExit();
+
+        NioReactorBuilder builder = new NioReactorBuilder();
+        builder.setBlockingIOThreadCount(BLOCKING_IO_THREADS);
+        Reactor reactor = builder.build().start();
+
+        CountDownLatch completionLatch = new CountDownLatch(CONCURRENCY);
+        long operationsPerLoop = OPERATIONS / CONCURRENCY;
+        long startMs = System.currentTimeMillis();
+        reactor.execute(() -> {
+            Eventloop eventloop = reactor.eventloop();
+            AsyncFile asyncFile = eventloop.newAsyncFile(file.getAbsolutePath());
+            asyncFile.open(O_RDWR | O_CREAT).then((o, ex) -> {
+                if (ex != null) {
+                    ex.printStackTrace();
+                    System.exit(1);
+                }
+
+                for (int k = 0; k < CONCURRENCY; k++) {
+                    new Loop(asyncFile, operationsPerLoop, completionLatch).next();
+                }
+            });
+        });
+
+        completionLatch.await();
+        long durationMs = System.currentTimeMillis() - startMs;
+        long operations = operationsPerLoop * CONCURRENCY;
+        System.out.println("Duration " + durationMs + " ms");
+        System.out.println("Throughput " + (operations * 1000f / durationMs) + " ops/s");
+        System.out.println("Bandwidth " + (operations * BLOCK_SIZE * 1000f / (durationMs * 1024 * 1024)) + " MB/s");
+
+        terminate(reactor);
+        file.delete();
+    }
+
+    private static final class Loop {
+        private final AsyncFile asyncFile;
+        private final IOBuffer buffer = new IOBuffer(BLOCK_SIZE, true);
+        private final CountDownLatch completionLatch;
+        private long remaining;
+
+        private Loop(AsyncFile asyncFile, long operations, CountDownLatch completionLatch) {
+            this.asyncFile = asyncFile;
+            this.remaining = operations;
+            this.completionLatch = completionLatch;
+        }
+
+        private void next() {
+            if (remaining == 0) {
+                completionLatch.countDown();
+                return;
+            }
+            remaining--;
+
+            long offset = ThreadLocalRandom.current().nextLong(FILE_SIZE / BLOCK_SIZE) * BLOCK_SIZE;
+            buffer.clear();
+            if (WRITE) {
+                buffer.position(BLOCK_SIZE);
+                buffer.flip();
+                asyncFile.pwrite(offset, BLOCK_SIZE, buffer).then((o, ex) -> afterWrite(ex));
+            } else {
+                asyncFile.pread(offset, BLOCK_SIZE, buffer).then((o, ex) -> onComplete(ex));
+            }
+        }
+
+        private void afterWrite(Object ex) {
+            if (ex == null && FSYNC_INTERVAL > 0 && remaining % FSYNC_INTERVAL == 0) {
+                asyncFile.fdatasync().then((o, ex2) -> onComplete(ex2));
+            } else {
+                onComplete(ex);
+            }
+        }
+
+        private void onComplete(Object ex) {
+            if (ex != null) {
+                ((Throwable) ex).printStackTrace();
+                System.exit(1);
+            }
+            next();
+        }
+    }
+}
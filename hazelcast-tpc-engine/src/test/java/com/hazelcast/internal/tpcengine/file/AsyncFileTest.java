@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import com.hazelcast.internal.tpcengine.Promise;
+import com.hazelcast.internal.tpcengine.Reactor;
+import com.hazelcast.internal.tpcengine.ReactorBuilder;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.ASSERT_TRUE_EVENTUALLY_TIMEOUT;
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.assertInstanceOf;
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.terminate;
+import static com.hazelcast.internal.tpcengine.file.AsyncFile.O_CREAT;
+import static com.hazelcast.internal.tpcengine.file.AsyncFile.O_RDONLY;
+import static com.hazelcast.internal.tpcengine.file.AsyncFile.O_RDWR;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public abstract class AsyncFileTest {
+
+    private Reactor reactor;
+    private File file;
+
+    public abstract ReactorBuilder newReactorBuilder();
+
+    @Before
+    public void before() throws IOException {
+        reactor = newReactorBuilder().build().start();
+        file = File.createTempFile("asyncfile", ".dat");
+        file.deleteOnExit();
+    }
+
+    @After
+    public void after() {
+        terminate(reactor);
+        file.delete();
+    }
+
+    @Test
+    public void test_writeThenRead() throws Exception {
+        AsyncFile asyncFile = execute(reactor -> reactor.eventloop().newAsyncFile(file.getAbsolutePath()));
+
+        await(() -> asyncFile.open(O_RDWR | O_CREAT));
+
+        IOBuffer src = new IOBuffer(64);
+        for (int k = 0; k < 100; k++) {
+            src.writeInt(k);
+        }
+        src.flip();
+        assertEquals(Integer.valueOf(400), await(() -> asyncFile.pwrite(0, 400, src)));
+        await(asyncFile::fsync);
+
+        IOBuffer dst = new IOBuffer(16);
+        assertEquals(Integer.valueOf(400), await(() -> asyncFile.pread(0, 400, dst)));
+        dst.flip();
+        for (int k = 0; k < 100; k++) {
+            assertEquals(k, dst.readInt());
+        }
+
+        await(asyncFile::close);
+
+        AsyncFileMetrics metrics = asyncFile.metrics();
+        assertEquals(1, metrics.writes());
+        assertEquals(400, metrics.bytesWritten());
+        assertEquals(1, metrics.reads());
+        assertEquals(400, metrics.bytesRead());
+        assertEquals(1, metrics.syncs());
+    }
+
+    @Test
+    public void test_pread_beyondEndOfFile() throws Exception {
+        AsyncFile asyncFile = execute(reactor -> reactor.eventloop().newAsyncFile(file.getAbsolutePath()));
+
+        await(() -> asyncFile.open(O_RDONLY));
+
+        IOBuffer dst = new IOBuffer(16);
+        assertEquals(Integer.valueOf(-1), await(() -> asyncFile.pread(1024, 16, dst)));
+
+        await(asyncFile::close);
+    }
+
+    @Test
+    public void test_pread_whenNotOpen() throws Exception {
+        AsyncFile asyncFile = execute(reactor -> reactor.eventloop().newAsyncFile(file.getAbsolutePath()));
+
+        IOBuffer dst = new IOBuffer(16);
+        try {
+            await(() -> asyncFile.pread(0, 16, dst));
+            fail();
+        } catch (ExecutionException e) {
+            assertInstanceOf(ClosedChannelException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void test_open_whenFileDoesNotExist() throws Exception {
+        AsyncFile asyncFile = execute(reactor -> reactor.eventloop().newAsyncFile(file.getAbsolutePath() + ".missing"));
+
+        try {
+            await(() -> asyncFile.open(O_RDWR));
+            fail();
+        } catch (ExecutionException e) {
+            assertInstanceOf(IOException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void test_delete() throws Exception {
+        AsyncFile asyncFile = execute(reactor -> reactor.eventloop().newAsyncFile(file.getAbsolutePath()));
+        assertTrue(file.exists());
+
+        await(asyncFile::delete);
+
+        assertFalse(file.exists());
+    }
+
+    private <E> E execute(Function<Reactor, E> function) throws Exception {
+        CompletableFuture<E> future = new CompletableFuture<>();
+        reactor.execute(() -> future.complete(function.apply(reactor)));
+        return future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+    }
+
+    private <E> E await(PromiseSupplier<E> supplier) throws Exception {
+        CompletableFuture<E> future = new CompletableFuture<>();
+        reactor.execute(() -> supplier.get().then((value, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally((Throwable) throwable);
+            } else {
+                future.complete(value);
+            }
+        }));
+        return future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+    }
+
+    private interface PromiseSupplier<E> {
+        Promise<E> get();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.file;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.assertOpenEventually;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockingIOPoolTest {
+
+    private BlockingIOPool pool;
+
+    @After
+    public void after() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdown();
+            pool.awaitTermination(30, SECONDS);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_construction_whenNullName() {
+        new BlockingIOPool(null, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construction_whenZeroThreads() {
+        new BlockingIOPool("pool", 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construction_whenZeroQueueCapacity() {
+        new BlockingIOPool("pool", 1, 0);
+    }
+
+    @Test
+    public void test_offer() {
+        pool = new BlockingIOPool("pool", 1, 1);
+        CountDownLatch executed = new CountDownLatch(1);
+
+        assertTrue(pool.offer(executed::countDown));
+
+        assertOpenEventually(executed);
+    }
+
+    @Test
+    public void test_offer_whenSaturated() throws InterruptedException {
+        pool = new BlockingIOPool("pool", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // occupies the only thread.
+        assertTrue(pool.offer(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertOpenEventually(started);
+        // occupies the only queue slot.
+        assertTrue(pool.offer(() -> {
+        }));
+
+        assertFalse(pool.offer(() -> {
+        }));
+        release.countDown();
+    }
+
+    @Test
+    public void test_offer_whenShutdown() {
+        pool = new BlockingIOPool("pool", 1, 1);
+        pool.shutdown();
+
+        assertFalse(pool.offer(() -> {
+        }));
+    }
+}
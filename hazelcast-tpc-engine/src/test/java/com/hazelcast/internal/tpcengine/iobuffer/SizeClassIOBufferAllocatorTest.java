@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpcengine.iobuffer;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.assertJoinable;
+import static com.hazelcast.internal.tpcengine.TpcTestSupport.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SizeClassIOBufferAllocatorTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construction_whenMaxSizeSmallerThanMinSize() {
+        new SizeClassIOBufferAllocator(1024, 512, false, false);
+    }
+
+    @Test
+    public void test_sizeClassCount() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 1000, false, false);
+        // 64, 128, 256, 512, 1024
+        assertEquals(5, allocator.sizeClassCount());
+    }
+
+    @Test
+    public void test_allocate_roundsUpToSizeClass() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, true, false);
+
+        assertEquals(64, allocator.allocate().byteBuffer().capacity());
+        assertEquals(64, allocator.allocate(10).byteBuffer().capacity());
+        assertEquals(128, allocator.allocate(65).byteBuffer().capacity());
+        assertEquals(4096, allocator.allocate(3000).byteBuffer().capacity());
+
+        IOBuffer buf = allocator.allocate(100);
+        assertTrue(buf.byteBuffer().isDirect());
+        assertEquals(1, buf.refCount());
+    }
+
+    @Test
+    public void test_release_thenReused() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, false);
+
+        IOBuffer buf = allocator.allocate(256);
+        buf.writeInt(1);
+        buf.release();
+
+        IOBuffer reused = allocator.allocate(200);
+        assertSame(buf, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1, reused.refCount());
+
+        IOBufferAllocatorMetrics metrics = allocator.metrics();
+        assertEquals(2, metrics.allocations());
+        assertEquals(1, metrics.newAllocations());
+        assertEquals(1, metrics.frees());
+        assertEquals(512, metrics.bytesAllocated());
+    }
+
+    @Test
+    public void test_allocate_whenLargerThanMaxSize_thenNotPooled() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 1024, false, false);
+
+        IOBuffer buf = allocator.allocate(5000);
+        assertEquals(8192, buf.byteBuffer().capacity());
+        buf.release();
+
+        IOBuffer buf2 = allocator.allocate(5000);
+        assertNotSame(buf, buf2);
+        assertEquals(2, allocator.metrics().newAllocations());
+    }
+
+    @Test
+    public void test_release_whenGrown_thenReturnedToLargerSizeClass() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, false);
+
+        IOBuffer buf = allocator.allocate(64);
+        buf.writeBytes(new byte[200]);
+        int capacity = buf.byteBuffer().capacity();
+        buf.release();
+
+        assertSame(buf, allocator.allocate(capacity));
+    }
+
+    @Test
+    public void test_release_fromOtherThread_thenReusedThroughArena() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, false);
+
+        IOBuffer buf = allocator.allocate(64);
+
+        // the thread never allocated, so the buffer is handed to the arena.
+        Thread releaser = new Thread(buf::release);
+        releaser.start();
+        assertJoinable(releaser);
+        assertEquals(1, allocator.metrics().arenaFrees());
+
+        AtomicReference<IOBuffer> allocated = new AtomicReference<>();
+        Thread allocator2 = new Thread(() -> allocated.set(allocator.allocate(64)));
+        allocator2.start();
+        assertJoinable(allocator2);
+
+        assertSame(buf, allocated.get());
+        assertEquals(1, allocator.metrics().newAllocations());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_free_whenNotReleased() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, false);
+
+        IOBuffer buf = allocator.allocate();
+        allocator.free(buf);
+    }
+
+    @Test
+    public void test_leakDetection() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, true);
+
+        allocateAndRelease(allocator);
+        assertNoLeak(allocator);
+
+        // allocate a buffer without releasing it.
+        allocator.allocate();
+
+        assertTrueEventually(() -> {
+            System.gc();
+            assertEquals(1, allocator.metrics().leaks());
+        });
+    }
+
+    @Test
+    public void test_leakDetection_whenDisabled() {
+        SizeClassIOBufferAllocator allocator = new SizeClassIOBufferAllocator(64, 4096, false, false);
+
+        IOBuffer buf = allocator.allocate();
+        assertNull(buf.leakRecord);
+    }
+
+    private static void assertNoLeak(SizeClassIOBufferAllocator allocator) {
+        System.gc();
+        assertEquals(0, allocator.metrics().leaks());
+    }
+
+    // done in a separate method so the caller doesn't keep a reference to the buffer.
+    private static void allocateAndRelease(SizeClassIOBufferAllocator allocator) {
+        allocator.allocate().release();
+    }
+}
@@ -72,4 +72,15 @@ public class AsyncSocketMetricsTest {
         metrics.incReadEvents();
         assertEquals(2, metrics.readEvents());
     }
+
+    @Test
+    public void test_ioBuffersWritten() {
+        AsyncSocketMetrics metrics = new AsyncSocketMetrics();
+
+        metrics.incIOBuffersWritten(3);
+        assertEquals(3, metrics.ioBuffersWritten());
+
+        metrics.incIOBuffersWritten(2);
+        assertEquals(5, metrics.ioBuffersWritten());
+    }
 }
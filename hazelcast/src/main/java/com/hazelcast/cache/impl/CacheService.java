@@ -18,17 +18,23 @@ package com.hazelcast.cache.impl;
 
 import com.hazelcast.cache.impl.event.CacheWanEventPublisher;
 import com.hazelcast.cache.impl.operation.CacheReplicationOperation;
+import com.hazelcast.cache.impl.record.CacheRecord;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.DistributedObjectNamespace;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.util.Collection;
+import java.util.Map;
 
 import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
@@ -57,7 +63,7 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
  * using {@link AbstractHazelcastCacheManager#getCacheNamePrefix()}.
  * </p>
  */
-public class CacheService extends AbstractCacheService {
+public class CacheService extends AbstractCacheService implements DeltaReplicationAwareService {
 
     @Override
     protected CachePartitionSegment newPartitionSegment(int partitionId) {
@@ -105,6 +111,36 @@ public class CacheService extends AbstractCacheService {
         return op.isEmpty() ? null : op;
     }
 
+    @Override
+    public boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree) {
+        ICacheRecordStore recordStore = segments[partitionId].getRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null) {
+            return true;
+        }
+
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        for (Map.Entry<Data, CacheRecord> entry : recordStore.getReadOnlyRecords().entrySet()) {
+            tree.add(entry.getKey(), serializationService.toData(entry.getValue().getValue()));
+        }
+        return true;
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] differingLeaves) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a CacheService namespace!";
+
+        CachePartitionSegment segment = segments[event.getPartitionId()];
+        if (segment.getRecordStore(((ObjectNamespace) namespace).getObjectName()) == null) {
+            return null;
+        }
+
+        CacheReplicationOperation op = newCacheReplicationOperation();
+        op.setPartitionId(event.getPartitionId());
+        op.prepareDelta(segment, namespace, event.getReplicaIndex(), differingLeaves);
+        return op;
+    }
+
     protected boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace) : namespace + " is not a CacheService namespace!";
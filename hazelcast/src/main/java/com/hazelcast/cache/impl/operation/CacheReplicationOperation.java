@@ -23,7 +23,9 @@ import com.hazelcast.cache.impl.ICacheService;
 import com.hazelcast.cache.impl.PreJoinCacheConfig;
 import com.hazelcast.cache.impl.record.CacheRecord;
 import com.hazelcast.config.CacheConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
@@ -40,8 +42,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static java.util.Collections.singleton;
 import com.hazelcast.nio.serialization.impl.Versioned;
 
 /**
@@ -62,6 +66,8 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
 
     private final List<CacheConfig> configs = new ArrayList<CacheConfig>();
     private final Map<String, Map<Data, CacheRecord>> data = new HashMap<String, Map<Data, CacheRecord>>();
+    // the Merkle tree leaves of the caches which are replicated partially
+    private final Map<String, int[]> differingLeavesByName = new HashMap<>();
     private CacheNearCacheStateHolder nearCacheStateHolder;
     private transient boolean classesAlwaysAvailable = true;
 
@@ -86,6 +92,37 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
             }
         }
 
+        prepareConfigsAndNearCacheState(segment, namespaces);
+    }
+
+    /**
+     * Prepares the replication of only the records of the given Merkle tree
+     * leaves of a single cache. The records of these leaves on the destination
+     * are replaced, the other records are left untouched.
+     *
+     * @param differingLeaves the {@code [leafOrder, hash]} pairs of the leaves
+     * @see ReplicaFragmentMerkleTree#keysInLeaves(int[])
+     */
+    public final void prepareDelta(CachePartitionSegment segment, ServiceNamespace namespace,
+                                   int replicaIndex, int[] differingLeaves) {
+        String name = ((ObjectNamespace) namespace).getObjectName();
+        ICacheRecordStore recordStore = segment.getRecordStore(name);
+        if (recordStore != null && recordStore.getConfig().getTotalBackupCount() >= replicaIndex) {
+            Predicate<Data> inLeaves = ReplicaFragmentMerkleTree.keysInLeaves(differingLeaves);
+            Map<Data, CacheRecord> records = new HashMap<>();
+            for (Map.Entry<Data, CacheRecord> entry : recordStore.getReadOnlyRecords().entrySet()) {
+                if (inLeaves.test(entry.getKey())) {
+                    records.put(entry.getKey(), entry.getValue());
+                }
+            }
+            data.put(name, records);
+            differingLeavesByName.put(name, differingLeaves);
+        }
+
+        prepareConfigsAndNearCacheState(segment, singleton(namespace));
+    }
+
+    private void prepareConfigsAndNearCacheState(CachePartitionSegment segment, Collection<ServiceNamespace> namespaces) {
         configs.addAll(segment.getCacheConfigs());
         nearCacheStateHolder.prepare(segment, namespaces);
         classesAlwaysAvailable = segment.getCacheService().getNodeEngine()
@@ -113,7 +150,12 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
         for (Map.Entry<String, Map<Data, CacheRecord>> entry : data.entrySet()) {
             ICacheRecordStore cache;
             cache = service.getOrCreateRecordStore(entry.getKey(), getPartitionId());
-            cache.reset();
+            int[] differingLeaves = differingLeavesByName.get(entry.getKey());
+            if (differingLeaves == null) {
+                cache.reset();
+            } else {
+                removeRecordsInLeaves(cache, differingLeaves);
+            }
             Map<Data, CacheRecord> map = entry.getValue();
 
             Iterator<Map.Entry<Data, CacheRecord>> iterator = map.entrySet().iterator();
@@ -138,6 +180,19 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
         }
     }
 
+    private static void removeRecordsInLeaves(ICacheRecordStore cache, int[] differingLeaves) {
+        Predicate<Data> inLeaves = ReplicaFragmentMerkleTree.keysInLeaves(differingLeaves);
+        List<Data> keys = new ArrayList<>();
+        for (Data key : cache.getReadOnlyRecords().keySet()) {
+            if (inLeaves.test(key)) {
+                keys.add(key);
+            }
+        }
+        for (Data key : keys) {
+            cache.removeRecord(key);
+        }
+    }
+
     @Override
     public String getServiceName() {
         return ICacheService.SERVICE_NAME;
@@ -177,6 +232,14 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
         }
 
         out.writeObject(nearCacheStateHolder);
+
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            out.writeInt(differingLeavesByName.size());
+            for (Map.Entry<String, int[]> entry : differingLeavesByName.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeIntArray(entry.getValue());
+            }
+        }
     }
 
     @Override
@@ -215,6 +278,13 @@ public class CacheReplicationOperation extends Operation implements IdentifiedDa
 
         nearCacheStateHolder = in.readObject();
         nearCacheStateHolder.setCacheReplicationOperation(this);
+
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            int differingLeavesCount = in.readInt();
+            for (int i = 0; i < differingLeavesCount; i++) {
+                differingLeavesByName.put(in.readString(), in.readIntArray());
+            }
+        }
     }
 
     public boolean isEmpty() {
@@ -45,8 +45,8 @@ import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.services.CoreService;
 import com.hazelcast.internal.services.ManagedService;
-import com.hazelcast.internal.tpcengine.iobuffer.ConcurrentIOBufferAllocator;
 import com.hazelcast.internal.tpcengine.iobuffer.IOBufferAllocator;
+import com.hazelcast.internal.tpcengine.iobuffer.SizeClassIOBufferAllocator;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.internal.util.executor.ExecutorType;
 import com.hazelcast.internal.util.executor.UnblockablePoolExecutorThreadFactory;
@@ -121,7 +121,7 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
     private final ClientLifecycleMonitor lifecycleMonitor;
     private final Map<UUID, Consumer<Long>> backupListeners = new ConcurrentHashMap<>();
     private final AddressChecker addressChecker;
-    private final IOBufferAllocator responseBufAllocator = new ConcurrentIOBufferAllocator(4096, true);
+    private final IOBufferAllocator responseBufAllocator = new SizeClassIOBufferAllocator(4096, 65536, true);
     private final boolean tpcEnabled;
 
     // not final for the testing purposes
@@ -237,7 +237,15 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
         if (isUrgent(messageTask)) {
             operationService.execute((UrgentMessageTask) messageTask);
         } else if (messageTask instanceof AbstractPartitionMessageTask) {
-            operationService.execute((AbstractPartitionMessageTask) messageTask);
+            if (clientMessage.getAsyncSocket() != null) {
+                // The message was read by a TPC reactor which is also a partition thread. If it
+                // owns the partition, the task (and the response) is processed inline on the
+                // reactor instead of going through the operation queue.
+                operationService.getOperationExecutor()
+                        .runOrExecuteTask((AbstractPartitionMessageTask) messageTask);
+            } else {
+                operationService.execute((AbstractPartitionMessageTask) messageTask);
+            }
         } else if (isQuery(messageTask)) {
             queryExecutor.execute(messageTask);
         } else if (messageTask instanceof TransactionalMessageTask) {
@@ -121,6 +121,9 @@ public final class MetricDescriptorConstants {
     public static final String EVENT_METRIC_EVENT_SERVICE_SYNC_DELIVERY_FAILURE_COUNT = "syncDeliveryFailureCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE = "eventQueueSize";
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED = "eventsProcessed";
+    public static final String EVENT_METRIC_EVENT_SERVICE_BATCH_COUNT = "batchCount";
+    public static final String EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENT_COUNT = "batchedEventCount";
+    public static final String EVENT_METRIC_EVENT_SERVICE_COALESCED_EVENT_COUNT = "coalescedEventCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_LISTENER_COUNT = "listenerCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_PUBLICATION_COUNT = "publicationCount";
     // ===[/EVENT]======================================================
@@ -289,6 +292,10 @@ public final class MetricDescriptorConstants {
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME = "totalElapsedMigrationOperationTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME = "totalElapsedDestinationCommitTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME = "totalElapsedMigrationTime";
+    public static final String MIGRATION_METRIC_ONGOING_MIGRATIONS = "ongoingMigrations";
+    public static final String MIGRATION_METRIC_TOTAL_MIGRATED_BYTES = "totalMigratedBytes";
+    public static final String MIGRATION_METRIC_TOTAL_MIGRATION_FRAGMENTS = "totalMigrationFragments";
+    public static final String MIGRATION_METRIC_TOTAL_THROTTLED_TIME = "totalThrottledTime";
     // ===[/MIGRATION]==================================================
 
     // ===[MULTIMAP]====================================================
@@ -357,14 +364,20 @@ public final class MetricDescriptorConstants {
     // ===[OPERATION]===================================================
     public static final String OPERATION_PREFIX = "operation";
     public static final String OPERATION_PREFIX_ADHOC = "operation.adhoc";
+    public static final String OPERATION_PREFIX_BACKUP_PIPELINE = "operation.backupPipeline";
+    public static final String OPERATION_PREFIX_BACKPRESSURE = "operation.backpressure";
+    public static final String OPERATION_PREFIX_BATCHING = "operation.batching";
     public static final String OPERATION_PREFIX_GENERIC = "operation.generic";
     public static final String OPERATION_PREFIX_INVOCATIONS = "operation.invocations";
+    public static final String OPERATION_PREFIX_LATENCY = "operation.latency";
     public static final String OPERATION_PREFIX_PARKER = "operation.parker";
     public static final String OPERATION_PREFIX_PARTITION = "operation.partition";
     public static final String OPERATION_PREFIX_THREAD = "operation.thread";
     public static final String OPERATION_DISCRIMINATOR_THREAD = "thread";
     public static final String OPERATION_DISCRIMINATOR_PARTITIONID = "partitionId";
     public static final String OPERATION_DISCRIMINATOR_GENERICID = "genericId";
+    public static final String OPERATION_DISCRIMINATOR_TARGET = "target";
+    public static final String OPERATION_DISCRIMINATOR_OPERATION = "operation";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_COUNT = "runningCount";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_PARTITION_COUNT = "runningPartitionCount";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_GENERIC_COUNT = "runningGenericCount";
@@ -375,6 +388,9 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT = "completedCount";
     public static final String OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT = "partitionThreadCount";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT = "genericThreadCount";
+    public static final String OPERATION_METRIC_EXECUTOR_ESTIMATED_QUEUE_WAIT = "estimatedQueueWait";
+    public static final String OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_UTILIZATION_SKEW = "partitionThreadUtilizationSkew";
+    public static final String OPERATION_METRIC_EXECUTOR_PARTITION_HANDOFF_COUNT = "partitionHandoffCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_TOTAL_COUNT = "completedTotalCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_PACKET_COUNT = "completedPacketCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_COUNT = "completedOperationCount";
@@ -385,6 +401,8 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_BATCH_COUNT = "completedOperationBatchCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT = "normalPendingCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT = "priorityPendingCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_UTILIZATION = "utilization";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT = "ownedPartitionCount";
     public static final String OPERATION_METRIC_PARKER_PARK_QUEUE_COUNT = "parkQueueCount";
     public static final String OPERATION_METRIC_PARKER_TOTAL_PARKED_OPERATION_COUNT = "totalParkedOperationCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSE_QUEUE_SIZE = "responseQueueSize";
@@ -406,6 +424,19 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_USED_PERCENTAGE = "usedPercentage";
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID = "lastCallId";
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING = "pending";
+    public static final String OPERATION_METRIC_BACKPRESSURE_LIMIT = "limit";
+    public static final String OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT = "inFlight";
+    public static final String OPERATION_METRIC_BACKPRESSURE_THROTTLED = "throttled";
+    public static final String OPERATION_METRIC_BACKPRESSURE_REJECTIONS = "rejections";
+    public static final String OPERATION_METRIC_BATCHING_BATCHES = "batches";
+    public static final String OPERATION_METRIC_BATCHING_BATCHED_OPERATIONS = "batchedOperations";
+    public static final String OPERATION_METRIC_BACKUP_PIPELINE_SEQUENCED_BACKUPS = "sequencedBackups";
+    public static final String OPERATION_METRIC_BACKUP_PIPELINE_ACKS_SENT = "acksSent";
+    public static final String OPERATION_METRIC_BACKUP_PIPELINE_ACKS_RECEIVED = "acksReceived";
+    public static final String OPERATION_METRIC_BACKUP_PIPELINE_SKIPPED_SEQUENCES = "skippedSequences";
+    public static final String OPERATION_METRIC_LATENCY_QUEUE_WAIT = "queueWait";
+    public static final String OPERATION_METRIC_LATENCY_EXECUTION = "execution";
+    public static final String OPERATION_METRIC_LATENCY_BACKUP_ACK_WAIT = "backupAckWait";
     public static final String OPERATION_METRIC_OPERATION_RUNNER_EXECUTED_OPERATIONS_COUNT = "executedOperationsCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_ASYNC_OPERATIONS = "asyncOperations";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_TIMEOUT_COUNT = "operationTimeoutCount";
@@ -433,6 +464,9 @@ public final class MetricDescriptorConstants {
     public static final String PARTITIONS_METRIC_PARTITION_SERVICE_MAX_BACKUP_COUNT = "maxBackupCount";
     public static final String PARTITIONS_METRIC_PARTITION_SERVICE_MIGRATION_QUEUE_SIZE = "migrationQueueSize";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE = "replicaSyncSemaphore";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNT = "deltaSyncCount";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_DIFFERING_LEAVES
+            = "deltaSyncDifferingLeaves";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER = "replicaSyncRequestsCounter";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_PARTITION_COUNT = "partitionCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_LOCAL_PARTITION_COUNT = "localPartitionCount";
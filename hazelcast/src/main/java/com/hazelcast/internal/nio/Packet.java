@@ -19,6 +19,7 @@ package com.hazelcast.internal.nio;
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.impl.HeapData;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
 
@@ -43,7 +44,7 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Flags are dispatched against in a cascade:
     // 1. URGENT (bit 4)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 3, 6)
     // 4. 4.x flag (bit 7)
 
     // 1. URGENT flag
@@ -88,6 +89,10 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation packet as a batch of Operation packets for different partitions
+     */
+    public static final int FLAG_OP_BATCH = 1 << 3;
 
     // 3.b Jet packet flags
 
@@ -96,6 +101,13 @@ public final class Packet extends HeapData implements OutboundFrame {
      */
     public static final int FLAG_JET_FLOW_CONTROL = 1 << 1;
 
+    // 3.c Event packet flags
+
+    /**
+     * Marks an Event packet as a batch of Event packets
+     */
+    public static final int FLAG_EVENT_BATCH = 1 << 1;
+
     /**
      * Marks a packet as sent by a 4.x member
      */
@@ -109,6 +121,12 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient ServerConnection conn;
+    // the System.nanoTime at which the packet was handed to the operation executor; 0 if unknown
+    private transient long receivedNanos;
+    // the packets of a batch packet, which has no payload of its own; null if this isn't a batch packet
+    private transient Packet[] batchedPackets;
+    // the total frame length of the batched packets
+    private transient int batchLength;
 
     public Packet() {
         raiseFlags(FLAG_4_0);
@@ -124,6 +142,24 @@ public final class Packet extends HeapData implements OutboundFrame {
         raiseFlags(FLAG_4_0);
     }
 
+    /**
+     * Creates a batch packet for the given packets. The packets aren't copied into a payload: the
+     * {@link PacketIOHelper} writes them one after the other, as regular packets, right after the header
+     * of the batch packet. The receiving side reads them back as separate packets. See {@link PacketBatchCodec}.
+     *
+     * @param batchedPackets the packets of the batch, the array should not be modified afterwards.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    Packet(Packet[] batchedPackets) {
+        this((byte[]) null, -1);
+        int length = 0;
+        for (Packet packet : batchedPackets) {
+            length += packet.getFrameLength();
+        }
+        this.batchedPackets = batchedPackets;
+        this.batchLength = length;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -147,6 +183,44 @@ public final class Packet extends HeapData implements OutboundFrame {
         return this;
     }
 
+    /**
+     * Gets the {@link System#nanoTime()} at which this Packet was received.
+     *
+     * @return the received time or 0 if unknown.
+     */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} at which this Packet was received.
+     *
+     * @param receivedNanos the received time.
+     * @return this Packet.
+     */
+    public Packet setReceivedNanos(long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+        return this;
+    }
+
+    /**
+     * Returns the packets of a batch packet.
+     *
+     * @return the batched packets or {@code null} if this isn't a batch packet.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public Packet[] getBatchedPackets() {
+        return batchedPackets;
+    }
+
+    /**
+     * Returns the number of bytes following the header of this packet: the payload of a regular packet
+     * or the frames of the batched packets of a batch packet.
+     */
+    int getPayloadLength() {
+        return batchedPackets != null ? batchLength : totalSize();
+    }
+
     public Type getPacketType() {
         return Type.fromFlags(flags);
     }
@@ -223,7 +297,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     @Override
     public int getFrameLength() {
-        return (payload != null ? totalSize() : 0) + HEADER_SIZE;
+        return getPayloadLength() + HEADER_SIZE;
     }
 
     @Override
@@ -287,7 +361,8 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
-                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
+                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL)
+                        + ", isBatch=" + isFlagRaised(flags, FLAG_OP_BATCH) + ']';
             }
         },
         /**
@@ -295,7 +370,12 @@ public final class Packet extends HeapData implements OutboundFrame {
          * <p>
          * {@code ordinal = 2}
          */
-        EVENT,
+        EVENT {
+            @Override
+            public String describeFlags(char flags) {
+                return "[isBatch=" + isFlagRaised(flags, FLAG_EVENT_BATCH) + ']';
+            }
+        },
         /**
          * The type of a Jet packet.
          * <p>
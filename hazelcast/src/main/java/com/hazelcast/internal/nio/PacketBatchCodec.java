@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.server.ServerConnection;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_EVENT_BATCH;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * Packs multiple packets of the same type into a single batch packet, and unpacks them again on the
+ * receiving side. Operation packets are batched with the {@link Packet#FLAG_OP_BATCH} raised, Event
+ * packets with the {@link Packet#FLAG_EVENT_BATCH} raised.
+ * <p>
+ * The payloads of the packets are not copied: the batch packet references the packets, which the
+ * {@link PacketIOHelper} writes as regular packets right after the header of the batch packet and
+ * reads back as separate packets. The batch packet itself has partition ID -1; every unpacked packet
+ * keeps its own partition ID, which is the order key for an Event packet.
+ */
+public final class PacketBatchCodec {
+
+    private PacketBatchCodec() {
+    }
+
+    /**
+     * Packs the given packets into a single batch packet.
+     *
+     * @param packets the packets to pack, all of the given type
+     * @param count   the number of packets in the array to pack, starting at index 0
+     * @param type    the type of the packets, either {@link Packet.Type#OPERATION} or {@link Packet.Type#EVENT}
+     * @return the batch packet
+     * @throws IllegalArgumentException if packets of the given type can't be batched
+     */
+    public static Packet pack(Packet[] packets, int count, Packet.Type type) {
+        return new Packet(Arrays.copyOf(packets, count))
+                .setPacketType(type)
+                .raiseFlags(batchFlag(type));
+    }
+
+    /**
+     * Unpacks a batch packet and passes every packet to the consumer in the order they were packed.
+     * The connection of the unpacked packets is set to the connection of the batch packet.
+     *
+     * @param batch    the batch packet
+     * @param consumer the consumer of the unpacked packets
+     * @throws IllegalArgumentException if the packet isn't a batch packet
+     */
+    public static void unpack(Packet batch, Consumer<Packet> consumer) {
+        checkTrue(isBatch(batch.getFlags()) && batch.getBatchedPackets() != null, "Not a batch packet");
+
+        ServerConnection connection = batch.getConn();
+        for (Packet packet : batch.getBatchedPackets()) {
+            consumer.accept(packet.setConn(connection));
+        }
+    }
+
+    /**
+     * Checks if the flags are the flags of a batch packet, whose payload consists of regular packets.
+     *
+     * @param flags the flags of the packet
+     * @return {@code true} if the flags are the flags of a batch packet.
+     */
+    public static boolean isBatch(int flags) {
+        switch (Packet.Type.fromFlags(flags)) {
+            case OPERATION:
+                return (flags & FLAG_OP_BATCH) != 0;
+            case EVENT:
+                return (flags & FLAG_EVENT_BATCH) != 0;
+            default:
+                return false;
+        }
+    }
+
+    private static int batchFlag(Packet.Type type) {
+        switch (type) {
+            case OPERATION:
+                return FLAG_OP_BATCH;
+            case EVENT:
+                return FLAG_EVENT_BATCH;
+            default:
+                throw new IllegalArgumentException("Packets of type " + type + " can't be batched");
+        }
+    }
+}
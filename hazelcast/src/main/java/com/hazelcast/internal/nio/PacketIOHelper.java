@@ -17,6 +17,8 @@
 package com.hazelcast.internal.nio;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
@@ -34,6 +36,10 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
  * write at the same time, you need to have 2 instances.
  *
  * A {@link PacketIOHelper} is designed to be reused.
+ *
+ * The payload of a batch packet (see {@link PacketBatchCodec}) is not copied into a byte array: the batched
+ * packets are written directly after the header of the batch packet as regular packets and read back as separate
+ * packets. So a batched packet is copied as often as a packet that is sent on its own.
  */
 public class PacketIOHelper {
     static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
@@ -44,6 +50,10 @@ public class PacketIOHelper {
     private char flags;
     private int partitionId;
     private byte[] payload;
+    // the helper for the packets in a batch packet, see writeBatch and readBatch
+    private PacketIOHelper batchHelper;
+    private int batchIndex;
+    private List<Packet> batchedPackets;
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -61,12 +71,13 @@ public class PacketIOHelper {
             dst.put(VERSION);
             dst.putChar(packet.getFlags());
             dst.putInt(packet.getPartitionId());
-            size = packet.totalSize();
+            size = packet.getPayloadLength();
             dst.putInt(size);
             headerComplete = true;
         }
 
-        if (writeValue(packet, dst)) {
+        Packet[] batch = packet.getBatchedPackets();
+        if (batch != null ? writeBatch(batch, dst) : writeValue(packet, dst)) {
             reset();
             return true;
         } else {
@@ -105,6 +116,19 @@ public class PacketIOHelper {
         return true;
     }
 
+    private boolean writeBatch(Packet[] batch, ByteBuffer dst) {
+        if (batchHelper == null) {
+            batchHelper = new PacketIOHelper();
+        }
+
+        for (; batchIndex < batch.length; batchIndex++) {
+            if (!batchHelper.writeTo(batch[batchIndex], dst)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Reads the packet data from the supplied {@code ByteBuffer}. The buffer may not contain the complete packet.
      * If this method returns {@code false}, it should be called again to read more packet data.
@@ -130,6 +154,10 @@ public class PacketIOHelper {
             headerComplete = true;
         }
 
+        if (PacketBatchCodec.isBatch(flags)) {
+            return readBatch(src);
+        }
+
         if (readValue(src)) {
             Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
             reset();
@@ -139,10 +167,38 @@ public class PacketIOHelper {
         }
     }
 
+    private Packet readBatch(ByteBuffer src) {
+        if (batchHelper == null) {
+            batchHelper = new PacketIOHelper();
+        }
+        if (batchedPackets == null) {
+            batchedPackets = new ArrayList<>();
+        }
+
+        // the offset is only advanced for complete packets; the helper keeps track of a partially read packet
+        while (valueOffset < size) {
+            Packet packet = batchHelper.readFrom(src);
+            if (packet == null) {
+                return null;
+            }
+            batchedPackets.add(packet);
+            valueOffset += packet.getFrameLength();
+        }
+
+        if (valueOffset != size) {
+            throw new IllegalArgumentException("Malformed batch packet, the batched packets exceed the length " + size);
+        }
+        Packet batch = new Packet(batchedPackets.toArray(new Packet[0])).resetFlagsTo(flags);
+        reset();
+        return batch;
+    }
+
     private void reset() {
         headerComplete = false;
         payload = null;
         valueOffset = 0;
+        batchIndex = 0;
+        batchedPackets = null;
     }
 
     private boolean readValue(ByteBuffer src) {
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import javax.annotation.Nullable;
+
+/**
+ * {@code DeltaReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService}
+ * which allows a backup replica to be synchronized by transferring only the entries that differ from
+ * the primary replica, instead of the whole replica fragment.
+ * <p>
+ * When delta replica sync is enabled (see {@link PartitionReplicaManager#DELTA_SYNC_ENABLED}), the backup
+ * replica builds a {@link ReplicaFragmentMerkleTree} for each namespace to synchronize and sends its leaves
+ * in the replica sync request. The primary replica builds its own tree, compares both and sends the
+ * operation returned by {@link #prepareDeltaReplicationOperation(PartitionReplicationEvent, ServiceNamespace,
+ * int[])} instead of the full replication operation. If the trees are equal, only the replica versions are
+ * synchronized.
+ * <p>
+ * Both methods are called on the partition thread, while mutating operations on the partition are blocked.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see ReplicaFragmentMerkleTree
+ */
+public interface DeltaReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Adds all entries of the given namespace in the given partition replica to the tree.
+     * The same entries must result in the same tree on all members.
+     *
+     * @param partitionId the partition ID
+     * @param namespace   the namespace of the replica fragment
+     * @param tree        the tree to add the entries to
+     * @return {@code true} if the tree has been built, {@code false} if the namespace
+     * doesn't support delta replication and needs to be replicated fully
+     */
+    boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree);
+
+    /**
+     * Returns an operation that replaces the entries of the given leaves on the destination replica
+     * with the entries of the given leaves on this replica. Entries of the destination replica in
+     * these leaves that don't exist on this replica must be removed, all other entries must be left
+     * untouched.
+     *
+     * @param event           replication event
+     * @param namespace       the namespace of the replica fragment
+     * @param differingLeaves the {@code [leafOrder, hash]} pairs of the differing leaves
+     * @return the replication operation or {@code null} if the namespace needs to be replicated fully
+     * @see ReplicaFragmentMerkleTree#keysInLeaves(int[])
+     */
+    @Nullable
+    Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                               int[] differingLeaves);
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.QuickMath;
+import com.hazelcast.internal.util.collection.IntHashSet;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A Merkle tree over the entries of a single replica fragment, built on
+ * demand to synchronize a backup replica with its primary replica by
+ * transferring only the entries that differ.
+ * <p>
+ * The backup replica sends the leaves of its tree in the replica sync
+ * request, the primary replica compares them with the leaves of its own
+ * tree and replicates only the entries that belong to the differing
+ * leaves. The leaf of an entry is selected by the hash of its key and the
+ * hash of an entry covers both the key and the value, so the same value
+ * moving between keys of the same leaf is detected as well.
+ * <p>
+ * The differing leaves are represented as {@code [leafOrder, hash]} pairs,
+ * the same representation used for the Merkle tree differences of the
+ * {@link com.hazelcast.map.impl.operation.MapReplicationStateHolder}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @see DeltaReplicationAwareService
+ */
+public final class ReplicaFragmentMerkleTree {
+
+    private static final int ENTRY_HASH_MULTIPLIER = 31;
+
+    private final ArrayMerkleTree tree;
+    private final int leafLevel;
+    private final int leftMostLeaf;
+    private int entryCount;
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param depth the depth of the tree
+     * @throws IllegalArgumentException if the depth is outside the range
+     *                                  supported by the {@link ArrayMerkleTree}
+     */
+    public ReplicaFragmentMerkleTree(int depth) {
+        this.tree = new ArrayMerkleTree(depth);
+        this.leafLevel = depth - 1;
+        this.leftMostLeaf = MerkleTreeUtil.getNodesOnLevel(leafLevel) - 1;
+    }
+
+    /**
+     * Adds an entry to the tree.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry in serialized form
+     */
+    public void add(Data key, Data value) {
+        add(key, value.hashCode());
+    }
+
+    /**
+     * Adds an entry to the tree for which the hash of the value has been
+     * calculated by the caller, e.g. the entries with multiple values.
+     *
+     * @param key       the key of the entry
+     * @param valueHash the hash of the value of the entry
+     */
+    public void add(Data key, int valueHash) {
+        int keyHash = key.hashCode();
+        tree.updateAdd(keyHash, ENTRY_HASH_MULTIPLIER * keyHash + valueHash);
+        entryCount++;
+    }
+
+    public int depth() {
+        return tree.depth();
+    }
+
+    /**
+     * Returns the number of entries added to the tree.
+     */
+    public int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the hashes of the leaves of the tree from left to right.
+     */
+    public int[] leaves() {
+        int[] leaves = new int[MerkleTreeUtil.getNodesOnLevel(leafLevel)];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = tree.getNodeHash(leftMostLeaf + i);
+        }
+        return leaves;
+    }
+
+    /**
+     * Compares this tree with the leaves of a remote tree of the same depth.
+     *
+     * @param remoteLeaves the hashes of the leaves of the remote tree, as
+     *                     returned by {@link #leaves()}
+     * @return the {@code [leafOrder, hash]} pairs of the leaves of this tree
+     * that differ from the remote tree, an empty array if the trees are equal
+     * @throws IllegalArgumentException if the remote tree has a different depth
+     * @see MerkleTreeUtil#compareTrees
+     */
+    public int[] diff(int[] remoteLeaves) {
+        int leafCount = MerkleTreeUtil.getNodesOnLevel(leafLevel);
+        if (remoteLeaves.length != leafCount) {
+            throw new IllegalArgumentException("Expected " + leafCount + " leaves, but got " + remoteLeaves.length);
+        }
+
+        int[] differingLeaves = new int[leafCount * 2];
+        int length = 0;
+        for (int i = 0; i < leafCount; i++) {
+            int leafHash = tree.getNodeHash(leftMostLeaf + i);
+            if (leafHash != remoteLeaves[i]) {
+                differingLeaves[length++] = leftMostLeaf + i;
+                differingLeaves[length++] = leafHash;
+            }
+        }
+        return Arrays.copyOf(differingLeaves, length);
+    }
+
+    /**
+     * Returns the depth of the tree the given leaves belong to.
+     *
+     * @param leaves the hashes of the leaves, as returned by {@link #leaves()}
+     * @return the depth of the tree
+     * @throws IllegalArgumentException if the number of leaves is not a power of two
+     */
+    public static int depthOf(int[] leaves) {
+        if (!QuickMath.isPowerOfTwo(leaves.length)) {
+            throw new IllegalArgumentException("The number of leaves should be a power of two, but was " + leaves.length);
+        }
+        return QuickMath.log2(leaves.length) + 1;
+    }
+
+    /**
+     * Returns a predicate that matches the keys of the entries that belong to
+     * the given leaves.
+     *
+     * @param differingLeaves the {@code [leafOrder, hash]} pairs of the leaves,
+     *                        as returned by {@link #diff(int[])}
+     * @return the predicate
+     */
+    public static Predicate<Data> keysInLeaves(int[] differingLeaves) {
+        if (differingLeaves.length == 0) {
+            return key -> false;
+        }
+
+        IntHashSet leafOrders = MerkleTreeUtil.setOfNodeOrders(differingLeaves);
+        int leafLevel = MerkleTreeUtil.getLevelOfNode(differingLeaves[0]);
+        return key -> leafOrders.contains(MerkleTreeUtil.getLeafOrderForHash(key.hashCode(), leafLevel));
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.partition;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.logging.ILogger;
@@ -48,6 +49,7 @@ public class ReplicaFragmentMigrationState
     private Collection<Operation> migrationOperations;
 
     private transient ChunkSerDeHelper chunkSerDeHelper;
+    private transient volatile int serializedSize = -1;
 
     public ReplicaFragmentMigrationState() {
     }
@@ -72,6 +74,14 @@ public class ReplicaFragmentMigrationState
         return migrationOperations;
     }
 
+    /**
+     * Returns the number of bytes written by the last serialization of this
+     * state, or -1 if it hasn't been serialized.
+     */
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
     @Override
     public int getFactoryId() {
         return PartitionDataSerializerHook.F_ID;
@@ -84,6 +94,7 @@ public class ReplicaFragmentMigrationState
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
+        int start = out instanceof BufferObjectDataOutput ? ((BufferObjectDataOutput) out).position() : -1;
         out.writeInt(namespaces.size());
         for (Map.Entry<ServiceNamespace, long[]> e : namespaces.entrySet()) {
             out.writeObject(e.getKey());
@@ -96,6 +107,9 @@ public class ReplicaFragmentMigrationState
         }
 
         chunkSerDeHelper.writeChunkedOperations(out);
+        if (start >= 0) {
+            serializedSize = ((BufferObjectDataOutput) out).position() - start;
+        }
     }
 
     @Override
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+
+/**
+ * Limits the number of bytes per second a member sends as the source of partition migrations.
+ * <p>
+ * The limiter is charged after a migration fragment has been serialized, because only then its
+ * size is known. It returns how long the sender has to wait before it sends the next fragment,
+ * so the fragments of all migrations sharing the limiter are spread out at the configured rate.
+ * After an idle period, at most one second worth of bytes can be sent without delay.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class MigrationBandwidthLimiter {
+
+    private static final long ONE_SECOND_NANOS = 1_000_000_000L;
+
+    private final long bytesPerSecond;
+    // the time at which all bytes charged so far have been 'paid' for
+    private long nextFreeNanos = Long.MIN_VALUE;
+
+    /**
+     * @param bytesPerSecond the maximum number of bytes per second, 0 means unlimited.
+     */
+    public MigrationBandwidthLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = checkNotNegative(bytesPerSecond, "bytesPerSecond can't be negative");
+    }
+
+    /**
+     * Returns {@code true} if the bandwidth is limited.
+     */
+    public boolean isEnabled() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * Charges the given number of sent bytes.
+     *
+     * @param bytes the number of bytes that have been sent
+     * @return the number of nanoseconds to wait before the next bytes can be sent, 0 if they
+     * can be sent immediately
+     */
+    public long charge(long bytes) {
+        return charge(bytes, System.nanoTime());
+    }
+
+    synchronized long charge(long bytes, long nowNanos) {
+        if (!isEnabled()) {
+            return 0;
+        }
+
+        long start = Math.max(nextFreeNanos, nowNanos - ONE_SECOND_NANOS);
+        nextFreeNanos = start + (long) ((double) bytes * ONE_SECOND_NANOS / bytesPerSecond);
+        return Math.max(0, nextFreeNanos - nowNanos);
+    }
+}
@@ -108,12 +108,15 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITION
 import static com.hazelcast.internal.metrics.ProbeUnit.BOOLEAN;
 import static com.hazelcast.internal.partition.IPartitionService.SERVICE_NAME;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MIGRATION_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_INTERVAL;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_MAX_BYTES_PER_SECOND;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_TIMEOUT;
 
 /**
@@ -157,6 +160,8 @@ public class MigrationManager {
     private final long memberHeartbeatTimeoutMillis;
     private boolean triggerRepartitioningWhenClusterStateAllowsMigration;
     private final int maxParallelMigrations;
+    private final int maxMigrationFragmentsInFlight;
+    private final MigrationBandwidthLimiter bandwidthLimiter;
     private final AtomicInteger migrationCount = new AtomicInteger();
     private final Set<MigrationInfo> finalizingMigrationsRegistry = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final Executor asyncExecutor;
@@ -184,6 +189,9 @@ public class MigrationManager {
         chunkedMigrationEnabled = properties.getBoolean(PARTITION_CHUNKED_MIGRATION_ENABLED);
         maxTotalChunkedDataInBytes = (int) MEGABYTES.toBytes(properties.getInteger(PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB));
         maxParallelMigrations = properties.getInteger(ClusterProperty.PARTITION_MAX_PARALLEL_MIGRATIONS);
+        maxMigrationFragmentsInFlight = checkPositive(PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT.getName(),
+                properties.getInteger(PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT));
+        bandwidthLimiter = new MigrationBandwidthLimiter(properties.getLong(PARTITION_MIGRATION_MAX_BYTES_PER_SECOND));
         partitionStateManager = partitionService.getPartitionStateManager();
         ILogger migrationThreadLogger = node.getLogger(MigrationThread.class);
         String hzName = nodeEngine.getHazelcastInstance().getName();
@@ -316,6 +324,25 @@ public class MigrationManager {
         return maxTotalChunkedDataInBytes;
     }
 
+    /**
+     * Returns the maximum number of migration fragments of a single migration that are sent
+     * without waiting for the acknowledgement of the destination.
+     *
+     * @see ClusterProperty#PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT
+     */
+    public int getMaxMigrationFragmentsInFlight() {
+        return maxMigrationFragmentsInFlight;
+    }
+
+    /**
+     * Returns the limiter shared by all migrations this member is the source of.
+     *
+     * @see ClusterProperty#PARTITION_MIGRATION_MAX_BYTES_PER_SECOND
+     */
+    public MigrationBandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
     public boolean removeFinalizingMigration(MigrationInfo migration) {
         return finalizingMigrationsRegistry.remove(migration);
     }
@@ -1207,6 +1234,7 @@ public class MigrationManager {
             assert count > 0 && count <= maxParallelMigrations : "Count: " + count + " -> " + migration;
 
             ongoingMigrationCount++;
+            stats.incrementOngoingMigrations();
             migrationCount.decrementAndGet();
         }
 
@@ -1227,6 +1255,7 @@ public class MigrationManager {
             }
 
             ongoingMigrationCount--;
+            stats.decrementOngoingMigrations();
         }
 
         private boolean processCompleted() {
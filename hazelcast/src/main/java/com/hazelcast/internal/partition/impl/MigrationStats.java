@@ -31,11 +31,16 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_ELAPSED_MIGRATION_OPERATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_ELAPSED_MIGRATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_LAST_REPARTITION_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_ONGOING_MIGRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_PLANNED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_COMPLETED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_MIGRATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_MIGRATION_FRAGMENTS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_THROTTLED_TIME;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 
@@ -74,6 +79,18 @@ public class MigrationStats {
     @Probe(name = MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME, unit = NS)
     private final AtomicLong totalElapsedMigrationTime = new AtomicLong();
 
+    @Probe(name = MIGRATION_METRIC_ONGOING_MIGRATIONS)
+    private final AtomicInteger ongoingMigrations = new AtomicInteger();
+
+    @Probe(name = MIGRATION_METRIC_TOTAL_MIGRATED_BYTES, unit = BYTES)
+    private final AtomicLong totalMigratedBytes = new AtomicLong();
+
+    @Probe(name = MIGRATION_METRIC_TOTAL_MIGRATION_FRAGMENTS)
+    private final AtomicLong totalMigrationFragments = new AtomicLong();
+
+    @Probe(name = MIGRATION_METRIC_TOTAL_THROTTLED_TIME, unit = NS)
+    private final AtomicLong totalThrottledTime = new AtomicLong();
+
     /**
      * Marks start of new repartitioning.
      * Resets stats from previous repartitioning round.
@@ -88,6 +105,28 @@ public class MigrationStats {
         completedMigrations.set(0);
     }
 
+    void incrementOngoingMigrations() {
+        ongoingMigrations.incrementAndGet();
+    }
+
+    void decrementOngoingMigrations() {
+        ongoingMigrations.decrementAndGet();
+    }
+
+    /**
+     * Records a migration fragment sent by this member as the migration source.
+     *
+     * @param bytes         the serialized size of the fragment
+     * @param throttleNanos the time the next fragment is delayed by the bandwidth limit
+     */
+    public void recordMigrationFragment(long bytes, long throttleNanos) {
+        totalMigratedBytes.addAndGet(bytes);
+        totalMigrationFragments.incrementAndGet();
+        if (throttleNanos > 0) {
+            totalThrottledTime.addAndGet(throttleNanos);
+        }
+    }
+
     void incrementCompletedMigrations() {
         completedMigrations.incrementAndGet();
         totalCompletedMigrations.incrementAndGet();
@@ -167,6 +206,38 @@ public class MigrationStats {
         return TimeUnit.NANOSECONDS.toMillis(elapsedMigrationTime.get());
     }
 
+    /**
+     * Returns the number of migrations that are currently running.
+     * Only tracked on the master member.
+     */
+    public int getOngoingMigrations() {
+        return ongoingMigrations.get();
+    }
+
+    /**
+     * Returns the total number of bytes this member sent as the migration source since the beginning.
+     */
+    public long getTotalMigratedBytes() {
+        return totalMigratedBytes.get();
+    }
+
+    /**
+     * Returns the total number of migration fragments this member sent as the migration source
+     * since the beginning.
+     */
+    public long getTotalMigrationFragments() {
+        return totalMigrationFragments.get();
+    }
+
+    /**
+     * Returns the total time migration fragments sent by this member were delayed by the
+     * {@link com.hazelcast.spi.properties.ClusterProperty#PARTITION_MIGRATION_MAX_BYTES_PER_SECOND bandwidth limit},
+     * in milliseconds, since the beginning.
+     */
+    public long getTotalThrottledTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalThrottledTime.get());
+    }
+
     /**
      * Returns the total elapsed time of migration &amp; replication operations' executions
      * from source to destination endpoints, in milliseconds, since the beginning.
@@ -202,7 +273,8 @@ public class MigrationStats {
                 .append(", plannedMigrations=").append(plannedMigrations)
                 .append(", completedMigrations=").append(getCompletedMigrations())
                 .append(", remainingMigrations=").append(getRemainingMigrations())
-                .append(", totalCompletedMigrations=").append(getTotalCompletedMigrations());
+                .append(", totalCompletedMigrations=").append(getTotalCompletedMigrations())
+                .append(", ongoingMigrations=").append(getOngoingMigrations());
 
         if (detailed) {
             s.append(", elapsedMigrationOperationTime=").append(getElapsedMigrationOperationTime()).append("ms")
@@ -210,7 +282,10 @@ public class MigrationStats {
                     .append(", elapsedDestinationCommitTime=").append(getElapsedDestinationCommitTime()).append("ms")
                     .append(", totalElapsedDestinationCommitTime=").append(getTotalElapsedDestinationCommitTime()).append("ms")
                     .append(", elapsedMigrationTime=").append(getElapsedMigrationTime()).append("ms")
-                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms");
+                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms")
+                    .append(", totalMigratedBytes=").append(getTotalMigratedBytes())
+                    .append(", totalMigrationFragments=").append(getTotalMigrationFragments())
+                    .append(", totalThrottledTime=").append(getTotalThrottledTime()).append("ms");
         }
         return s.toString();
     }
@@ -18,11 +18,14 @@ package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.PartitionReplica;
 import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequestOffloadable;
 import com.hazelcast.internal.services.ServiceNamespace;
@@ -36,11 +39,14 @@ import com.hazelcast.internal.util.scheduler.ScheduledEntry;
 import com.hazelcast.internal.util.scheduler.ScheduledEntryProcessor;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayDeque;
@@ -48,8 +54,10 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -57,6 +65,8 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_DIFFERING_LEAVES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
@@ -83,6 +93,24 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     private static final boolean ALLOW_OFFLOAD =
             Boolean.parseBoolean(System.getProperty(PARTITION_REPLICA_ALLOW_OFFLOAD, "true"));
 
+    /**
+     * Enables the delta replica sync. Before requesting a replica sync, a backup replica builds
+     * a Merkle tree for each replica fragment of a {@link DeltaReplicationAwareService} and sends
+     * its leaves to the primary replica, which replicates only the entries of the differing leaves.
+     * This considerably reduces the replica sync traffic when the replicas diverged only slightly,
+     * e.g. after a short network hiccup, at the cost of building the Merkle trees on both replicas.
+     */
+    public static final HazelcastProperty DELTA_SYNC_ENABLED
+            = new HazelcastProperty("hazelcast.partition.replica.sync.delta.enabled", false);
+
+    /**
+     * The depth of the Merkle trees built for the delta replica sync. A tree of depth {@code n}
+     * has {@code 2^(n-1)} leaves; deeper trees narrow down the differing entries better, but
+     * increase the size of the replica sync request.
+     */
+    public static final HazelcastProperty DELTA_SYNC_MERKLE_TREE_DEPTH
+            = new HazelcastProperty("hazelcast.partition.replica.sync.delta.merkle.tree.depth", 10);
+
     private final Node node;
     private final NodeEngineImpl nodeEngine;
     private final ILogger logger;
@@ -99,9 +127,15 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     private final Semaphore replicaSyncSemaphore;
     @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER)
     private final MwCounter replicaSyncRequestsCounter = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNT)
+    private final MwCounter deltaSyncCounter = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_DIFFERING_LEAVES)
+    private final MwCounter deltaSyncDifferingLeavesCounter = newMwCounter();
 
     private final long partitionMigrationTimeout;
     private final int maxParallelReplications;
+    private final boolean deltaSyncEnabled;
+    private final int deltaSyncMerkleTreeDepth;
 
     PartitionReplicaManager(Node node, InternalPartitionServiceImpl partitionService) {
         this.node = node;
@@ -116,6 +150,8 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         partitionMigrationTimeout = properties.getMillis(ClusterProperty.PARTITION_MIGRATION_TIMEOUT);
         maxParallelReplications = properties.getInteger(ClusterProperty.PARTITION_MAX_PARALLEL_REPLICATIONS);
         replicaSyncSemaphore = new Semaphore(maxParallelReplications);
+        deltaSyncEnabled = properties.getBoolean(DELTA_SYNC_ENABLED);
+        deltaSyncMerkleTreeDepth = properties.getInteger(DELTA_SYNC_MERKLE_TREE_DEPTH);
 
         replicaVersions = new PartitionReplicaVersions[partitionCount];
         for (int i = 0; i < replicaVersions.length; i++) {
@@ -252,11 +288,60 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
-        Operation syncRequest = ALLOW_OFFLOAD
+        PartitionReplicaSyncRequest syncRequest = ALLOW_OFFLOAD
                 ? new PartitionReplicaSyncRequestOffloadable(namespaces, partitionId, replicaIndex)
                 : new PartitionReplicaSyncRequest(namespaces, partitionId, replicaIndex);
 
-        nodeEngine.getOperationService().send(syncRequest, target.address());
+        if (isDeltaSyncEnabled()) {
+            // the Merkle trees can only be built on the partition thread
+            nodeEngine.getOperationService().execute(new DeltaSyncRequestTask(syncRequest, target));
+        } else {
+            nodeEngine.getOperationService().send(syncRequest, target.address());
+        }
+    }
+
+    private boolean isDeltaSyncEnabled() {
+        return deltaSyncEnabled && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4);
+    }
+
+    /**
+     * Builds the Merkle trees of the given namespaces of the local partition replica.
+     * Namespaces which don't support delta replication or which have no data are skipped,
+     * they are replicated fully.
+     *
+     * @return the leaves of the Merkle trees by namespace
+     */
+    // called in partition threads
+    Map<ServiceNamespace, int[]> buildMerkleTreeLeaves(int partitionId, Collection<ServiceNamespace> namespaces) {
+        Collection<DeltaReplicationAwareService> services = nodeEngine.getServices(DeltaReplicationAwareService.class);
+        Map<ServiceNamespace, int[]> leavesByNamespace = new HashMap<>();
+        for (ServiceNamespace namespace : namespaces) {
+            if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
+                continue;
+            }
+
+            for (DeltaReplicationAwareService service : services) {
+                if (!service.isKnownServiceNamespace(namespace)) {
+                    continue;
+                }
+                ReplicaFragmentMerkleTree tree = new ReplicaFragmentMerkleTree(deltaSyncMerkleTreeDepth);
+                if (service.buildMerkleTree(partitionId, namespace, tree) && tree.entryCount() > 0) {
+                    leavesByNamespace.put(namespace, tree.leaves());
+                }
+                break;
+            }
+        }
+        return leavesByNamespace;
+    }
+
+    /**
+     * Called on the primary replica when a replica fragment is synchronized using the delta replica sync.
+     *
+     * @param differingLeaves the number of Merkle tree leaves that were found to be different
+     */
+    public void onDeltaSync(int differingLeaves) {
+        deltaSyncCounter.inc();
+        deltaSyncDifferingLeavesCounter.inc(differingLeaves);
     }
 
     private Collection<ServiceNamespace> registerSyncInfoForNamespaces(int partitionId,
@@ -664,4 +749,36 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
 
     }
+
+    /**
+     * Attaches the Merkle tree leaves of the local partition replica to a replica sync request
+     * and sends it to the primary replica.
+     */
+    private final class DeltaSyncRequestTask implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        private final PartitionReplicaSyncRequest syncRequest;
+        private final PartitionReplica target;
+
+        DeltaSyncRequestTask(PartitionReplicaSyncRequest syncRequest, PartitionReplica target) {
+            this.syncRequest = syncRequest;
+            this.target = target;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return syncRequest.getSyncPartitionId();
+        }
+
+        @Override
+        public void run() {
+            try {
+                syncRequest.setMerkleTreeLeaves(buildMerkleTreeLeaves(getPartitionId(), syncRequest.getNamespaces()));
+            } catch (Exception e) {
+                // the replica is synchronized fully
+                logger.warning("Could not build the Merkle trees for the replica sync of partitionId=" + getPartitionId(), e);
+            }
+            nodeEngine.getOperationService().send(syncRequest, target.address());
+        }
+    }
+
 }
@@ -18,11 +18,14 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.ThreadUtil;
@@ -217,6 +220,68 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
         return operations;
     }
 
+    /**
+     * Creates the replication operations of a replica fragment that replicate only the
+     * entries that differ from the replica with the given Merkle tree leaves. Executed
+     * on the partition thread.
+     *
+     * @param remoteLeaves the leaves of the {@link ReplicaFragmentMerkleTree} of the replica
+     * @return the replication operations, an empty collection if the replicas are equal or
+     * {@code null} if the namespace doesn't support delta replication
+     * @see DeltaReplicationAwareService
+     */
+    @Nullable
+    final Collection<Operation> createDeltaReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns,
+                                                                 int[] remoteLeaves) {
+        assert !(ns instanceof NonFragmentedServiceNamespace) : ns + " should be used only for fragmented services!";
+
+        if (!isRunningOnPartitionThread()) {
+            UrgentPartitionRunnable<Collection<Operation>> runnable = new UrgentPartitionRunnable<>(
+                    event.getPartitionId(), () -> createDeltaReplicationOperations(event, ns, remoteLeaves));
+            getNodeEngine().getOperationService().execute(runnable);
+            try {
+                return runnable.future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw sneakyThrow(peel(e));
+            }
+        }
+
+        Collection<Operation> operations = emptySet();
+        int differingLeafCount = 0;
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        for (ServiceInfo serviceInfo : nodeEngine.getServiceInfos(FragmentedMigrationAwareService.class)) {
+            FragmentedMigrationAwareService service = serviceInfo.getService();
+            if (!service.isKnownServiceNamespace(ns)) {
+                continue;
+            }
+            if (!(service instanceof DeltaReplicationAwareService)) {
+                return null;
+            }
+
+            DeltaReplicationAwareService deltaService = (DeltaReplicationAwareService) service;
+            ReplicaFragmentMerkleTree tree = new ReplicaFragmentMerkleTree(ReplicaFragmentMerkleTree.depthOf(remoteLeaves));
+            if (!deltaService.buildMerkleTree(event.getPartitionId(), ns, tree)) {
+                return null;
+            }
+
+            int[] differingLeaves = tree.diff(remoteLeaves);
+            if (differingLeaves.length == 0) {
+                continue;
+            }
+            Operation op = deltaService.prepareDeltaReplicationOperation(event, ns, differingLeaves);
+            if (op == null) {
+                return null;
+            }
+            op.setServiceName(serviceInfo.getName());
+            operations = appendNewElement(operations, op);
+            differingLeafCount += differingLeaves.length / 2;
+        }
+
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) nodeEngine.getPartitionService();
+        partitionService.getReplicaManager().onDeltaSync(differingLeafCount);
+        return operations;
+    }
+
     /**
      * Used for offloaded replication-operation
      * preparation while executing a migration request
@@ -42,6 +42,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
 import com.hazelcast.spi.impl.operationservice.Offload;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
@@ -57,6 +58,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.logging.Level;
 
@@ -82,6 +84,14 @@ import static java.util.Collections.singleton;
  *
  * @since 5.1 If chunked migration is enabled,
  * it also subdivides fragments into chunks.
+ * <p>
+ * After the destination acknowledged the initial, empty fragment, up to
+ * {@link MigrationManager#getMaxMigrationFragmentsInFlight()} fragments are
+ * sent without waiting for the acknowledgement of the previous ones. A
+ * fragment is prepared only after the previous one has been serialized,
+ * since serializing a chunked fragment advances its chunk suppliers. Sending
+ * a fragment is delayed if this member exceeds its migration bandwidth, see
+ * {@link MigrationManager#getBandwidthLimiter()}.
  */
 public class MigrationRequestOperation extends BaseMigrationOperation {
 
@@ -93,6 +103,17 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private transient Map<ServiceNamespace, Collection<ChunkSupplier>>
             namespaceToSuppliers = new HashMap<>();
 
+    // guards the fields below; responses of fragments in flight are
+    // processed concurrently with the preparation of the next fragment
+    private final transient Object fragmentMutex = new Object();
+    private transient int fragmentsInFlight;
+    // true while the next fragment is being prepared or sent
+    private transient boolean sendingFragment;
+    private transient boolean allFragmentsSent;
+    private transient boolean completed;
+    // the earliest time the next fragment can be sent without exceeding the bandwidth limit
+    private transient long nextFragmentNanos;
+
     public MigrationRequestOperation() {
     }
 
@@ -122,7 +143,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
             try {
                 executeBeforeMigrations();
                 namespacesContext = new ServiceNamespacesContext(nodeEngine, getPartitionReplicationEvent());
-                invokeMigrationOperation(initialReplicaFragmentMigrationState(), true);
+                ReplicaFragmentMigrationState initialState = initialReplicaFragmentMigrationState();
+                invokeMigrationOperation(initialState, true);
+                // the next fragment is only sent when the initial one is acknowledged
+                chargeFragment(initialState);
             } catch (Throwable e) {
                 logThrowable(e);
                 completeMigration(false);
@@ -165,13 +189,88 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         InternalPartitionServiceImpl partitionService = getService();
         ExecutorService asyncExecutor = getNodeEngine().getExecutionService().getExecutor(ExecutionService.ASYNC_EXECUTOR);
 
+        synchronized (fragmentMutex) {
+            fragmentsInFlight++;
+        }
+
         Address target = migrationInfo.getDestinationAddress();
-        nodeEngine.getOperationService()
+        InvocationBuilder builder = nodeEngine.getOperationService()
                 .createInvocationBuilder(InternalPartitionService.SERVICE_NAME, operation, target)
                 .setResultDeserialized(true)
-                .setCallTimeout(partitionService.getPartitionMigrationTimeout())
-                .invoke()
-                .whenCompleteAsync(new MigrationCallback(), asyncExecutor);
+                .setCallTimeout(partitionService.getPartitionMigrationTimeout());
+        if (!firstFragment && partitionService.getMigrationManager().getMaxMigrationFragmentsInFlight() > 1) {
+            // a retried fragment could overtake the fragments sent after it, so
+            // a fragment failure fails the migration instead
+            builder.setTryCount(1);
+        }
+        builder.invoke().whenCompleteAsync(new MigrationCallback(), asyncExecutor);
+    }
+
+    /**
+     * Charges the bandwidth limiter with the size of the sent fragment and,
+     * if the window allows, continues with the next fragment.
+     */
+    private void onFragmentSent(ReplicaFragmentMigrationState migrationState) {
+        chargeFragment(migrationState);
+
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+        boolean sendNext;
+        synchronized (fragmentMutex) {
+            sendNext = !completed && fragmentsInFlight < migrationManager.getMaxMigrationFragmentsInFlight();
+            sendingFragment = sendNext;
+        }
+        if (sendNext) {
+            scheduleSendNewFragment();
+        }
+    }
+
+    /**
+     * Charges the bandwidth limiter and the migration stats with the size of
+     * the sent fragment and delays the next fragment accordingly.
+     */
+    private void chargeFragment(ReplicaFragmentMigrationState migrationState) {
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+        int size = Math.max(0, migrationState.getSerializedSize());
+        long delayNanos = migrationManager.getBandwidthLimiter().charge(size);
+        migrationManager.getStats().recordMigrationFragment(size, delayNanos);
+        synchronized (fragmentMutex) {
+            nextFragmentNanos = System.nanoTime() + delayNanos;
+        }
+    }
+
+    private void onFragmentAcknowledged() {
+        boolean sendNext;
+        boolean done;
+        synchronized (fragmentMutex) {
+            fragmentsInFlight--;
+            done = allFragmentsSent && fragmentsInFlight == 0;
+            sendNext = !done && !completed && !sendingFragment && !allFragmentsSent;
+            sendingFragment |= sendNext;
+        }
+        if (done) {
+            getLogger().finest("All migration fragments done for " + migrationInfo);
+            completeMigration(true);
+        } else if (sendNext) {
+            scheduleSendNewFragment();
+        }
+    }
+
+    private void scheduleSendNewFragment() {
+        long delayNanos;
+        synchronized (fragmentMutex) {
+            delayNanos = nextFragmentNanos - System.nanoTime();
+        }
+        // ASYNC executor is of CONCRETE type (does not share threads with other executors)
+        // and is never used for user-supplied code.
+        ExecutionService executionService = getNodeEngine().getExecutionService();
+        if (delayNanos > 0) {
+            executionService.schedule(ExecutionService.ASYNC_EXECUTOR, this::trySendNewFragment,
+                    delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            executionService.submit(ExecutionService.ASYNC_EXECUTOR, this::trySendNewFragment);
+        }
     }
 
     private void trySendNewFragment() {
@@ -195,8 +294,16 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 // migration ops must be serialized and invoked from partition threads
                 getNodeEngine().getOperationService().execute(new InvokeMigrationOps(migrationState, getPartitionId()));
             } else {
-                getLogger().finest("All migration fragments done for " + migrationInfo);
-                completeMigration(true);
+                boolean done;
+                synchronized (fragmentMutex) {
+                    allFragmentsSent = true;
+                    sendingFragment = false;
+                    done = fragmentsInFlight == 0;
+                }
+                if (done) {
+                    getLogger().finest("All migration fragments done for " + migrationInfo);
+                    completeMigration(true);
+                }
             }
         } catch (Throwable e) {
             logThrowable(e);
@@ -223,6 +330,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         public void run() {
             try {
                 invokeMigrationOperation(migrationState, false);
+                onFragmentSent(migrationState);
             } catch (Throwable t) {
                 logThrowable(t);
                 completeMigration(false);
@@ -380,6 +488,13 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     }
 
     private void completeMigration(boolean result) {
+        synchronized (fragmentMutex) {
+            if (completed) {
+                // another fragment in flight already completed the migration
+                return;
+            }
+            completed = true;
+        }
         success = result;
         onMigrationComplete();
         sendResponse(result);
@@ -435,10 +550,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 logThrowable(throwable);
                 completeMigration(false);
             } else if (Boolean.TRUE.equals(result)) {
-                // ASYNC executor is of CONCRETE type (does not share threads with other executors)
-                // and is never used for user-supplied code.
-                getNodeEngine().getExecutionService().submit(ExecutionService.ASYNC_EXECUTOR,
-                        () -> trySendNewFragment());
+                onFragmentAcknowledged();
             } else {
                 ILogger logger = getLogger();
                 if (logger.isFineEnabled()) {
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
@@ -26,6 +27,7 @@ import com.hazelcast.internal.partition.PartitionReplica;
 import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
 import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.partition.impl.InternalPartitionImpl;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.MigrationManager;
@@ -35,6 +37,7 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -44,7 +47,9 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.readCollection;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeCollection;
@@ -60,11 +65,16 @@ import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
  * <li>the maximum number of parallel synchronizations has already been reached</li>
  * </ul>
  * An empty response can be sent if the current replica version is 0.
+ * <p>
+ * When the request contains the leaves of the {@link ReplicaFragmentMerkleTree} of a namespace,
+ * only the entries of the differing leaves are replicated.
  */
 public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
-        implements PartitionAwareOperation, MigrationCycleOperation {
+        implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     protected volatile Collection<ServiceNamespace> namespaces;
+    // the leaves of the Merkle trees of the replica, for the namespaces that can be synced with a delta
+    protected volatile Map<ServiceNamespace, int[]> merkleTreeLeaves = Collections.emptyMap();
 
     public PartitionReplicaSyncRequest() {
         namespaces = Collections.emptyList();
@@ -77,6 +87,21 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
         setReplicaIndex(replicaIndex);
     }
 
+    public Collection<ServiceNamespace> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * Returns the ID of the partition to sync.
+     */
+    public int getSyncPartitionId() {
+        return partitionId();
+    }
+
+    public void setMerkleTreeLeaves(Map<ServiceNamespace, int[]> merkleTreeLeaves) {
+        this.merkleTreeLeaves = merkleTreeLeaves;
+    }
+
     @Override
     public void beforeRun() {
         int syncReplicaIndex = getReplicaIndex();
@@ -157,7 +182,10 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
                 Collection<Operation> operations = Collections.emptyList();
                 Collection<ChunkSupplier> chunkSuppliers = Collections.emptyList();
 
-                if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
+                Collection<Operation> deltaOperations = createDeltaReplicationOperations(event, namespace);
+                if (deltaOperations != null) {
+                    operations = deltaOperations;
+                } else if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
                     operations = createNonFragmentedReplicationOperations(event);
                 } else {
                     chunkSuppliers = isChunkedMigrationEnabled()
@@ -181,6 +209,24 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
         }
     }
 
+    /**
+     * Creates the operations that replicate only the entries that differ from the
+     * Merkle tree sent by the replica.
+     *
+     * @return the operations, an empty collection if the replica is in sync or
+     * {@code null} if the namespace needs to be replicated fully
+     */
+    @Nullable
+    protected Collection<Operation> createDeltaReplicationOperations(PartitionReplicationEvent event,
+                                                                     ServiceNamespace namespace) {
+        int[] leaves = merkleTreeLeaves.get(namespace);
+        if (leaves == null) {
+            return null;
+        }
+
+        return createDeltaReplicationOperations(event, namespace, leaves);
+    }
+
     protected boolean hasRemainingChunksToSend(Collection<ChunkSupplier> chunkSuppliers) {
         if (!isChunkedMigrationEnabled()) {
             return false;
@@ -333,11 +379,42 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         writeCollection(namespaces, out);
+        writeMerkleTreeLeaves(out);
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
         namespaces = readCollection(in);
+        readMerkleTreeLeaves(in);
+    }
+
+    protected final void writeMerkleTreeLeaves(ObjectDataOutput out) throws IOException {
+        if (!out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            return;
+        }
+
+        out.writeInt(merkleTreeLeaves.size());
+        for (Map.Entry<ServiceNamespace, int[]> entry : merkleTreeLeaves.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeIntArray(entry.getValue());
+        }
+    }
+
+    protected final void readMerkleTreeLeaves(ObjectDataInput in) throws IOException {
+        if (!in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            return;
+        }
+
+        int size = in.readInt();
+        if (size == 0) {
+            return;
+        }
+        Map<ServiceNamespace, int[]> leaves = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            ServiceNamespace namespace = in.readObject();
+            leaves.put(namespace, in.readIntArray());
+        }
+        merkleTreeLeaves = leaves;
     }
 
     @Override
@@ -115,7 +115,16 @@ public final class PartitionReplicaSyncRequestOffloadable
                 Collection<Operation> operations = Collections.emptyList();
                 Collection<ChunkSupplier> chunkSuppliers = Collections.emptyList();
 
-                if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
+                Collection<Operation> deltaOperations = createDeltaReplicationOperations(event, namespace);
+                if (deltaOperations != null) {
+                    operations = deltaOperations;
+                    if (operations.isEmpty()) {
+                        // the replica is in sync, only the replica versions need to be sent
+                        sendOperationsOnPartitionThread(operations, chunkSuppliers, namespace);
+                        iterator.remove();
+                        continue;
+                    }
+                } else if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
                     operations = createNonFragmentedReplicationOperations(event);
                 } else {
                     chunkSuppliers = isChunkedMigrationEnabled()
@@ -265,6 +274,7 @@ public final class PartitionReplicaSyncRequestOffloadable
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         writeCollection(namespaces, out);
         out.writeInt(partitionId);
+        writeMerkleTreeLeaves(out);
     }
 
     @Override
@@ -272,6 +282,7 @@ public final class PartitionReplicaSyncRequestOffloadable
         namespaces = Collections.newSetFromMap(new ConcurrentHashMap<>());
         namespaces.addAll(readCollection(in));
         partitionId = in.readInt();
+        readMerkleTreeLeaves(in);
     }
 
     private boolean trySetMigratingFlag() {
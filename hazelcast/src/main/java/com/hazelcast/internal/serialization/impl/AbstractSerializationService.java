@@ -91,6 +91,8 @@ public abstract class AbstractSerializationService implements InternalSerializat
     private final ConcurrentMap<Class, SerializerAdapter> typeMap =
             new ConcurrentReferenceHashMap<>(ReferenceType.WEAK, ReferenceType.STRONG);
     private final ConcurrentMap<Integer, SerializerAdapter> idMap = new ConcurrentHashMap<>();
+    private final ConcurrentReferenceHashMap<Class, SerializedSizeHint> sizeHints =
+            new ConcurrentReferenceHashMap<>(ReferenceType.WEAK, ReferenceType.STRONG);
     private final AtomicReference<SerializerAdapter> global = new AtomicReference<SerializerAdapter>();
 
     //Global serializer may override Java Serialization or not
@@ -228,6 +230,15 @@ public abstract class AbstractSerializationService implements InternalSerializat
             out.position(leftPadding);
 
             SerializerAdapter serializer = serializerFor(obj, includeSchema);
+            SerializedSizeHint sizeHint = null;
+            if (leftPadding == 0 && out instanceof ByteArrayObjectDataOutput) {
+                // serialize into an array of the predicted size, so toByteArray can hand it over without a copy
+                sizeHint = sizeHints.applyIfAbsent(obj.getClass(), c -> new SerializedSizeHint());
+                int predictedSize = sizeHint.predictedSize();
+                if (predictedSize > 0) {
+                    ((ByteArrayObjectDataOutput) out).expectSize(predictedSize);
+                }
+            }
             if (writeHash) {
                 int partitionHash = calculatePartitionHash(obj, strategy);
                 out.writeInt(partitionHash, BIG_ENDIAN);
@@ -236,6 +247,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
             out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
 
             serializer.write(out, obj);
+            if (sizeHint != null) {
+                sizeHint.update(out.position());
+            }
             return out.toByteArray();
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
@@ -21,6 +21,7 @@ import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.internal.util.collection.ArrayUtils;
 
 import javax.annotation.Nullable;
@@ -50,6 +51,14 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
 
     private final boolean isBigEndian;
 
+    // the pool the buffer is taken from when growing; null if not pooled.
+    private ByteArrayPool byteArrayPool;
+
+    // if the buffer was created by expectSize; the previous buffer is kept as the
+    // spare buffer to continue with once the buffer is handed over or cleared.
+    private boolean exactSize;
+    private byte[] spareBuffer;
+
     ByteArrayObjectDataOutput(int size, InternalSerializationService service, ByteOrder byteOrder) {
         this(size, -1, service, byteOrder);
     }
@@ -396,7 +405,14 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
         if (available() < len) {
             if (buffer != null) {
                 int newCap = Math.max(Math.max(buffer.length << 1, buffer.length + len), firstGrowthSize);
-                buffer = Arrays.copyOf(buffer, newCap);
+                if (byteArrayPool == null) {
+                    buffer = Arrays.copyOf(buffer, newCap);
+                } else {
+                    byte[] newBuffer = byteArrayPool.take(newCap);
+                    System.arraycopy(buffer, 0, newBuffer, 0, buffer.length);
+                    byteArrayPool.offer(buffer);
+                    buffer = newBuffer;
+                }
             } else {
                 buffer = new byte[len > initialSize / 2 ? len * 2 : initialSize];
             }
@@ -451,25 +467,85 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
             return new byte[padding];
         }
 
+        if (exactSize && padding == 0 && pos == buffer.length) {
+            byte[] result = buffer;
+            restoreSpareBuffer();
+            pos = 0;
+            return result;
+        }
+
         final byte[] newBuffer = new byte[padding + pos];
         System.arraycopy(buffer, 0, newBuffer, padding, pos);
         return newBuffer;
     }
 
+    /**
+     * Makes the next writes go to a new array of exactly the expected size. If
+     * exactly that many bytes are written, {@link #toByteArray()} hands the array
+     * over instead of copying it, so the caller can adopt it (e.g. in a
+     * {@link HeapData}) without a second allocation. After the handover this output
+     * continues with its previous buffer and its position is reset to 0. If a
+     * different number of bytes is written, the written bytes are copied as usual.
+     * <p>
+     * Must be called before anything is written.
+     *
+     * @param expectedSize the expected number of written bytes.
+     * @throws IllegalStateException if something was written already.
+     */
+    public void expectSize(int expectedSize) {
+        if (pos != 0) {
+            throw new IllegalStateException("Can't expect a size after writing " + pos + " bytes");
+        }
+        if (!exactSize) {
+            spareBuffer = buffer;
+            exactSize = true;
+        }
+        buffer = new byte[expectedSize];
+    }
+
+    private void restoreSpareBuffer() {
+        buffer = spareBuffer;
+        spareBuffer = null;
+        exactSize = false;
+    }
+
     @Override
     public void clear() {
         pos = 0;
+        if (exactSize) {
+            if (byteArrayPool != null && buffer != null) {
+                byteArrayPool.offer(buffer);
+            }
+            restoreSpareBuffer();
+        }
         if (buffer != null && buffer.length > initialSize * 8) {
-            buffer = new byte[initialSize * 8];
+            if (byteArrayPool == null) {
+                buffer = new byte[initialSize * 8];
+            } else {
+                byteArrayPool.offer(buffer);
+                buffer = byteArrayPool.take(initialSize * 8);
+            }
         }
         version = UNKNOWN;
         wanProtocolVersion = UNKNOWN;
     }
 
+    /**
+     * Sets the {@link ByteArrayPool} used to grow and shrink the buffer of this
+     * output. The pool must be confined to the thread using this output.
+     *
+     * @param byteArrayPool the pool, or {@code null} to allocate new buffers.
+     */
+    public void setByteArrayPool(@Nullable ByteArrayPool byteArrayPool) {
+        this.byteArrayPool = byteArrayPool;
+    }
+
     @Override
     public void close() {
         pos = 0;
         buffer = null;
+        spareBuffer = null;
+        exactSize = false;
     }
 
     @Override
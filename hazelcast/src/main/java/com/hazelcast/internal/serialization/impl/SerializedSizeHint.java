@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+/**
+ * Predicts the serialized size of the instances of a class, so that {@link AbstractSerializationService#toData}
+ * can serialize into an array of the exact size and hand it over to the {@link HeapData} without copying (see
+ * {@link ByteArrayObjectDataOutput#expectSize(int)}).
+ * <p>
+ * A size is only predicted once the last {@link #STABLE_COUNT} instances were serialized to the same size, so
+ * classes with a varying serialized size (e.g. strings) fall back to copying the written bytes instead of
+ * allocating an array of the wrong size on every serialization.
+ * <p>
+ * The fields are accessed by multiple threads without synchronization. This is fine: a stale value can only
+ * cause a wrong prediction, and a wrong prediction only costs the copy that is made anyway without a prediction.
+ */
+final class SerializedSizeHint {
+
+    static final int STABLE_COUNT = 2;
+
+    private int size = -1;
+    private int count;
+
+    /**
+     * Returns the predicted size, or -1 if the size can't be predicted.
+     */
+    int predictedSize() {
+        return count >= STABLE_COUNT ? size : -1;
+    }
+
+    /**
+     * Records the size of a serialized instance.
+     *
+     * @param actualSize the serialized size.
+     */
+    void update(int actualSize) {
+        if (actualSize == size) {
+            if (count < STABLE_COUNT) {
+                count++;
+            }
+        } else {
+            size = actualSize;
+            count = 1;
+        }
+    }
+}
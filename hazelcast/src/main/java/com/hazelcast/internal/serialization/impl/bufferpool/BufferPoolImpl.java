@@ -20,6 +20,7 @@ import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.ByteArrayObjectDataOutput;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
 import java.util.ArrayDeque;
@@ -29,18 +30,35 @@ import java.util.Queue;
  * Default {@link BufferPool} implementation.
  * <p>
  * This class is designed to that a subclass can be made. This is done for the Enterprise version.
+ * <p>
+ * The {@link ByteArrayObjectDataOutput} instances created by this pool share a {@link ByteArrayPool},
+ * so the outputs don't need to allocate a new byte array every time they grow or shrink. The largest
+ * pooled array size can be configured using the {@value #PROP_MAX_POOLED_ARRAY_SIZE} system property;
+ * a value of 0 disables the pooling of byte arrays.
  */
 public class BufferPoolImpl implements BufferPool {
     static final int MAX_POOLED_ITEMS = 3;
 
+    static final String PROP_MAX_POOLED_ARRAY_SIZE = "hazelcast.serialization.bufferpool.maxPooledArraySize";
+    static final int DEFAULT_MAX_POOLED_ARRAY_SIZE = 1024 * 1024;
+    static final int MAX_POOLED_ARRAY_SIZE = Integer.getInteger(PROP_MAX_POOLED_ARRAY_SIZE, DEFAULT_MAX_POOLED_ARRAY_SIZE);
+
     protected final InternalSerializationService serializationService;
 
     // accessible for testing.
     final Queue<BufferObjectDataOutput> outputQueue = new ArrayDeque<>(MAX_POOLED_ITEMS);
     final Queue<BufferObjectDataInput> inputQueue = new ArrayDeque<>(MAX_POOLED_ITEMS);
+    final ByteArrayPool byteArrayPool;
 
     public BufferPoolImpl(InternalSerializationService serializationService) {
+        this(serializationService, MAX_POOLED_ARRAY_SIZE);
+    }
+
+    BufferPoolImpl(InternalSerializationService serializationService, int maxPooledArraySize) {
         this.serializationService = serializationService;
+        this.byteArrayPool = maxPooledArraySize > 0
+                ? new ByteArrayPool(Math.max(maxPooledArraySize, ByteArrayPool.MIN_POOLED_ARRAY_SIZE))
+                : null;
     }
 
     @Override
@@ -48,6 +66,9 @@ public class BufferPoolImpl implements BufferPool {
         BufferObjectDataOutput out = outputQueue.poll();
         if (out == null) {
             out = serializationService.createObjectDataOutput();
+            if (byteArrayPool != null && out instanceof ByteArrayObjectDataOutput) {
+                ((ByteArrayObjectDataOutput) out).setByteArrayPool(byteArrayPool);
+            }
         }
         return out;
     }
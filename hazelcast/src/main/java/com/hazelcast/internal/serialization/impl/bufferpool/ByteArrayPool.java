@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.serialization.impl.ByteArrayObjectDataOutput;
+
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+/**
+ * A pool of byte arrays in power of two size classes that is used by the
+ * {@link ByteArrayObjectDataOutput} instances of a single {@link BufferPool}.
+ * <p>
+ * When an output needs to grow, the larger array is taken from this pool and
+ * the smaller array is returned to it. When an output is cleared, an oversized
+ * array is returned as well instead of being left to the GC. So serializing
+ * large values repeatedly doesn't cause the output to reallocate its array
+ * on every serialization.
+ * <p>
+ * Arrays smaller than {@link #MIN_POOLED_ARRAY_SIZE} or larger than the max
+ * pooled array size are not pooled. The number of retained arrays per size class
+ * is bounded by {@link #ARRAYS_PER_SIZE_CLASS}, so the memory retained by
+ * a pool is bounded as well.
+ * <p>
+ * This class is not thread-safe; just like the {@link BufferPool} it is confined
+ * to a single thread.
+ */
+public final class ByteArrayPool {
+
+    static final int MIN_POOLED_ARRAY_SIZE = 1024;
+    static final int ARRAYS_PER_SIZE_CLASS = 2;
+
+    private static final int MIN_SHIFT = numberOfTrailingZeros(MIN_POOLED_ARRAY_SIZE);
+
+    private final byte[][][] arrays;
+    private final int[] counts;
+    private final int maxPooledArraySize;
+    private long allocations;
+    private long allocatedBytes;
+
+    /**
+     * Creates a ByteArrayPool.
+     *
+     * @param maxPooledArraySize the size of the largest array to pool. Will be
+     *                           rounded up to the next power of two.
+     * @throws IllegalArgumentException if maxPooledArraySize is smaller than
+     *                                  {@link #MIN_POOLED_ARRAY_SIZE}.
+     */
+    public ByteArrayPool(int maxPooledArraySize) {
+        if (maxPooledArraySize < MIN_POOLED_ARRAY_SIZE) {
+            throw new IllegalArgumentException("maxPooledArraySize " + maxPooledArraySize
+                    + " can't be smaller than " + MIN_POOLED_ARRAY_SIZE);
+        }
+        this.maxPooledArraySize = nextPowerOfTwo(maxPooledArraySize);
+        int sizeClassCount = numberOfTrailingZeros(this.maxPooledArraySize) - MIN_SHIFT + 1;
+        this.arrays = new byte[sizeClassCount][ARRAYS_PER_SIZE_CLASS][];
+        this.counts = new int[sizeClassCount];
+    }
+
+    /**
+     * Takes an array with a length of at least the given length from the pool. If
+     * no such array is pooled, a new array is allocated. The content of the returned
+     * array is undefined.
+     *
+     * @param minLength the minimal length of the array.
+     * @return the array.
+     */
+    public byte[] take(int minLength) {
+        if (minLength > maxPooledArraySize) {
+            return allocate(minLength);
+        }
+
+        int sizeClass = sizeClass(minLength);
+        int count = counts[sizeClass];
+        if (count == 0) {
+            return allocate(MIN_POOLED_ARRAY_SIZE << sizeClass);
+        }
+
+        count--;
+        byte[][] stack = arrays[sizeClass];
+        byte[] array = stack[count];
+        stack[count] = null;
+        counts[sizeClass] = count;
+        return array;
+    }
+
+    /**
+     * Offers an array to the pool. If the array has a length that isn't pooled
+     * or the size class is full, the array is left to the GC.
+     * <p>
+     * The caller must not use the array after offering it.
+     *
+     * @param array the array to offer.
+     */
+    public void offer(byte[] array) {
+        int length = array.length;
+        if (length < MIN_POOLED_ARRAY_SIZE
+                || length > maxPooledArraySize
+                || Integer.bitCount(length) != 1) {
+            return;
+        }
+
+        int sizeClass = sizeClass(length);
+        int count = counts[sizeClass];
+        if (count == ARRAYS_PER_SIZE_CLASS) {
+            return;
+        }
+
+        arrays[sizeClass][count] = array;
+        counts[sizeClass] = count + 1;
+    }
+
+    /**
+     * Returns the number of arrays this pool had to allocate because no pooled
+     * array was available.
+     */
+    public long allocations() {
+        return allocations;
+    }
+
+    /**
+     * Returns the total length in bytes of the arrays this pool allocated.
+     */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private byte[] allocate(int length) {
+        allocations++;
+        allocatedBytes += length;
+        return new byte[length];
+    }
+
+    private static int sizeClass(int length) {
+        if (length <= MIN_POOLED_ARRAY_SIZE) {
+            return 0;
+        }
+        return numberOfTrailingZeros(nextPowerOfTwo(length)) - MIN_SHIFT;
+    }
+}
@@ -160,13 +160,20 @@ public class DefaultCompactWriter implements CompactWriter {
         }
     }
 
+    Schema getSchema() {
+        return schema;
+    }
+
     IllegalStateException illegalStateException(IOException cause) {
         return new IllegalStateException("IOException is not expected from BufferObjectDataOutput ", cause);
     }
 
     @Override
     public void writeBoolean(@Nonnull String fieldName, boolean value) {
-        FieldDescriptor fieldDefinition = checkFieldDefinition(fieldName, BOOLEAN);
+        writeBoolean(checkFieldDefinition(fieldName, BOOLEAN), value);
+    }
+
+    void writeBoolean(FieldDescriptor fieldDefinition, boolean value) {
         int offsetInBytes = fieldDefinition.getOffset();
         int offsetInBits = fieldDefinition.getBitOffset();
         int writeOffset = offsetInBytes + dataStartPosition;
@@ -179,7 +186,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeInt8(@Nonnull String fieldName, byte value) {
-        int position = getFixedSizeFieldPosition(fieldName, INT8);
+        writeInt8(checkFieldDefinition(fieldName, INT8), value);
+    }
+
+    void writeInt8(FieldDescriptor fieldDefinition, byte value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeByte(position, value);
         } catch (IOException e) {
@@ -189,7 +200,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeInt16(@Nonnull String fieldName, short value) {
-        int position = getFixedSizeFieldPosition(fieldName, INT16);
+        writeInt16(checkFieldDefinition(fieldName, INT16), value);
+    }
+
+    void writeInt16(FieldDescriptor fieldDefinition, short value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeShort(position, value);
         } catch (IOException e) {
@@ -199,7 +214,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeInt32(@Nonnull String fieldName, int value) {
-        int position = getFixedSizeFieldPosition(fieldName, INT32);
+        writeInt32(checkFieldDefinition(fieldName, INT32), value);
+    }
+
+    void writeInt32(FieldDescriptor fieldDefinition, int value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeInt(position, value);
         } catch (IOException e) {
@@ -209,7 +228,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeInt64(@Nonnull String fieldName, long value) {
-        int position = getFixedSizeFieldPosition(fieldName, INT64);
+        writeInt64(checkFieldDefinition(fieldName, INT64), value);
+    }
+
+    void writeInt64(FieldDescriptor fieldDefinition, long value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeLong(position, value);
         } catch (IOException e) {
@@ -219,7 +242,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeFloat32(@Nonnull String fieldName, float value) {
-        int position = getFixedSizeFieldPosition(fieldName, FLOAT32);
+        writeFloat32(checkFieldDefinition(fieldName, FLOAT32), value);
+    }
+
+    void writeFloat32(FieldDescriptor fieldDefinition, float value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeFloat(position, value);
         } catch (IOException e) {
@@ -229,7 +256,11 @@ public class DefaultCompactWriter implements CompactWriter {
 
     @Override
     public void writeFloat64(@Nonnull String fieldName, double value) {
-        int position = getFixedSizeFieldPosition(fieldName, FLOAT64);
+        writeFloat64(checkFieldDefinition(fieldName, FLOAT64), value);
+    }
+
+    void writeFloat64(FieldDescriptor fieldDefinition, double value) {
+        int position = fieldDefinition.getOffset() + dataStartPosition;
         try {
             out.writeDouble(position, value);
         } catch (IOException e) {
@@ -402,11 +433,6 @@ public class DefaultCompactWriter implements CompactWriter {
         fieldOffsets[index] = fieldPosition;
     }
 
-    private int getFixedSizeFieldPosition(@Nonnull String fieldName, @Nonnull FieldKind fieldKind) {
-        FieldDescriptor fieldDefinition = checkFieldDefinition(fieldName, fieldKind);
-        return fieldDefinition.getOffset() + dataStartPosition;
-    }
-
     protected FieldDescriptor checkFieldDefinition(@Nonnull String fieldName, @Nonnull FieldKind kind) {
         FieldDescriptor field = schema.getField(fieldName);
         if (field == null) {
@@ -66,7 +66,7 @@ import static java.util.stream.Collectors.toList;
  */
 public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
 
-    private final Map<Class, ReaderWriter[]> readerWritersCache = new ConcurrentHashMap<>();
+    private final Map<Class, SchemaSpecializedReaderWriters> readerWritersCache = new ConcurrentHashMap<>();
     private final CompactStreamSerializer compactStreamSerializer;
 
     public ReflectiveCompactSerializer(CompactStreamSerializer compactStreamSerializer) {
@@ -75,12 +75,14 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
 
     @Override
     public void write(@Nonnull CompactWriter writer, @Nonnull T object) {
-        Class<?> clazz = object.getClass();
-        if (writeFast(clazz, writer, object)) {
-            return;
+        SchemaSpecializedReaderWriters readerWriters = getOrCreateReaderWriters(object.getClass());
+        // The schema of the writer is only known when it is a DefaultCompactWriter;
+        // e.g. the SchemaWriter that creates the schema needs the reflective path.
+        if (SchemaSpecializedReaderWriters.SPECIALIZATION_ENABLED && writer instanceof DefaultCompactWriter) {
+            write(readerWriters.specialized(((DefaultCompactWriter) writer).getSchema()), writer, object);
+        } else {
+            write(readerWriters.reflective(), writer, object);
         }
-        createFastReadWriteCaches(clazz);
-        writeFast(clazz, writer, object);
     }
 
     @Nonnull
@@ -95,36 +97,29 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
         throw new IllegalStateException("getCompactClass should not be called for the reflective serializer");
     }
 
-    private boolean writeFast(Class clazz, CompactWriter compactWriter, Object object) {
-        ReaderWriter[] readerWriters = readerWritersCache.get(clazz);
-        if (readerWriters == null) {
-            return false;
-        }
+    private static void write(ReaderWriter[] readerWriters, CompactWriter compactWriter, Object object) {
         for (ReaderWriter readerWriter : readerWriters) {
             try {
                 readerWriter.write(compactWriter, object);
-            } catch (Exception e) {
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new HazelcastSerializationException(e);
             }
         }
-        return true;
     }
 
-    private boolean readFast(Class clazz, DefaultCompactReader compactReader, Object object) {
-        ReaderWriter[] readerWriters = readerWritersCache.get(clazz);
-        if (readerWriters == null) {
-            return false;
-        }
-
+    private static void read(ReaderWriter[] readerWriters, DefaultCompactReader compactReader, Object object) {
         Schema schema = compactReader.getSchema();
         for (ReaderWriter readerWriter : readerWriters) {
             try {
                 readerWriter.read(compactReader, schema, object);
-            } catch (Exception e) {
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new HazelcastSerializationException(e);
             }
         }
-        return true;
     }
 
     @Nonnull
@@ -137,14 +132,23 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
 
         T object;
         object = (T) createObject(associatedClass);
-        if (readFast(associatedClass, compactReader, object)) {
-            return object;
+        SchemaSpecializedReaderWriters readerWriters = getOrCreateReaderWriters(associatedClass);
+        if (SchemaSpecializedReaderWriters.SPECIALIZATION_ENABLED) {
+            read(readerWriters.specialized(compactReader.getSchema()), compactReader, object);
+        } else {
+            read(readerWriters.reflective(), compactReader, object);
         }
-        createFastReadWriteCaches(associatedClass);
-        readFast(associatedClass, compactReader, object);
         return object;
     }
 
+    private SchemaSpecializedReaderWriters getOrCreateReaderWriters(Class clazz) {
+        SchemaSpecializedReaderWriters readerWriters = readerWritersCache.get(clazz);
+        if (readerWriters != null) {
+            return readerWriters;
+        }
+        return createFastReadWriteCaches(clazz);
+    }
+
     @Nonnull
     private Object createObject(Class associatedClass) {
         try {
@@ -165,7 +169,7 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
         return fields;
     }
 
-    private void createFastReadWriteCaches(Class clazz) {
+    private SchemaSpecializedReaderWriters createFastReadWriteCaches(Class clazz) {
         // The top level class might not be Compact serializable
         CompactUtil.verifyClassIsCompactSerializable(clazz);
 
@@ -305,7 +309,10 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
             index++;
         }
 
-        readerWritersCache.put(clazz, readerWriters);
+        SchemaSpecializedReaderWriters result
+                = new SchemaSpecializedReaderWriters(allFields.toArray(new Field[0]), readerWriters);
+        readerWritersCache.put(clazz, result);
+        return result;
     }
 
     private static final class ReaderWriterAdapter implements ReaderWriter {
@@ -330,9 +337,9 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
         }
     }
 
-    private interface ReaderWriter {
-        void read(CompactReader reader, Schema schema, Object o) throws Exception;
+    interface ReaderWriter {
+        void read(CompactReader reader, Schema schema, Object o) throws Throwable;
 
-        void write(CompactWriter writer, Object o) throws Exception;
+        void write(CompactWriter writer, Object o) throws Throwable;
     }
 }
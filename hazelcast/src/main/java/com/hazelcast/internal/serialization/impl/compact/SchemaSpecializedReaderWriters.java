@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.impl.compact.ReflectiveCompactSerializer.ReaderWriter;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.nio.serialization.FieldKind.BOOLEAN;
+import static com.hazelcast.nio.serialization.FieldKind.FLOAT32;
+import static com.hazelcast.nio.serialization.FieldKind.FLOAT64;
+import static com.hazelcast.nio.serialization.FieldKind.INT16;
+import static com.hazelcast.nio.serialization.FieldKind.INT32;
+import static com.hazelcast.nio.serialization.FieldKind.INT64;
+import static com.hazelcast.nio.serialization.FieldKind.INT8;
+
+/**
+ * The reader/writers of a single class used by the {@link ReflectiveCompactSerializer}.
+ * <p>
+ * Next to the reflective reader/writers, which look up every field by name in the
+ * schema on every call, this class creates reader/writers that are specialized for a
+ * particular {@link Schema}. For every primitive field whose kind in the schema
+ * matches the Java type exactly, the {@link FieldDescriptor} is resolved once and the
+ * Java field is accessed through a {@link MethodHandle}. So a read or write of such
+ * a field is a direct read or write at a fixed offset without any schema lookups.
+ * <p>
+ * All other fields (variable size fields, nullable kinds, fields missing in the
+ * schema due to schema evolution) use the reflective reader/writer. If the method
+ * handles can't be created, e.g. because the field isn't accessible, the reflective
+ * reader/writer is used as well.
+ * <p>
+ * The specialization can be disabled using the
+ * {@value #PROPERTY_SPECIALIZATION_ENABLED} system property.
+ */
+@SuppressWarnings({"checkstyle:MethodLength", "checkstyle:CyclomaticComplexity", "checkstyle:AnonInnerLength"})
+final class SchemaSpecializedReaderWriters {
+
+    static final String PROPERTY_SPECIALIZATION_ENABLED = "hazelcast.compact.specialization.enabled";
+    static final boolean SPECIALIZATION_ENABLED
+            = Boolean.parseBoolean(System.getProperty(PROPERTY_SPECIALIZATION_ENABLED, "true"));
+
+    private final Field[] fields;
+    private final ReaderWriter[] reflective;
+    private final ConcurrentMap<Long, ReaderWriter[]> specializedBySchemaId = new ConcurrentHashMap<>();
+    // The last used specialization; in the common case there is only a single
+    // schema per class, so the map lookup can be skipped.
+    private volatile Specialization last;
+
+    SchemaSpecializedReaderWriters(Field[] fields, ReaderWriter[] reflective) {
+        this.fields = fields;
+        this.reflective = reflective;
+    }
+
+    /**
+     * Returns the reflective reader/writers that work with any schema.
+     */
+    ReaderWriter[] reflective() {
+        return reflective;
+    }
+
+    /**
+     * Returns the reader/writers specialized for the given schema.
+     */
+    ReaderWriter[] specialized(Schema schema) {
+        long schemaId = schema.getSchemaId();
+        Specialization last = this.last;
+        if (last != null && last.schemaId == schemaId) {
+            return last.readerWriters;
+        }
+
+        ReaderWriter[] readerWriters = specializedBySchemaId.computeIfAbsent(schemaId, id -> specialize(schema));
+        this.last = new Specialization(schemaId, readerWriters);
+        return readerWriters;
+    }
+
+    private ReaderWriter[] specialize(Schema schema) {
+        ReaderWriter[] readerWriters = new ReaderWriter[fields.length];
+        for (int k = 0; k < fields.length; k++) {
+            ReaderWriter specialized = null;
+            try {
+                specialized = specialize(fields[k], schema);
+            } catch (IllegalAccessException | SecurityException e) {
+                // fall back to the reflective reader/writer
+                ignore(e);
+            }
+            readerWriters[k] = specialized == null ? reflective[k] : specialized;
+        }
+        return readerWriters;
+    }
+
+    @SuppressWarnings("checkstyle:NPathComplexity")
+    private static ReaderWriter specialize(Field field, Schema schema) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        FieldKind kind = fixedSizeKind(type);
+        if (kind == null) {
+            return null;
+        }
+
+        FieldDescriptor fd = schema.getField(field.getName());
+        if (fd == null || fd.getKind() != kind) {
+            return null;
+        }
+
+        // The field has been made accessible by the ReflectiveCompactSerializer, so
+        // unreflecting it doesn't depend on the access rights of this class.
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter = lookup.unreflectGetter(field)
+                .asType(MethodType.methodType(type, Object.class));
+        MethodHandle setter = lookup.unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, type));
+
+        if (Byte.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getInt8(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeInt8(fd, (byte) getter.invokeExact(o));
+                }
+            };
+        } else if (Character.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, (char) ((DefaultCompactReader) reader).getInt16(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeInt16(fd, (short) (char) getter.invokeExact(o));
+                }
+            };
+        } else if (Short.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getInt16(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeInt16(fd, (short) getter.invokeExact(o));
+                }
+            };
+        } else if (Integer.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getInt32(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeInt32(fd, (int) getter.invokeExact(o));
+                }
+            };
+        } else if (Long.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getInt64(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeInt64(fd, (long) getter.invokeExact(o));
+                }
+            };
+        } else if (Float.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getFloat32(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeFloat32(fd, (float) getter.invokeExact(o));
+                }
+            };
+        } else if (Double.TYPE.equals(type)) {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getFloat64(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeFloat64(fd, (double) getter.invokeExact(o));
+                }
+            };
+        } else {
+            return new ReaderWriter() {
+                @Override
+                public void read(CompactReader reader, Schema schema, Object o) throws Throwable {
+                    setter.invokeExact(o, ((DefaultCompactReader) reader).getBoolean(fd));
+                }
+
+                @Override
+                public void write(CompactWriter writer, Object o) throws Throwable {
+                    ((DefaultCompactWriter) writer).writeBoolean(fd, (boolean) getter.invokeExact(o));
+                }
+            };
+        }
+    }
+
+    private static FieldKind fixedSizeKind(Class<?> type) {
+        if (Byte.TYPE.equals(type)) {
+            return INT8;
+        } else if (Character.TYPE.equals(type) || Short.TYPE.equals(type)) {
+            return INT16;
+        } else if (Integer.TYPE.equals(type)) {
+            return INT32;
+        } else if (Long.TYPE.equals(type)) {
+            return INT64;
+        } else if (Float.TYPE.equals(type)) {
+            return FLOAT32;
+        } else if (Double.TYPE.equals(type)) {
+            return FLOAT64;
+        } else if (Boolean.TYPE.equals(type)) {
+            return BOOLEAN;
+        } else {
+            return null;
+        }
+    }
+
+    private static final class Specialization {
+        private final long schemaId;
+        private final ReaderWriter[] readerWriters;
+
+        private Specialization(long schemaId, ReaderWriter[] readerWriters) {
+            this.schemaId = schemaId;
+            this.readerWriters = readerWriters;
+        }
+    }
+}
@@ -38,6 +38,11 @@ import static com.hazelcast.spi.properties.ClusterProperty.CLIENT_PROTOCOL_UNVER
 /**
  * A {@link AsyncSocketReader} that reads incoming traffic from clients. The main
  * payloads being the {@link ClientMessage}.
+ * <p>
+ * The reader runs on a reactor that is also a partition thread. Partition bound
+ * requests for partitions owned by that thread are processed inline, so the
+ * request is decoded, the operation is run and the response is written without
+ * leaving the reactor thread.
  */
 public class ClientAsyncSocketReader extends AsyncSocketReader {
 
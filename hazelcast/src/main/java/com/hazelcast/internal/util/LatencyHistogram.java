@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.Long.numberOfLeadingZeros;
+
+/**
+ * A high dynamic range latency histogram with a fixed relative error, in the spirit of
+ * the HdrHistogram.
+ * <p>
+ * Values below {@link #SUB_BUCKET_COUNT} get their own bucket. Every higher power of two
+ * is split into {@link #SUB_BUCKET_COUNT} linear sub-buckets, so the width of a bucket is at
+ * most 1/{@value #SUB_BUCKET_COUNT} (12.5%) of its values. Values up to 2<sup>{@value #MAX_MAGNITUDE}+1</sup>
+ * nanoseconds (more than a minute) are tracked; larger values are recorded in the last bucket.
+ * <p>
+ * Recording is allocation free and lock free. Because the same histogram is typically recorded
+ * by multiple threads, the counts are striped over {@link #STRIPES} regions of the array
+ * based on the recording thread, to reduce the contention on the most used buckets.
+ * <p>
+ * Reading is done using {@link #intervalSnapshot(Snapshot)}, which fills a reusable
+ * {@link Snapshot} with the values recorded since the previous snapshot.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MAGNITUDE = 36;
+    static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    static final int STRIPES = 4;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKET_COUNT);
+    // the total counts per bucket at the previous snapshot; guarded by this
+    private final long[] snapshotCounts = new long[BUCKET_COUNT];
+
+    /**
+     * Records a value in nanoseconds. A negative value is recorded as 0; the nano clock
+     * isn't guaranteed to be monotonic.
+     *
+     * @param nanos the value to record.
+     */
+    public void recordNanos(long nanos) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.incrementAndGet(stripe * BUCKET_COUNT + bucketIndex(nanos));
+    }
+
+    /**
+     * Fills the snapshot with the values recorded since the previous call of this method.
+     *
+     * @param snapshot the snapshot to fill.
+     */
+    public synchronized void intervalSnapshot(Snapshot snapshot) {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            long count = 0;
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                count += counts.get(stripe * BUCKET_COUNT + bucket);
+            }
+            long intervalCount = count - snapshotCounts[bucket];
+            snapshotCounts[bucket] = count;
+            snapshot.counts[bucket] = intervalCount;
+            total += intervalCount;
+        }
+        snapshot.count = total;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+
+        int magnitude = Long.SIZE - 1 - numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int magnitude = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKET_COUNT;
+        return (SUB_BUCKET_COUNT + subBucket) << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    static long bucketUpperBound(int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : bucketLowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * The values recorded by a {@link LatencyHistogram} in an interval.
+     * <p>
+     * This class isn't thread-safe; a snapshot is meant to be reused by a single reader.
+     */
+    public static final class Snapshot {
+        private final long[] counts = new long[BUCKET_COUNT];
+        private long count;
+
+        /**
+         * Returns the number of values recorded in the interval.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the value at the given percentile, e.g. 99.9. The returned value is the upper bound
+         * of the bucket that contains the percentile, so it is an overestimate of at most 12.5%.
+         *
+         * @param percentile the percentile, between 0 and 100.
+         * @return the value in nanoseconds or 0 if no values were recorded.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long cumulative = 0;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                cumulative += counts[bucket];
+                if (cumulative >= target) {
+                    return highestEquivalentValue(bucket);
+                }
+            }
+            return max();
+        }
+
+        /**
+         * Returns the largest recorded value, with the precision of a bucket.
+         *
+         * @return the value in nanoseconds or 0 if no values were recorded.
+         */
+        public long max() {
+            for (int bucket = BUCKET_COUNT - 1; bucket >= 0; bucket--) {
+                if (counts[bucket] > 0) {
+                    return highestEquivalentValue(bucket);
+                }
+            }
+            return 0;
+        }
+
+        private static long highestEquivalentValue(int bucket) {
+            // the last bucket is unbounded, so its lower bound is the best estimate
+            return bucket == BUCKET_COUNT - 1 ? bucketLowerBound(bucket) : bucketUpperBound(bucket);
+        }
+    }
+}
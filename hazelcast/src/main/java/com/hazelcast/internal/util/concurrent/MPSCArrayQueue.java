@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * Multi producer single consumer queue backed by a bounded array, so unlike the {@link MPSCQueue}
+ * an offer doesn't allocate a node and producers don't contend on a single head reference.
+ * <p>
+ * When the consumer finds the queue empty, it spins for a configurable number of iterations
+ * before it parks. A producer only needs to unpark the consumer when the consumer announced
+ * that it is about to park; so while the consumer is busy, an offer is a CAS on the tail of the
+ * array and an ordered store of the item.
+ * <p>
+ * If the array is full, the item is placed in an unbounded overflow queue instead of blocking
+ * the producer. Producers are often other operation threads, so blocking them could lead to
+ * deadlocks when operation threads offer to each other's full queues. Once an item has been
+ * placed in the overflow queue, all items go to the overflow queue until the consumer has
+ * drained it; so the FIFO ordering of the items of a single producer is preserved.
+ * <p>
+ * Just like the {@link MPSCQueue}, this queue doesn't support iteration or draining.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public final class MPSCArrayQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final AtomicIntegerFieldUpdater<MPSCArrayQueue> CONSUMER_PARKED
+            = AtomicIntegerFieldUpdater.newUpdater(MPSCArrayQueue.class, "consumerParked");
+
+    private final ManyToOneConcurrentArrayQueue<E> array;
+    private final Queue<E> overflow = new ConcurrentLinkedQueue<>();
+    private final int spins;
+    private volatile int consumerParked;
+    private Thread consumerThread;
+
+    /**
+     * Creates a new {@link MPSCArrayQueue}.
+     *
+     * @param capacity the capacity of the array. Will be rounded up to the next power of two.
+     * @param spins    the number of iterations the consumer spins on an empty queue before it parks.
+     * @throws IllegalArgumentException if spins is negative.
+     */
+    public MPSCArrayQueue(int capacity, int spins) {
+        this.array = new ManyToOneConcurrentArrayQueue<>(capacity);
+        this.spins = checkNotNegative(spins, "spins can't be negative");
+    }
+
+    /**
+     * Sets the consumer thread.
+     * <p>
+     * The consumer thread is needed for blocking, so that an offering thread knows which thread
+     * to wake up. There can only be a single consumer thread and this method should be called
+     * before the queue is safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread is null.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    /**
+     * Returns the capacity of the array. Items offered while the array is full are
+     * placed in the overflow queue.
+     */
+    public int capacity() {
+        return array.capacity();
+    }
+
+    @Override
+    public boolean offer(E item) {
+        checkNotNull(item, "item can't be null");
+
+        if (!overflow.isEmpty() || !array.offer(item)) {
+            overflow.offer(item);
+        }
+
+        // The store of the item must be visible before the flag is read; otherwise the
+        // consumer could park without seeing the item.
+        VarHandle.fullFence();
+        if (consumerParked == 1 && CONSUMER_PARKED.compareAndSet(this, 1, 0)) {
+            unpark(consumerThread);
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        E item = array.poll();
+        if (item != null) {
+            return item;
+        }
+
+        if (overflow.peek() == null) {
+            return null;
+        }
+
+        // An item in the overflow queue can have been offered after an item that is now
+        // in the array. So the array is checked again before taking from the overflow queue.
+        item = array.poll();
+        return item != null ? item : overflow.poll();
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        for (int iteration = 0; ; iteration++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            E item = poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (iteration < spins) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            consumerParked = 1;
+            item = poll();
+            if (item != null) {
+                consumerParked = 0;
+                return item;
+            }
+            park(this);
+            consumerParked = 0;
+        }
+    }
+
+    @Override
+    public E peek() {
+        E item = array.peek();
+        return item != null ? item : overflow.peek();
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * Best effort implementation.
+     */
+    @Override
+    public int size() {
+        return array.size() + overflow.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return array.isEmpty() && overflow.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * Should only be called by the consumer thread.
+     */
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // keep polling
+        }
+    }
+
+    @Override
+    public void put(E e) {
+        offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) {
+        return offer(e);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -40,6 +40,8 @@ import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.impl.aggregate.AggregateOpAggregator;
+import com.hazelcast.jet.impl.aggregate.PrimitiveAccumulation;
+import com.hazelcast.jet.impl.aggregate.PrimitiveAggregateOperation1Impl;
 import com.hazelcast.jet.pipeline.BatchStage;
 import com.hazelcast.jet.pipeline.BatchStageWithKey;
 import com.hazelcast.jet.pipeline.GeneralStage;
@@ -92,12 +94,14 @@ public final class AggregateOperations {
      */
     @Nonnull
     public static <T> AggregateOperation1<T, LongAccumulator, Long> counting() {
-        return AggregateOperation
-                .withCreate(LongAccumulator::new)
-                .andAccumulate((LongAccumulator a, T item) -> a.add(1))
-                .andCombine(LongAccumulator::add)
-                .andDeduct(LongAccumulator::subtractAllowingOverflow)
-                .andExportFinish(LongAccumulator::get);
+        return new PrimitiveAggregateOperation1Impl<>(
+                AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .andAccumulate((LongAccumulator a, T item) -> a.add(1))
+                        .andCombine(LongAccumulator::add)
+                        .andDeduct(LongAccumulator::subtractAllowingOverflow)
+                        .andExportFinish(LongAccumulator::get),
+                new PrimitiveAccumulation.Counting<>());
     }
 
     /**
@@ -127,12 +131,14 @@ public final class AggregateOperations {
             @Nonnull ToLongFunctionEx<? super T> getLongValueFn
     ) {
         checkSerializable(getLongValueFn, "getLongValueFn");
-        return AggregateOperation
-                .withCreate(LongAccumulator::new)
-                .andAccumulate((LongAccumulator a, T item) -> a.add(getLongValueFn.applyAsLong(item)))
-                .andCombine(LongAccumulator::add)
-                .andDeduct(LongAccumulator::subtract)
-                .andExportFinish(LongAccumulator::get);
+        return new PrimitiveAggregateOperation1Impl<>(
+                AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .andAccumulate((LongAccumulator a, T item) -> a.add(getLongValueFn.applyAsLong(item)))
+                        .andCombine(LongAccumulator::add)
+                        .andDeduct(LongAccumulator::subtract)
+                        .andExportFinish(LongAccumulator::get),
+                new PrimitiveAccumulation.SummingLong<>(getLongValueFn));
     }
 
     /**
@@ -367,25 +373,27 @@ public final class AggregateOperations {
         checkSerializable(getLongValueFn, "getLongValueFn");
         // count == accumulator.value1
         // sum == accumulator.value2
-        return AggregateOperation
-                .withCreate(LongLongAccumulator::new)
-                .andAccumulate((LongLongAccumulator a, T i) -> {
-                    // a bit faster check than in addExact, specialized for increment
-                    if (a.get1() == Long.MAX_VALUE) {
-                        throw new ArithmeticException("Counter overflow");
-                    }
-                    a.set1(a.get1() + 1);
-                    a.set2(Math.addExact(a.get2(), getLongValueFn.applyAsLong(i)));
-                })
-                .andCombine((a1, a2) -> {
-                    a1.set1(Math.addExact(a1.get1(), a2.get1()));
-                    a1.set2(Math.addExact(a1.get2(), a2.get2()));
-                })
-                .andDeduct((a1, a2) -> {
-                    a1.set1(Math.subtractExact(a1.get1(), a2.get1()));
-                    a1.set2(Math.subtractExact(a1.get2(), a2.get2()));
-                })
-                .andExportFinish(a -> (double) a.get2() / a.get1());
+        return new PrimitiveAggregateOperation1Impl<>(
+                AggregateOperation
+                        .withCreate(LongLongAccumulator::new)
+                        .andAccumulate((LongLongAccumulator a, T i) -> {
+                            // a bit faster check than in addExact, specialized for increment
+                            if (a.get1() == Long.MAX_VALUE) {
+                                throw new ArithmeticException("Counter overflow");
+                            }
+                            a.set1(a.get1() + 1);
+                            a.set2(Math.addExact(a.get2(), getLongValueFn.applyAsLong(i)));
+                        })
+                        .andCombine((a1, a2) -> {
+                            a1.set1(Math.addExact(a1.get1(), a2.get1()));
+                            a1.set2(Math.addExact(a1.get2(), a2.get2()));
+                        })
+                        .andDeduct((a1, a2) -> {
+                            a1.set1(Math.subtractExact(a1.get1(), a2.get1()));
+                            a1.set2(Math.subtractExact(a1.get2(), a2.get2()));
+                        })
+                        .andExportFinish(a -> (double) a.get2() / a.get1()),
+                new PrimitiveAccumulation.AveragingLong<>(getLongValueFn));
     }
 
     /**
@@ -40,5 +40,120 @@ public final class JobConfigArguments {
      */
     public static final String KEY_REQUIRED_PARTITIONS = "__sql.requiredPartitions";
 
+    /**
+     * The key under which to store whether the grouping and sorting
+     * processors of a batch job spill their state to local disk instead of
+     * failing when they reach the {@linkplain
+     * JobConfig#setMaxProcessorAccumulatedRecords accumulation limit}. Use for
+     * {@link JobConfig#setArgument(String, Object)}. Contains a {@code
+     * Boolean} value, the default is {@code false}.
+     * <p>
+     * The limit is the number of records held by each processor, there is no
+     * memory budget shared by the processors of a job. The lookup table of a
+     * hash join isn't spilled: it's broadcast to the joining processors on all
+     * members, so it still fails the job when it reaches the limit.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_SPILL_TO_DISK_ENABLED = "__jet.spillToDiskEnabled";
+
+    /**
+     * The key under which to store the directory in which the processors
+     * create their spill files, see {@link #KEY_SPILL_TO_DISK_ENABLED}. Use
+     * for {@link JobConfig#setArgument(String, Object)}. Contains a {@code
+     * String} value, the default is the {@code java.io.tmpdir} directory.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_SPILL_DIRECTORY = "__jet.spillDirectory";
+
+    /**
+     * The key under which to store the maximum number of incremental
+     * snapshots taken after a full snapshot. An incremental snapshot only
+     * contains the state changed since the previous snapshot of the
+     * processors that support it. The state is restored from the last full
+     * and all incremental snapshots after it. After this number of
+     * incremental snapshots, the next snapshot is a full one again, which
+     * limits the restore time. Use for {@link JobConfig#setArgument(String,
+     * Object)}. Contains an {@code Integer} value, the default is {@code 0},
+     * which means that all snapshots are full.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH = "__jet.incrementalSnapshotMaxChainLength";
+
+    /**
+     * The key under which to store where the data of the regular snapshots of
+     * the job is stored. Use for {@link JobConfig#setArgument(String, Object)}.
+     * Contains a {@code String} value, one of:<ul>
+     *     <li>{@value #SNAPSHOT_STORE_IMAP}: the data is stored in an {@code
+     *         IMap} with backups, this is the default
+     *     <li>{@value #SNAPSHOT_STORE_LOCAL_DISK}: the data is stored in files
+     *         on the local disk of each member, in the {@linkplain
+     *         #KEY_SNAPSHOT_DIRECTORY snapshot directory}, and a copy is sent
+     *         to one other member. Only the metadata of the snapshot is stored
+     *         in an {@code IMap}. The job can be restored as long as at most
+     *         one member is lost at a time.
+     * </ul>
+     * Exported snapshots are always stored in an {@code IMap}.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_SNAPSHOT_STORE = "__jet.snapshotStore";
+
+    /**
+     * The value of {@link #KEY_SNAPSHOT_STORE} to store the snapshot data
+     * in an {@code IMap}.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_STORE_IMAP = "imap";
+
+    /**
+     * The value of {@link #KEY_SNAPSHOT_STORE} to store the snapshot data
+     * on the local disk of the members.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_STORE_LOCAL_DISK = "localDisk";
+
+    /**
+     * The key under which to store the directory in which the snapshot files
+     * are created if the {@linkplain #KEY_SNAPSHOT_STORE snapshot store} is
+     * {@value #SNAPSHOT_STORE_LOCAL_DISK}. Use for {@link
+     * JobConfig#setArgument(String, Object)}. Contains a {@code String} value,
+     * the default is the {@code java.io.tmpdir} directory.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_SNAPSHOT_DIRECTORY = "__jet.snapshotDirectory";
+
+    /**
+     * The key under which to store whether consecutive SQL rows sent over a
+     * distributed edge are sent as a single columnar batch, serialized once
+     * per batch instead of once per row. The processors still receive
+     * individual rows. Use for {@link JobConfig#setArgument(String, Object)}.
+     * Contains a {@code Boolean} value, the default is {@code false}. The
+     * SQL engine sets it for its jobs, if the {@code
+     * hazelcast.sql.columnar.row.batches.enabled} property is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_COLUMNAR_ROW_BATCHES_ENABLED = "__jet.columnarRowBatchesEnabled";
+
+    /**
+     * The key under which to store whether the processors of the job measure
+     * where they spend their time. A sample of the calls of each processor is
+     * timed and reported in the {@link
+     * com.hazelcast.jet.core.metrics.MetricNames#PROCESSOR_PHASE_TIME} and
+     * related metrics, see also {@link
+     * com.hazelcast.jet.core.metrics.ProcessorTimeBreakdown}. Use for {@link
+     * JobConfig#setArgument(String, Object)}. Contains a {@code Boolean}
+     * value, the default is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_PROCESSOR_PROFILING_ENABLED = "__jet.processorProfilingEnabled";
+
     private JobConfigArguments() { }
 }
@@ -19,6 +19,9 @@ package com.hazelcast.jet.core;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.function.ComparatorEx;
 import com.hazelcast.function.FunctionEx;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceAware;
 import com.hazelcast.jet.JetException;
@@ -782,7 +785,7 @@ public class Edge implements IdentifiedDataSerializable {
     }
 
     static final class KeyPartitioner<T, K> implements Partitioner<T>, SerializationServiceAware,
-            IdentifiedDataSerializable {
+            DynamicMetricsProvider, IdentifiedDataSerializable {
 
         private static final long serialVersionUID = 1L;
 
@@ -823,6 +826,13 @@ public class Edge implements IdentifiedDataSerializable {
             this.serializationService = serializationService;
         }
 
+        @Override
+        public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+            if (partitioner instanceof DynamicMetricsProvider) {
+                ((DynamicMetricsProvider) partitioner).provideDynamicMetrics(descriptor, context);
+            }
+        }
+
         @Override
         public void writeData(ObjectDataOutput out) throws IOException {
             out.writeObject(keyExtractor);
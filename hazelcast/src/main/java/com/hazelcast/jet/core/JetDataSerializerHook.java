@@ -29,6 +29,7 @@ import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.annotation.PrivateApi;
 import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
 
 import static com.hazelcast.jet.impl.JetFactoryIdHelper.JET_DS_FACTORY;
 import static com.hazelcast.jet.impl.JetFactoryIdHelper.JET_DS_FACTORY_ID;
@@ -63,6 +64,7 @@ public final class JetDataSerializerHook implements DataSerializerHook {
     public static final int EXPECT_NOTHING_PROCESSOR_SUPPLIER = 19;
     public static final int SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER = 20;
     public static final int RANDOM_MEMBER_PROCESSOR_META_SUPPLIER = 21;
+    public static final int JET_SQL_ROW_BATCH = 22;
 
     /**
      * Factory ID
@@ -127,6 +129,8 @@ public final class JetDataSerializerHook implements DataSerializerHook {
                     return new ProcessorMetaSupplier.SpecificMemberPms();
                 case RANDOM_MEMBER_PROCESSOR_META_SUPPLIER:
                     return new ProcessorMetaSupplier.RandomMemberPms();
+                case JET_SQL_ROW_BATCH:
+                    return new JetSqlRowBatch();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
@@ -135,6 +135,26 @@ public final class MetricNames {
      */
     public static final String SNAPSHOT_KEYS = "snapshotKeys";
 
+    /**
+     * Tracks the duration of the last snapshot for a particular {@link
+     * Vertex}, in milliseconds. It's measured from the start of the snapshot
+     * until all data of the vertex was written. The name of the vertex can be
+     * found in the {@link MetricTags#VERTEX} tag of the metric.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_DURATION = "snapshotDuration";
+
+    /**
+     * Tracks whether the last snapshot was incremental (1) or full (0), see
+     * {@link com.hazelcast.jet.config.JobConfigArguments#KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH}.
+     * The name of the vertex can be found in the {@link MetricTags#VERTEX}
+     * tag of the metric.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_INCREMENTAL = "snapshotIncremental";
+
     /**
      * Tracks the start time of a given execution of a specific job.
      * The execution and the job can be identified based on the
@@ -193,6 +213,140 @@ public final class MetricNames {
      */
     public static final String DISTRIBUTED_BYTES_OUT = "distributedBytesOut";
 
+    /**
+     * Tracks the size of the receive window (bytes) of DISTRIBUTED input
+     * {@link Edge}s, that is how much data the sender can send ahead of the
+     * data processed by the receiver. The window is adapted to the rate at
+     * which the receiver processes the data and to the round-trip time. The
+     * edge can be identified based on the {@link MetricTags#ORDINAL},
+     * {@link MetricTags#VERTEX} & {@link MetricTags#SOURCE_ADDRESS} tags of
+     * the metric.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_RECEIVE_WINDOW = "distributedReceiveWindow";
+
+    /**
+     * Tracks the data volume (bytes) received over the network for
+     * DISTRIBUTED input {@link Edge}s, but not yet processed by the receiver,
+     * the part of the {@linkplain #DISTRIBUTED_RECEIVE_WINDOW receive window}
+     * in use. The edge can be identified based on the {@link
+     * MetricTags#ORDINAL}, {@link MetricTags#VERTEX} & {@link
+     * MetricTags#SOURCE_ADDRESS} tags of the metric.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_BYTES_IN_FLIGHT = "distributedBytesInFlight";
+
+    /**
+     * Tracks the smoothed round-trip time (microseconds) of DISTRIBUTED input
+     * {@link Edge}s, measured from sending a flow-control message to the
+     * sender until the data it allowed arrives. The edge can be identified
+     * based on the {@link MetricTags#ORDINAL}, {@link MetricTags#VERTEX} &
+     * {@link MetricTags#SOURCE_ADDRESS} tags of the metric.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_ROUND_TRIP_TIME = "distributedRoundTripTime";
+
+    /**
+     * Tracks the total time (milliseconds) during which DISTRIBUTED output
+     * {@link Edge}s had data to send, but the receiver's {@linkplain
+     * #DISTRIBUTED_RECEIVE_WINDOW receive window} was exhausted. The edge can
+     * be identified based on the {@link MetricTags#ORDINAL}, {@link
+     * MetricTags#VERTEX} & {@link MetricTags#DESTINATION_ADDRESS} tags of the
+     * metric.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_STALL_TIME = "distributedStallTime";
+
+    /**
+     * Number of keys currently detected as hot on a partitioned output {@link
+     * Edge} whose items are pre-aggregated by the downstream vertex. The
+     * items of a hot key are spread over all downstream processors instead
+     * of being sent to a single one. The edge can be identified based on the
+     * {@link MetricTags#ORDINAL} & {@link MetricTags#VERTEX} tags of the
+     * metric.
+     *
+     * @since 5.4
+     */
+    public static final String EDGE_HOT_KEYS = "edgeHotKeys";
+
+    /**
+     * Counts how many times a key was detected as {@linkplain #EDGE_HOT_KEYS
+     * hot} on a partitioned output {@link Edge}. The edge can be identified
+     * based on the {@link MetricTags#ORDINAL} & {@link MetricTags#VERTEX}
+     * tags of the metric.
+     *
+     * @since 5.4
+     */
+    public static final String EDGE_HOT_KEY_DETECTIONS = "edgeHotKeyDetections";
+
+    /**
+     * Estimated time (nanoseconds) a processor spent in calls in which it
+     * made progress. Only reported if {@linkplain
+     * com.hazelcast.jet.config.JobConfigArguments#KEY_PROCESSOR_PROFILING_ENABLED
+     * profiling} is enabled for the job. The estimate is based on a sample of
+     * the calls.
+     *
+     * @since 5.4
+     */
+    public static final String PROCESSOR_BUSY_TIME = "processorBusyTime";
+
+    /**
+     * Estimated time (nanoseconds) a processor spent in calls in which it
+     * made no progress because there was nothing to do. Only reported if
+     * {@linkplain #PROCESSOR_BUSY_TIME profiling} is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String PROCESSOR_IDLE_TIME = "processorIdleTime";
+
+    /**
+     * Estimated time (nanoseconds) a processor spent in calls in which it
+     * made no progress because its outbox was full, that is because of
+     * backpressure from the downstream vertices. Only reported if
+     * {@linkplain #PROCESSOR_BUSY_TIME profiling} is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String PROCESSOR_BACKPRESSURE_TIME = "processorBackpressureTime";
+
+    /**
+     * The longest sampled call (nanoseconds) of a processor. Long calls of
+     * cooperative processors delay the other tasklets on the same thread.
+     * Only reported if {@linkplain #PROCESSOR_BUSY_TIME profiling} is
+     * enabled.
+     *
+     * @since 5.4
+     */
+    public static final String PROCESSOR_MAX_CALL_TIME = "processorMaxCallTime";
+
+    /**
+     * Estimated time (nanoseconds) a processor spent in one part of its work,
+     * identified by the {@link MetricTags#PHASE} tag: {@code process} for
+     * {@code process()} and {@code tryProcess()}, {@code watermark} for
+     * {@code tryProcessWatermark()}, {@code complete} for {@code complete()}
+     * and {@code completeEdge()}, {@code snapshot} for saving, restoring and
+     * committing snapshots, and {@code other} for the rest. Only reported if
+     * {@linkplain #PROCESSOR_BUSY_TIME profiling} is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String PROCESSOR_PHASE_TIME = "processorPhaseTime";
+
+    /**
+     * The difference (milliseconds) between the {@linkplain
+     * #TOP_OBSERVED_WM top observed} and the {@linkplain #LAST_FORWARDED_WM
+     * last forwarded} watermark of a processor, that is how far the processor
+     * lags behind its input. Only reported if {@linkplain
+     * #PROCESSOR_BUSY_TIME profiling} is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String WATERMARK_LAG = "watermarkLag";
+
     /**
      * Number of jobs submitted to the Jet cluster.
      * <p>
@@ -131,6 +131,15 @@ public final class MetricTags {
      */
     public static final String USER = "user";
 
+    /**
+     * The part of the processor's work the metric is about, for example
+     * {@code process} or {@code snapshot}, see {@link
+     * MetricNames#PROCESSOR_PHASE_TIME}.
+     *
+     * @since 5.4
+     */
+    public static final String PHASE = "phase";
+
     private MetricTags() {
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core.metrics;
+
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.impl.JobMetricsUtil;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A breakdown of where the processors of a job spend their time, by vertex
+ * and by phase (see {@link MetricNames#PROCESSOR_PHASE_TIME} for the list of
+ * phases). The times are summed over all processors of the vertex on all
+ * members. It's only available if the {@link
+ * JobConfigArguments#KEY_PROCESSOR_PROFILING_ENABLED} job argument is
+ * enabled, otherwise it's empty.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * ProcessorTimeBreakdown breakdown = ProcessorTimeBreakdown.of(job.getMetrics());
+ * Files.write(Paths.get("job.folded"), breakdown.toFoldedStacks().getBytes());
+ * }</pre>
+ * The resulting file can be turned into a flame graph, for example using
+ * the {@code flamegraph.pl} script.
+ *
+ * @since 5.4
+ */
+public final class ProcessorTimeBreakdown {
+
+    private final Map<String, Map<String, Long>> phaseTimes;
+
+    private ProcessorTimeBreakdown(Map<String, Map<String, Long>> phaseTimes) {
+        this.phaseTimes = phaseTimes;
+    }
+
+    /**
+     * Creates the breakdown from the given job metrics.
+     */
+    @Nonnull
+    public static ProcessorTimeBreakdown of(@Nonnull JobMetrics jobMetrics) {
+        return new ProcessorTimeBreakdown(JobMetricsUtil.processorPhaseTimes(jobMetrics));
+    }
+
+    /**
+     * Returns the names of the profiled vertices, sorted by name.
+     */
+    @Nonnull
+    public Set<String> vertices() {
+        return Collections.unmodifiableSet(phaseTimes.keySet());
+    }
+
+    /**
+     * Returns the time (nanoseconds) the processors of the given vertex spent
+     * in each phase. The map is empty for an unknown vertex.
+     */
+    @Nonnull
+    public Map<String, Long> phaseTimes(@Nonnull String vertex) {
+        return Collections.unmodifiableMap(phaseTimes.getOrDefault(vertex, Collections.emptyMap()));
+    }
+
+    /**
+     * Returns the total time (nanoseconds) the processors of the given vertex
+     * spent in all phases.
+     */
+    public long totalTime(@Nonnull String vertex) {
+        long total = 0;
+        for (long time : phaseTimes(vertex).values()) {
+            total += time;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the breakdown in the folded stacks format used by flame graph
+     * tools: one line per vertex and phase with the frames separated by
+     * {@code ;} and followed by the time in nanoseconds, for example {@code
+     * map;process 123456}. Phases with no time are omitted.
+     */
+    @Nonnull
+    public String toFoldedStacks() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<String, Map<String, Long>> vertexEntry : phaseTimes.entrySet()) {
+            for (Entry<String, Long> phaseEntry : vertexEntry.getValue().entrySet()) {
+                if (phaseEntry.getValue() == 0) {
+                    continue;
+                }
+                sb.append(vertexEntry.getKey()).append(';').append(phaseEntry.getKey())
+                  .append(' ').append(phaseEntry.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessorTimeBreakdown" + phaseTimes;
+    }
+}
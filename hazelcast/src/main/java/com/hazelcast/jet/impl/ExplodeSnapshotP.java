@@ -22,6 +22,7 @@ import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.impl.execution.BroadcastEntry;
+import com.hazelcast.jet.impl.execution.VersionedSnapshotValue;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
@@ -38,10 +39,20 @@ public class ExplodeSnapshotP extends AbstractProcessor {
 
     private final Map<String, FlatMapper<byte[], Object>> vertexToFlatMapper = new HashMap<>();
     private final long expectedSnapshotId;
+    private final boolean restoreChain;
     private InternalSerializationService serializationService;
+    private long chunkSnapshotId;
 
-    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId) {
+    /**
+     * @param restoreChain if true, the snapshot map can contain a chain of a
+     *     full snapshot and incremental snapshots ending with the expected
+     *     snapshot. The values of all snapshots in the chain are emitted wrapped
+     *     in {@link VersionedSnapshotValue}, the receiving {@code
+     *     ProcessorTasklet} chooses the latest value of each key.
+     */
+    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId, boolean restoreChain) {
         this.expectedSnapshotId = expectedSnapshotId;
+        this.restoreChain = restoreChain;
         for (Entry<String, Integer> en : vertexToOrdinal.entrySet()) {
             Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(), this::traverser));
             assert oldValue == null : "Duplicate ordinal: " + en.getValue();
@@ -60,6 +71,7 @@ public class ExplodeSnapshotP extends AbstractProcessor {
     @SuppressWarnings("squid:S2095")
     private Traverser<Object> traverser(byte[] data) {
         BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+        long snapshotId = chunkSnapshotId;
 
         return () -> uncheckCall(() -> {
             Object key = serializationService.readObject(in, true);
@@ -67,6 +79,9 @@ public class ExplodeSnapshotP extends AbstractProcessor {
                 return null;
             }
             Object value = serializationService.readObject(in, true);
+            if (restoreChain) {
+                value = new VersionedSnapshotValue(snapshotId, snapshotId == expectedSnapshotId, value);
+            }
             return key instanceof BroadcastKey
                     ? new BroadcastEntry(key, value)
                     : entry(key, value);
@@ -91,11 +106,16 @@ public class ExplodeSnapshotP extends AbstractProcessor {
             return true;
         }
         long snapshotId = castItem.getKey().snapshotId();
-        if (snapshotId != expectedSnapshotId) {
+        if (restoreChain && snapshotId > expectedSnapshotId) {
+            // data of a snapshot that didn't complete, ignore silently
+            return true;
+        }
+        if (!restoreChain && snapshotId != expectedSnapshotId) {
             getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
                     + expectedSnapshotId + ", found=" + snapshotId);
             return true;
         }
+        chunkSnapshotId = snapshotId;
         return flatMapper.tryProcess(castItem.getValue());
     }
 
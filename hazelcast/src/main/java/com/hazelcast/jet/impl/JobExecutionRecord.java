@@ -81,6 +81,16 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
      */
     private transient volatile String ongoingExportedSnapshotName;
 
+    /**
+     * True, if the current snapshot is incremental. An incremental snapshot is
+     * written to the data map of the last successful snapshot, see {@link
+     * #ongoingDataMapIndex()}.
+     * <p>
+     * Like {@link #ongoingExportedSnapshotName}, it's not needed after
+     * coordinator restart, so it's transient.
+     */
+    private transient volatile boolean ongoingSnapshotIncremental;
+
     private volatile String exportedSnapshotName;
     @Nullable
     private volatile String lastSnapshotFailure;
@@ -154,10 +164,13 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
     @SuppressWarnings("NonAtomicOperationOnVolatileField")
     @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
             justification = "all updates to ongoingSnapshotId are synchronized")
-    public void startNewSnapshot(String exportedSnapshotName) {
+    public void startNewSnapshot(String exportedSnapshotName, boolean incremental) {
+        assert !incremental || exportedSnapshotName == null && dataMapIndex >= 0
+                : "incremental snapshot requires a previous regular snapshot";
         ongoingSnapshotId++;
         ongoingSnapshotStartTime = Clock.currentTimeMillis();
         this.ongoingExportedSnapshotName = exportedSnapshotName;
+        this.ongoingSnapshotIncremental = incremental;
     }
 
     public SnapshotStats ongoingSnapshotDone(
@@ -172,8 +185,9 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             boolean isExport = ongoingExportedSnapshotName != null;
             boolean isExportOnly = isExport && !isTerminal;
 
-            if (!isExport) {
-                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one
+            if (!isExport && !ongoingSnapshotIncremental) {
+                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported
+                // or an incremental one
                 dataMapIndex = ongoingDataMapIndex();
             }
 
@@ -186,6 +200,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             }
         }
         ongoingExportedSnapshotName = null;
+        ongoingSnapshotIncremental = false;
         ongoingSnapshotStartTime = Long.MIN_VALUE;
         return res;
     }
@@ -208,9 +223,13 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
 
     /**
      * Returns the index of the data map into which the new snapshot will be
-     * written.
+     * written. An incremental snapshot is written to the data map of the
+     * last successful snapshot, other snapshots to the other data map.
      */
     int ongoingDataMapIndex() {
+        if (ongoingSnapshotIncremental) {
+            return dataMapIndex;
+        }
         assert dataMapIndex == 0 // we'll return 1
                 || dataMapIndex == 1 // we'll return 0
                 || dataMapIndex == -1 // we'll return 0
@@ -31,9 +31,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.UnaryOperator;
 
 import static com.hazelcast.jet.Util.idFromString;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_PHASE_TIME;
 
 public final class JobMetricsUtil {
 
@@ -55,6 +57,28 @@ public final class JobMetricsUtil {
         return d -> d.copy().withTag(MetricTags.MEMBER, uuid).withTag(MetricTags.ADDRESS, addr);
     }
 
+    /**
+     * Sums the {@link com.hazelcast.jet.core.metrics.MetricNames#PROCESSOR_PHASE_TIME}
+     * measurements of all processors and members by vertex and phase. The
+     * returned maps are sorted by the vertex and phase names.
+     *
+     * @return vertex name -> phase -> nanoseconds
+     */
+    @Nonnull
+    public static Map<String, Map<String, Long>> processorPhaseTimes(@Nonnull JobMetrics jobMetrics) {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        for (Measurement measurement : jobMetrics.get(PROCESSOR_PHASE_TIME)) {
+            String vertex = measurement.tag(MetricTags.VERTEX);
+            String phase = measurement.tag(MetricTags.PHASE);
+            if (vertex == null || phase == null) {
+                continue;
+            }
+            result.computeIfAbsent(vertex, v -> new TreeMap<>())
+                  .merge(phase, measurement.value(), Long::sum);
+        }
+        return result;
+    }
+
     static JobMetrics toJobMetrics(List<RawJobMetrics> rawJobMetrics) {
         JobMetricsConsumer consumer = null;
         for (RawJobMetrics metrics : rawJobMetrics) {
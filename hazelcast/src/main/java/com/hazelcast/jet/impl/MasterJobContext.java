@@ -45,13 +45,16 @@ import com.hazelcast.jet.impl.exception.TerminatedWithSnapshotException;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlanBuilder;
 import com.hazelcast.jet.impl.metrics.RawJobMetrics;
+import com.hazelcast.jet.impl.operation.CountSnapshotChunksOperation;
 import com.hazelcast.jet.impl.operation.GetLocalJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.InitExecutionOperation;
 import com.hazelcast.jet.impl.operation.StartExecutionOperation;
 import com.hazelcast.jet.impl.operation.TerminateExecutionOperation;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.jet.impl.util.NonCompletableFuture;
+import com.hazelcast.jet.impl.util.SnapshotChunkStore;
 import com.hazelcast.jet.impl.util.Util;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
@@ -87,6 +90,7 @@ import static com.hazelcast.function.Functions.entryKey;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH;
 import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
@@ -277,7 +281,7 @@ public class MasterJobContext {
                   }
 
                   if (snapshotMapName != null) {
-                      rewriteDagWithSnapshotRestore(dag, snapshotId, snapshotMapName, snapshotName);
+                      rewriteDagWithSnapshotRestore(dag, snapshotId, snapshotMapName, snapshotName, membersView);
                   } else {
                       logger.info("Didn't find any snapshot to restore for " + mc.jobIdString());
                   }
@@ -306,6 +310,24 @@ public class MasterJobContext {
         }
     }
 
+    // the chunks of the snapshot the members will restore from their local files
+    private long countLocalDiskSnapshotChunks(MembersView membersView, String mapName, long snapshotId) {
+        String baseDirectory = LocalDiskSnapshotChunkStore.baseDirectory(mc.jobConfig());
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (MemberInfo member : membersView.getMembers()) {
+            CountSnapshotChunksOperation op = new CountSnapshotChunksOperation(mc.jobId(), baseDirectory, mapName,
+                    snapshotId);
+            futures.add(mc.nodeEngine().getOperationService()
+                          .<Long>invokeOnTarget(JetServiceBackend.SERVICE_NAME, op, member.getAddress())
+                          .toCompletableFuture());
+        }
+        long count = 0;
+        for (CompletableFuture<Long> future : futures) {
+            count += future.join();
+        }
+        return count;
+    }
+
     private CompletableFuture<Map<MemberInfo, ExecutionPlan>> createExecutionPlans(
             DAG dag,
             MembersView membersView) {
@@ -481,22 +503,39 @@ public class MasterJobContext {
         return result;
     }
 
-    private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId, String mapName, String snapshotName) {
+    private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId, String mapName, String snapshotName,
+                                               MembersView membersView) {
         // snapshot map is not updated here, so it does not need to be
         // configured with failOnIndeterminateOperationState
         IMap<Object, Object> snapshotMap = mc.nodeEngine().getHazelcastInstance().getMap(mapName);
-        long resolvedSnapshotId = validateSnapshot(
-                snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+        // With the local-disk store, the data of regular snapshots is in files on
+        // the members, only the validation record is in the snapshot map
+        boolean restoreFromLocalDisk = snapshotName == null && SnapshotChunkStore.isLocalDisk(mc.jobConfig());
+        long resolvedSnapshotId = validateSnapshot(snapshotId, snapshotMap, mc.jobIdString(), snapshotName,
+                restoreFromLocalDisk ? id -> countLocalDiskSnapshotChunks(membersView, mapName, id) : null);
         logger.info(String.format(
                 "About to restore the state of %s from snapshot %d, mapName = %s",
                 mc.jobIdString(), resolvedSnapshotId, mapName));
         List<Vertex> originalVertices = new ArrayList<>();
         dag.iterator().forEachRemaining(originalVertices::add);
 
+        // Regular snapshots of a job with incremental snapshots enabled can be a chain of
+        // a full snapshot and incremental ones, all stored in the same map
+        Integer maxChainLength = mc.jobConfig().getArgument(KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH);
+        boolean restoreChain = snapshotName == null && maxChainLength != null && maxChainLength > 0;
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        Vertex readSnapshotVertex;
+        if (restoreFromLocalDisk) {
+            long jobId = mc.jobId();
+            String baseDirectory = LocalDiskSnapshotChunkStore.baseDirectory(mc.jobConfig());
+            readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read",
+                    () -> new ReadLocalSnapshotP(jobId, baseDirectory, mapName, resolvedSnapshotId))
+                                    .localParallelism(1);
+        } else {
+            readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        }
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
-                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
+                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId, restoreChain));
         dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
 
         int index = 0;
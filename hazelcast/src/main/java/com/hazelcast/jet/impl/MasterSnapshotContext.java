@@ -46,6 +46,7 @@ import java.util.function.Function;
 import java.util.logging.Level;
 
 import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH;
 import static com.hazelcast.jet.core.JobStatus.RUNNING;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
@@ -77,6 +78,21 @@ class MasterSnapshotContext {
     @Nonnull
     private volatile CompletableFuture<Void> terminalSnapshotFuture = completedFuture(null);
 
+    /**
+     * If true, the next regular snapshot must be a full one. It's set when a
+     * new execution starts (the processors have no changes tracked yet),
+     * after a failed snapshot and after an exported snapshot (the processors
+     * reset their changes, but the exported snapshot isn't part of the chain
+     * of incremental snapshots).
+     */
+    private boolean fullSnapshotRequired = true;
+
+    /**
+     * The number of successful incremental snapshots since the last full
+     * snapshot.
+     */
+    private int incrementalSnapshotCount;
+
     private class SnapshotRequest {
         /**
          * User-specified name of the snapshot or null, if no name is specified
@@ -93,6 +109,10 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot is incremental. Decided when the snapshot begins.
+         */
+        boolean isIncremental;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -112,7 +132,7 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return SnapshotFlags.create(isTerminal, isExport(), isIncremental);
         }
 
         public String mapName() {
@@ -202,7 +222,8 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
-                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
+                requestedSnapshot.isIncremental = !requestedSnapshot.isExport() && canSnapshotIncrementally();
+                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName, requestedSnapshot.isIncremental);
                 localExecutionId = mc.executionId();
             } finally {
                 mc.unlock();
@@ -214,7 +235,10 @@ class MasterSnapshotContext {
 
             try {
                 mc.writeJobExecutionRecordSafe(false);
-                mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                if (!requestedSnapshot.isIncremental) {
+                    // an incremental snapshot is added to the chain in the map of the last snapshot
+                    mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                }
             } catch (Exception e) {
                 logger.warning(String.format("Failed to start snapshot %d for %s",
                         newSnapshotId, jobNameAndExecutionId(mc.jobName(), localExecutionId)),
@@ -348,16 +372,23 @@ class MasterSnapshotContext {
                     // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
                     // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
                     // and the job will not be cancelled but restarted.
-                    Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
-
-                    if (requestedSnapshot.isExport()) {
-                        assert requestedSnapshot.snapshotName != null;
-                        // update also for failed snapshots because the map may have contained different snapshot before
-                        mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
-                    }
-                    if (oldValue != null) {
-                        logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
-                                + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
+                    //
+                    // An incremental snapshot is written to the map holding the chain of the last successful
+                    // snapshot. That map's validation record must keep pointing to the last successful snapshot
+                    // until the incremental one succeeds, otherwise the job can't be restored from the chain.
+                    if (!requestedSnapshot.isIncremental || mergedResult.getError() == null) {
+                        Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
+
+                        if (requestedSnapshot.isExport()) {
+                            assert requestedSnapshot.snapshotName != null;
+                            // update also for failed snapshots because the map may have contained different snapshot before
+                            mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
+                        }
+                        // an incremental snapshot replaces the record of the previous snapshot in the chain
+                        if (oldValue != null && !requestedSnapshot.isIncremental) {
+                            logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
+                                    + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
+                        }
                     }
                 } catch (Exception e) {
                     mergedResult.merge(new SnapshotPhase1Result(0, 0, 0, e));
@@ -410,7 +441,17 @@ class MasterSnapshotContext {
                             (skipPhase2 ? ", skipping " : ", proceeding to ") + "phase 2"));
                 }
 
-                if (!isSuccess) {
+                updateIncrementalSnapshotChain(requestedSnapshot, isSuccess);
+
+                if (!isSuccess && requestedSnapshot.isIncremental) {
+                    // We can't clear the map, it contains the chain of the last successful snapshot.
+                    // Its validation record still points to the last successful snapshot, the data of
+                    // the failed snapshot has a higher snapshot ID and ExplodeSnapshotP skips it when
+                    // restoring. The map will be cleared when the next full snapshot, written to the
+                    // other map, succeeds.
+                    logger.warning(mc.jobIdString() + " incremental snapshot " + snapshotId + " phase 1 failed on "
+                            + "some member(s), one of the failures: " + mergedResult.getError());
+                } else if (!isSuccess) {
                     logger.warning(mc.jobIdString() + " snapshot " + snapshotId + " phase 1 failed on some " +
                             "member(s), one of the failures: " + mergedResult.getError());
                     try {
@@ -426,8 +467,9 @@ class MasterSnapshotContext {
 
                 // Do not clear snapshot data when JobExecutionRecord update was indeterminate.
                 // It may turn out that this will be a correct snapshot after all.
-                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport()) {
-                    // clear IMap for next automatic snapshot early to decrease memory usage
+                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport() && !requestedSnapshot.isIncremental) {
+                    // clear IMap for next automatic snapshot early to decrease memory usage.
+                    // After an incremental snapshot, it's already clear.
                     mc.jobRepository().clearSnapshotData(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
                 }
             } finally {
@@ -535,12 +577,38 @@ class MasterSnapshotContext {
         });
     }
 
+    /**
+     * Returns true, if the next regular snapshot can be incremental.
+     */
+    private boolean canSnapshotIncrementally() {
+        Integer maxChainLength = mc.jobConfig().getArgument(KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH);
+        JobExecutionRecord record = mc.jobExecutionRecord();
+        return maxChainLength != null
+                && incrementalSnapshotCount < maxChainLength
+                && !fullSnapshotRequired
+                // the chain must start in a regular snapshot, not in an exported one
+                && record.exportedSnapshotName() == null
+                && record.dataMapIndex() >= 0;
+    }
+
+    private void updateIncrementalSnapshotChain(SnapshotRequest requestedSnapshot, boolean isSuccess) {
+        if (!isSuccess || requestedSnapshot.isExport()) {
+            fullSnapshotRequired = true;
+        } else if (requestedSnapshot.isIncremental) {
+            incrementalSnapshotCount++;
+        } else {
+            fullSnapshotRequired = false;
+            incrementalSnapshotCount = 0;
+        }
+    }
+
     CompletableFuture<Void> terminalSnapshotFuture() {
         return terminalSnapshotFuture;
     }
 
     void onExecutionStarted() {
         snapshotInProgress = false;
+        fullSnapshotRequired = true;
         assert snapshotQueue.isEmpty() : "snapshotQueue not empty";
         terminalSnapshotFuture = new CompletableFuture<>();
     }
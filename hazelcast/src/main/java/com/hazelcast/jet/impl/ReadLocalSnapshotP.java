@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore.ChunkFileReader;
+import com.hazelcast.spi.impl.NodeEngine;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Reads the snapshot data written by the {@link LocalDiskSnapshotChunkStore}
+ * on the local member: the files the member wrote itself and the replicas it
+ * holds for members that left the cluster. Emits the same items as a {@code
+ * readMapP} of a snapshot map does, that is entries of {@link
+ * SnapshotDataKey} and a chunk. Use with local parallelism of 1.
+ */
+public class ReadLocalSnapshotP extends AbstractProcessor {
+
+    private final long jobId;
+    private final String baseDirectory;
+    private final String mapName;
+    private final long snapshotId;
+
+    private InternalSerializationService serializationService;
+    private Iterator<Path> files;
+    private ChunkFileReader reader;
+    private Entry<SnapshotDataKey, byte[]> pendingItem;
+
+    /**
+     * @param snapshotId the ID of the snapshot to restore, files of later
+     *     snapshots that didn't complete are skipped
+     */
+    ReadLocalSnapshotP(long jobId, @Nonnull String baseDirectory, @Nonnull String mapName, long snapshotId) {
+        this.jobId = jobId;
+        this.baseDirectory = baseDirectory;
+        this.mapName = mapName;
+        this.snapshotId = snapshotId;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        serializationService = ((ProcCtx) context).serializationService();
+        NodeEngine nodeEngine = getNodeEngine(context.hazelcastInstance());
+        UUID localUuid = nodeEngine.getLocalMember().getUuid();
+        Set<UUID> memberUuids = nodeEngine.getClusterService().getMembers().stream()
+                                          .map(Member::getUuid)
+                                          .collect(toSet());
+        Path mapDirectory = LocalDiskSnapshotChunkStore.jobDirectory(baseDirectory, jobId).resolve(mapName);
+        files = LocalDiskSnapshotChunkStore.filesToRestore(mapDirectory, localUuid, memberUuids).stream()
+                .filter(file -> Long.parseLong(file.getParent().getFileName().toString()) <= snapshotId)
+                .iterator();
+        getLogger().fine("Restoring the snapshot from local files in " + mapDirectory);
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    @Override
+    public boolean complete() {
+        try {
+            do {
+                if (pendingItem == null) {
+                    pendingItem = nextItem();
+                    if (pendingItem == null) {
+                        return true;
+                    }
+                }
+                if (!tryEmit(pendingItem)) {
+                    return false;
+                }
+                pendingItem = null;
+            } while (true);
+        } catch (IOException e) {
+            throw new JetException("Failed to read the snapshot files of " + mapName, e);
+        }
+    }
+
+    private Entry<SnapshotDataKey, byte[]> nextItem() throws IOException {
+        while (true) {
+            if (reader == null) {
+                if (!files.hasNext()) {
+                    return null;
+                }
+                reader = new ChunkFileReader(files.next());
+            }
+            Entry<Data, Data> record = reader.next();
+            if (record != null) {
+                return entry(serializationService.toObject(record.getKey()),
+                        serializationService.toObject(record.getValue()));
+            }
+            reader.close();
+            reader = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
@@ -21,6 +21,9 @@ import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.map.IMap;
 
+import javax.annotation.Nullable;
+import java.util.function.LongUnaryOperator;
+
 import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 
 final class SnapshotValidator {
@@ -37,10 +40,15 @@ final class SnapshotValidator {
      * @param jobIdString name and ID of the job, for debug output
      * @param snapshotName user-supplied snapshot name for debug output,
      *                     null if it's not an exported snapshot
+     * @param chunkCounter if not null, the snapshot data is not stored in the
+     *                     snapshot map, only the validation record, and the
+     *                     function returns the number of chunks of the
+     *                     snapshot with the given ID stored elsewhere
      * @return the snapshot ID of the snapshot being validated
      */
     static long validateSnapshot(
-            long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName
+            long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName,
+            @Nullable LongUnaryOperator chunkCounter
     ) {
         SnapshotValidationRecord validationRecord =
                 (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
@@ -50,7 +58,15 @@ final class SnapshotValidator {
                     "snapshot %s in IMap %s (%d entries) is damaged. Unable to restore the state for %s.",
                     nameOrId, snapshotMap.getName(), snapshotMap.size(), jobIdString));
         }
-        if (validationRecord.numChunks() != snapshotMap.size() - 1) {
+        if (chunkCounter != null) {
+            long count = chunkCounter.applyAsLong(validationRecord.snapshotId());
+            if (validationRecord.numChunks() != count) {
+                throw new JetException(String.format(
+                        "State for %s in the local snapshot files of IMap '%s' is corrupted: it should have %,d "
+                                + "chunks, but has %,d",
+                        jobIdString, snapshotMap.getName(), validationRecord.numChunks(), count));
+            }
+        } else if (validationRecord.numChunks() != snapshotMap.size() - 1) {
             // fallback validation that counts using aggregate(), ignoring different snapshot IDs
             long filteredCount = snapshotMap.aggregate(
                     Aggregators.count(),
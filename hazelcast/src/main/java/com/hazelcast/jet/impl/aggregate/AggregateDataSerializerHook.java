@@ -54,6 +54,11 @@ public class AggregateDataSerializerHook implements DataSerializerHook {
      */
     public static final int AGGREGATE_OPERATION_3_IMPL = 4;
 
+    /**
+     * Serialization ID of the {@link PrimitiveAggregateOperation1Impl} class.
+     */
+    public static final int PRIMITIVE_AGGREGATE_OPERATION_1_IMPL = 5;
+
 
     @Override
     public int getFactoryId() {
@@ -74,6 +79,8 @@ public class AggregateDataSerializerHook implements DataSerializerHook {
                     return new AggregateOperation2Impl<>();
                 case AGGREGATE_OPERATION_3_IMPL:
                     return new AggregateOperation3Impl<>();
+                case PRIMITIVE_AGGREGATE_OPERATION_1_IMPL:
+                    return new PrimitiveAggregateOperation1Impl<>();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.aggregate;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongLongAccumulator;
+
+import java.io.Serializable;
+
+/**
+ * The accumulation of an aggregate operation whose accumulator consists of
+ * a fixed number of {@code long} values. It allows a processor to keep the
+ * accumulators of many keys as slots in a single {@code long[]} instead of
+ * an accumulator object per key. All slots of a new accumulator are zero.
+ * <p>
+ * The accumulator object is only created when it is emitted, see {@link
+ * #toAccumulator}.
+ *
+ * @param <T> the type of the stream item
+ * @param <A> the type of the accumulator object
+ */
+public interface PrimitiveAccumulation<T, A> extends Serializable {
+
+    /**
+     * Returns the number of {@code long} slots of a single accumulator.
+     */
+    int slotCount();
+
+    /**
+     * Accumulates the item into the accumulator stored in the slots starting
+     * at {@code offset}.
+     */
+    void accumulate(long[] slots, int offset, T item);
+
+    /**
+     * Combines the accumulator object into the accumulator stored in the
+     * slots starting at {@code offset}.
+     */
+    void combine(long[] slots, int offset, A acc);
+
+    /**
+     * Creates the accumulator object from the slots starting at {@code offset}.
+     */
+    A toAccumulator(long[] slots, int offset);
+
+    /**
+     * Returns a primitive accumulation that expects to find accumulator objects
+     * in the input items and combines them, see {@link
+     * com.hazelcast.jet.aggregate.AggregateOperation#withCombiningAccumulateFn}.
+     */
+    default <T_NEW> PrimitiveAccumulation<T_NEW, A> withCombiningAccumulate(FunctionEx<T_NEW, A> getAccFn) {
+        return new Combining<>(this, getAccFn);
+    }
+
+    /**
+     * The accumulation of {@link com.hazelcast.jet.aggregate.AggregateOperations#counting()}.
+     */
+    final class Counting<T> implements PrimitiveAccumulation<T, LongAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int slotCount() {
+            return 1;
+        }
+
+        @Override
+        public void accumulate(long[] slots, int offset, T item) {
+            slots[offset] = Math.addExact(slots[offset], 1);
+        }
+
+        @Override
+        public void combine(long[] slots, int offset, LongAccumulator acc) {
+            slots[offset] = Math.addExact(slots[offset], acc.get());
+        }
+
+        @Override
+        public LongAccumulator toAccumulator(long[] slots, int offset) {
+            return new LongAccumulator(slots[offset]);
+        }
+    }
+
+    /**
+     * The accumulation of {@link com.hazelcast.jet.aggregate.AggregateOperations#summingLong}.
+     */
+    final class SummingLong<T> implements PrimitiveAccumulation<T, LongAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final ToLongFunctionEx<? super T> getLongValueFn;
+
+        public SummingLong(ToLongFunctionEx<? super T> getLongValueFn) {
+            this.getLongValueFn = getLongValueFn;
+        }
+
+        @Override
+        public int slotCount() {
+            return 1;
+        }
+
+        @Override
+        public void accumulate(long[] slots, int offset, T item) {
+            slots[offset] = Math.addExact(slots[offset], getLongValueFn.applyAsLong(item));
+        }
+
+        @Override
+        public void combine(long[] slots, int offset, LongAccumulator acc) {
+            slots[offset] = Math.addExact(slots[offset], acc.get());
+        }
+
+        @Override
+        public LongAccumulator toAccumulator(long[] slots, int offset) {
+            return new LongAccumulator(slots[offset]);
+        }
+    }
+
+    /**
+     * The accumulation of {@link com.hazelcast.jet.aggregate.AggregateOperations#averagingLong}.
+     * The first slot holds the count, the second one the sum.
+     */
+    final class AveragingLong<T> implements PrimitiveAccumulation<T, LongLongAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final ToLongFunctionEx<? super T> getLongValueFn;
+
+        public AveragingLong(ToLongFunctionEx<? super T> getLongValueFn) {
+            this.getLongValueFn = getLongValueFn;
+        }
+
+        @Override
+        public int slotCount() {
+            return 2;
+        }
+
+        @Override
+        public void accumulate(long[] slots, int offset, T item) {
+            if (slots[offset] == Long.MAX_VALUE) {
+                throw new ArithmeticException("Counter overflow");
+            }
+            slots[offset]++;
+            slots[offset + 1] = Math.addExact(slots[offset + 1], getLongValueFn.applyAsLong(item));
+        }
+
+        @Override
+        public void combine(long[] slots, int offset, LongLongAccumulator acc) {
+            slots[offset] = Math.addExact(slots[offset], acc.get1());
+            slots[offset + 1] = Math.addExact(slots[offset + 1], acc.get2());
+        }
+
+        @Override
+        public LongLongAccumulator toAccumulator(long[] slots, int offset) {
+            return new LongLongAccumulator(slots[offset], slots[offset + 1]);
+        }
+    }
+
+    /**
+     * See {@link #withCombiningAccumulate}.
+     */
+    final class Combining<T, A> implements PrimitiveAccumulation<T, A> {
+        private static final long serialVersionUID = 1L;
+
+        private final PrimitiveAccumulation<?, A> delegate;
+        private final FunctionEx<T, A> getAccFn;
+
+        Combining(PrimitiveAccumulation<?, A> delegate, FunctionEx<T, A> getAccFn) {
+            this.delegate = delegate;
+            this.getAccFn = getAccFn;
+        }
+
+        @Override
+        public int slotCount() {
+            return delegate.slotCount();
+        }
+
+        @Override
+        public void accumulate(long[] slots, int offset, T item) {
+            delegate.combine(slots, offset, getAccFn.apply(item));
+        }
+
+        @Override
+        public void combine(long[] slots, int offset, A acc) {
+            delegate.combine(slots, offset, acc);
+        }
+
+        @Override
+        public A toAccumulator(long[] slots, int offset) {
+            return delegate.toAccumulator(slots, offset);
+        }
+    }
+}
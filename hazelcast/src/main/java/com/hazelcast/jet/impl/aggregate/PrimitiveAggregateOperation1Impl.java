@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.aggregate;
+
+import com.hazelcast.function.BiConsumerEx;
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * An {@link AggregateOperation1} whose accumulator consists of {@code long}
+ * values only. Next to the usual primitives it provides a {@link
+ * PrimitiveAccumulation} which processors can use to keep the accumulators
+ * in primitive arrays. The primitive accumulation is retained by {@link
+ * #withIdentityFinish()}, {@link #andThen} and {@link
+ * #withCombiningAccumulateFn}, so it's available in both stages of a
+ * two-stage aggregation.
+ */
+public class PrimitiveAggregateOperation1Impl<T0, A, R> extends AggregateOperation1Impl<T0, A, R> {
+
+    private PrimitiveAccumulation<? super T0, A> primitiveAccumulation;
+
+    public PrimitiveAggregateOperation1Impl() {
+    }
+
+    public PrimitiveAggregateOperation1Impl(
+            @Nonnull AggregateOperation1<? super T0, A, R> aggrOp,
+            @Nonnull PrimitiveAccumulation<? super T0, A> primitiveAccumulation
+    ) {
+        this(aggrOp.createFn(), aggrOp.accumulateFn(), aggrOp.combineFn(), aggrOp.deductFn(),
+                aggrOp.exportFn(), aggrOp.finishFn(), primitiveAccumulation);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private PrimitiveAggregateOperation1Impl(
+            @Nonnull SupplierEx<A> createFn,
+            @Nonnull BiConsumerEx<? super A, ? super T0> accumulateFn,
+            @Nullable BiConsumerEx<? super A, ? super A> combineFn,
+            @Nullable BiConsumerEx<? super A, ? super A> deductFn,
+            @Nonnull FunctionEx<? super A, ? extends R> exportFn,
+            @Nonnull FunctionEx<? super A, ? extends R> finishFn,
+            @Nonnull PrimitiveAccumulation<? super T0, A> primitiveAccumulation
+    ) {
+        super(createFn, accumulateFn, combineFn, deductFn, exportFn, finishFn);
+        this.primitiveAccumulation = primitiveAccumulation;
+    }
+
+    /**
+     * Returns the primitive accumulation equivalent to the {@code accumulate}
+     * primitive of this aggregate operation.
+     */
+    @Nonnull
+    public PrimitiveAccumulation<? super T0, A> primitiveAccumulation() {
+        return primitiveAccumulation;
+    }
+
+    /**
+     * Returns the primitive accumulation of the given aggregate operation, or
+     * {@code null} if it doesn't have one. The returned accumulation accepts
+     * the items of the only inbound edge of the operation.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <A> PrimitiveAccumulation<Object, A> primitiveAccumulationOf(@Nonnull AggregateOperation<A, ?> aggrOp) {
+        return aggrOp instanceof PrimitiveAggregateOperation1Impl
+                ? (PrimitiveAccumulation<Object, A>) ((PrimitiveAggregateOperation1Impl<?, A, ?>) aggrOp).primitiveAccumulation()
+                : null;
+    }
+
+    @Nonnull @Override
+    public AggregateOperation1<T0, A, A> withIdentityFinish() {
+        return new PrimitiveAggregateOperation1Impl<>(
+                createFn(), accumulateFn(), combineFn(), deductFn(),
+                unsupportedExportFn(), FunctionEx.identity(), primitiveAccumulation);
+    }
+
+    @Nonnull @Override
+    public <R_NEW> AggregateOperation1<T0, A, R_NEW> andThen(FunctionEx<? super R, ? extends R_NEW> thenFn) {
+        return new PrimitiveAggregateOperation1Impl<>(
+                createFn(), accumulateFn(), combineFn(), deductFn(),
+                exportFn().andThen(thenFn), finishFn().andThen(thenFn), primitiveAccumulation);
+    }
+
+    @Nonnull @Override
+    public <T> AggregateOperation1<T, A, R> withCombiningAccumulateFn(@Nonnull FunctionEx<T, A> getAccFn) {
+        BiConsumerEx<? super A, ? super A> combineFn =
+                Objects.requireNonNull(combineFn(), "The 'combine' primitive is missing");
+        return new PrimitiveAggregateOperation1Impl<>(
+                createFn(),
+                new AggregateCombiningAccumulate<>(getAccFn, combineFn),
+                combineFn,
+                deductFn(),
+                exportFn(),
+                finishFn(),
+                primitiveAccumulation.withCombiningAccumulate(getAccFn));
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregateDataSerializerHook.PRIMITIVE_AGGREGATE_OPERATION_1_IMPL;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeObject(primitiveAccumulation);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        primitiveAccumulation = in.readObject();
+    }
+}
@@ -34,13 +34,16 @@ import com.hazelcast.jet.function.RunnableEx;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.JobClassLoaderService;
 import com.hazelcast.jet.impl.TerminationMode;
+import com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate;
 import com.hazelcast.jet.impl.exception.JobTerminateRequestedException;
 import com.hazelcast.jet.impl.exception.TerminatedWithSnapshotException;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.execution.init.VertexDef;
 import com.hazelcast.jet.impl.metrics.RawJobMetrics;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
+import com.hazelcast.jet.impl.util.ExceptionUtil;
 import com.hazelcast.jet.impl.util.LoggingUtil;
+import com.hazelcast.jet.impl.util.SnapshotChunkStore;
 import com.hazelcast.jet.impl.util.Util;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
@@ -110,6 +113,8 @@ public class ExecutionContext implements DynamicMetricsProvider {
 
     private List<VertexDef> vertices = emptyList();
     private List<Tasklet> tasklets = emptyList();
+    private List<DynamicMetricsProvider> edgeMetricsProviders = emptyList();
+    private SnapshotChunkStore snapshotChunkStore;
 
     // future which is completed only after all tasklets are completed and contains execution result
     private volatile CompletableFuture<Void> executionFuture;
@@ -206,6 +211,8 @@ public class ExecutionContext implements DynamicMetricsProvider {
         this.senderMap = unmodifiableMap(senderMapTmp);
 
         tasklets = plan.getTasklets();
+        edgeMetricsProviders = plan.getEdgeMetricsProviders();
+        snapshotChunkStore = plan.getSnapshotChunkStore();
     }
 
     /**
@@ -300,9 +307,24 @@ public class ExecutionContext implements DynamicMetricsProvider {
                     if (serializationService != null) {
                         serializationService.dispose();
                     }
+                    if (snapshotChunkStore != null) {
+                        snapshotChunkStore.close(isJobFinished(error));
+                    }
                 }));
     }
 
+    /**
+     * Returns true, if the job won't be restored from its snapshots after an
+     * execution completed with the given error. Only a cancellation is known
+     * locally: if the execution completed normally on this member, it could
+     * still fail on another member and the job could be restarted.
+     */
+    private static boolean isJobFinished(Throwable error) {
+        Throwable cause = error != null ? ExceptionUtil.peel(error) : null;
+        return cause instanceof JobTerminateRequestedException
+                && ((JobTerminateRequestedException) cause).mode().actionAfterTerminate() == ActionAfterTerminate.CANCEL;
+    }
+
     /**
      * Terminates the local execution of tasklets. Returns false, if the
      * execution wasn't yet begun.
@@ -401,6 +423,15 @@ public class ExecutionContext implements DynamicMetricsProvider {
         return receiverMap;
     }
 
+    /**
+     * Returns the store for the snapshot data of this execution, {@code null}
+     * for light jobs and before the execution is initialized.
+     */
+    @Nullable
+    public SnapshotChunkStore snapshotChunkStore() {
+        return snapshotChunkStore;
+    }
+
     @Nullable
     public String jobName() {
         return jobName;
@@ -429,6 +460,9 @@ public class ExecutionContext implements DynamicMetricsProvider {
         for (Tasklet tasklet : tasklets) {
             tasklet.provideDynamicMetrics(descriptor.copy(), context);
         }
+        for (DynamicMetricsProvider provider : edgeMetricsProviders) {
+            provider.provideDynamicMetrics(descriptor.copy(), context);
+        }
     }
 
     public void setCompletionTime() {
@@ -166,4 +166,71 @@ class ExecutionSerializerHooks {
             return true;
         }
     }
+
+    public static final class SnapshotTombstoneHook implements SerializerHook<SnapshotTombstone> {
+
+        @Override
+        public Class<SnapshotTombstone> getSerializationType() {
+            return SnapshotTombstone.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<SnapshotTombstone>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.SNAPSHOT_TOMBSTONE;
+                }
+
+                @Override
+                public void write(ObjectDataOutput out, SnapshotTombstone object) {
+                }
+
+                @Override
+                public SnapshotTombstone read(ObjectDataInput in) {
+                    return SnapshotTombstone.INSTANCE;
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
+
+    public static final class VersionedSnapshotValueHook implements SerializerHook<VersionedSnapshotValue> {
+
+        @Override
+        public Class<VersionedSnapshotValue> getSerializationType() {
+            return VersionedSnapshotValue.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<VersionedSnapshotValue>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.VERSIONED_SNAPSHOT_VALUE;
+                }
+
+                @Override
+                public void write(ObjectDataOutput out, VersionedSnapshotValue object) throws IOException {
+                    out.writeLong(object.snapshotId());
+                    out.writeBoolean(object.isLatest());
+                    out.writeObject(object.value());
+                }
+
+                @Override
+                public VersionedSnapshotValue read(ObjectDataInput in) throws IOException {
+                    return new VersionedSnapshotValue(in.readLong(), in.readBoolean(), in.readObject());
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.jet.core.DefaultPartitionStrategy;
+import com.hazelcast.jet.core.Partitioner;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.jet.core.metrics.MetricNames.EDGE_HOT_KEYS;
+import static com.hazelcast.jet.core.metrics.MetricNames.EDGE_HOT_KEY_DETECTIONS;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * A partitioner for edges into a vertex that only pre-aggregates the items,
+ * for example the first stage of a two-stage aggregation. For such a vertex
+ * it doesn't matter which processor receives an item, the partitioning only
+ * reduces the number of partial results. If a few keys are much more
+ * frequent than others, the processors receiving them become a bottleneck.
+ * <p>
+ * This partitioner detects such hot keys and sends their items to a random
+ * partition, while all other keys are partitioned by the delegate
+ * partitioner. To detect hot keys, a sample of the keys is counted using the
+ * Misra-Gries heavy-hitters algorithm. After each round of samples, the keys
+ * with a share of at least {@code hotKeyMinShare} become the hot keys for
+ * the next round.
+ * <p>
+ * The partitioner of an edge is shared by all upstream processors on a
+ * member, so it's thread-safe. Only the sampled keys take a lock.
+ */
+public final class HotKeySplittingPartitioner implements Partitioner<Object>, DynamicMetricsProvider {
+
+    /**
+     * The default minimum share of a hot key. Splitting a key that isn't
+     * really hot is cheap, it only adds a few partial results to combine.
+     */
+    public static final double DEFAULT_HOT_KEY_MIN_SHARE = 1.0 / 32;
+
+    static final int SAMPLE_INTERVAL = 64;
+    static final int SAMPLES_PER_ROUND = 4096;
+    static final int SKETCH_CAPACITY = 64;
+
+    private static final long serialVersionUID = 1L;
+
+    private final Partitioner<Object> delegate;
+    private final double hotKeyMinShare;
+
+    private transient Object lock = new Object();
+    // guarded by lock
+    private transient Map<Object, long[]> counts = new HashMap<>();
+    private transient int samples;
+    private transient long hotKeyDetections;
+    private transient volatile Set<Object> hotKeys = emptySet();
+
+    /**
+     * Creates a partitioner that uses the {@linkplain
+     * #DEFAULT_HOT_KEY_MIN_SHARE default minimum share} of a hot key.
+     */
+    public HotKeySplittingPartitioner(@Nonnull Partitioner<?> delegate) {
+        this(delegate, DEFAULT_HOT_KEY_MIN_SHARE);
+    }
+
+    /**
+     * @param delegate       the partitioner for keys that aren't hot
+     * @param hotKeyMinShare the minimum share of a key among all items to be
+     *                       considered hot, in the range (0, 1]
+     */
+    @SuppressWarnings("unchecked")
+    public HotKeySplittingPartitioner(@Nonnull Partitioner<?> delegate, double hotKeyMinShare) {
+        if (hotKeyMinShare <= 0 || hotKeyMinShare > 1) {
+            throw new IllegalArgumentException("hotKeyMinShare must be in (0, 1], but is " + hotKeyMinShare);
+        }
+        this.delegate = (Partitioner<Object>) delegate;
+        this.hotKeyMinShare = hotKeyMinShare;
+    }
+
+    @Override
+    public void init(@Nonnull DefaultPartitionStrategy strat) {
+        delegate.init(strat);
+    }
+
+    @Override
+    public int getPartition(@Nonnull Object key, int partitionCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(SAMPLE_INTERVAL) == 0) {
+            sample(key);
+        }
+        Set<Object> hotKeys = this.hotKeys;
+        if (!hotKeys.isEmpty() && hotKeys.contains(key)) {
+            return random.nextInt(partitionCount);
+        }
+        return delegate.getPartition(key, partitionCount);
+    }
+
+    /**
+     * Returns the keys currently detected as hot.
+     */
+    Set<Object> hotKeys() {
+        return hotKeys;
+    }
+
+    private void sample(Object key) {
+        synchronized (lock) {
+            long[] count = counts.get(key);
+            if (count != null) {
+                count[0]++;
+            } else if (counts.size() < SKETCH_CAPACITY) {
+                counts.put(key, new long[] {1});
+            } else {
+                // Decrement all counters instead of adding the key. The count
+                // of each key is underestimated by at most the number of
+                // samples divided by the capacity.
+                for (Iterator<long[]> it = counts.values().iterator(); it.hasNext(); ) {
+                    if (--it.next()[0] == 0) {
+                        it.remove();
+                    }
+                }
+            }
+            if (++samples == SAMPLES_PER_ROUND) {
+                completeRound();
+            }
+        }
+    }
+
+    private void completeRound() {
+        long minCount = Math.max(1, (long) Math.ceil(samples * hotKeyMinShare));
+        Set<Object> oldHotKeys = hotKeys;
+        Set<Object> newHotKeys = new HashSet<>();
+        for (Map.Entry<Object, long[]> en : counts.entrySet()) {
+            if (en.getValue()[0] >= minCount) {
+                newHotKeys.add(en.getKey());
+                if (!oldHotKeys.contains(en.getKey())) {
+                    hotKeyDetections++;
+                }
+            }
+        }
+        hotKeys = newHotKeys.isEmpty() ? emptySet() : unmodifiableSet(newHotKeys);
+        counts.clear();
+        samples = 0;
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        long detections;
+        synchronized (lock) {
+            detections = hotKeyDetections;
+        }
+        context.collect(descriptor.copy(), EDGE_HOT_KEYS, ProbeLevel.INFO, ProbeUnit.COUNT, hotKeys.size());
+        context.collect(descriptor, EDGE_HOT_KEY_DETECTIONS, ProbeLevel.INFO, ProbeUnit.COUNT, detections);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new Object();
+        counts = new HashMap<>();
+        hotKeys = emptySet();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.Processor;
+
+/**
+ * Implemented by processors that support incremental snapshots, see {@link
+ * JobConfigArguments#KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH}.
+ * <p>
+ * In an incremental snapshot, the processor saves only the keys whose value
+ * changed since the previous snapshot, and a {@link SnapshotTombstone} for
+ * the keys it removed. When restoring, the processor receives only the
+ * latest value of each key from the last full snapshot and all incremental
+ * snapshots after it, keys whose latest value is a tombstone are skipped.
+ * Entries with a {@link com.hazelcast.jet.core.BroadcastKey} are resolved
+ * in the same way, all values saved for the key in the latest snapshot
+ * are restored.
+ * <p>
+ * Processors that don't implement this interface always save their full
+ * state and restore only the entries of the latest snapshot.
+ */
+public interface IncrementalSnapshotAware {
+
+    /**
+     * Called before the first {@link Processor#saveToSnapshot()} call of each
+     * snapshot.
+     *
+     * @param incremental if true, the processor can save only the changes
+     *     since the previous snapshot, if false, it must save its full state
+     */
+    void beginSnapshot(boolean incremental);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.metrics.MetricTags;
+
+import java.util.Locale;
+
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_BACKPRESSURE_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_BUSY_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_IDLE_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_MAX_CALL_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_PHASE_TIME;
+
+/**
+ * Sampled timing of the calls of a {@link ProcessorTasklet}, used if the
+ * {@link JobConfigArguments#KEY_PROCESSOR_PROFILING_ENABLED} job argument is
+ * set.
+ * <p>
+ * Only every {@value #SAMPLE_INTERVAL}th call is timed, so that tasklets
+ * with very short calls don't spend much time in {@code System.nanoTime()}.
+ * The reported times are the sampled times multiplied by the interval. Each
+ * sampled call is attributed to the phase of the last processor method it
+ * called. The counters are only updated by the tasklet's thread.
+ */
+final class ProcessorProfiler {
+
+    static final int SAMPLE_INTERVAL = 16;
+
+    enum Phase {
+        PROCESS, WATERMARK, COMPLETE, SNAPSHOT, OTHER;
+
+        private final String tagValue = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final Counter busyTime = SwCounter.newSwCounter();
+    private final Counter idleTime = SwCounter.newSwCounter();
+    private final Counter backpressureTime = SwCounter.newSwCounter();
+    private final Counter[] phaseTimes = new Counter[PHASES.length];
+    private volatile long maxCallTime;
+
+    private int callCount;
+    private long callStart;
+
+    ProcessorProfiler() {
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = SwCounter.newSwCounter();
+        }
+    }
+
+    /**
+     * Called before each call of the tasklet. Returns true, if the call is
+     * sampled, then {@link #endCall} must be called after it.
+     */
+    boolean startCall() {
+        if ((callCount++ & (SAMPLE_INTERVAL - 1)) != 0) {
+            return false;
+        }
+        callStart = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Records the duration of a sampled call.
+     *
+     * @param phase          the phase of the last processor method called
+     * @param madeProgress   whether the call made progress
+     * @param backpressured  whether the outbox refused an item
+     */
+    void endCall(Phase phase, boolean madeProgress, boolean backpressured) {
+        long duration = System.nanoTime() - callStart;
+        long estimate = duration * SAMPLE_INTERVAL;
+        if (madeProgress) {
+            busyTime.inc(estimate);
+        } else if (backpressured) {
+            backpressureTime.inc(estimate);
+        } else {
+            idleTime.inc(estimate);
+        }
+        phaseTimes[phase.ordinal()].inc(estimate);
+        if (duration > maxCallTime) {
+            maxCallTime = duration;
+        }
+    }
+
+    void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        context.collect(descriptor.copy(), PROCESSOR_BUSY_TIME, ProbeLevel.INFO, ProbeUnit.NS, busyTime.get());
+        context.collect(descriptor.copy(), PROCESSOR_IDLE_TIME, ProbeLevel.INFO, ProbeUnit.NS, idleTime.get());
+        context.collect(descriptor.copy(), PROCESSOR_BACKPRESSURE_TIME, ProbeLevel.INFO, ProbeUnit.NS,
+                backpressureTime.get());
+        context.collect(descriptor.copy(), PROCESSOR_MAX_CALL_TIME, ProbeLevel.INFO, ProbeUnit.NS, maxCallTime);
+        for (Phase phase : PHASES) {
+            context.collect(descriptor.copy().withTag(MetricTags.PHASE, phase.tagValue), PROCESSOR_PHASE_TIME,
+                    ProbeLevel.INFO, ProbeUnit.NS, phaseTimes[phase.ordinal()].get());
+        }
+    }
+}
@@ -31,12 +31,14 @@ import com.hazelcast.internal.util.collection.Int2ObjectHashMap;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.config.JobConfigArguments;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.Processor.Context;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.metrics.MetricNames;
 import com.hazelcast.jet.core.metrics.MetricTags;
+import com.hazelcast.jet.impl.execution.ProcessorProfiler.Phase;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.processor.ProcessorWrapper;
 import com.hazelcast.jet.impl.util.ArrayDequeInbox;
@@ -69,6 +71,7 @@ import static com.hazelcast.jet.core.metrics.MetricNames.LAST_FORWARDED_WM_LATEN
 import static com.hazelcast.jet.core.metrics.MetricNames.RECEIVED_BATCHES;
 import static com.hazelcast.jet.core.metrics.MetricNames.RECEIVED_COUNT;
 import static com.hazelcast.jet.core.metrics.MetricNames.TOP_OBSERVED_WM;
+import static com.hazelcast.jet.core.metrics.MetricNames.WATERMARK_LAG;
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
 import static com.hazelcast.jet.impl.execution.ProcessorState.CLOSE;
 import static com.hazelcast.jet.impl.execution.ProcessorState.COMPLETE;
@@ -121,6 +124,9 @@ public class ProcessorTasklet implements Tasklet {
     private final boolean isSource;
 
     private Processor processor;
+    private IncrementalSnapshotAware incrementalProcessor;
+    private SnapshotChainResolver chainResolver;
+    private boolean snapshotBegun;
     private int numActiveOrdinals; // counter for remaining active ordinals
     private CircularListCursor<InboundEdgeStream> instreamCursor;
     private InboundEdgeStream currInstream;
@@ -164,6 +170,11 @@ public class ProcessorTasklet implements Tasklet {
     private final Consumer<Object> addToInboxFunction = inbox.queue()::add;
     private Future<?> closeFuture;
 
+    // null if profiling isn't enabled for the job
+    private final ProcessorProfiler profiler;
+    // the phase of the last processor method called, used by the profiler
+    private Phase phase = Phase.OTHER;
+
     @SuppressWarnings("checkstyle:ExecutableStatementCount")
     public ProcessorTasklet(
             @Nonnull Context context,
@@ -204,6 +215,8 @@ public class ProcessorTasklet implements Tasklet {
         waitForAllBarriers = ssContext.processingGuarantee() == ProcessingGuarantee.EXACTLY_ONCE;
 
         coalescers = new KeyedWatermarkCoalescer(instreams.size());
+        profiler = Boolean.TRUE.equals(context.jobConfig().getArgument(JobConfigArguments.KEY_PROCESSOR_PROFILING_ENABLED))
+                ? new ProcessorProfiler() : null;
     }
 
     private Queue<InboundEdgeStream[]> createInstreamGroupQueue(List<? extends InboundEdgeStream> instreams) {
@@ -275,6 +288,12 @@ public class ProcessorTasklet implements Tasklet {
                 processor = toInit;
             }
         }
+        Processor unwrapped = processor;
+        while (unwrapped instanceof ProcessorWrapper) {
+            unwrapped = ((ProcessorWrapper) unwrapped).getWrapped();
+        }
+        incrementalProcessor = unwrapped instanceof IncrementalSnapshotAware ? (IncrementalSnapshotAware) unwrapped : null;
+        chainResolver = new SnapshotChainResolver(incrementalProcessor != null);
         try {
             doWithClassLoader(context.classLoader(), () -> processor.init(outbox, context));
         } catch (Exception e) {
@@ -288,7 +307,13 @@ public class ProcessorTasklet implements Tasklet {
         progTracker.reset();
         progTracker.notDone();
         outbox.reset();
-        stateMachineStep();
+        if (profiler != null && profiler.startCall()) {
+            phase = Phase.OTHER;
+            stateMachineStep();
+            profiler.endCall(phase, progTracker.isMadeProgress(), outbox.hasUnfinishedItem());
+        } else {
+            stateMachineStep();
+        }
         return progTracker.toProgressState();
     }
 
@@ -330,8 +355,7 @@ public class ProcessorTasklet implements Tasklet {
 
             case NULLARY_PROCESS:
                 // if currInstream is null, maybe fillInbox wasn't called yet. Avoid calling tryProcess in that case.
-                if (currInstream == null || isSnapshotInbox() ||
-                        doWithClassLoader(context.classLoader(), () -> processor.tryProcess())) {
+                if (currInstream == null || isSnapshotInbox() || tryProcess()) {
                     state = PROCESS_INBOX;
                     stateMachineStep(); // recursion
                 }
@@ -342,6 +366,10 @@ public class ProcessorTasklet implements Tasklet {
                 return;
 
             case COMPLETE_EDGE:
+                if (isSnapshotInbox() && !restoreResolvedSnapshotEntries()) {
+                    return;
+                }
+                phase = isSnapshotInbox() ? Phase.SNAPSHOT : Phase.COMPLETE;
                 if (isSnapshotInbox()
                         ? doWithClassLoader(context.classLoader(), () -> processor.finishSnapshotRestore())
                         : doWithClassLoader(context.classLoader(), () -> processor.completeEdge(currInstream.ordinal()))) {
@@ -353,7 +381,14 @@ public class ProcessorTasklet implements Tasklet {
                 return;
 
             case SAVE_SNAPSHOT:
+                phase = Phase.SNAPSHOT;
+                if (incrementalProcessor != null && !snapshotBegun) {
+                    doWithClassLoader(context.classLoader(),
+                            () -> incrementalProcessor.beginSnapshot(ssContext.isIncrementalSnapshot()));
+                    snapshotBegun = true;
+                }
                 if (doWithClassLoader(context.classLoader(), () -> processor.saveToSnapshot())) {
+                    snapshotBegun = false;
                     progTracker.madeProgress();
                     state = ssContext.isExportOnly() ? EMIT_BARRIER : SNAPSHOT_COMMIT_PREPARE;
                     stateMachineStep(); // recursion
@@ -361,6 +396,7 @@ public class ProcessorTasklet implements Tasklet {
                 return;
 
             case SNAPSHOT_COMMIT_PREPARE:
+                phase = Phase.SNAPSHOT;
                 if (doWithClassLoader(context.classLoader(), () -> processor.snapshotCommitPrepare())) {
                     progTracker.madeProgress();
                     state = EMIT_BARRIER;
@@ -370,6 +406,7 @@ public class ProcessorTasklet implements Tasklet {
 
             case EMIT_BARRIER:
                 assert currentBarrier != null : "currentBarrier == null";
+                phase = Phase.SNAPSHOT;
                 if (outbox.offerToEdgesAndSnapshot(currentBarrier)) {
                     progTracker.madeProgress();
                     if (currentBarrier.isTerminal()) {
@@ -386,6 +423,7 @@ public class ProcessorTasklet implements Tasklet {
             case SNAPSHOT_COMMIT_FINISH__PROCESS:
             case SNAPSHOT_COMMIT_FINISH__COMPLETE:
             case SNAPSHOT_COMMIT_FINISH__FINAL:
+                phase = Phase.SNAPSHOT;
                 if (ssContext.isExportOnly() ||
                         doWithClassLoader(context.classLoader(),
                                 () -> processor.snapshotCommitFinish(ssContext.isLastPhase1Successful()))) {
@@ -459,17 +497,24 @@ public class ProcessorTasklet implements Tasklet {
         }
     }
 
+    private boolean tryProcess() {
+        phase = Phase.PROCESS;
+        return doWithClassLoader(context.classLoader(), () -> processor.tryProcess());
+    }
+
     private boolean tryProcessGlobalWatermark(Watermark wm) {
         // A watermark is handled by the processor, while the IDLE message is passed directly to the outbox.
         if (wm.equals(IDLE_MESSAGE)) {
             return outbox.offer(wm);
         } else {
+            phase = Phase.WATERMARK;
             return doWithClassLoader(context.classLoader(), () -> processor.tryProcessWatermark(wm));
         }
     }
 
     private boolean tryProcessEdgeWatermark(int ordinal, Watermark wm) {
         assert wm.timestamp() != IDLE_MESSAGE_TIME;
+        phase = Phase.WATERMARK;
         return doWithClassLoader(context.classLoader(), () -> processor.tryProcessWatermark(ordinal, wm));
     }
 
@@ -482,11 +527,16 @@ public class ProcessorTasklet implements Tasklet {
 
         if (inbox.isEmpty()) {
             fillInbox();
+            if (isSnapshotInbox()) {
+                chainResolver.resolve(inbox.queue());
+            }
         }
         if (!inbox.isEmpty()) {
             if (isSnapshotInbox()) {
+                phase = Phase.SNAPSHOT;
                 doWithClassLoader(context.classLoader(), () -> processor.restoreFromSnapshot(inbox));
             } else {
+                phase = Phase.PROCESS;
                 doWithClassLoader(context.classLoader(), () -> processor.process(currInstream.ordinal(), inbox));
             }
         }
@@ -509,6 +559,22 @@ public class ProcessorTasklet implements Tasklet {
         }
     }
 
+    /**
+     * Passes the snapshot entries buffered by the {@link #chainResolver} to
+     * the processor. Returns true, if all of them were restored.
+     */
+    private boolean restoreResolvedSnapshotEntries() {
+        if (inbox.isEmpty()) {
+            chainResolver.drainTo(inbox.queue(), OUTBOX_BATCH_SIZE);
+        }
+        if (!inbox.isEmpty()) {
+            phase = Phase.SNAPSHOT;
+            doWithClassLoader(context.classLoader(), () -> processor.restoreFromSnapshot(inbox));
+            progTracker.madeProgress();
+        }
+        return inbox.isEmpty() && !chainResolver.hasBuffered();
+    }
+
     private void complete() {
         // check ssContext to see if a snapshot phase should be executed
         if (pendingSnapshotId1 == pendingSnapshotId2) {
@@ -538,6 +604,7 @@ public class ProcessorTasklet implements Tasklet {
                 return;
             }
         }
+        phase = Phase.COMPLETE;
         if (processor.complete()) {
             progTracker.madeProgress();
             state = pendingSnapshotId2 < pendingSnapshotId1
@@ -678,6 +745,20 @@ public class ProcessorTasklet implements Tasklet {
         return System.currentTimeMillis() - wm;
     }
 
+    /**
+     * Returns how far the last forwarded watermark lags behind the top
+     * observed one, or 0 if either of them is missing or idle.
+     */
+    private long watermarkLag(byte wmKey) {
+        long topObservedWm = coalescers.topObservedWm(wmKey);
+        long lastForwardedWm = outbox.lastForwardedWm(wmKey);
+        if (topObservedWm == Long.MIN_VALUE || topObservedWm == IDLE_MESSAGE_TIME
+                || lastForwardedWm == Long.MIN_VALUE || lastForwardedWm == IDLE_MESSAGE_TIME) {
+            return 0;
+        }
+        return Math.max(0, topObservedWm - lastForwardedWm);
+    }
+
     @Override
     public boolean isCooperative() {
         return doWithClassLoader(context.classLoader(), () -> processor.isCooperative());
@@ -738,6 +819,14 @@ public class ProcessorTasklet implements Tasklet {
             mContext.collect(keyedDesc, LAST_FORWARDED_WM_LATENCY, ProbeLevel.INFO, ProbeUnit.MS, 0L);
         }
 
+        if (profiler != null) {
+            profiler.provideDynamicMetrics(descriptor, mContext);
+            for (Byte key : coalescers.keys()) {
+                MetricDescriptor keyedDesc = descriptor.copy().withDiscriminator("key", Byte.toString(key));
+                mContext.collect(keyedDesc, WATERMARK_LAG, ProbeLevel.INFO, ProbeUnit.MS, watermarkLag(key));
+            }
+        }
+
         mContext.collect(descriptor, this);
 
         //collect static metrics from processor
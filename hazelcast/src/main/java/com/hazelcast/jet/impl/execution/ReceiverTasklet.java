@@ -35,6 +35,7 @@ import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -49,6 +50,7 @@ import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.PrefixedLogger.prefixedLogger;
 import static java.lang.Math.ceil;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Receives from a remote member the data associated with a single edge.
@@ -78,6 +80,19 @@ public class ReceiverTasklet implements Tasklet {
      */
     static final int INITIAL_RECEIVE_WINDOW_COMPRESSED = 800;
 
+    /**
+     * The weight of a new round-trip time sample in the smoothed round-trip
+     * time, as a shift: a new sample contributes 1/8, like in TCP.
+     */
+    static final int RTT_SMOOTHING_SHIFT = 3;
+
+    /**
+     * Round-trip time samples longer than this number of flow-control periods
+     * are discarded. They are most likely caused by a sender that had no more
+     * data to send after it reached the limit, not by a slow link.
+     */
+    static final int MAX_RTT_SAMPLE_FLOW_CONTROL_PERIODS = 10;
+
     /**
      * The Receive Window converges towards the amount of data processed per
      * flow-control period multiplied by this number.
@@ -106,18 +121,31 @@ public class ReceiverTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_IN, unit = ProbeUnit.BYTES)
     private final Counter bytesInCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_ROUND_TRIP_TIME, unit = ProbeUnit.US)
+    private volatile long roundTripTimeMicros;
+
     //                    FLOW-CONTROL STATE
     //            All arrays are indexed by sender ID.
 
     // read by a task scheduler thread, written by a tasklet execution thread
     private volatile long ackedSeq;
+    private volatile long receivedSeq;
     private volatile int numWaitingInInbox;
     private volatile boolean connectionChanged;
+    private volatile long smoothedRttNanos;
+
+    // Round-trip time probe: started by a task scheduler thread when the sender is
+    // stalled on the receive window, completed by a tasklet execution thread when
+    // the first data sent after the new limit arrives. Zero start means no probe.
+    private volatile int rttProbeSeqCompressed;
+    private volatile long rttProbeStartNanos;
 
     // read and written by updateAndGetSendSeqLimitCompressed(), which is invoked sequentially by a task scheduler
-    private int receiveWindowCompressed;
+    private volatile int receiveWindowCompressed;
     private int prevAckedSeqCompressed;
     private long prevTimestamp;
+    // the sender starts with a limit of 0 until it receives the first one
+    private int prevSendSeqLimitCompressed;
 
     //                 END FLOW-CONTROL STATE
 
@@ -158,6 +186,9 @@ public class ReceiverTasklet implements Tasklet {
         tracker.reset();
         tracker.notDone();
         tryFillInbox();
+        if (rttProbeStartNanos != 0) {
+            completeRttProbe(System.nanoTime());
+        }
         long ackItemLocal = 0;
         for (ObjWithPtionIdAndSize o; (o = inbox.peek()) != null; ) {
             final Object item = o.getItem();
@@ -208,15 +239,26 @@ public class ReceiverTasklet implements Tasklet {
      *         {@link InstanceConfig#setFlowControlPeriodMs(int)
      *         flowControlPeriodMs}, projected amount of data processed by the receiver
      *         in one standard flow control period (called "ack period" for short)
+     *     </li><li>
+     *         {@code seqsPerRtt = (seqDelta / timeDelta) * rtt}, projected amount of
+     *         data processed by the receiver during the measured round-trip time
+     *         of the edge, see below
      *     </li></ol>
      * </li><li>
-     *     Define the <emph>target receive window</emph> as {@code 3 * seqsPerAckPeriod}.
+     *     Define the <emph>target receive window</emph> as {@code 3 * seqsPerAckPeriod
+     *     + seqsPerRtt}. The second term covers the data the receiver processes while
+     *     the new limit travels to the sender and the data sent after it travels
+     *     back, so that a high-latency link isn't limited by the window.
      * </li><li>
      *     Adjust the current receive window halfway toward the target receive window.
      * </li><li>
      *     Return the {@code sentSeq} limit as the current acked seq plus the current
      *     receive window.
      * </li></ol>
+     * The round-trip time is measured when the sender is stalled on the limit
+     * sent last time: from now until the first data beyond that limit arrives,
+     * which the sender can only send after receiving the limit returned now.
+     * The measured samples are smoothed.
      *
      * @param timestampNow       value of the timestamp at the time the method is called. The timestamp
      *                           must be obtained from {@code System.nanoTime()}.
@@ -239,7 +281,8 @@ public class ReceiverTasklet implements Tasklet {
 
         if (hadPrevStats) {
             final double ackedSeqsPerAckPeriod = flowControlPeriodNs * ackedSeqCompressedDelta / ackTimeDelta;
-            final int targetRwin = rwinMultiplier * (int) ceil(ackedSeqsPerAckPeriod);
+            final double ackedSeqsPerRtt = (double) smoothedRttNanos * ackedSeqCompressedDelta / ackTimeDelta;
+            final int targetRwin = rwinMultiplier * (int) ceil(ackedSeqsPerAckPeriod) + (int) ceil(ackedSeqsPerRtt);
             int rwinDiff = targetRwin - receiveWindowCompressed;
             int numWaitingInInbox = this.numWaitingInInbox;
             // If nothing is waiting in the inbox, our processing speed isn't the cause
@@ -254,7 +297,57 @@ public class ReceiverTasklet implements Tasklet {
                 logFinest(logger, "receiveWindowCompressed changed by %d to %d", rwinDiff, receiveWindowCompressed);
             }
         }
-        return ackedSeqCompressed + receiveWindowCompressed;
+        final int sendSeqLimitCompressed = ackedSeqCompressed + receiveWindowCompressed;
+        maybeStartRttProbe(timestampNow, sendSeqLimitCompressed);
+        prevSendSeqLimitCompressed = sendSeqLimitCompressed;
+        return sendSeqLimitCompressed;
+    }
+
+    /**
+     * Starts a round-trip time probe, if none is in progress, data beyond the
+     * previous limit was received, meaning that the sender is blocked by the
+     * limit, and the new limit lets the sender send more.
+     */
+    private void maybeStartRttProbe(long timestampNow, int sendSeqLimitCompressed) {
+        if (rttProbeStartNanos != 0) {
+            return;
+        }
+        final int receivedSeqCompressed = compressSeq(receivedSeq);
+        if (receivedSeqCompressed - prevSendSeqLimitCompressed > 0
+                && sendSeqLimitCompressed - receivedSeqCompressed > 0) {
+            rttProbeSeqCompressed = receivedSeqCompressed;
+            rttProbeStartNanos = timestampNow;
+        }
+    }
+
+    /**
+     * Completes the round-trip time probe in progress, if data beyond the
+     * seq received when the probe started arrived.
+     */
+    // Only one thread writes to smoothedRttNanos
+    void completeRttProbe(long timestampNow) {
+        if (compressSeq(receivedSeq) - rttProbeSeqCompressed <= 0) {
+            return;
+        }
+        long sampleNanos = Math.max(0, timestampNow - rttProbeStartNanos);
+        rttProbeStartNanos = 0;
+        if (sampleNanos > MAX_RTT_SAMPLE_FLOW_CONTROL_PERIODS * flowControlPeriodNs) {
+            return;
+        }
+        long rtt = smoothedRttNanos;
+        rtt = rtt == 0 ? sampleNanos : rtt + ((sampleNanos - rtt) >> RTT_SMOOTHING_SHIFT);
+        smoothedRttNanos = rtt;
+        roundTripTimeMicros = NANOSECONDS.toMicros(rtt);
+    }
+
+    @Probe(name = MetricNames.DISTRIBUTED_RECEIVE_WINDOW, unit = ProbeUnit.BYTES)
+    long receiveWindowBytes() {
+        return (long) receiveWindowCompressed << COMPRESSED_SEQ_UNIT_LOG2;
+    }
+
+    @Probe(name = MetricNames.DISTRIBUTED_BYTES_IN_FLIGHT, unit = ProbeUnit.BYTES)
+    private long bytesInFlight() {
+        return receivedSeq - ackedSeq;
     }
 
     // Only one thread writes to ackedSeq
@@ -263,6 +356,16 @@ public class ReceiverTasklet implements Tasklet {
         return ackedSeq += itemWeight;
     }
 
+    // Only one thread writes to receivedSeq
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    long receiveItem(long itemWeight) {
+        return receivedSeq += itemWeight;
+    }
+
+    long smoothedRttNanos() {
+        return smoothedRttNanos;
+    }
+
     /**
      * To be called only from testing code.
      */
@@ -300,6 +403,7 @@ public class ReceiverTasklet implements Tasklet {
         try {
             long totalBytes = 0;
             long totalItems = 0;
+            long totalWeight = 0;
             for (byte[] payload; (payload = incoming.poll()) != null; ) {
                 BufferObjectDataInput input = serializationService.createObjectDataInput(payload, PACKET_HEADER_SIZE);
                 final int itemCount = input.readInt();
@@ -308,19 +412,44 @@ public class ReceiverTasklet implements Tasklet {
                     final Object item = input.readObject();
                     final int itemSize = input.position() - mark;
                     int partitionId = input.readInt();
-                    inbox.add(new ObjWithPtionIdAndSize(item, partitionId, itemSize));
+                    if (item instanceof JetSqlRowBatch) {
+                        totalWeight += addRowBatchToInbox((JetSqlRowBatch) item, itemSize);
+                        totalItems += ((JetSqlRowBatch) item).size();
+                        continue;
+                    }
+                    ObjWithPtionIdAndSize o = new ObjWithPtionIdAndSize(item, partitionId, itemSize);
+                    inbox.add(o);
+                    totalWeight += o.estimatedMemoryFootprint;
+                    totalItems++;
                 }
-                totalItems += itemCount;
                 totalBytes += input.position();
                 tracker.madeProgress();
             }
             bytesInCounter.inc(totalBytes);
             itemsInCounter.inc(totalItems);
+            if (totalWeight > 0) {
+                receiveItem(totalWeight);
+            }
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
+    /**
+     * Adds the rows of the batch to the inbox. The first row is accounted
+     * with the size of the whole batch, the others with zero size, the same
+     * way the {@link SenderTasklet} accounts them. Returns the total weight.
+     */
+    private long addRowBatchToInbox(JetSqlRowBatch batch, int batchSize) {
+        long weight = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            ObjWithPtionIdAndSize o = new ObjWithPtionIdAndSize(batch.row(i), batch.partitionId(i), i == 0 ? batchSize : 0);
+            inbox.add(o);
+            weight += o.estimatedMemoryFootprint;
+        }
+        return weight;
+    }
+
     public void initIncomingQueue(Queue<byte[]> incomingQueue) {
         incoming = incomingQueue;
     }
@@ -35,6 +35,8 @@ import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -48,6 +50,7 @@ import static com.hazelcast.jet.impl.execution.ReceiverTasklet.compressSeq;
 import static com.hazelcast.jet.impl.execution.ReceiverTasklet.estimatedMemoryFootprint;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * The tasklet that sends the data associated with a single edge through network.
@@ -55,6 +58,7 @@ import static com.hazelcast.jet.impl.util.Util.uncheckRun;
 public class SenderTasklet implements Tasklet {
     private static final int BUFFER_INITIAL_SIZE = 1 << 10;
     private static final int BUFFER_FIRST_GROWTH_SIZE = 1 << 15;
+    private static final int MAX_ROW_BATCH_SIZE = 256;
 
     private final Connection connection;
     private final Queue<Object> inbox = new ArrayDeque<>();
@@ -63,6 +67,8 @@ public class SenderTasklet implements Tasklet {
     private final BufferObjectDataOutput outputBuffer;
     private final int bufPosPastHeader;
     private final int packetSizeLimit;
+    // null, if the columnar row batches aren't enabled
+    private final JetSqlRowBatch rowBatch;
 
     /* Used for metrics */
     private final String destinationAddressString;
@@ -78,6 +84,9 @@ public class SenderTasklet implements Tasklet {
     private boolean instreamExhausted;
     // read and written by Jet thread
     private long sentSeq;
+    private long stallStartNanos;
+    // written by Jet thread, read by metrics collection
+    private volatile long stallTimeNanos;
 
     // Written by HZ networking thread, read by Jet thread
     private volatile int sendSeqLimitCompressed;
@@ -90,13 +99,15 @@ public class SenderTasklet implements Tasklet {
             Connection connection,
             int destinationVertexId, int packetSizeLimit, long executionId,
             String sourceVertexName, int sourceOrdinal,
-            InternalSerializationService serializationService
+            InternalSerializationService serializationService,
+            boolean columnarRowBatchesEnabled
     ) {
         this.inboundEdgeStream = inboundEdgeStream;
         this.destinationAddressString = destinationAddress.toString();
         this.sourceVertexName = sourceVertexName;
         this.sourceOrdinalString = "" + sourceOrdinal;
         this.packetSizeLimit = packetSizeLimit;
+        this.rowBatch = columnarRowBatchesEnabled ? new JetSqlRowBatch(serializationService, MAX_ROW_BATCH_SIZE) : null;
         // we use Connection directly because we rely on packets not being transparently skipped or reordered
         this.connection = connection;
         this.outputBuffer = serializationService.createObjectDataOutput(BUFFER_INITIAL_SIZE, BUFFER_FIRST_GROWTH_SIZE);
@@ -143,6 +154,7 @@ public class SenderTasklet implements Tasklet {
             // header size + slot for writtenCount
             outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
             int writtenCount = 0;
+            int itemCount = 0;
             for (Object item;
                  outputBuffer.position() < packetSizeLimit
                          && isWithinLimit(sentSeq, sendSeqLimitCompressed)
@@ -151,20 +163,78 @@ public class SenderTasklet implements Tasklet {
             ) {
                 ObjectWithPartitionId itemWithPId = item instanceof ObjectWithPartitionId ?
                         (ObjectWithPartitionId) item : new ObjectWithPartitionId(item, -1);
+                if (rowBatch != null && itemWithPId.getItem() instanceof JetSqlRow) {
+                    itemCount += writeRowBatch(itemWithPId);
+                    continue;
+                }
                 final int mark = outputBuffer.position();
                 outputBuffer.writeObject(itemWithPId.getItem());
                 sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark);
                 outputBuffer.writeInt(itemWithPId.getPartitionId());
+                itemCount++;
             }
             outputBuffer.writeInt(bufPosPastHeader, writtenCount);
             bytesOutCounter.inc(outputBuffer.position());
-            itemsOutCounter.inc(writtenCount);
+            itemsOutCounter.inc(itemCount);
+            trackStall(!inbox.isEmpty() && !isWithinLimit(sentSeq, sendSeqLimitCompressed));
             return writtenCount > 0;
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
+    /**
+     * Writes the given row and the rows following it in the inbox as a single
+     * {@link JetSqlRowBatch}. The {@code sentSeq} is increased by the same
+     * amount the {@link ReceiverTasklet} acknowledges for the rows: the first
+     * row is accounted with the size of the whole batch, the others with zero
+     * size. Returns the number of rows written.
+     */
+    private int writeRowBatch(ObjectWithPartitionId first) throws IOException {
+        rowBatch.add((JetSqlRow) first.getItem(), first.getPartitionId());
+        for (Object next; (next = inbox.peek()) != null; ) {
+            boolean hasPId = next instanceof ObjectWithPartitionId;
+            Object nextItem = hasPId ? ((ObjectWithPartitionId) next).getItem() : next;
+            int partitionId = hasPId ? ((ObjectWithPartitionId) next).getPartitionId() : -1;
+            if (!(nextItem instanceof JetSqlRow) || !rowBatch.add((JetSqlRow) nextItem, partitionId)) {
+                break;
+            }
+            inbox.remove();
+        }
+        int size = rowBatch.size();
+        final int mark = outputBuffer.position();
+        outputBuffer.writeObject(rowBatch);
+        sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark) + (size - 1) * estimatedMemoryFootprint(0);
+        outputBuffer.writeInt(-1);
+        rowBatch.clear();
+        return size;
+    }
+
+    /**
+     * Accumulates the time during which this tasklet had data to send, but
+     * wasn't allowed to send it by the receive window.
+     */
+    // The operations in this method must be done in the Jet thread
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void trackStall(boolean stalled) {
+        if (stalled == (stallStartNanos != 0)) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (stalled) {
+            // avoid 0, which means "not stalled"
+            stallStartNanos = now == 0 ? 1 : now;
+        } else {
+            stallTimeNanos += now - stallStartNanos;
+            stallStartNanos = 0;
+        }
+    }
+
+    @Probe(name = MetricNames.DISTRIBUTED_STALL_TIME, unit = ProbeUnit.MS)
+    private long stallTimeMillis() {
+        return NANOSECONDS.toMillis(stallTimeNanos);
+    }
+
     /**
      * Updates the upper limit on {@link #sentSeq}, which constrains how much more data this tasklet can send.
      *
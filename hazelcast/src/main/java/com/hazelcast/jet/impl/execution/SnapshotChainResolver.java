@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+
+import static com.hazelcast.jet.Util.entry;
+
+/**
+ * Resolves the snapshot entries restored from a chain of a full snapshot
+ * and incremental snapshots, see {@link IncrementalSnapshotAware}. The
+ * values of such entries are wrapped in {@link VersionedSnapshotValue}.
+ * Entries restored from a single snapshot are passed unchanged.
+ * <p>
+ * If the processor isn't incremental, it saves its full state to each
+ * snapshot, the values of older snapshots are dropped and the latest ones are
+ * passed to the processor immediately.
+ * <p>
+ * If the processor is incremental, the values can arrive in any order. They
+ * are buffered until all of them are received, keeping only the values with
+ * the highest snapshot ID for each key. The resolved entries are passed to
+ * the processor before {@code finishSnapshotRestore()}, keys whose latest
+ * value is a {@link SnapshotTombstone} are skipped.
+ */
+final class SnapshotChainResolver {
+
+    private final boolean incremental;
+    private final Map<Object, Versions> buffered = new HashMap<>();
+    private Queue<Object> resolved;
+
+    SnapshotChainResolver(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Resolves the entries in the given queue in place. Entries of older
+     * snapshots are removed, entries of an incremental processor are moved
+     * to the buffer.
+     */
+    void resolve(Queue<Object> queue) {
+        for (int i = queue.size(); i > 0; i--) {
+            Object item = queue.poll();
+            Entry<?, ?> entry = (Entry<?, ?>) item;
+            if (!(entry.getValue() instanceof VersionedSnapshotValue)) {
+                queue.add(item);
+                continue;
+            }
+            VersionedSnapshotValue value = (VersionedSnapshotValue) entry.getValue();
+            if (incremental) {
+                buffer(entry.getKey(), value, item instanceof BroadcastEntry);
+            } else if (value.isLatest()) {
+                queue.add(toEntry(entry.getKey(), value.value(), item instanceof BroadcastEntry));
+            }
+        }
+    }
+
+    /**
+     * Returns true, if there are buffered entries not yet moved to a queue by
+     * {@link #drainTo}.
+     */
+    boolean hasBuffered() {
+        return resolved == null ? !buffered.isEmpty() : !resolved.isEmpty();
+    }
+
+    /**
+     * Moves at most {@code limit} resolved entries to the given queue. Must be
+     * called only after all entries were passed to {@link #resolve}.
+     */
+    void drainTo(Queue<Object> queue, int limit) {
+        if (resolved == null) {
+            resolved = new ArrayDeque<>(buffered.size());
+            for (Entry<Object, Versions> en : buffered.entrySet()) {
+                en.getValue().addResolvedTo(en.getKey(), resolved);
+            }
+            buffered.clear();
+        }
+        for (int i = 0; i < limit && !resolved.isEmpty(); i++) {
+            queue.add(resolved.poll());
+        }
+    }
+
+    private void buffer(Object key, VersionedSnapshotValue value, boolean broadcast) {
+        Versions versions = buffered.computeIfAbsent(key, k -> new Versions(broadcast));
+        if (value.snapshotId() > versions.snapshotId) {
+            versions.snapshotId = value.snapshotId();
+            versions.values.clear();
+        }
+        if (value.snapshotId() == versions.snapshotId) {
+            // broadcast keys can have multiple values in one snapshot
+            versions.values.add(value.value());
+        }
+    }
+
+    private static Object toEntry(Object key, Object value, boolean broadcast) {
+        return broadcast ? new BroadcastEntry<>(key, value) : entry(key, value);
+    }
+
+    private static final class Versions {
+        private final boolean broadcast;
+        private final List<Object> values = new ArrayList<>(1);
+        private long snapshotId = Long.MIN_VALUE;
+
+        Versions(boolean broadcast) {
+            this.broadcast = broadcast;
+        }
+
+        void addResolvedTo(Object key, Queue<Object> queue) {
+            for (Object value : values) {
+                if (value != SnapshotTombstone.INSTANCE) {
+                    queue.add(toEntry(key, value, broadcast));
+                }
+            }
+        }
+    }
+}
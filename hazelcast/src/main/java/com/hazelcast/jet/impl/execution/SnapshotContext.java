@@ -43,6 +43,11 @@ public class SnapshotContext {
      */
     private volatile int snapshotFlags;
 
+    /**
+     * The {@link System#nanoTime()} when the last snapshot was begun.
+     */
+    private volatile long snapshotStartNanos;
+
     /**
      * Current number of {@link StoreSnapshotTasklet}s in the job. It's
      * decremented as the tasklets complete (this is when they receive
@@ -173,6 +178,21 @@ public class SnapshotContext {
         return SnapshotFlags.isExportOnly(snapshotFlags);
     }
 
+    /**
+     * Returns true, if the processors supporting it should save only the state
+     * changed since the previous snapshot, see {@link IncrementalSnapshotAware}.
+     */
+    public boolean isIncrementalSnapshot() {
+        return SnapshotFlags.isIncremental(snapshotFlags);
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} when the last snapshot was begun.
+     */
+    long snapshotStartNanos() {
+        return snapshotStartNanos;
+    }
+
     boolean isLastPhase1Successful() {
         return lastPhase1Successful;
     }
@@ -222,6 +242,7 @@ public class SnapshotContext {
             throw new CancellationException("execution cancelled");
         }
         this.snapshotFlags = flags;
+        this.snapshotStartNanos = System.nanoTime();
 
         boolean success = numRemainingTasklets.compareAndSet(0, numSsTasklets);
         assert success : "numRemainingTasklets wasn't 0, but " + numRemainingTasklets.get();
@@ -22,7 +22,6 @@ import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.metrics.ProbeUnit;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.jet.JetException;
-import com.hazelcast.jet.accumulator.LongLongAccumulator;
 import com.hazelcast.jet.core.metrics.MetricTags;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriter;
 import com.hazelcast.jet.impl.util.ProgressState;
@@ -35,11 +34,14 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_DURATION;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_INCREMENTAL;
 import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_KEYS;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.DONE;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.DRAIN;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.FLUSH;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.REACHED_BARRIER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class StoreSnapshotTasklet implements Tasklet {
 
@@ -53,7 +55,7 @@ public class StoreSnapshotTasklet implements Tasklet {
 
     private final AsyncSnapshotWriter ssWriter;
     private final ProgressTracker progTracker = new ProgressTracker();
-    private final AtomicReference<LongLongAccumulator> metrics = new AtomicReference<>(new LongLongAccumulator());
+    private final AtomicReference<SnapshotStats> metrics = new AtomicReference<>(new SnapshotStats(0, 0, 0, false));
     private State state = DRAIN;
     private boolean hasReachedBarrier;
     private Entry<Data, Data> pendingEntry;
@@ -133,8 +135,11 @@ public class StoreSnapshotTasklet implements Tasklet {
                 long bytes = ssWriter.getTotalPayloadBytes();
                 long keys = ssWriter.getTotalKeys();
                 long chunks = ssWriter.getTotalChunks();
+                // read before phase1DoneForTasklet(), after that the next snapshot can start
+                long durationMs = NANOSECONDS.toMillis(System.nanoTime() - snapshotContext.snapshotStartNanos());
+                boolean incremental = snapshotContext.isIncrementalSnapshot();
                 snapshotContext.phase1DoneForTasklet(bytes, keys, chunks);
-                metrics.set(new LongLongAccumulator(bytes, keys));
+                metrics.set(new SnapshotStats(bytes, keys, durationMs, incremental));
                 ssWriter.resetStats();
                 pendingSnapshotId++;
                 hasReachedBarrier = false;
@@ -167,9 +172,12 @@ public class StoreSnapshotTasklet implements Tasklet {
     public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
         descriptor = descriptor.withTag(MetricTags.VERTEX, vertexName);
 
-        LongLongAccumulator metricValues = metrics.get();
-        context.collect(descriptor, SNAPSHOT_BYTES, ProbeLevel.INFO, ProbeUnit.COUNT, metricValues.get1());
-        context.collect(descriptor, SNAPSHOT_KEYS, ProbeLevel.INFO, ProbeUnit.COUNT, metricValues.get2());
+        SnapshotStats metricValues = metrics.get();
+        context.collect(descriptor, SNAPSHOT_BYTES, ProbeLevel.INFO, ProbeUnit.COUNT, metricValues.bytes);
+        context.collect(descriptor, SNAPSHOT_KEYS, ProbeLevel.INFO, ProbeUnit.COUNT, metricValues.keys);
+        context.collect(descriptor, SNAPSHOT_DURATION, ProbeLevel.INFO, ProbeUnit.MS, metricValues.durationMs);
+        context.collect(descriptor, SNAPSHOT_INCREMENTAL, ProbeLevel.INFO, ProbeUnit.BOOLEAN,
+                metricValues.incremental ? 1 : 0);
     }
 
     @Override
@@ -177,6 +185,23 @@ public class StoreSnapshotTasklet implements Tasklet {
         return StoreSnapshotTasklet.class.getSimpleName() + '{' + vertexName + '}';
     }
 
+    /**
+     * Statistics of the last snapshot written by this tasklet.
+     */
+    private static final class SnapshotStats {
+        final long bytes;
+        final long keys;
+        final long durationMs;
+        final boolean incremental;
+
+        SnapshotStats(long bytes, long keys, long durationMs, boolean incremental) {
+            this.bytes = bytes;
+            this.keys = keys;
+            this.durationMs = durationMs;
+            this.incremental = incremental;
+        }
+    }
+
     enum State {
         /** Draining the queue, flushing as necessary. */
         DRAIN,
@@ -40,12 +40,15 @@ import com.hazelcast.spi.properties.HazelcastProperty;
 import com.hazelcast.sql.impl.ResultLimitReachedException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -54,11 +57,15 @@ import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.executor.ExecutorType.CACHED;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
@@ -66,6 +73,8 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_BLOCKING_VIRTUAL_THREADS_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
@@ -74,6 +83,7 @@ import static java.lang.Thread.currentThread;
 import static java.util.Collections.emptyList;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
 
@@ -81,7 +91,7 @@ public class TaskletExecutionService {
 
     public static final String TASKLET_INIT_CLOSE_EXECUTOR_NAME = "jet:tasklet_initClose";
 
-    private final ExecutorService blockingTaskletExecutor = newCachedThreadPool(new BlockingTaskThreadFactory());
+    private final ExecutorService blockingTaskletExecutor;
     private final ExecutionService hzExecutionService;
     private final CooperativeWorker[] cooperativeWorkers;
     private final Thread[] cooperativeThreadPool;
@@ -94,6 +104,9 @@ public class TaskletExecutionService {
     private final Object lock = new Object();
     private final IdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final boolean workStealingEnabled;
+    // idle workers waiting for a busy worker to hand them a tasklet
+    private final Queue<CooperativeWorker> thieves = new ConcurrentLinkedQueue<>();
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
@@ -103,6 +116,7 @@ public class TaskletExecutionService {
         this.cooperativeWorkers = new CooperativeWorker[threadCount];
         this.cooperativeThreadPool = new Thread[threadCount];
         this.logger = nodeEngine.getLoggingService().getLogger(TaskletExecutionService.class);
+        this.blockingTaskletExecutor = newCachedThreadPool(createBlockingThreadFactory(properties));
 
         idlerCooperative = createIdler(
             properties, JET_IDLE_COOPERATIVE_MIN_MICROSECONDS, JET_IDLE_COOPERATIVE_MAX_MICROSECONDS
@@ -110,6 +124,7 @@ public class TaskletExecutionService {
         idlerNonCooperative = createIdler(
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
+        workStealingEnabled = properties.getBoolean(JET_COOPERATIVE_WORK_STEALING_ENABLED);
 
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new CooperativeWorkerThread(cooperativeWorkers[i],
@@ -254,6 +269,38 @@ public class TaskletExecutionService {
         }
     }
 
+    private ThreadFactory createBlockingThreadFactory(HazelcastProperties properties) {
+        if (properties.getBoolean(JET_BLOCKING_VIRTUAL_THREADS_ENABLED)) {
+            ThreadFactory factory = virtualThreadFactory(String.format("hz.%s.jet.blocking.virtual-thread-", hzInstanceName));
+            if (factory != null) {
+                logger.info("Non-cooperative tasklets will run on virtual threads");
+                return factory;
+            }
+            logger.warning(JET_BLOCKING_VIRTUAL_THREADS_ENABLED.getName() + " requires Java 21 or newer,"
+                    + " non-cooperative tasklets will run on platform threads");
+        }
+        return new BlockingTaskThreadFactory();
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the given prefix and a
+     * sequence number, or {@code null}, if the JVM doesn't support them. The
+     * API is only available since Java 21, so it's looked up reflectively.
+     */
+    @Nullable
+    static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            // Java older than 21, or a preview version with preview features disabled
+            ignore(e);
+            return null;
+        }
+    }
+
     private BackoffIdleStrategy createIdler(
         HazelcastProperties props, HazelcastProperty minProp, HazelcastProperty maxProp
     ) {
@@ -338,21 +385,42 @@ public class TaskletExecutionService {
 
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
+        private static final long UTILIZATION_WINDOW_NANOS = SECONDS.toNanos(1);
 
         @Probe(name = "taskletCount")
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        // the total time spent in iterations in which some tasklet made progress
+        @Probe(name = "busyTime", unit = NS)
+        private final Counter busyTimeNanos = SwCounter.newSwCounter();
+        // the share of the busy time in the last utilization window
+        @Probe(name = "utilization", unit = PERCENT)
+        private volatile long utilizationPercent;
+        @Probe(name = "stolenTaskletCount")
+        private final Counter stolenTaskletCount = MwCounter.newMwCounter();
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
         private final Consumer<TaskletTracker> runTasklet = this::runTasklet;
 
         private final Semaphore newTaskletSemaphore = new Semaphore(0);
+        private final AtomicBoolean stealRequested = new AtomicBoolean();
 
         private boolean finestLogEnabled;
-        private Thread myThread;
+        private volatile Thread myThread;
         private Contexts.Container contextContainer;
+        private long windowStartNanos;
+        private long windowBusyNanos;
+        // Number of tasklets that made progress in the current iteration and
+        // the last one of them, used to pick the tasklet to hand over
+        private int busyTaskletCount;
+        private TaskletTracker lastBusyTracker;
+        // Whether the last iteration made no progress. Read by other workers
+        // to check if this worker still wants to steal.
+        private volatile boolean idle;
+        // guarded by this, set when the worker doesn't accept tasklets anymore
+        private boolean exited;
 
         CooperativeWorker() {
             this.trackers = new CopyOnWriteArrayList<>();
@@ -365,13 +433,21 @@ public class TaskletExecutionService {
 
             IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
+            windowStartNanos = System.nanoTime();
 
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
                 progressTracker.reset();
+                busyTaskletCount = 0;
+                lastBusyTracker = null;
+                long iterationStart = System.nanoTime();
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
+                updateUtilization(iterationStart, progressTracker.isMadeProgress());
+                if (workStealingEnabled) {
+                    balance(progressTracker.isMadeProgress());
+                }
                 if (!progressTracker.isMadeProgress() && newTaskletSemaphore.drainPermits() > 0) {
                     progressTracker.madeProgress();
                 }
@@ -381,6 +457,7 @@ public class TaskletExecutionService {
                     if (trackers.isEmpty()) {
                         newTaskletSemaphore.drainPermits();
                         if (trackers.isEmpty() && !isShutdown) {
+                            utilizationPercent = 0;
                             try {
                                 newTaskletSemaphore.acquire();
                             } catch (InterruptedException e) {
@@ -393,10 +470,65 @@ public class TaskletExecutionService {
                     }
                 }
             }
+            synchronized (this) {
+                exited = true;
+            }
             trackers.forEach(t -> t.executionTracker.taskletDone());
             trackers.clear();
         }
 
+        private void updateUtilization(long iterationStart, boolean madeProgress) {
+            long now = System.nanoTime();
+            if (madeProgress) {
+                long busyNanos = now - iterationStart;
+                busyTimeNanos.inc(busyNanos);
+                windowBusyNanos += busyNanos;
+            }
+            long windowNanos = now - windowStartNanos;
+            if (windowNanos >= UTILIZATION_WINDOW_NANOS) {
+                utilizationPercent = windowBusyNanos * 100 / windowNanos;
+                windowStartNanos = now;
+                windowBusyNanos = 0;
+            }
+        }
+
+        /**
+         * An idle worker registers itself as a thief. A worker with more than
+         * one busy tasklet hands one of them over to a waiting thief. The
+         * tasklet is handed over by its current worker between two calls, so
+         * it's never executed by two threads at the same time.
+         */
+        private void balance(boolean madeProgress) {
+            idle = !madeProgress;
+            if (idle) {
+                if (stealRequested.compareAndSet(false, true)) {
+                    thieves.add(this);
+                }
+            } else if (busyTaskletCount > 1) {
+                for (CooperativeWorker thief; (thief = thieves.poll()) != null; ) {
+                    thief.stealRequested.set(false);
+                    // the thief might have found work of its own in the meantime
+                    if (thief.idle && handOver(lastBusyTracker, thief)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean handOver(TaskletTracker t, CooperativeWorker thief) {
+            synchronized (thief) {
+                if (thief.exited || !trackers.remove(t)) {
+                    return false;
+                }
+                thief.trackers.add(t);
+            }
+            logFinest(logger, "Tasklet %s handed over to an idle worker", t.tasklet);
+            thief.stolenTaskletCount.inc();
+            thief.newTaskletSemaphore.release();
+            LockSupport.unpark(thief.myThread);
+            return true;
+        }
+
         private void runTasklet(TaskletTracker t) {
             long start = 0;
             if (finestLogEnabled) {
@@ -408,6 +540,9 @@ public class TaskletExecutionService {
                 final ProgressState result = t.tasklet.call();
                 if (result.isDone()) {
                     dismissTasklet(t);
+                } else if (result.isMadeProgress()) {
+                    busyTaskletCount++;
+                    lastBusyTracker = t;
                 }
                 progressTracker.mergeWith(result);
             } catch (Throwable e) {
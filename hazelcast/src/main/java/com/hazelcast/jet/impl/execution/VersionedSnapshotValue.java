@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.Objects;
+
+/**
+ * A value restored from a chain of incremental snapshots, together with the
+ * ID of the snapshot it was saved in. It's used as the value of the entries
+ * sent to the processors when restoring from a chain, so that the {@link
+ * ProcessorTasklet} can choose the latest value of each key.
+ */
+public final class VersionedSnapshotValue {
+
+    private final long snapshotId;
+    private final boolean latest;
+    private final Object value;
+
+    /**
+     * @param snapshotId the ID of the snapshot the value was saved in
+     * @param latest     true, if the snapshot is the restored one, that is
+     *                   the last snapshot in the chain
+     * @param value      the saved value
+     */
+    public VersionedSnapshotValue(long snapshotId, boolean latest, Object value) {
+        this.snapshotId = snapshotId;
+        this.latest = latest;
+        this.value = value;
+    }
+
+    public long snapshotId() {
+        return snapshotId;
+    }
+
+    public boolean isLatest() {
+        return latest;
+    }
+
+    public Object value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VersionedSnapshotValue that = (VersionedSnapshotValue) o;
+        return snapshotId == that.snapshotId
+                && latest == that.latest
+                && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(snapshotId, latest, value);
+    }
+
+    @Override
+    public String toString() {
+        return "VersionedSnapshotValue{snapshotId=" + snapshotId + ", latest=" + latest + ", value=" + value + '}';
+    }
+}
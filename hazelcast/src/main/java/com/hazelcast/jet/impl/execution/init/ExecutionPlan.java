@@ -18,6 +18,7 @@ package com.hazelcast.jet.impl.execution.init;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.function.ComparatorEx;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -34,6 +35,7 @@ import com.hazelcast.jet.core.Edge.RoutingPolicy;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.TopologyChangedException;
+import com.hazelcast.jet.core.metrics.MetricTags;
 import com.hazelcast.jet.function.RunnableEx;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.JobClassLoaderService;
@@ -52,6 +54,7 @@ import com.hazelcast.jet.impl.execution.Tasklet;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.SnapshotChunkStore;
 import com.hazelcast.jet.impl.util.ImdgUtil;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.logging.ILogger;
@@ -61,6 +64,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.security.auth.Subject;
 import java.io.File;
 import java.io.IOException;
@@ -84,6 +88,7 @@ import java.util.stream.Stream;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
 import static com.hazelcast.jet.config.EdgeConfig.DEFAULT_QUEUE_SIZE;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_COLUMNAR_ROW_BATCHES_ENABLED;
 import static com.hazelcast.jet.core.Edge.DISTRIBUTE_TO_ALL;
 import static com.hazelcast.jet.impl.execution.OutboundCollector.compositeCollector;
 import static com.hazelcast.jet.impl.execution.TaskletExecutionService.TASKLET_INIT_CLOSE_EXECUTOR_NAME;
@@ -137,11 +142,14 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
     private final transient Map<String, ConcurrentConveyor<Object>[]> localConveyorMap = new HashMap<>();
     private final transient Map<String, Map<Address, ConcurrentConveyor<Object>>> edgeSenderConveyorMap = new HashMap<>();
     private final transient List<Processor> processors = new ArrayList<>();
+    // metrics of the partitioners of the outbound edges, e.g. the detected hot keys
+    private final transient List<DynamicMetricsProvider> edgeMetricsProviders = new ArrayList<>();
 
     private transient PartitionArrangement ptionArrgmt;
 
     private transient NodeEngineImpl nodeEngine;
     private transient JobClassLoaderService jobClassLoaderService;
+    private transient SnapshotChunkStore snapshotChunkStore;
     private transient long executionId;
     private transient DagNodeUtil dagNodeUtil;
     private final transient Set<String> localCollectorsEdges = new HashSet<>();
@@ -202,6 +210,10 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
             }
             dagNodeUtil = new DagNodeUtil(asList(vertices), partitionAssignment.keySet(), nodeEngine.getThisAddress());
             createLocalConveyorsAndSenderReceiverTasklets(jobId, jobSerializationService);
+            if (!isLightJob) {
+                snapshotChunkStore = SnapshotChunkStore.create(nodeEngine, jobId, executionId, jobConfig,
+                        partitionAssignment.keySet());
+            }
 
             for (VertexDef vertex : vertices) {
                 if (!dagNodeUtil.vertexExists(vertex)) {
@@ -230,7 +242,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext,
                             ConcurrentInboundEdgeStream.create(ssConveyor, 0, 0, true, jobPrefix + "/ssFrom", null),
                             new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount,
-                                    jobSerializationService),
+                                    jobSerializationService, snapshotChunkStore),
                             storeSnapshotLogger, vertex.name(), higherPriorityVertices.contains(vertex.vertexId()));
                     tasklets.add(ssTasklet);
                 }
@@ -389,10 +401,23 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         return tasklets;
     }
 
+    public List<DynamicMetricsProvider> getEdgeMetricsProviders() {
+        return edgeMetricsProviders;
+    }
+
     public JobConfig getJobConfig() {
         return jobConfig;
     }
 
+    /**
+     * Returns the store for the snapshot data of this execution, {@code null}
+     * for light jobs.
+     */
+    @Nullable
+    public SnapshotChunkStore getSnapshotChunkStore() {
+        return snapshotChunkStore;
+    }
+
     void setVertex(int position, VertexDef vertex) {
         vertices[position] = vertex;
     }
@@ -497,6 +522,18 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                             partitioner.init(object -> partitionService.getPartitionId(jobSerializationService.toData(object)));
                         }
                 );
+        for (VertexDef v : vertices) {
+            for (EdgeDef e : v.outboundEdges()) {
+                if (e.partitioner() instanceof DynamicMetricsProvider) {
+                    DynamicMetricsProvider provider = (DynamicMetricsProvider) e.partitioner();
+                    String vertexName = v.name();
+                    String ordinal = String.valueOf(e.sourceOrdinal());
+                    edgeMetricsProviders.add((descriptor, context) -> provider.provideDynamicMetrics(
+                            descriptor.withTag(MetricTags.VERTEX, vertexName).withTag(MetricTags.ORDINAL, ordinal),
+                            context));
+                }
+            }
+        }
     }
 
     private static Collection<? extends Processor> createProcessors(VertexDef vertexDef, int parallelism) {
@@ -691,7 +728,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
             SenderTasklet t = new SenderTasklet(inboundEdgeStream, nodeEngine, destAddr,
                     memberConnections.get(destAddr),
                     destVertexId, edge.getConfig().getPacketSizeLimit(), executionId,
-                    edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService
+                    edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService,
+                    Boolean.TRUE.equals(jobConfig.getArgument(KEY_COLUMNAR_ROW_BATCHES_ENABLED))
             );
             senderMap.computeIfAbsent(destVertexId, xx -> new HashMap<>())
                     .computeIfAbsent(edge.destOrdinal(), xx -> new HashMap<>())
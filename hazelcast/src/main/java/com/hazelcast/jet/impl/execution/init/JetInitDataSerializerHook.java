@@ -31,6 +31,7 @@ import com.hazelcast.jet.impl.SnapshotValidationRecord;
 import com.hazelcast.jet.impl.connector.WriteFileP;
 import com.hazelcast.jet.impl.operation.AddJobStatusListenerOperation;
 import com.hazelcast.jet.impl.operation.CheckLightJobsOperation;
+import com.hazelcast.jet.impl.operation.CountSnapshotChunksOperation;
 import com.hazelcast.jet.impl.operation.GetJobAndSqlSummaryListOperation;
 import com.hazelcast.jet.impl.operation.GetJobConfigOperation;
 import com.hazelcast.jet.impl.operation.GetJobIdsOperation;
@@ -46,6 +47,7 @@ import com.hazelcast.jet.impl.operation.IsJobUserCancelledOperation;
 import com.hazelcast.jet.impl.operation.JoinSubmittedJobOperation;
 import com.hazelcast.jet.impl.operation.NotifyMemberShutdownOperation;
 import com.hazelcast.jet.impl.operation.PrepareForPassiveClusterOperation;
+import com.hazelcast.jet.impl.operation.PutSnapshotReplicaChunkOperation;
 import com.hazelcast.jet.impl.operation.ResumeJobOperation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
@@ -122,6 +124,8 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int UPLOAD_JOB_METADATA_OP = 52;
     public static final int UPLOAD_JOB_MULTIPART_OP = 53;
     public static final int UPDATE_JOB_CONFIG_OP = 54;
+    public static final int PUT_SNAPSHOT_REPLICA_CHUNK_OP = 55;
+    public static final int COUNT_SNAPSHOT_CHUNKS_OP = 56;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -210,6 +214,10 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                     return new AddJobStatusListenerOperation();
                 case UPDATE_JOB_CONFIG_OP:
                     return new UpdateJobConfigOperation();
+                case PUT_SNAPSHOT_REPLICA_CHUNK_OP:
+                    return new PutSnapshotReplicaChunkOperation();
+                case COUNT_SNAPSHOT_CHUNKS_OP:
+                    return new CountSnapshotChunksOperation();
                 case GET_JOB_METRICS_OP:
                     return new GetJobMetricsOperation();
                 case GET_LOCAL_JOB_METRICS_OP:
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.Traverser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A keyed state store for processors whose accumulators consist of a fixed
+ * number of {@code long} values (see {@link
+ * com.hazelcast.jet.impl.aggregate.PrimitiveAccumulation}).
+ * <p>
+ * It's an open-addressing hash table with linear probing. The keys are kept
+ * in an {@code Object[]} and the accumulators of all keys in a single {@code
+ * long[]}, the accumulator of the key at index {@code i} occupies the slots
+ * {@code [i * slotCount, (i + 1) * slotCount)}. Compared to a {@code
+ * HashMap<K, A>}, there is no entry object and no accumulator object per key.
+ * <p>
+ * Keys can't be removed, except by {@linkplain #drain draining} the whole
+ * store. The store isn't thread-safe.
+ *
+ * @param <K> the type of the key
+ */
+public final class PrimitiveKeyedState<K> {
+
+    static final int INITIAL_CAPACITY = 1 << 6;
+    static final float LOAD_FACTOR = 0.6f;
+
+    private final int slotCount;
+    private Object[] keys;
+    private long[] slots;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * @param slotCount the number of {@code long} values per key
+     */
+    public PrimitiveKeyedState(int slotCount) {
+        this.slotCount = checkPositive("slotCount", slotCount);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the number of keys in the store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the array holding the accumulators. It's replaced when the store
+     * grows, so it must not be cached across {@link #insert} calls.
+     */
+    public long[] slots() {
+        return slots;
+    }
+
+    /**
+     * Returns the offset of the first slot of the given key in {@link
+     * #slots()} or -1, if the key isn't in the store.
+     */
+    public int offsetOf(K key) {
+        for (int index = fastIntMix(key.hashCode()) & mask; ; index = (index + 1) & mask) {
+            Object candidate = keys[index];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate.equals(key)) {
+                return index * slotCount;
+            }
+        }
+    }
+
+    /**
+     * Inserts a key that isn't in the store yet. All slots of the key are
+     * zero.
+     *
+     * @return the offset of the first slot of the key in {@link #slots()}
+     */
+    public int insert(K key) {
+        if (size == resizeThreshold) {
+            resize();
+        }
+        int index = fastIntMix(key.hashCode()) & mask;
+        while (keys[index] != null) {
+            assert !keys[index].equals(key) : "key already present: " + key;
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        size++;
+        return index * slotCount;
+    }
+
+    /**
+     * Returns an iterator that maps every key and its accumulator with the
+     * given function. The store must not be modified while iterating.
+     */
+    public <R> Iterator<R> iterator(EntryMapper<? super K, ? extends R> mapper) {
+        return new Iterator<R>() {
+            private int index = nextKeyIndex(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public R next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                K key = (K) keys[index];
+                int offset = index * slotCount;
+                index = nextKeyIndex(index + 1);
+                return mapper.apply(key, slots, offset);
+            }
+        };
+    }
+
+    /**
+     * Returns a traverser that maps every key and its accumulator with the
+     * given function and removes it from the store. Keys mapped to {@code
+     * null} are skipped. When the traverser is
+     * exhausted, the store is empty and shrunk to its initial capacity.
+     */
+    public <R> Traverser<R> drain(EntryMapper<? super K, ? extends R> mapper) {
+        return new Traverser<R>() {
+            private int index;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public R next() {
+                while (index < keys.length) {
+                    K key = (K) keys[index];
+                    int offset = index++ * slotCount;
+                    if (key != null) {
+                        keys[index - 1] = null;
+                        size--;
+                        R result = mapper.apply(key, slots, offset);
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                }
+                if (keys.length > INITIAL_CAPACITY) {
+                    allocate(INITIAL_CAPACITY);
+                }
+                return null;
+            }
+        };
+    }
+
+    private int nextKeyIndex(int index) {
+        while (index < keys.length && keys[index] == null) {
+            index++;
+        }
+        return index;
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        long[] oldSlots = slots;
+        allocate(keys.length << 1);
+        for (int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++) {
+            Object key = oldKeys[oldIndex];
+            if (key == null) {
+                continue;
+            }
+            int index = fastIntMix(key.hashCode()) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            System.arraycopy(oldSlots, oldIndex * slotCount, slots, index * slotCount, slotCount);
+        }
+    }
+
+    private void allocate(int capacity) {
+        capacity = nextPowerOfTwo(capacity);
+        keys = new Object[capacity];
+        slots = new long[capacity * slotCount];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Maps a key and its accumulator stored in the slots starting at {@code
+     * offset} to a result.
+     */
+    @FunctionalInterface
+    public interface EntryMapper<K, R> {
+        R apply(K key, long[] slots, int offset);
+    }
+}
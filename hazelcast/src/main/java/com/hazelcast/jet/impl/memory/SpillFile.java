@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A file to which a processor spills items that don't fit into its memory
+ * budget. The items are written sequentially and read back in the same
+ * order. Every item is stored as its serialized length followed by its
+ * serialized form.
+ * <p>
+ * A spill file is used by a single thread at a time; it's safe to write it
+ * on one thread and read it on another thread as long as the handover is
+ * properly synchronized.
+ */
+public final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final InternalSerializationService serializationService;
+    private DataOutputStream out;
+    private long itemCount;
+
+    SpillFile(@Nonnull Path path, @Nonnull InternalSerializationService serializationService) throws IOException {
+        this.path = path;
+        this.serializationService = serializationService;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * Appends the given item to the file.
+     */
+    public void write(@Nonnull Object item) throws IOException {
+        Data data = serializationService.toData(item);
+        out.writeInt(data.totalSize());
+        out.write(data.toByteArray());
+        itemCount++;
+    }
+
+    /**
+     * Flushes the written items and closes the file for writing.
+     */
+    public void finishWriting() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * Returns the number of items written to the file.
+     */
+    public long itemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Opens a reader of the items in the file. Can only be called after
+     * {@link #finishWriting()}.
+     */
+    @Nonnull
+    public Reader openReader() throws IOException {
+        if (out != null) {
+            throw new IllegalStateException("The spill file is still being written: " + path);
+        }
+        return new Reader();
+    }
+
+    /**
+     * Deletes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finishWriting();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{path=" + path + ", itemCount=" + itemCount + '}';
+    }
+
+    /**
+     * Reads the items of a spill file in the order they were written.
+     */
+    public final class Reader implements Closeable {
+
+        private final DataInputStream in;
+
+        private Reader() throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        }
+
+        /**
+         * Returns the next item or {@code null} if all items have been read.
+         */
+        @Nullable
+        public <T> T read() throws IOException {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return serializationService.toObject(new HeapData(bytes));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
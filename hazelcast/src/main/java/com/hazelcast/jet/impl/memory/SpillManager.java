@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+
+/**
+ * Manages the spill files of a single processor, see {@link
+ * JobConfigArguments#KEY_SPILL_TO_DISK_ENABLED}.
+ * <p>
+ * The spill files are created in a directory private to the processor and
+ * are deleted when the manager is closed. Since cooperative processors must
+ * not block, the file I/O is done by tasks {@linkplain #submit submitted} to
+ * the {@value #SPILL_EXECUTOR_NAME} executor and the processor polls for
+ * their completion. Closing the manager waits for the running tasks, so
+ * that no task writes a file while the files are being deleted.
+ */
+public final class SpillManager implements Closeable {
+
+    /**
+     * The name of the executor running the spill file I/O.
+     */
+    public static final String SPILL_EXECUTOR_NAME = "jet:spill";
+
+    private final Path directory;
+    private final InternalSerializationService serializationService;
+    private final Executor executor;
+    private final List<SpillFile> files = new ArrayList<>();
+    private final Set<CompletableFuture<?>> runningTasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private SpillManager(@Nonnull Processor.Context context) throws IOException {
+        NodeEngineImpl nodeEngine = getNodeEngine(context.hazelcastInstance());
+        String baseDirectory = context.jobConfig().getArgument(JobConfigArguments.KEY_SPILL_DIRECTORY);
+        Path base = Paths.get(baseDirectory != null ? baseDirectory : System.getProperty("java.io.tmpdir"));
+        Files.createDirectories(base);
+        this.directory = Files.createTempDirectory(base,
+                "jet-spill-" + idToString(context.jobId()) + '-' + context.globalProcessorIndex() + '-');
+        this.serializationService = context instanceof ProcCtx
+                ? ((ProcCtx) context).serializationService()
+                : (InternalSerializationService) nodeEngine.getSerializationService();
+        this.executor = nodeEngine.getExecutionService().getExecutor(SPILL_EXECUTOR_NAME);
+    }
+
+    /**
+     * Returns a new spill manager if spilling is enabled for the job of the
+     * given processor, {@code null} otherwise.
+     */
+    @Nullable
+    public static SpillManager createIfEnabled(@Nonnull Processor.Context context) throws IOException {
+        Boolean enabled = context.jobConfig().getArgument(JobConfigArguments.KEY_SPILL_TO_DISK_ENABLED);
+        return Boolean.TRUE.equals(enabled) ? new SpillManager(context) : null;
+    }
+
+    /**
+     * Creates a new, empty spill file.
+     */
+    @Nonnull
+    public synchronized SpillFile newFile() throws IOException {
+        if (closed) {
+            throw new IOException("The spill manager is closed: " + directory);
+        }
+        SpillFile file = new SpillFile(directory.resolve("spill-" + files.size()), serializationService);
+        files.add(file);
+        return file;
+    }
+
+    /**
+     * Runs the given file I/O task on the spill executor.
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> submit(@Nonnull Callable<T> task) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw sneakyThrow(e);
+            }
+        }, executor);
+        runningTasks.add(future);
+        // runs immediately, if the task is already done
+        future.whenComplete((r, e) -> runningTasks.remove(future));
+        return future;
+    }
+
+    /**
+     * Returns {@code true} if the manager has been closed. Long-running tasks
+     * should check it and stop early.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Waits for the running tasks to stop, then deletes all spill files and
+     * the spill directory.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        // not synchronized while waiting, the tasks might be creating files
+        for (CompletableFuture<?> task : runningTasks) {
+            try {
+                task.join();
+            } catch (Exception e) {
+                // the failure is reported by the processor, if at all
+                ignore(e);
+            }
+        }
+        deleteFiles();
+    }
+
+    private synchronized void deleteFiles() throws IOException {
+        IOException failure = null;
+        for (SpillFile file : files) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        files.clear();
+        Files.deleteIfExists(directory);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
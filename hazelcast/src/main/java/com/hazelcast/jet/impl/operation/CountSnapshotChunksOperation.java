@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore.IO_EXECUTOR_NAME;
+
+/**
+ * Sent by the master before restoring a snapshot from the {@link
+ * LocalDiskSnapshotChunkStore} to count the chunks the member will restore.
+ * The response is the number of chunks.
+ */
+public class CountSnapshotChunksOperation extends AsyncJobOperation {
+
+    private String baseDirectory;
+    private String mapName;
+    private long snapshotId;
+
+    // for deserialization
+    public CountSnapshotChunksOperation() {
+    }
+
+    public CountSnapshotChunksOperation(long jobId, String baseDirectory, String mapName, long snapshotId) {
+        super(jobId);
+        this.baseDirectory = baseDirectory;
+        this.mapName = mapName;
+        this.snapshotId = snapshotId;
+    }
+
+    @Override
+    protected CompletableFuture<Long> doRun() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return LocalDiskSnapshotChunkStore.countRecordsToRestore(
+                        getNodeEngine(), baseDirectory, jobId(), mapName, snapshotId);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }, getNodeEngine().getExecutionService().getExecutor(IO_EXECUTOR_NAME));
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.COUNT_SNAPSHOT_CHUNKS_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(baseDirectory);
+        out.writeString(mapName);
+        out.writeLong(snapshotId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        baseDirectory = in.readString();
+        mapName = in.readString();
+        snapshotId = in.readLong();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.internal.util.UUIDSerializationUtil;
+import com.hazelcast.jet.impl.exception.ExecutionNotFoundException;
+import com.hazelcast.jet.impl.execution.ExecutionContext;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.util.Util.jobIdAndExecutionId;
+
+/**
+ * Sent by the {@link LocalDiskSnapshotChunkStore} to store a replica of a
+ * snapshot chunk on another member.
+ */
+public class PutSnapshotReplicaChunkOperation extends AsyncJobOperation {
+
+    private long executionId;
+    private String mapName;
+    private long snapshotId;
+    private UUID sourceUuid;
+    private byte[] record;
+
+    // for deserialization
+    public PutSnapshotReplicaChunkOperation() {
+    }
+
+    public PutSnapshotReplicaChunkOperation(long jobId, long executionId, String mapName, long snapshotId,
+                                            UUID sourceUuid, byte[] record) {
+        super(jobId);
+        this.executionId = executionId;
+        this.mapName = mapName;
+        this.snapshotId = snapshotId;
+        this.sourceUuid = sourceUuid;
+        this.record = record;
+    }
+
+    @Override
+    protected CompletableFuture<?> doRun() {
+        // the sender is another participant, not the coordinator
+        ExecutionContext ctx = getJetServiceBackend().getJobExecutionService().getExecutionContext(executionId);
+        if (ctx == null || ctx.jobId() != jobId()
+                || !(ctx.snapshotChunkStore() instanceof LocalDiskSnapshotChunkStore)) {
+            throw new ExecutionNotFoundException(jobIdAndExecutionId(jobId(), executionId)
+                    + " with a local-disk snapshot store not found for '" + getClass().getSimpleName() + "'");
+        }
+        LocalDiskSnapshotChunkStore store = (LocalDiskSnapshotChunkStore) ctx.snapshotChunkStore();
+        return store.appendReplicaAsync(mapName, snapshotId, sourceUuid, record);
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.PUT_SNAPSHOT_REPLICA_CHUNK_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(executionId);
+        out.writeString(mapName);
+        out.writeLong(snapshotId);
+        UUIDSerializationUtil.writeUUID(out, sourceUuid);
+        out.writeByteArray(record);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        executionId = in.readLong();
+        mapName = in.readString();
+        snapshotId = in.readLong();
+        sourceUuid = UUIDSerializationUtil.readUUID(in);
+        record = in.readByteArray();
+    }
+}
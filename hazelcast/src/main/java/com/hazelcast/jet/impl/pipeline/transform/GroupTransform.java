@@ -20,6 +20,7 @@ import com.hazelcast.function.BiFunctionEx;
 import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.impl.execution.HotKeySplittingPartitioner;
 import com.hazelcast.jet.impl.pipeline.PipelineImpl.Context;
 import com.hazelcast.jet.impl.pipeline.Planner;
 import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
@@ -99,7 +100,8 @@ public class GroupTransform<K, A, R, OUT> extends AbstractTransform {
     //                   ---------        ---------
     //                       |                |
     //                     local            local
-    //                  partitioned      partitioned
+    //                  partitioned,     partitioned,
+    //                hot keys split   hot keys split
     //                       v                v
     //                      --------------------
     //                     |  accumulateByKeyP  |
@@ -117,7 +119,9 @@ public class GroupTransform<K, A, R, OUT> extends AbstractTransform {
                 .localParallelism(determinedLocalParallelism());
         PlannerVertex pv2 = p.addVertex(this, name(), determinedLocalParallelism(),
                 combineByKeyP(aggrOp, mapToOutputFn));
-        p.addEdges(this, v1, (e, ord) -> e.partitioned(groupKeyFns.get(ord), HASH_CODE));
+        // The first stage only pre-aggregates, so the items of hot keys can be
+        // spread over all its processors, the second stage combines them.
+        p.addEdges(this, v1, (e, ord) -> e.partitioned(groupKeyFns.get(ord), new HotKeySplittingPartitioner(HASH_CODE)));
         p.dag.edge(between(v1, pv2.v).distributed().partitioned(entryKey()));
     }
 }
@@ -25,6 +25,7 @@ import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.datamodel.KeyedWindowResult;
 import com.hazelcast.jet.impl.JetEvent;
+import com.hazelcast.jet.impl.execution.HotKeySplittingPartitioner;
 import com.hazelcast.jet.impl.pipeline.PipelineImpl.Context;
 import com.hazelcast.jet.impl.pipeline.Planner;
 import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
@@ -129,7 +130,8 @@ public class WindowGroupTransform<K, R> extends AbstractTransform {
     //              ---------       ---------
     //                  |               |
     //                local           local
-    //             partitioned     partitioned
+    //             partitioned,    partitioned,
+    //            hot keys split  hot keys split
     //                  v               v
     //                 --------------------
     //                | accumulateByFrameP |
@@ -152,7 +154,7 @@ public class WindowGroupTransform<K, R> extends AbstractTransform {
         v1.localParallelism(determinedLocalParallelism());
         PlannerVertex pv2 = p.addVertex(this, name(), determinedLocalParallelism(),
                 combineToSlidingWindowP(winPolicy, aggrOp, jetEventOfKeyedWindowResultFn()));
-        p.addEdges(this, v1, (e, ord) -> e.partitioned(keyFns.get(ord), HASH_CODE));
+        p.addEdges(this, v1, (e, ord) -> e.partitioned(keyFns.get(ord), new HotKeySplittingPartitioner(HASH_CODE)));
         p.dag.edge(between(v1, pv2.v).distributed().partitioned(entryKey()));
     }
 
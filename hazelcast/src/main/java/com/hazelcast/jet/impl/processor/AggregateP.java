@@ -34,6 +34,6 @@ public class AggregateP<A, R> extends GroupP<String, A, R, R> {
 
     public AggregateP(@Nonnull AggregateOperation<A, R> aggrOp) {
         super(nCopies(aggrOp.arity(), t -> CONSTANT_KEY), aggrOp, (k, r) -> r);
-        keyToAcc.put(CONSTANT_KEY, aggrOp.createFn().get());
+        addEmptyGroup(CONSTANT_KEY);
     }
 }
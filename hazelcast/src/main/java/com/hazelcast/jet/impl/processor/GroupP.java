@@ -18,22 +18,37 @@ package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Util;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.impl.aggregate.PrimitiveAccumulation;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.PrimitiveKeyedState;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.SpillManager;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.jet.impl.aggregate.PrimitiveAggregateOperation1Impl.primitiveAccumulationOf;
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 import static java.util.Collections.singletonList;
 
 /**
@@ -41,18 +56,48 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If {@linkplain JobConfigArguments#KEY_SPILL_TO_DISK_ENABLED spilling} is
+ * enabled and the aggregate operation has a {@linkplain
+ * AggregateOperation#combineFn() combine} primitive, the processor doesn't
+ * fail when it reaches the accumulation limit. Instead it hash-partitions
+ * the accumulated groups into {@value #SPILL_PARTITION_COUNT} spill files
+ * and continues with no groups. In the complete phase it loads the spill
+ * files one by one, combines the accumulators of each key and emits the
+ * result. If a spill file has more keys than the accumulation limit, the
+ * loading stops at the limit and the file is split into {@value
+ * #SPILL_PARTITION_COUNT} smaller files by another hash of the keys, up to
+ * {@value #MAX_SPILL_LEVEL} times. While the groups are being written, the
+ * processor holds up to twice the accumulation limit.
+ * <p>
+ * If the aggregate operation provides a {@link PrimitiveAccumulation} (e.g.
+ * {@code counting()}, {@code summingLong()}), the groups are kept in a {@link
+ * PrimitiveKeyedState} instead of a {@code HashMap}, also while loading the
+ * spill files. The accumulator objects are only created when the groups are
+ * emitted or spilled.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
-    protected final Map<K, A> keyToAcc = new HashMap<>();
+    static final int SPILL_PARTITION_COUNT = 16;
+    static final int MAX_SPILL_LEVEL = 4;
 
     private final List<FunctionEx<?, ? extends K>> groupKeyFns;
     private final AggregateOperation<A, R> aggrOp;
     private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
+    // null if the aggregate operation has no primitive accumulation
+    private final PrimitiveAccumulation<Object, A> primitiveAccumulation;
 
     private long maxEntries;
+    private Groups groups;
     private Traverser<OUT> resultTraverser;
 
+    private SpillManager spillManager;
+    private SpillFile[] spillPartitions;
+    private CompletableFuture<?> pendingSpill;
+    private boolean allSpilled;
+    private final Deque<SpillPartition> partitionsToLoad = new ArrayDeque<>();
+    private CompletableFuture<LoadedPartition> loadingPartition;
+
     public GroupP(
             @Nonnull List<FunctionEx<?, ? extends K>> groupKeyFns,
             @Nonnull AggregateOperation<A, R> aggrOp,
@@ -63,6 +108,8 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this.groupKeyFns = groupKeyFns;
         this.aggrOp = aggrOp;
         this.mapToOutputFn = mapToOutputFn;
+        this.primitiveAccumulation = primitiveAccumulationOf(aggrOp);
+        this.groups = newGroups();
     }
 
     public <T> GroupP(
@@ -73,9 +120,20 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this(singletonList(groupKeyFn), aggrOp, mapToOutputFn);
     }
 
+    /**
+     * Adds a group with an empty accumulator for the given key, so that a
+     * result is emitted for the key even if no item has that key.
+     */
+    protected final void addEmptyGroup(K key) {
+        groups.addEmpty(key);
+    }
+
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        if (aggrOp.combineFn() != null) {
+            spillManager = SpillManager.createIfEnabled(context);
+        }
     }
 
     @Override
@@ -83,34 +141,355 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> {
-            if (keyToAcc.size() == maxEntries) {
+        if (!groups.accumulate(ordinal, key, item)) {
+            if (spillManager == null) {
                 throw new AccumulationLimitExceededException();
             }
-
-            return aggrOp.createFn().get();
-        });
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+            if (!trySpill()) {
+                return false;
+            }
+            boolean accumulated = groups.accumulate(ordinal, key, item);
+            assert accumulated : "no room for a group after spilling";
+        }
         return true;
     }
 
     @Override
     public boolean complete() {
+        if (spillPartitions != null) {
+            return completeSpilled();
+        }
         if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
-                    // reuse null filtering done by map()
-                    .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+            resultTraverser = newResultTraverser();
         }
         return emitFromTraverser(resultTraverser);
     }
 
+    private Traverser<OUT> newResultTraverser() {
+        return groups.drain((key, acc) -> mapToOutputFn.apply(key, aggrOp.finishFn().apply(acc)));
+    }
+
+    private Groups newGroups() {
+        return primitiveAccumulation != null ? new PrimitiveGroups() : new MapGroups();
+    }
+
+    /**
+     * Starts writing the accumulated groups to the spill files, unless the
+     * previous spill is still in progress.
+     */
+    private boolean trySpill() {
+        if (!awaitPendingSpill()) {
+            return false;
+        }
+        if (spillPartitions == null) {
+            spillPartitions = new SpillFile[SPILL_PARTITION_COUNT];
+            for (int i = 0; i < SPILL_PARTITION_COUNT; i++) {
+                spillPartitions[i] = uncheckCall(spillManager::newFile);
+            }
+        }
+        Groups spilled = groups;
+        groups = newGroups();
+        pendingSpill = spillManager.submit(() -> {
+            writeToSpillPartitions(spilled, spillPartitions, 0);
+            return null;
+        });
+        return true;
+    }
+
+    private boolean awaitPendingSpill() {
+        if (pendingSpill != null) {
+            if (!pendingSpill.isDone()) {
+                return false;
+            }
+            pendingSpill.join();
+            pendingSpill = null;
+        }
+        return true;
+    }
+
+    private boolean completeSpilled() {
+        if (!awaitPendingSpill()) {
+            return false;
+        }
+        if (!allSpilled) {
+            // spill the remaining groups too, so that every key is combined from a single spill file
+            Groups spilled = groups;
+            groups = newGroups();
+            pendingSpill = spillManager.submit(() -> {
+                writeToSpillPartitions(spilled, spillPartitions, 0);
+                for (SpillFile file : spillPartitions) {
+                    file.finishWriting();
+                }
+                return null;
+            });
+            for (SpillFile file : spillPartitions) {
+                partitionsToLoad.add(new SpillPartition(file, 0));
+            }
+            allSpilled = true;
+            return false;
+        }
+
+        while (true) {
+            if (resultTraverser == null) {
+                if (loadingPartition == null) {
+                    SpillPartition partition = partitionsToLoad.poll();
+                    if (partition == null) {
+                        return true;
+                    }
+                    loadingPartition = loadSpillPartition(partition);
+                }
+                if (!loadingPartition.isDone()) {
+                    return false;
+                }
+                LoadedPartition loaded = loadingPartition.join();
+                loadingPartition = null;
+                if (loaded.groups == null) {
+                    partitionsToLoad.addAll(loaded.subPartitions);
+                    continue;
+                }
+                groups = loaded.groups;
+                resultTraverser = newResultTraverser();
+            }
+            if (!emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            resultTraverser = null;
+        }
+    }
+
+    /**
+     * Writes the given groups to the files and removes them from the groups.
+     */
+    private void writeToSpillPartitions(Groups spilled, SpillFile[] files, int level) throws IOException {
+        Traverser<Entry<K, A>> entries = spilled.drain(Util::entry);
+        for (Entry<K, A> entry; !spillManager.isClosed() && (entry = entries.next()) != null; ) {
+            writeToSpillPartition(files, level, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static <K, A> void writeToSpillPartition(SpillFile[] files, int level, K key, A acc) throws IOException {
+        // each level uses a different hash, so that the keys of a partition are split among its sub-partitions
+        SpillFile file = files[hashToIndex(MurmurHash3_fmix(key.hashCode() ^ level), SPILL_PARTITION_COUNT)];
+        file.write(key);
+        file.write(acc);
+    }
+
+    private CompletableFuture<LoadedPartition> loadSpillPartition(SpillPartition partition) {
+        assert aggrOp.combineFn() != null : "spilling without combineFn";
+        return spillManager.submit(() -> {
+            Groups loaded = newGroups();
+            try (SpillFile.Reader reader = partition.file.openReader()) {
+                for (K key; !spillManager.isClosed() && (key = reader.read()) != null; ) {
+                    A acc = reader.read();
+                    if (!loaded.combine(key, acc)) {
+                        return new LoadedPartition(null, splitSpillPartition(partition, loaded, key, acc, reader));
+                    }
+                }
+            } finally {
+                // the spill file isn't needed anymore
+                partition.file.close();
+            }
+            return new LoadedPartition(loaded, null);
+        });
+    }
+
+    /**
+     * Writes the entries loaded from the given partition, the entry that
+     * didn't fit and the rest of the partition to new sub-partitions.
+     * Returns the non-empty sub-partitions.
+     */
+    private List<SpillPartition> splitSpillPartition(
+            SpillPartition partition, Groups loaded, K key, A acc, SpillFile.Reader reader
+    ) throws IOException {
+        int level = partition.level + 1;
+        if (level > MAX_SPILL_LEVEL) {
+            // the keys aren't split by their hashes, e.g. because many of them have the same hash code
+            throw new AccumulationLimitExceededException();
+        }
+        SpillFile[] files = new SpillFile[SPILL_PARTITION_COUNT];
+        for (int i = 0; i < SPILL_PARTITION_COUNT; i++) {
+            files[i] = spillManager.newFile();
+        }
+        writeToSpillPartitions(loaded, files, level);
+        writeToSpillPartition(files, level, key, acc);
+        for (K nextKey; !spillManager.isClosed() && (nextKey = reader.read()) != null; ) {
+            writeToSpillPartition(files, level, nextKey, reader.read());
+        }
+
+        List<SpillPartition> subPartitions = new ArrayList<>();
+        for (SpillFile file : files) {
+            file.finishWriting();
+            if (file.itemCount() > 0) {
+                subPartitions.add(new SpillPartition(file, level));
+            } else {
+                file.close();
+            }
+        }
+        return subPartitions;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (spillManager != null) {
+            spillManager.close();
+        }
+    }
+
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        // deleting the spill files is blocking
+        return spillManager == null;
+    }
+
+    private static final class SpillPartition {
+        private final SpillFile file;
+        // the number of times the keys of the partition have been split
+        private final int level;
+
+        SpillPartition(SpillFile file, int level) {
+            this.file = file;
+            this.level = level;
+        }
+    }
+
+    /**
+     * The accumulators of a spill partition, or the sub-partitions it was
+     * split into if it had more keys than the accumulation limit.
+     */
+    private final class LoadedPartition {
+        private final Groups groups;
+        private final List<SpillPartition> subPartitions;
+
+        LoadedPartition(Groups groups, List<SpillPartition> subPartitions) {
+            this.groups = groups;
+            this.subPartitions = subPartitions;
+        }
+    }
+
+    /**
+     * The accumulators of the groups by key. A key is only added to the groups
+     * if there are less than {@code maxEntries} groups.
+     */
+    private abstract class Groups {
+
+        /**
+         * Adds a group with an empty accumulator for the key, regardless of
+         * the number of groups.
+         */
+        abstract void addEmpty(K key);
+
+        /**
+         * Accumulates the item received on the given ordinal into the group of
+         * the key. Returns false if the key has no group and no group can be
+         * added.
+         */
+        abstract boolean accumulate(int ordinal, K key, Object item);
+
+        /**
+         * Combines the accumulator into the group of the key. Returns false if
+         * the key has no group and no group can be added.
+         */
+        abstract boolean combine(K key, A acc);
+
+        /**
+         * Returns a traverser that maps each group with the given function and
+         * removes it. Groups mapped to {@code null} are skipped.
+         */
+        abstract <T> Traverser<T> drain(BiFunction<? super K, ? super A, ? extends T> mapFn);
+    }
+
+    private final class MapGroups extends Groups {
+        private final Map<K, A> keyToAcc = new HashMap<>();
+
+        @Override
+        void addEmpty(K key) {
+            keyToAcc.put(key, aggrOp.createFn().get());
+        }
+
+        @Override
+        boolean accumulate(int ordinal, K key, Object item) {
+            A acc = keyToAcc.get(key);
+            if (acc == null) {
+                if (keyToAcc.size() == maxEntries) {
+                    return false;
+                }
+                acc = aggrOp.createFn().get();
+                keyToAcc.put(key, acc);
+            }
+            aggrOp.accumulateFn(ordinal).accept(acc, item);
+            return true;
+        }
+
+        @Override
+        boolean combine(K key, A acc) {
+            A existing = keyToAcc.get(key);
+            if (existing != null) {
+                aggrOp.combineFn().accept(existing, acc);
+            } else if (keyToAcc.size() < maxEntries) {
+                keyToAcc.put(key, acc);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        <T> Traverser<T> drain(BiFunction<? super K, ? super A, ? extends T> mapFn) {
+            // reuse null filtering done by map()
+            return new ResultTraverser(keyToAcc).map(e -> mapFn.apply(e.getKey(), e.getValue()));
+        }
+    }
+
+    private final class PrimitiveGroups extends Groups {
+        private final PrimitiveKeyedState<K> state = new PrimitiveKeyedState<>(primitiveAccumulation.slotCount());
+
+        @Override
+        void addEmpty(K key) {
+            if (state.offsetOf(key) < 0) {
+                state.insert(key);
+            }
+        }
+
+        @Override
+        boolean accumulate(int ordinal, K key, Object item) {
+            int offset = offsetOrInsert(key);
+            if (offset < 0) {
+                return false;
+            }
+            primitiveAccumulation.accumulate(state.slots(), offset, item);
+            return true;
+        }
+
+        @Override
+        boolean combine(K key, A acc) {
+            int offset = offsetOrInsert(key);
+            if (offset < 0) {
+                return false;
+            }
+            primitiveAccumulation.combine(state.slots(), offset, acc);
+            return true;
+        }
+
+        @Override
+        <T> Traverser<T> drain(BiFunction<? super K, ? super A, ? extends T> mapFn) {
+            return state.drain((key, slots, offset) -> mapFn.apply(key, primitiveAccumulation.toAccumulator(slots, offset)));
+        }
+
+        private int offsetOrInsert(K key) {
+            int offset = state.offsetOf(key);
+            if (offset < 0 && state.size() < maxEntries) {
+                offset = state.insert(key);
+            }
+            return offset;
+        }
     }
 
     private class ResultTraverser implements Traverser<Entry<K, A>> {
-        private final Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
+        private final Iterator<Entry<K, A>> iter;
+
+        ResultTraverser(Map<K, A> keyToAcc) {
+            iter = keyToAcc.entrySet().iterator();
+        }
 
         @Override
         public Entry<K, A> next() {
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.jet.config.JobConfigArguments;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
@@ -31,6 +32,11 @@ import java.util.function.Function;
  * Implements the "collector" stage in a hash join transformation. This
  * stage collects the entire joined stream into a hashtable and then
  * broadcasts it to all local second-stage processors.
+ * <p>
+ * The hashtable isn't spilled to disk, even if {@linkplain
+ * JobConfigArguments#KEY_SPILL_TO_DISK_ENABLED spilling} is enabled: it's
+ * emitted as a single item to the second-stage processors, so it must fit
+ * in memory anyway.
  */
 public class HashJoinCollectP<K, T, V> extends AbstractProcessor {
 
@@ -18,6 +18,7 @@ package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.internal.util.collection.LongHashSet;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.JetException;
@@ -31,8 +32,11 @@ import com.hazelcast.jet.core.SlidingWindowPolicy;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.impl.execution.IncrementalSnapshotAware;
+import com.hazelcast.jet.impl.aggregate.PrimitiveAccumulation;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.PrimitiveKeyedState;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -41,11 +45,15 @@ import com.hazelcast.partition.PartitionAware;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.LongFunction;
@@ -59,8 +67,10 @@ import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static com.hazelcast.jet.impl.aggregate.PrimitiveAggregateOperation1Impl.primitiveAccumulationOf;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
@@ -73,13 +83,21 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 /**
  * Handles various setups of sliding and tumbling window aggregation.
  * See {@link Processors} for more documentation.
+ * <p>
+ * If the aggregate operation provides a {@link PrimitiveAccumulation} (e.g.
+ * {@code counting()}, {@code summingLong()}), the accumulators of each frame
+ * are kept in a {@link PrimitiveKeyedState} instead of a {@code HashMap}. The
+ * accumulator objects are only created when a frame is combined into a
+ * window, emitted or saved to the snapshot. The combined sliding window keeps
+ * accumulator objects: it holds each key once, while the frames hold each key
+ * once per frame.
  *
  * @param <A> type of the frame accumulator object
  * @param <R> type of the finished result
  */
-public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
+public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor implements IncrementalSnapshotAware {
 
-    // package-visible for testing
+    // package-visible for testing. The frames are PrimitiveFrames if primitiveAccumulation isn't null.
     final Long2ObjectHashMap<Map<K, A>> tsToKeyToAcc = new Long2ObjectHashMap<>();
     Map<K, A> slidingWindow;
     // Holds the sliding window while emitting early window results. We reuse the
@@ -101,6 +119,8 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     private final KeyedWindowResultFunction<? super K, ? super R, ? extends OUT> mapToOutputFn;
     @Nullable
     private final BiConsumer<? super A, ? super A> combineFn;
+    @Nullable
+    private final PrimitiveAccumulation<Object, A> primitiveAccumulation;
     private final boolean isLastStage;
     @Nonnull
     private final FlatMapper<Watermark, ?> wmFlatMapper;
@@ -131,6 +151,14 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // optimization that avoids a full scan over the entire keyset.
     private long topTs = Long.MIN_VALUE;
 
+    // Frames changed since the last snapshot, tracked only if incremental
+    // snapshots are enabled. Frames are never changed after they are evicted,
+    // so we don't need to track the evicted ones: they are dropped in
+    // finishSnapshotRestore() if restored from an older snapshot.
+    private LongHashSet dirtyFrames;
+    private long lastDirtyFrameTs = Long.MIN_VALUE;
+    private boolean incrementalSnapshot;
+
     // values used temporarily during snapshot restore
     private long minRestoredNextWinToEmit = Long.MAX_VALUE;
     private long minRestoredFrameTs = Long.MAX_VALUE;
@@ -159,6 +187,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         this.earlyResultsPeriod = earlyResultsPeriod;
         this.aggrOp = aggrOp;
         this.combineFn = aggrOp.combineFn();
+        this.primitiveAccumulation = primitiveAccumulationOf(aggrOp);
         this.mapToOutputFn = mapToOutputFn;
         this.isLastStage = isLastStage;
         this.wmFlatMapper = flatMapper(
@@ -169,13 +198,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         this.emptyAcc = aggrOp.createFn().get();
         this.createMapPerTsFunction = x -> {
             totalFrames.inc();
-            return new HashMap<>();
+            return primitiveAccumulation != null ? new PrimitiveFrame<>(primitiveAccumulation) : new HashMap<>();
         };
         this.createAccFunction = k -> {
-            long newCount = totalKeysInFrames.inc();
-            if (newCount == maxEntries) {
-                throw new AccumulationLimitExceededException();
-            }
+            countNewKey();
             return aggrOp.createFn().get();
         };
         this.windowWatermarkKey = windowWatermarkKey;
@@ -186,6 +212,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         processingGuarantee = context.processingGuarantee();
         lastTimeEarlyResultsEmitted = NANOSECONDS.toMillis(System.nanoTime());
         maxEntries = context.maxProcessorAccumulatedRecords();
+        Integer maxChainLength = context.jobConfig().getArgument(KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH);
+        if (isLastStage && maxChainLength != null && maxChainLength > 0) {
+            dirtyFrames = new LongHashSet(16, Long.MIN_VALUE);
+        }
     }
 
     @Override
@@ -246,14 +276,33 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, createMapPerTsFunction)
-                .computeIfAbsent(key, createAccFunction);
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        Map<K, A> frame = tsToKeyToAcc.computeIfAbsent(frameTs, createMapPerTsFunction);
+        if (primitiveAccumulation != null) {
+            PrimitiveKeyedState<K> state = ((PrimitiveFrame<K, A>) frame).state;
+            int offset = state.offsetOf(key);
+            if (offset < 0) {
+                countNewKey();
+                offset = state.insert(key);
+            }
+            primitiveAccumulation.accumulate(state.slots(), offset, item);
+        } else {
+            aggrOp.accumulateFn(ordinal).accept(frame.computeIfAbsent(key, createAccFunction), item);
+        }
         topTs = max(topTs, frameTs);
+        if (dirtyFrames != null && frameTs != lastDirtyFrameTs) {
+            dirtyFrames.add(frameTs);
+            lastDirtyFrameTs = frameTs;
+        }
         return true;
     }
 
+    private void countNewKey() {
+        long newCount = totalKeysInFrames.inc();
+        if (newCount == maxEntries) {
+            throw new AccumulationLimitExceededException();
+        }
+    }
+
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark wm) {
         // drop all watermarks except for the one we use for timestamps
@@ -268,6 +317,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         return flushBuffers();
     }
 
+    @Override
+    public void beginSnapshot(boolean incremental) {
+        incrementalSnapshot = incremental && dirtyFrames != null;
+    }
+
     @Override
     public boolean saveToSnapshot() {
         if (!isLastStage || flushTraverser != null) {
@@ -275,6 +329,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         }
         if (snapshotTraverser == null) {
             snapshotTraverser = traverseIterable(tsToKeyToAcc.entrySet())
+                    .filter(e -> !incrementalSnapshot || dirtyFrames.contains((long) e.getKey()))
                     .<Entry>flatMap(e -> traverseIterable(e.getValue().entrySet())
                             .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
                     )
@@ -282,6 +337,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                     .onFirstNull(() -> {
                         logFinest(getLogger(), "Saved nextWinToEmit: %s", nextWinToEmit);
                         snapshotTraverser = null;
+                        if (dirtyFrames != null) {
+                            dirtyFrames.clear();
+                            lastDirtyFrameTs = Long.MIN_VALUE;
+                        }
                     });
         }
         return emitFromTraverserToSnapshot(snapshotTraverser);
@@ -317,19 +376,32 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             }
         }
         minRestoredFrameTs = Math.min(higherFrameTs, minRestoredFrameTs);
-        tsToKeyToAcc
-                .computeIfAbsent(higherFrameTs, createMapPerTsFunction)
-                .merge((K) k.key, (A) value, (o, n) -> {
-                    if (!badFrameRestored) {
-                        throw new JetException("Duplicate key in snapshot: " + k);
-                    }
-                    if (combineFn == null) {
-                        throw new JetException("AggregateOperation.combineFn required for merging restored frames");
-                    }
-                    combineFn.accept(o, n);
-                    totalKeysInFrames.inc(-1);
-                    return o;
-                });
+        Map<K, A> frame = tsToKeyToAcc.computeIfAbsent(higherFrameTs, createMapPerTsFunction);
+        if (primitiveAccumulation != null) {
+            PrimitiveKeyedState<K> state = ((PrimitiveFrame<K, A>) frame).state;
+            int offset = state.offsetOf((K) k.key);
+            if (offset >= 0) {
+                if (!badFrameRestored) {
+                    throw new JetException("Duplicate key in snapshot: " + k);
+                }
+                totalKeysInFrames.inc(-1);
+            } else {
+                offset = state.insert((K) k.key);
+            }
+            primitiveAccumulation.combine(state.slots(), offset, (A) value);
+        } else {
+            frame.merge((K) k.key, (A) value, (o, n) -> {
+                if (!badFrameRestored) {
+                    throw new JetException("Duplicate key in snapshot: " + k);
+                }
+                if (combineFn == null) {
+                    throw new JetException("AggregateOperation.combineFn required for merging restored frames");
+                }
+                combineFn.accept(o, n);
+                totalKeysInFrames.inc(-1);
+                return o;
+            });
+        }
         totalKeysInFrames.inc();
         topTs = max(topTs, higherFrameTs);
     }
@@ -496,6 +568,54 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                 : LongStream.iterate(start, n -> n + step).limit(1 + (end - start) / step);
     }
 
+    /**
+     * The accumulators of a frame, kept in a {@link PrimitiveKeyedState}. As a
+     * map it's a read-only view that creates the accumulator objects when they
+     * are read. Accumulate into the {@link #state} directly.
+     */
+    private static final class PrimitiveFrame<K, A> extends AbstractMap<K, A> {
+        private final PrimitiveKeyedState<K> state;
+        private final PrimitiveAccumulation<Object, A> accumulation;
+
+        PrimitiveFrame(PrimitiveAccumulation<Object, A> accumulation) {
+            this.state = new PrimitiveKeyedState<>(accumulation.slotCount());
+            this.accumulation = accumulation;
+        }
+
+        @Override
+        public int size() {
+            return state.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean containsKey(Object key) {
+            return state.offsetOf((K) key) >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public A get(Object key) {
+            int offset = state.offsetOf((K) key);
+            return offset < 0 ? null : accumulation.toAccumulator(state.slots(), offset);
+        }
+
+        @Nonnull @Override
+        public Set<Entry<K, A>> entrySet() {
+            return new AbstractSet<Entry<K, A>>() {
+                @Nonnull @Override
+                public Iterator<Entry<K, A>> iterator() {
+                    return state.iterator((key, slots, offset) -> entry(key, accumulation.toAccumulator(slots, offset)));
+                }
+
+                @Override
+                public int size() {
+                    return state.size();
+                }
+            };
+        }
+    }
+
     // package-visible for test
     enum Keys {
         NEXT_WIN_TO_EMIT
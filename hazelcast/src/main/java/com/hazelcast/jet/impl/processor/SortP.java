@@ -16,38 +16,88 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfigArguments;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.SpillManager;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+
+/**
+ * Batch processor that sorts its input and emits it in the complete phase.
+ * <p>
+ * If {@linkplain JobConfigArguments#KEY_SPILL_TO_DISK_ENABLED spilling} is
+ * enabled, the processor doesn't fail when it reaches the accumulation
+ * limit. Instead it writes the accumulated items as a sorted run to a spill
+ * file and continues with an empty queue. In the complete phase, the runs
+ * are merged by a background task into a bounded queue from which the
+ * processor emits. At most {@value #MAX_MERGE_FAN_IN} runs are open at a
+ * time, if there are more, they are first merged into longer runs in
+ * multiple passes. While a run is being written, the processor holds up to
+ * twice the accumulation limit.
+ */
 public class SortP<T> extends AbstractProcessor {
 
-    private final PriorityQueue<T> priorityQueue;
+    static final int MERGE_QUEUE_CAPACITY = 1024;
+    static final int MAX_MERGE_FAN_IN = 64;
+    private static final long MERGE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final Object DONE = new Object();
+
+    private final Comparator<T> comparator;
     private final Traverser<T> resultTraverser;
+    private PriorityQueue<T> priorityQueue;
 
     private long maxItems;
 
+    private SpillManager spillManager;
+    private final List<SpillFile> runs = new ArrayList<>();
+    private CompletableFuture<?> pendingRun;
+    private boolean allSpilled;
+    private OneToOneConcurrentArrayQueue<Object> mergeQueue;
+    private CompletableFuture<?> merge;
+    private Object pendingItem;
+
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
-        this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
+        this.priorityQueue = new PriorityQueue<>(this.comparator);
+        this.resultTraverser = () -> priorityQueue.poll();
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        spillManager = SpillManager.createIfEnabled(context);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
         if (priorityQueue.size() == maxItems) {
-            throw new AccumulationLimitExceededException();
+            if (spillManager == null) {
+                throw new AccumulationLimitExceededException();
+            }
+            if (!trySpillRun()) {
+                return false;
+            }
         }
 
         priorityQueue.add((T) item);
@@ -56,11 +106,184 @@ public class SortP<T> extends AbstractProcessor {
 
     @Override
     public boolean complete() {
-        return emitFromTraverser(resultTraverser);
+        if (runs.isEmpty()) {
+            return emitFromTraverser(resultTraverser);
+        }
+        if (!awaitPendingRun()) {
+            return false;
+        }
+        if (!allSpilled) {
+            // the remaining items become the last run
+            if (!priorityQueue.isEmpty()) {
+                trySpillRun();
+            }
+            allSpilled = true;
+            return false;
+        }
+        if (merge == null) {
+            mergeQueue = new OneToOneConcurrentArrayQueue<>(MERGE_QUEUE_CAPACITY);
+            List<SpillFile> runsToMerge = new ArrayList<>(runs);
+            merge = spillManager.submit(() -> {
+                mergeRuns(runsToMerge);
+                return null;
+            });
+        }
+
+        while (true) {
+            if (pendingItem == null) {
+                pendingItem = mergeQueue.poll();
+                if (pendingItem == null) {
+                    if (merge.isCompletedExceptionally()) {
+                        merge.join();
+                    }
+                    return false;
+                }
+            }
+            if (pendingItem == DONE) {
+                return true;
+            }
+            if (!tryEmit(pendingItem)) {
+                return false;
+            }
+            pendingItem = null;
+        }
+    }
+
+    /**
+     * Starts writing the queued items as a sorted run, unless the previous
+     * run is still being written.
+     */
+    private boolean trySpillRun() {
+        if (!awaitPendingRun()) {
+            return false;
+        }
+        PriorityQueue<T> run = priorityQueue;
+        priorityQueue = new PriorityQueue<>(comparator);
+        SpillFile file = uncheckCall(spillManager::newFile);
+        runs.add(file);
+        pendingRun = spillManager.submit(() -> {
+            for (T item; !spillManager.isClosed() && (item = run.poll()) != null; ) {
+                file.write(item);
+            }
+            file.finishWriting();
+            return null;
+        });
+        return true;
+    }
+
+    private boolean awaitPendingRun() {
+        if (pendingRun != null) {
+            if (!pendingRun.isDone()) {
+                return false;
+            }
+            pendingRun.join();
+            pendingRun = null;
+        }
+        return true;
+    }
+
+    /**
+     * Merges the sorted runs into the merge queue, runs on the spill executor.
+     */
+    private void mergeRuns(List<SpillFile> runsToMerge) throws IOException {
+        Deque<SpillFile> remaining = new ArrayDeque<>(runsToMerge);
+        while (remaining.size() > MAX_MERGE_FAN_IN) {
+            List<SpillFile> inputs = new ArrayList<>(MAX_MERGE_FAN_IN);
+            for (int i = 0; i < MAX_MERGE_FAN_IN; i++) {
+                inputs.add(remaining.poll());
+            }
+            SpillFile merged = spillManager.newFile();
+            boolean completed = merge(inputs, item -> {
+                merged.write(item);
+                return !spillManager.isClosed();
+            });
+            if (!completed) {
+                return;
+            }
+            merged.finishWriting();
+            for (SpillFile input : inputs) {
+                input.close();
+            }
+            // the merged run is merged again after the runs that are not merged yet, so that
+            // every item is rewritten about the same number of times
+            remaining.add(merged);
+        }
+        if (merge(remaining, this::offerToMergeQueue)) {
+            offerToMergeQueue(DONE);
+        }
+    }
+
+    /**
+     * Merges the given sorted runs and passes the items in order to the
+     * given sink. Returns false if the sink rejected an item.
+     */
+    private boolean merge(Collection<SpillFile> inputs, ItemSink sink) throws IOException {
+        PriorityQueue<RunHead<T>> heads = new PriorityQueue<>((h1, h2) -> comparator.compare(h1.item, h2.item));
+        List<SpillFile.Reader> readers = new ArrayList<>(inputs.size());
+        try {
+            for (SpillFile run : inputs) {
+                SpillFile.Reader reader = run.openReader();
+                readers.add(reader);
+                T item = reader.read();
+                if (item != null) {
+                    heads.add(new RunHead<>(reader, item));
+                }
+            }
+
+            RunHead<T> head;
+            while ((head = heads.poll()) != null) {
+                if (!sink.accept(head.item)) {
+                    return false;
+                }
+                T next = head.reader.read();
+                if (next != null) {
+                    head.item = next;
+                    heads.add(head);
+                }
+            }
+            return true;
+        } finally {
+            for (SpillFile.Reader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private boolean offerToMergeQueue(Object item) {
+        while (!mergeQueue.offer(item)) {
+            if (spillManager.isClosed()) {
+                return false;
+            }
+            LockSupport.parkNanos(MERGE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (spillManager != null) {
+            spillManager.close();
+        }
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        // deleting the spill files is blocking
+        return spillManager == null;
+    }
+
+    @FunctionalInterface
+    private interface ItemSink {
+        boolean accept(Object item) throws IOException;
+    }
+
+    private static final class RunHead<T> {
+        private final SpillFile.Reader reader;
+        private T item;
+
+        RunHead(SpillFile.Reader reader, T item) {
+            this.reader = reader;
+            this.item = item;
+        }
     }
 }
@@ -27,7 +27,6 @@ import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.logging.ILogger;
-import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -48,7 +47,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
-import static com.hazelcast.jet.impl.JobRepository.safeImap;
+import static com.hazelcast.jet.impl.JobRepository.EXPORTED_SNAPSHOTS_PREFIX;
 
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
@@ -70,7 +69,10 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final SnapshotContext snapshotContext;
     private final String vertexName;
     private final int memberCount;
-    private IMap<SnapshotDataKey, Object> currentMap;
+    private final SnapshotChunkStore chunkStore;
+    private final SnapshotChunkStore exportChunkStore;
+    private String currentMapName;
+    private SnapshotChunkStore currentStore;
     private long currentSnapshotId;
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
@@ -88,7 +90,23 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                                    int memberIndex,
                                    int memberCount,
                                    InternalSerializationService serializationService) {
-        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService);
+        this(nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService,
+                new IMapSnapshotChunkStore(nodeEngine));
+    }
+
+    /**
+     * @param chunkStore the store for the chunks of regular snapshots,
+     *                   exported snapshots are always stored in the {@code IMap}
+     */
+    public AsyncSnapshotWriterImpl(NodeEngine nodeEngine,
+                                   SnapshotContext snapshotContext,
+                                   String vertexName,
+                                   int memberIndex,
+                                   int memberCount,
+                                   InternalSerializationService serializationService,
+                                   SnapshotChunkStore chunkStore) {
+        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService,
+                chunkStore);
     }
 
     // for test
@@ -99,6 +117,18 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                             int memberIndex,
                             int memberCount,
                             InternalSerializationService serializationService) {
+        this(chunkSize, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService,
+                new IMapSnapshotChunkStore(nodeEngine));
+    }
+
+    private AsyncSnapshotWriterImpl(int chunkSize,
+                                    NodeEngine nodeEngine,
+                                    SnapshotContext snapshotContext,
+                                    String vertexName,
+                                    int memberIndex,
+                                    int memberCount,
+                                    InternalSerializationService serializationService,
+                                    SnapshotChunkStore chunkStore) {
         if (Integer.bitCount(chunkSize) != 1) {
             throw new IllegalArgumentException("chunkSize must be a power of two, but is " + chunkSize);
         }
@@ -108,6 +138,10 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         this.snapshotContext = snapshotContext;
         this.vertexName = vertexName;
         this.memberCount = memberCount;
+        this.chunkStore = chunkStore;
+        this.exportChunkStore = chunkStore instanceof IMapSnapshotChunkStore
+                ? chunkStore
+                : new IMapSnapshotChunkStore(nodeEngine);
         currentSnapshotId = snapshotContext.currentSnapshotId();
 
         useBigEndian = serializationService.getByteOrder().equals(ByteOrder.BIG_ENDIAN);
@@ -253,13 +287,12 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             return false;
         }
         try {
-            // we put a Data instance to the map directly to avoid the serialization of the byte array
             Data data = dataSupplier.get();
             totalPayloadBytes += data.dataSize();
             totalChunks++;
-            CompletableFuture<Object> future = currentMap.putAsync(
+            CompletableFuture<Object> future = currentStore.putAsync(currentMapName,
                     new SnapshotDataKey(partitionKeys[partitionId], currentSnapshotId, vertexName, partitionSequence),
-                    data).toCompletableFuture();
+                    data);
             partitionSequence += memberCount;
             future.whenComplete(putResponseConsumer);
             numActiveFlushes.incrementAndGet();
@@ -270,15 +303,15 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     }
 
     private boolean initCurrentMap() {
-        if (currentMap == null) {
+        if (currentMapName == null) {
             String mapName = snapshotContext.currentMapName();
             if (mapName == null) {
                 return false;
             }
-            // Snapshot IMap proxy instance may be shared, but we always want it
-            // to have failOnIndeterminateOperationState enabled.
-            currentMap = safeImap(nodeEngine.getHazelcastInstance().getMap(mapName));
+            currentMapName = mapName;
+            currentStore = mapName.startsWith(EXPORTED_SNAPSHOTS_PREFIX) ? exportChunkStore : chunkStore;
             this.currentSnapshotId = snapshotContext.currentSnapshotId();
+            currentStore.beginSnapshot(mapName, currentSnapshotId, snapshotContext.isIncrementalSnapshot());
         }
         return true;
     }
@@ -304,7 +337,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
 
         // we're done
-        currentMap = null;
+        currentMapName = null;
         if (logger.isFineEnabled()) {
             logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d",
                     vertexName, totalKeys, totalChunks, totalPayloadBytes));
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.NodeEngine;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.JobRepository.safeImap;
+
+/**
+ * A {@link SnapshotChunkStore} storing the chunks in the snapshot data
+ * {@code IMap}. The map is cleared by the master before a full snapshot.
+ */
+public class IMapSnapshotChunkStore implements SnapshotChunkStore {
+
+    private final NodeEngine nodeEngine;
+
+    public IMapSnapshotChunkStore(@Nonnull NodeEngine nodeEngine) {
+        this.nodeEngine = nodeEngine;
+    }
+
+    @Override
+    public void beginSnapshot(@Nonnull String mapName, long snapshotId, boolean incremental) {
+    }
+
+    @Nonnull @Override
+    public CompletableFuture<Object> putAsync(@Nonnull String mapName, @Nonnull SnapshotDataKey key, @Nonnull Data chunk) {
+        // Snapshot IMap proxy instance may be shared, but we always want it
+        // to have failOnIndeterminateOperationState enabled.
+        IMap<SnapshotDataKey, Object> map = safeImap(nodeEngine.getHazelcastInstance().getMap(mapName));
+        // we put a Data instance to the map directly to avoid the serialization of the byte array
+        return map.putAsync(key, chunk).toCompletableFuture();
+    }
+
+    @Override
+    public void close(boolean jobFinished) {
+        // the maps are destroyed by the master when the job completes
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.impl.JetServiceBackend;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.operation.PutSnapshotReplicaChunkOperation;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.NodeEngine;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.jet.Util.idFromString;
+import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SNAPSHOT_DIRECTORY;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * A {@link SnapshotChunkStore} storing the chunks in files on the local disk,
+ * see {@link JobConfigArguments#SNAPSHOT_STORE_LOCAL_DISK}.
+ * <p>
+ * The chunks of a snapshot written on a member are appended to a single
+ * file, {@code <dir>/jet-snapshots/<jobId>/<mapName>/<snapshotId>/<memberUuid>.chunks}.
+ * Each chunk is also sent to the next participant of the job, which appends it
+ * to a replica file {@code <memberUuid>.replica.<replicaMemberUuid>.chunks} in
+ * the same directory. Each record of a file is the serialized key, the chunk
+ * and a CRC32 checksum of both, the checksum is verified when restoring.
+ * <p>
+ * When restoring, each member reads the files it wrote and the replica files
+ * it holds for members which are no longer in the cluster, see {@link
+ * #filesToRestore}.
+ * <p>
+ * Like the {@code IMap} store keeps the data in the snapshot map, the files
+ * of the snapshots in a directory of a snapshot map are deleted when a full
+ * snapshot to that map begins. The job directory is deleted when the job is
+ * cancelled. The directories of jobs that completed or failed are deleted when
+ * another job using this store starts on the member, like the snapshot maps of
+ * finished jobs are deleted by the periodic cleanup of the {@code
+ * JobRepository}. The files are not synced to the disk, a member crash is
+ * covered by the replica.
+ * <p>
+ * All file I/O runs on the {@value #IO_EXECUTOR_NAME} executor.
+ */
+public class LocalDiskSnapshotChunkStore implements SnapshotChunkStore {
+
+    public static final String IO_EXECUTOR_NAME = "jet:snapshot-io";
+
+    static final String FILE_SUFFIX = ".chunks";
+    static final String REPLICA_INFIX = ".replica.";
+
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final long jobId;
+    private final long executionId;
+    private final String baseDirectory;
+    private final Path jobDirectory;
+    private final UUID localUuid;
+    private final Address replicaTarget;
+    private final Executor executor;
+    private final ConcurrentMap<Path, ChunkFileWriter> writers = new ConcurrentHashMap<>();
+    private final Set<String> begunSnapshots = ConcurrentHashMap.newKeySet();
+
+    LocalDiskSnapshotChunkStore(
+            @Nonnull NodeEngine nodeEngine,
+            long jobId,
+            long executionId,
+            @Nonnull JobConfig jobConfig,
+            @Nonnull Collection<Address> participants
+    ) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        this.jobId = jobId;
+        this.executionId = executionId;
+        this.baseDirectory = baseDirectory(jobConfig);
+        this.jobDirectory = jobDirectory(baseDirectory, jobId);
+        this.localUuid = nodeEngine.getLocalMember().getUuid();
+        this.replicaTarget = replicaTarget(nodeEngine.getThisAddress(), participants);
+        this.executor = nodeEngine.getExecutionService().getExecutor(IO_EXECUTOR_NAME);
+        executor.execute(this::deleteFinishedJobs);
+    }
+
+    /**
+     * Returns the base directory configured for the given job.
+     */
+    @Nonnull
+    public static String baseDirectory(@Nonnull JobConfig jobConfig) {
+        String directory = jobConfig.getArgument(KEY_SNAPSHOT_DIRECTORY);
+        return directory != null ? directory : System.getProperty("java.io.tmpdir");
+    }
+
+    /**
+     * Returns the directory with the snapshot files of the given job.
+     */
+    @Nonnull
+    public static Path jobDirectory(@Nonnull String baseDirectory, long jobId) {
+        return Paths.get(baseDirectory, "jet-snapshots", idToString(jobId));
+    }
+
+    // the replica is held by the participant following this member in the address order
+    @Nullable
+    private static Address replicaTarget(Address thisAddress, Collection<Address> participants) {
+        List<Address> sorted = new ArrayList<>(participants);
+        if (sorted.size() < 2) {
+            return null;
+        }
+        sorted.sort(Comparator.comparing(Address::toString));
+        return sorted.get((sorted.indexOf(thisAddress) + 1) % sorted.size());
+    }
+
+    @Override
+    public void beginSnapshot(@Nonnull String mapName, long snapshotId, boolean incremental) {
+        if (!begunSnapshots.add(mapName + '/' + snapshotId)) {
+            return;
+        }
+        // the files of the previous snapshots are complete
+        writers.entrySet().removeIf(en -> {
+            if (snapshotIdOf(en.getKey().getParent()) < snapshotId) {
+                en.getValue().close();
+                return true;
+            }
+            return false;
+        });
+        if (!incremental) {
+            Path mapDirectory = jobDirectory.resolve(mapName);
+            executor.execute(() -> deleteSnapshotsBefore(mapDirectory, snapshotId));
+        }
+    }
+
+    @Nonnull @Override
+    public CompletableFuture<Object> putAsync(@Nonnull String mapName, @Nonnull SnapshotDataKey key, @Nonnull Data chunk) {
+        byte[] record = encodeRecord(nodeEngine.getSerializationService().toData(key), chunk);
+        Path file = jobDirectory.resolve(mapName).resolve(Long.toString(key.snapshotId()))
+                                .resolve(localUuid + FILE_SUFFIX);
+        CompletableFuture<Object> localFuture = CompletableFuture.supplyAsync(() -> {
+            writers.computeIfAbsent(file, ChunkFileWriter::new).append(record);
+            return null;
+        }, executor);
+        if (replicaTarget == null) {
+            return localFuture;
+        }
+        PutSnapshotReplicaChunkOperation op = new PutSnapshotReplicaChunkOperation(
+                jobId, executionId, mapName, key.snapshotId(), localUuid, record);
+        CompletableFuture<Object> replicaFuture = nodeEngine.getOperationService()
+                .invokeOnTarget(JetServiceBackend.SERVICE_NAME, op, replicaTarget)
+                .toCompletableFuture();
+        return localFuture.thenCombine(replicaFuture, (r1, r2) -> null);
+    }
+
+    @Override
+    public void close(boolean jobFinished) {
+        writers.values().forEach(ChunkFileWriter::close);
+        writers.clear();
+        if (jobFinished) {
+            executor.execute(() -> {
+                try {
+                    IOUtil.delete(jobDirectory);
+                } catch (Exception e) {
+                    logger.warning("Failed to delete the snapshot directory " + jobDirectory, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Appends a record received from the given member to its replica file
+     * held by this member. The records received concurrently for the same
+     * replica file are appended by a single writer, like the records of the
+     * local files.
+     */
+    @Nonnull
+    public CompletableFuture<Object> appendReplicaAsync(
+            @Nonnull String mapName,
+            long snapshotId,
+            @Nonnull UUID sourceUuid,
+            @Nonnull byte[] record
+    ) {
+        Path file = jobDirectory.resolve(mapName).resolve(Long.toString(snapshotId))
+                                .resolve(sourceUuid + REPLICA_INFIX + localUuid + FILE_SUFFIX);
+        return CompletableFuture.supplyAsync(() -> {
+            writers.computeIfAbsent(file, ChunkFileWriter::new).append(record);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Returns the files with the data of the given snapshot map to be
+     * restored by the member with the given UUID: the files the member wrote
+     * and the replica files it holds for the members not in the given set.
+     */
+    @Nonnull
+    public static List<Path> filesToRestore(@Nonnull Path mapDirectory, @Nonnull UUID localUuid,
+                                            @Nonnull Set<UUID> memberUuids) throws IOException {
+        List<Path> result = new ArrayList<>();
+        if (!Files.isDirectory(mapDirectory)) {
+            return result;
+        }
+        String ownFile = localUuid + FILE_SUFFIX;
+        String replicaSuffix = REPLICA_INFIX + localUuid + FILE_SUFFIX;
+        try (Stream<Path> snapshotDirs = Files.list(mapDirectory)) {
+            for (Path snapshotDir : (Iterable<Path>) snapshotDirs.filter(Files::isDirectory)::iterator) {
+                try (Stream<Path> files = Files.list(snapshotDir)) {
+                    files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        if (name.equals(ownFile)) {
+                            return true;
+                        }
+                        return name.endsWith(replicaSuffix) && !memberUuids.contains(
+                                UUID.fromString(name.substring(0, name.length() - replicaSuffix.length())));
+                    }).forEach(result::add);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of records of the given snapshot that the local
+     * member restores, that is in the files returned by {@link
+     * #filesToRestore} for the current cluster members. The checksums of the
+     * records are verified.
+     */
+    public static long countRecordsToRestore(
+            @Nonnull NodeEngine nodeEngine,
+            @Nonnull String baseDirectory,
+            long jobId,
+            @Nonnull String mapName,
+            long snapshotId
+    ) throws IOException {
+        Path mapDirectory = jobDirectory(baseDirectory, jobId).resolve(mapName);
+        Set<UUID> memberUuids = nodeEngine.getClusterService().getMembers().stream()
+                                          .map(Member::getUuid)
+                                          .collect(toSet());
+        long count = 0;
+        for (Path file : filesToRestore(mapDirectory, nodeEngine.getLocalMember().getUuid(), memberUuids)) {
+            if (snapshotIdOf(file.getParent()) != snapshotId) {
+                continue;
+            }
+            try (ChunkFileReader reader = new ChunkFileReader(file)) {
+                while (reader.next() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void deleteFinishedJobs() {
+        Path snapshotsDirectory = jobDirectory.getParent();
+        if (!Files.isDirectory(snapshotsDirectory)) {
+            return;
+        }
+        JetServiceBackend jetServiceBackend = nodeEngine.getService(JetServiceBackend.SERVICE_NAME);
+        JobRepository jobRepository = jetServiceBackend.getJobRepository();
+        try (Stream<Path> jobDirectories = Files.list(snapshotsDirectory)) {
+            for (Path directory : (Iterable<Path>) jobDirectories::iterator) {
+                long otherJobId = idFromString(directory.getFileName().toString());
+                if (otherJobId != -1 && otherJobId != jobId
+                        && jobRepository.getJobRecord(otherJobId) == null
+                        && jobRepository.getJobResult(otherJobId) != null) {
+                    logger.fine("Deleting the snapshot directory " + directory + " because the job is finished");
+                    IOUtil.delete(directory);
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("Failed to delete the snapshot directories of finished jobs in " + snapshotsDirectory, e);
+        }
+    }
+
+    private void deleteSnapshotsBefore(Path mapDirectory, long snapshotId) {
+        if (!Files.isDirectory(mapDirectory)) {
+            return;
+        }
+        try (Stream<Path> snapshotDirs = Files.list(mapDirectory)) {
+            snapshotDirs.filter(dir -> snapshotIdOf(dir) < snapshotId)
+                        .forEach(IOUtil::delete);
+        } catch (Exception e) {
+            logger.warning("Failed to delete old snapshot files in " + mapDirectory, e);
+        }
+    }
+
+    private static long snapshotIdOf(Path snapshotDirectory) {
+        try {
+            return Long.parseLong(snapshotDirectory.getFileName().toString());
+        } catch (NumberFormatException e) {
+            // not our directory
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static byte[] encodeRecord(Data key, Data chunk) {
+        byte[] keyBytes = key.toByteArray();
+        byte[] chunkBytes = chunk.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + keyBytes.length + Integer.BYTES + chunkBytes.length
+                + Long.BYTES);
+        buffer.putInt(keyBytes.length).put(keyBytes).putInt(chunkBytes.length).put(chunkBytes);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Appends records to a chunk file.
+     */
+    private static final class ChunkFileWriter {
+        private final FileChannel channel;
+
+        ChunkFileWriter(Path file) {
+            try {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }
+
+        synchronized void append(byte[] record) {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }
+
+        void close() {
+            IOUtil.closeResource(channel);
+        }
+    }
+
+    /**
+     * Reads the records of a chunk file and verifies their checksums.
+     */
+    public static final class ChunkFileReader implements Closeable {
+        private final Path file;
+        private final DataInputStream in;
+        private final CRC32 crc = new CRC32();
+        private long offset;
+
+        public ChunkFileReader(@Nonnull Path file) throws IOException {
+            this.file = file;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        }
+
+        /**
+         * Returns the next key and chunk or {@code null} if the end of the
+         * file was reached.
+         *
+         * @throws IOException if the file is damaged
+         */
+        @Nullable
+        public Entry<Data, Data> next() throws IOException {
+            int keyLength;
+            try {
+                keyLength = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            byte[] keyBytes = readBytes(keyLength);
+            int chunkLength = in.readInt();
+            byte[] chunkBytes = readBytes(chunkLength);
+            long checksum = in.readLong();
+
+            crc.reset();
+            ByteBuffer lengths = ByteBuffer.allocate(Integer.BYTES);
+            crc.update(lengths.putInt(0, keyLength).array());
+            crc.update(keyBytes);
+            crc.update(lengths.putInt(0, chunkLength).array());
+            crc.update(chunkBytes);
+            if (crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch in snapshot file " + file + " at offset " + offset);
+            }
+            offset += Integer.BYTES + keyLength + Integer.BYTES + chunkLength + Long.BYTES;
+            return new SimpleImmutableEntry<>(new HeapData(keyBytes), new HeapData(chunkBytes));
+        }
+
+        private byte[] readBytes(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Invalid record length " + length + " in snapshot file " + file
+                        + " at offset " + offset);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
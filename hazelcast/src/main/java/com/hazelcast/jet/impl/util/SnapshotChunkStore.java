@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngine;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SNAPSHOT_STORE;
+import static com.hazelcast.jet.config.JobConfigArguments.SNAPSHOT_STORE_IMAP;
+import static com.hazelcast.jet.config.JobConfigArguments.SNAPSHOT_STORE_LOCAL_DISK;
+
+/**
+ * Stores the chunks of snapshot data written by the {@link
+ * AsyncSnapshotWriterImpl}. The chunks of a snapshot are stored under the
+ * name of the snapshot data map, the default implementation stores them in
+ * that {@code IMap}. See {@link JobConfigArguments#KEY_SNAPSHOT_STORE} for
+ * the available implementations.
+ * <p>
+ * A single instance is shared by all snapshot writers of a job execution on
+ * a member, the methods can be called concurrently.
+ */
+public interface SnapshotChunkStore {
+
+    /**
+     * Called by each writer before it writes the first chunk of a snapshot.
+     * It can be called multiple times for the same snapshot.
+     *
+     * @param mapName     the name of the snapshot data map
+     * @param snapshotId  the ID of the snapshot
+     * @param incremental if true, the snapshot is added to the data of the
+     *                    previous snapshots in the map, if false, the data of
+     *                    the previous snapshots in the map are no longer needed
+     */
+    void beginSnapshot(@Nonnull String mapName, long snapshotId, boolean incremental);
+
+    /**
+     * Stores the given chunk. The returned future is completed with {@code
+     * null} when the chunk is stored.
+     */
+    @Nonnull
+    CompletableFuture<Object> putAsync(@Nonnull String mapName, @Nonnull SnapshotDataKey key, @Nonnull Data chunk);
+
+    /**
+     * Called when the job execution completes on this member.
+     *
+     * @param jobFinished if true, the job will never be restored from its
+     *                    snapshots and the stored data can be deleted
+     */
+    void close(boolean jobFinished);
+
+    /**
+     * Creates the store configured for the given job.
+     *
+     * @param executionId  the ID of the job execution using the store
+     * @param participants the addresses of the members participating in
+     *                     the job execution
+     */
+    @Nonnull
+    static SnapshotChunkStore create(
+            @Nonnull NodeEngine nodeEngine,
+            long jobId,
+            long executionId,
+            @Nonnull JobConfig jobConfig,
+            @Nonnull Collection<Address> participants
+    ) {
+        String store = jobConfig.getArgument(KEY_SNAPSHOT_STORE);
+        if (store == null || SNAPSHOT_STORE_IMAP.equals(store)) {
+            return new IMapSnapshotChunkStore(nodeEngine);
+        }
+        if (SNAPSHOT_STORE_LOCAL_DISK.equals(store)) {
+            return new LocalDiskSnapshotChunkStore(nodeEngine, jobId, executionId, jobConfig, participants);
+        }
+        throw new IllegalArgumentException("Unknown snapshot store: " + store);
+    }
+
+    /**
+     * Returns true, if the regular snapshots of the given job are stored in
+     * the {@link LocalDiskSnapshotChunkStore}.
+     */
+    static boolean isLocalDisk(@Nonnull JobConfig jobConfig) {
+        return SNAPSHOT_STORE_LOCAL_DISK.equals(jobConfig.getArgument(KEY_SNAPSHOT_STORE));
+    }
+}
@@ -21,10 +21,13 @@ import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkSuppliers;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
@@ -46,6 +49,8 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import static com.hazelcast.config.CacheDeserializedValues.NEVER;
@@ -54,6 +59,8 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sendEndOfSequenceEvents;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 
 /**
  * Defines migration behavior of map service.
@@ -61,7 +68,7 @@ import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sen
  * @see MapService
  */
 class MapMigrationAwareService
-        implements ChunkedMigrationAwareService, OffloadedReplicationPreparation {
+        implements ChunkedMigrationAwareService, DeltaReplicationAwareService, OffloadedReplicationPreparation {
 
     protected final PartitionContainer[] containers;
     protected final MapServiceContext mapServiceContext;
@@ -146,6 +153,45 @@ class MapMigrationAwareService
         return operation;
     }
 
+    @Override
+    public boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree) {
+        String mapName = ((ObjectNamespace) namespace).getObjectName();
+        RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapName);
+        if (recordStore == null) {
+            return true;
+        }
+
+        // expired records are included, so the tree doesn't depend on the clocks of the replicas
+        recordStore.beforeOperation();
+        try {
+            recordStore.forEach((BiConsumer<Data, Record>) (key, record)
+                    -> tree.add(key, serializationService.toData(record.getValue())), true, true);
+        } finally {
+            recordStore.afterOperation();
+        }
+        return true;
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] differingLeaves) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        int partitionId = event.getPartitionId();
+        String mapName = ((ObjectNamespace) namespace).getObjectName();
+        if (mapServiceContext.getExistingRecordStore(partitionId, mapName) == null) {
+            return null;
+        }
+
+        Map<String, int[]> merkleTreeDiffByMapName = singletonMap(mapName, differingLeaves);
+        Operation operation = new MapReplicationOperation(containers[partitionId],
+                singleton(namespace), partitionId, event.getReplicaIndex(), merkleTreeDiffByMapName);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+
+        return operation;
+    }
+
     @Override
     public ChunkSupplier newChunkSupplier(PartitionReplicationEvent event,
                                           Collection<ServiceNamespace> namespaces) {
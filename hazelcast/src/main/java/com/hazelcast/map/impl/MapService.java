@@ -25,12 +25,14 @@ import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.services.ClientAwareService;
 import com.hazelcast.internal.services.DistributedObjectNamespace;
@@ -99,7 +101,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_I
  * @see MapServiceContext
  */
 @SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:MethodCount"})
-public class MapService implements ManagedService, ChunkedMigrationAwareService,
+public class MapService implements ManagedService, ChunkedMigrationAwareService, DeltaReplicationAwareService,
         TransactionalService, RemoteService,
         EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService,
@@ -175,6 +177,17 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree) {
+        return migrationAwareService.buildMerkleTree(partitionId, namespace, tree);
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] differingLeaves) {
+        return migrationAwareService.prepareDeltaReplicationOperation(event, namespace, differingLeaves);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
@@ -17,11 +17,13 @@
 package com.hazelcast.map.impl.event;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.core.EntryEventType;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.impl.eventservice.CoalescableEvent;
 
 import java.io.IOException;
 
@@ -29,7 +31,7 @@ import java.io.IOException;
  * An entry's event data.
  */
 @BinaryInterface
-public class EntryEventData extends AbstractEventData {
+public class EntryEventData extends AbstractEventData implements CoalescableEvent {
 
     protected Data dataKey;
     protected Data dataNewValue;
@@ -72,6 +74,16 @@ public class EntryEventData extends AbstractEventData {
         return dataMergingValue;
     }
 
+    @Override
+    public Object getCoalescingKey() {
+        return dataKey;
+    }
+
+    @Override
+    public boolean isCoalescable() {
+        return getEventType() == EntryEventType.UPDATED.getType();
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         super.writeData(out);
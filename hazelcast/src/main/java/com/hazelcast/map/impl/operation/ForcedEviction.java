@@ -18,7 +18,8 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.NodeEngine;
-import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 
 import javax.annotation.Nullable;
 import java.util.concurrent.ConcurrentMap;
@@ -106,14 +107,18 @@ public interface ForcedEviction {
                 && recordStore.getEvictionPolicy() != NONE && recordStore.size() > 0;
     }
 
-    default int mod(MapOperation mapOperation, int threadCount) {
-        return mapOperation.getPartitionId() % threadCount;
-    }
-
-    default int threadCount(MapOperation mapOperation) {
-        NodeEngine nodeEngine = mapOperation.getNodeEngine();
-        OperationService operationService = nodeEngine.getOperationService();
-        return operationService.getPartitionThreadCount();
+    /**
+     * @return {@code true} if the supplied partition is owned by the partition
+     * thread of the map operation. Only the record stores of such partitions can
+     * be evicted, the others are concurrently mutated by their own partition
+     * thread. When the partitions are rebalanced over the partition threads, the
+     * owner is not necessarily the partition ID modulo the thread count.
+     */
+    default boolean isOwnedBySameThread(MapOperation mapOperation, int partitionId) {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) mapOperation.getNodeEngine();
+        OperationExecutor operationExecutor = nodeEngine.getOperationService().getOperationExecutor();
+        return operationExecutor.getPartitionThreadId(partitionId)
+                == operationExecutor.getPartitionThreadId(mapOperation.getPartitionId());
     }
 
     default int numberOfPartitions(MapOperation mapOperation) {
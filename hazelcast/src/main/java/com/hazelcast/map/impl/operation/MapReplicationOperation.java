@@ -30,6 +30,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Replicates all IMap-states of this partition to a replica partition.
@@ -48,12 +49,25 @@ public class MapReplicationOperation extends Operation
 
     public MapReplicationOperation(PartitionContainer container,
                                    Collection<ServiceNamespace> namespaces, int partitionId, int replicaIndex) {
+        this(container, namespaces, partitionId, replicaIndex, null);
+    }
+
+    /**
+     * Creates a replication operation which replicates only the records of the given Merkle tree leaves
+     * for the maps in {@code merkleTreeDiffByMapName}.
+     *
+     * @param merkleTreeDiffByMapName the Merkle tree leaf order/value pairs by map name, or {@code null}
+     *                                to replicate all records
+     */
+    public MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
+                                   int partitionId, int replicaIndex, Map<String, int[]> merkleTreeDiffByMapName) {
 
         setPartitionId(partitionId)
                 .setReplicaIndex(replicaIndex);
 
         this.mapReplicationStateHolder = new MapReplicationStateHolder();
         this.mapReplicationStateHolder.setOperation(this);
+        this.mapReplicationStateHolder.setMerkleTreeDiffByMapName(merkleTreeDiffByMapName);
         this.mapReplicationStateHolder.prepare(container, namespaces, replicaIndex);
 
         this.writeBehindStateHolder = new WriteBehindStateHolder();
@@ -24,6 +24,7 @@ import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.monitor.impl.LocalReplicationStatsImpl;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
@@ -61,6 +62,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import static com.hazelcast.config.MaxSizePolicy.PER_NODE;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
@@ -260,8 +263,25 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     }
 
     protected void initializeRecordStore(String mapName, RecordStore recordStore) {
-        if (!merkleTreeDiffByMapName.containsKey(mapName)) {
+        int[] diff = merkleTreeDiffByMapName.get(mapName);
+        if (diff == null) {
             recordStore.reset();
+            return;
+        }
+
+        // only the records of the differing leaves are replicated, so
+        // remove the records of these leaves which are missing on the source
+        Predicate<Data> inDiff = ReplicaFragmentMerkleTree.keysInLeaves(diff);
+        List<Data> keysToRemove = new ArrayList<>();
+        recordStore.forEach((BiConsumer<Data, Record>) (dataKey, record) -> {
+            if (inDiff.test(dataKey)) {
+                keysToRemove.add(dataKey);
+            }
+        }, operation.getReplicaIndex() != 0, true);
+
+        boolean backup = operation.getReplicaIndex() != 0;
+        for (Data dataKey : keysToRemove) {
+            recordStore.removeReplicatedRecord(dataKey, backup);
         }
     }
 
@@ -361,7 +381,37 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
     protected void writeDifferentialData(String mapName,
                                          RecordStore<Record> recordStore, ObjectDataOutput out) throws IOException {
-        throw new UnsupportedOperationException();
+        int[] diff = merkleTreeDiffByMapName.get(mapName);
+        out.writeIntArray(diff);
+
+        Predicate<Data> inDiff = ReplicaFragmentMerkleTree.keysInLeaves(diff);
+        List<Object> keyRecords = new ArrayList<>();
+        recordStore.beforeOperation();
+        try {
+            recordStore.forEach((dataKey, record) -> {
+                if (inDiff.test(dataKey)) {
+                    keyRecords.add(dataKey);
+                    keyRecords.add(record);
+                }
+            }, operation.getReplicaIndex() != 0, true);
+
+            SerializationService ss = getSerializationService(recordStore.getMapContainer());
+            int recordCount = keyRecords.size() / 2;
+            out.writeInt(recordCount);
+            for (int i = 0; i < keyRecords.size(); i += 2) {
+                Data dataKey = (Data) keyRecords.get(i);
+                Record record = (Record) keyRecords.get(i + 1);
+                IOUtil.writeData(out, dataKey);
+                Records.writeRecord(out, record, ss.toData(record.getValue()));
+                Records.writeExpiry(out, recordStore.getExpirySystem().getExpiryMetadata(dataKey));
+            }
+
+            LocalReplicationStatsImpl replicationStats = statsByMapName.get(mapName);
+            replicationStats.incrementDiffPartitionReplicationCount();
+            replicationStats.incrementDiffPartitionReplicationRecordsCount(recordCount);
+        } finally {
+            recordStore.afterOperation();
+        }
     }
 
     private void writeRecordStoreData(RecordStore<Record> recordStore, ObjectDataOutput out)
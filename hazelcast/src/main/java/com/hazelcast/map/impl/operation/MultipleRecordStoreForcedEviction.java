@@ -31,7 +31,8 @@ import static java.lang.String.format;
  * Multiple record store forced eviction.
  *
  * Evicts a percentage of entries from multiple
- * record stores which fall into same partition.
+ * record stores which fall into partitions owned
+ * by the same partition thread.
  *
  * @see SingleRecordStoreForcedEviction
  */
@@ -51,15 +52,13 @@ class MultipleRecordStoreForcedEviction implements ForcedEviction {
         assert evictionPercentage > 0 && evictionPercentage <= 1;
 
         int partitionCount = numberOfPartitions(mapOperation);
-        int threadCount = threadCount(mapOperation);
-        int mod = mod(mapOperation, threadCount);
         ILogger logger = mapOperation.logger();
 
         int evictionRetryTimes = retryCount(evictionPercentage);
         for (int i = 0; i < evictionRetryTimes; i++) {
             try {
                 for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
-                    if ((partitionId % threadCount) != mod) {
+                    if (!isOwnedBySameThread(mapOperation, partitionId)) {
                         continue;
                     }
 
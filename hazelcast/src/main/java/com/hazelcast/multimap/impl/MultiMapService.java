@@ -29,10 +29,12 @@ import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.monitor.impl.LocalMultiMapStatsImpl;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.LockInterceptorService;
@@ -83,6 +85,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 import static com.hazelcast.internal.config.ConfigValidator.checkMultiMapConfig;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MULTIMAP_PREFIX;
@@ -96,9 +99,11 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.EMPTY_MAP;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
-public class MultiMapService implements ManagedService, RemoteService, ChunkedMigrationAwareService,
+public class MultiMapService implements ManagedService, RemoteService, ChunkedMigrationAwareService, DeltaReplicationAwareService,
         EventPublishingService<EventData, EntryListener>, TransactionalService,
         StatisticsAwareService<LocalMultiMapStats>,
         SplitBrainProtectionAwareService, SplitBrainHandlerService, LockInterceptorService<Data>,
@@ -348,19 +353,86 @@ public class MultiMapService implements ManagedService, RemoteService, ChunkedMi
                 .setNodeEngine(nodeEngine);
     }
 
+    @Override
+    public boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree) {
+        MultiMapContainer container = partitionContainers[partitionId].containerMap
+                .get(((ObjectNamespace) namespace).getObjectName());
+        if (container == null) {
+            return true;
+        }
+
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        for (Map.Entry<Data, MultiMapValue> entry : container.getMultiMapValues().entrySet()) {
+            // the sum doesn't depend on the iteration order of the value collection
+            int valueHash = 0;
+            for (MultiMapRecord record : entry.getValue().getCollection(false)) {
+                valueHash += serializationService.toData(record.getObject()).hashCode();
+            }
+            tree.add(entry.getKey(), valueHash);
+        }
+        return true;
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] differingLeaves) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MultiMapService namespace!";
+
+        String name = ((ObjectNamespace) namespace).getObjectName();
+        MultiMapContainer container = partitionContainers[event.getPartitionId()].containerMap.get(name);
+        if (container == null || container.getConfig().getTotalBackupCount() < event.getReplicaIndex()) {
+            return null;
+        }
+
+        Predicate<Data> inLeaves = ReplicaFragmentMerkleTree.keysInLeaves(differingLeaves);
+        Map<Data, MultiMapValue> multiMapValues = new HashMap<>();
+        for (Map.Entry<Data, MultiMapValue> entry : container.getMultiMapValues().entrySet()) {
+            if (inLeaves.test(entry.getKey())) {
+                multiMapValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return new MultiMapReplicationOperation(singletonMap(name, multiMapValues), singletonMap(name, differingLeaves))
+                .setServiceName(MultiMapService.SERVICE_NAME)
+                .setNodeEngine(nodeEngine);
+    }
+
     public void insertMigratedData(int partitionId, Map<String, Map<Data, MultiMapValue>> map) {
+        insertMigratedData(partitionId, map, emptyMap());
+    }
+
+    /**
+     * Inserts the replicated data. For the multimaps in {@code differingLeavesByName}
+     * only the values of the given Merkle tree leaves have been replicated, so the
+     * existing values of these leaves are removed first and all others are kept.
+     */
+    public void insertMigratedData(int partitionId, Map<String, Map<Data, MultiMapValue>> map,
+                                   Map<String, int[]> differingLeavesByName) {
         for (Map.Entry<String, Map<Data, MultiMapValue>> entry : map.entrySet()) {
             String name = entry.getKey();
             MultiMapContainer container = getOrCreateCollectionContainerWithoutAccess(partitionId, name);
             Map<Data, MultiMapValue> collections = entry.getValue();
             long maxRecordId = -1;
 
+            int[] differingLeaves = differingLeavesByName.get(name);
+            if (differingLeaves != null) {
+                Predicate<Data> inLeaves = ReplicaFragmentMerkleTree.keysInLeaves(differingLeaves);
+                container.getMultiMapValues().keySet().removeIf(inLeaves);
+            }
+
             for (Map.Entry<Data, MultiMapValue> multiMapValueEntry : collections.entrySet()) {
                 MultiMapValue multiMapValue = multiMapValueEntry.getValue();
                 container.getMultiMapValues().put(multiMapValueEntry.getKey(), multiMapValue);
                 long recordId = getMaxRecordId(multiMapValue);
                 maxRecordId = max(maxRecordId, recordId);
             }
+
+            if (differingLeaves != null) {
+                // the record IDs of the values which haven't been replicated must not be reused
+                for (MultiMapValue multiMapValue : container.getMultiMapValues().values()) {
+                    maxRecordId = max(maxRecordId, getMaxRecordId(multiMapValue));
+                }
+            }
             container.setId(maxRecordId);
         }
     }
@@ -17,6 +17,7 @@
 package com.hazelcast.multimap.impl.operations;
 
 import com.hazelcast.config.MultiMapConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.multimap.impl.MultiMapDataSerializerHook;
 import com.hazelcast.multimap.impl.MultiMapRecord;
@@ -26,6 +27,7 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.io.IOException;
@@ -36,10 +38,13 @@ import java.util.Map;
 
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
+import static java.util.Collections.emptyMap;
 
-public class MultiMapReplicationOperation extends Operation implements IdentifiedDataSerializable {
+public class MultiMapReplicationOperation extends Operation implements IdentifiedDataSerializable, Versioned {
 
     private Map<String, Map<Data, MultiMapValue>> map;
+    // the Merkle tree leaves of the multimaps which are replicated partially
+    private Map<String, int[]> differingLeavesByName = emptyMap();
 
     public MultiMapReplicationOperation() {
     }
@@ -48,10 +53,16 @@ public class MultiMapReplicationOperation extends Operation implements Identifie
         this.map = map;
     }
 
+    public MultiMapReplicationOperation(Map<String, Map<Data, MultiMapValue>> map,
+                                        Map<String, int[]> differingLeavesByName) {
+        this.map = map;
+        this.differingLeavesByName = differingLeavesByName;
+    }
+
     @Override
     public void run() throws Exception {
         MultiMapService service = getService();
-        service.insertMigratedData(getPartitionId(), map);
+        service.insertMigratedData(getPartitionId(), map, differingLeavesByName);
     }
 
     @Override
@@ -79,6 +90,14 @@ public class MultiMapReplicationOperation extends Operation implements Identifie
                 }
             }
         }
+
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            out.writeInt(differingLeavesByName.size());
+            for (Map.Entry<String, int[]> entry : differingLeavesByName.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeIntArray(entry.getValue());
+            }
+        }
     }
 
     @Override
@@ -109,6 +128,14 @@ public class MultiMapReplicationOperation extends Operation implements Identifie
             }
             map.put(name, collections);
         }
+
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            int differingLeavesCount = in.readInt();
+            differingLeavesByName = createHashMap(differingLeavesCount);
+            for (int i = 0; i < differingLeavesCount; i++) {
+                differingLeavesByName.put(in.readString(), in.readIntArray());
+            }
+        }
     }
 
     @Override
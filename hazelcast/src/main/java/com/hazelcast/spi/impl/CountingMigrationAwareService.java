@@ -18,11 +18,13 @@ package com.hazelcast.spi.impl;
 
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.partition.ReplicaFragmentMerkleTree;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
@@ -34,7 +36,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * migrations concerning the partition owner (either as current or new replica index) currently in-flight.
  */
 public class CountingMigrationAwareService
-        implements ChunkedMigrationAwareService, OffloadedReplicationPreparation {
+        implements ChunkedMigrationAwareService, DeltaReplicationAwareService, OffloadedReplicationPreparation {
 
     static final int PRIMARY_REPLICA_INDEX = 0;
     static final int IN_FLIGHT_MIGRATION_STAMP = -1;
@@ -153,4 +155,20 @@ public class CountingMigrationAwareService
         }
         return ((ChunkedMigrationAwareService) migrationAwareService).newChunkSupplier(event, namespace);
     }
+
+    @Override
+    public boolean buildMerkleTree(int partitionId, ServiceNamespace namespace, ReplicaFragmentMerkleTree tree) {
+        return migrationAwareService instanceof DeltaReplicationAwareService
+                && ((DeltaReplicationAwareService) migrationAwareService).buildMerkleTree(partitionId, namespace, tree);
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] differingLeaves) {
+        if (!(migrationAwareService instanceof DeltaReplicationAwareService)) {
+            return null;
+        }
+        return ((DeltaReplicationAwareService) migrationAwareService)
+                .prepareDeltaReplicationOperation(event, namespace, differingLeaves);
+    }
 }
@@ -284,6 +284,7 @@ public class NodeEngineImpl implements NodeEngine {
         serviceManager.start();
         proxyService.init();
         operationService.start();
+        eventService.start();
         splitBrainProtectionService.start();
         sqlService.start();
         tpcServerBootstrap.start();
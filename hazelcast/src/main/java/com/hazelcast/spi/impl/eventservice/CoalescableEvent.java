@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice;
+
+/**
+ * An event about a single entry which can be coalesced with the other events about
+ * the same entry when event coalescing is enabled.
+ * <p>
+ * When the events for a remote listener are batched, a coalescable event replaces
+ * a pending coalescable event for the same listener and entry, if no other event
+ * for this entry has been published in between. So the listener only receives the
+ * last of subsequent coalescable events of an entry.
+ */
+public interface CoalescableEvent {
+
+    /**
+     * Returns the key identifying the entry of the event, it must implement
+     * {@code equals} and {@code hashCode}.
+     */
+    Object getCoalescingKey();
+
+    /**
+     * Returns {@code true} if this event only carries the latest state of the
+     * entry and can be replaced by a later coalescable event, {@code false}
+     * if this event must always be delivered (e.g. the removal of the entry).
+     */
+    boolean isCoalescable();
+}
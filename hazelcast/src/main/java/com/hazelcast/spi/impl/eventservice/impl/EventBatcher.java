@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.spi.impl.eventservice.CoalescableEvent;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_COALESCED_EVENT_COUNT;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Collects the remote events per subscriber and sends them as a single batch packet
+ * (see {@link PacketBatchCodec}) once {@code maxBatchSize} events are pending or
+ * {@link #flushAll()} is called, which the {@link EventServiceImpl} does periodically.
+ * <p>
+ * The events of a subscriber are sent in the order they were offered. The pending
+ * events of a subscriber are guarded by a lock which is also held while the batch is
+ * handed to the connection, so that batches can't overtake each other.
+ * <p>
+ * When coalescing is enabled, a pending {@link CoalescableEvent#isCoalescable()
+ * coalescable} event is dropped when a coalescable event for the same registration
+ * and entry is offered, unless another event for this entry was offered in between.
+ * <p>
+ * This class is thread-safe.
+ */
+final class EventBatcher {
+
+    @Probe(name = EVENT_METRIC_EVENT_SERVICE_BATCH_COUNT)
+    private final MwCounter batchCount = newMwCounter();
+    @Probe(name = EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENT_COUNT)
+    private final MwCounter batchedEventCount = newMwCounter();
+    @Probe(name = EVENT_METRIC_EVENT_SERVICE_COALESCED_EVENT_COUNT)
+    private final MwCounter coalescedEventCount = newMwCounter();
+
+    private final ConcurrentMap<Address, PendingEvents> pendingBySubscriber = new ConcurrentHashMap<>();
+    private final int maxBatchSize;
+    private final boolean coalescing;
+    private final BiConsumer<Packet, Address> transmitter;
+
+    /**
+     * @param maxBatchSize the maximum number of events in a batch
+     * @param coalescing   if coalescable events should be coalesced
+     * @param transmitter  sends a packet to a subscriber
+     */
+    EventBatcher(int maxBatchSize, boolean coalescing, BiConsumer<Packet, Address> transmitter) {
+        this.maxBatchSize = maxBatchSize;
+        this.coalescing = coalescing;
+        this.transmitter = transmitter;
+    }
+
+    /**
+     * Adds an event to the pending events of the subscriber.
+     *
+     * @param subscriber     the address of the subscriber
+     * @param registrationId the ID of the listener registration
+     * @param envelope       the serialized {@link EventEnvelope}
+     * @param orderKey       the order key of the event
+     * @param event          the event, if it can be coalesced
+     */
+    void offer(Address subscriber, UUID registrationId, byte[] envelope, int orderKey, @Nullable CoalescableEvent event) {
+        PendingEvents pending = getOrPutIfAbsent(pendingBySubscriber, subscriber, PendingEvents::new);
+        pending.add(registrationId, envelope, orderKey, coalescing ? event : null);
+    }
+
+    /**
+     * Sends the pending events of the given subscriber.
+     */
+    void flush(Address subscriber) {
+        PendingEvents pending = pendingBySubscriber.get(subscriber);
+        if (pending != null) {
+            pending.flush();
+        }
+    }
+
+    /**
+     * Sends the pending events of all subscribers.
+     */
+    void flushAll() {
+        for (PendingEvents pending : pendingBySubscriber.values()) {
+            pending.flush();
+        }
+    }
+
+    /**
+     * Drops the pending events of the given subscriber.
+     */
+    void remove(Address subscriber) {
+        pendingBySubscriber.remove(subscriber);
+    }
+
+    long batchCount() {
+        return batchCount.get();
+    }
+
+    long batchedEventCount() {
+        return batchedEventCount.get();
+    }
+
+    long coalescedEventCount() {
+        return coalescedEventCount.get();
+    }
+
+    private final class PendingEvents {
+        private final Address subscriber;
+        // a slot is null if its event has been coalesced
+        private final byte[][] envelopes = new byte[maxBatchSize][];
+        private final int[] orderKeys = new int[maxBatchSize];
+        private final boolean[] coalescable = new boolean[maxBatchSize];
+        // the slot of the last pending event per registration and entry
+        private final Map<CoalescingKey, Integer> lastSlotByKey = new HashMap<>();
+        private int slots;
+        private int eventCount;
+
+        private PendingEvents(Address subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private synchronized void add(UUID registrationId, byte[] envelope, int orderKey, CoalescableEvent event) {
+            if (event != null) {
+                boolean isCoalescable = event.isCoalescable();
+                Integer lastSlot = lastSlotByKey.put(new CoalescingKey(registrationId, event.getCoalescingKey()), slots);
+                if (isCoalescable && lastSlot != null && coalescable[lastSlot]) {
+                    envelopes[lastSlot] = null;
+                    eventCount--;
+                    coalescedEventCount.inc();
+                }
+                coalescable[slots] = isCoalescable;
+            } else {
+                coalescable[slots] = false;
+            }
+
+            envelopes[slots] = envelope;
+            orderKeys[slots] = orderKey;
+            slots++;
+            eventCount++;
+            if (slots == maxBatchSize) {
+                flush();
+            }
+        }
+
+        private synchronized void flush() {
+            if (slots == 0) {
+                return;
+            }
+
+            Packet[] packets = new Packet[eventCount];
+            int count = 0;
+            for (int k = 0; k < slots; k++) {
+                if (envelopes[k] != null) {
+                    packets[count++] = new Packet(envelopes[k], orderKeys[k]).setPacketType(Packet.Type.EVENT);
+                }
+            }
+
+            if (count == 1) {
+                // no need for a batch
+                transmitter.accept(packets[0], subscriber);
+            } else {
+                batchCount.inc();
+                batchedEventCount.inc(count);
+                transmitter.accept(PacketBatchCodec.pack(packets, count, Packet.Type.EVENT), subscriber);
+            }
+
+            Arrays.fill(envelopes, 0, slots, null);
+            lastSlotByKey.clear();
+            slots = 0;
+            eventCount = 0;
+        }
+    }
+
+    private static final class CoalescingKey {
+        private final UUID registrationId;
+        private final Object key;
+
+        private CoalescingKey(UUID registrationId, Object key) {
+            this.registrationId = registrationId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CoalescingKey that = (CoalescingKey) o;
+            return registrationId.equals(that.registrationId) && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * registrationId.hashCode() + Objects.hashCode(key);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.server.ServerConnectionManager;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.UuidUtil;
@@ -33,6 +34,7 @@ import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.internal.util.executor.StripedExecutor;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.eventservice.CoalescableEvent;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import com.hazelcast.spi.impl.eventservice.EventService;
@@ -43,13 +45,16 @@ import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperation
 import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 
 import javax.annotation.Nonnull;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -62,6 +67,7 @@ import java.util.logging.Level;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.internal.cluster.Versions.V5_4;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_SERVICE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE;
@@ -72,9 +78,11 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_MET
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_TOTAL_FAILURE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_PREFIX;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.nio.Packet.FLAG_EVENT_BATCH;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.FutureUtil.getValue;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.InvocationUtil.invokeOnStableClusterSerial;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
@@ -108,6 +116,10 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * This order can still be broken in some cases. This is possible because remote events are asynchronous
  * and we don't wait for the response before publishing the next event. The previously published
  * event can be retransmitted causing it to be received by the target node at a later time.
+ * <p>
+ * When {@link #EVENT_BATCHING_ENABLED event batching} is enabled, the remote events are collected per
+ * subscriber by an {@link EventBatcher} and sent as a single packet. The receiving node processes the
+ * events of a batch which belong to the same stripe of the executor as a single task.
  */
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public class EventServiceImpl implements EventService, StaticMetricsProvider {
@@ -119,22 +131,52 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * synchronously. This means that the event will be sent as a {@link SendEventOperation} and we will
      * wait for the response. The default value is {@value EVENT_SYNC_FREQUENCY}.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     public static final String EVENT_SYNC_FREQUENCY_PROP = "hazelcast.event.sync.frequency";
 
+    /**
+     * Enables the batching of remote events. The events for a subscriber are collected and sent
+     * as a single packet once {@link #EVENT_BATCHING_MAX_SIZE} events are pending, or at the latest
+     * after {@link #EVENT_BATCHING_MAX_DELAY_MILLIS}. This reduces the number of packets and event
+     * tasks at the cost of a higher event latency.
+     */
+    public static final HazelcastProperty EVENT_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.event.batching.enabled", false);
+
+    /**
+     * The maximum number of events in a batch.
+     */
+    public static final HazelcastProperty EVENT_BATCHING_MAX_SIZE
+            = new HazelcastProperty("hazelcast.event.batching.max.size", 128);
+
+    /**
+     * The maximum time in milliseconds an event is delayed to form a batch.
+     */
+    public static final HazelcastProperty EVENT_BATCHING_MAX_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.event.batching.max.delay.millis", 5, MILLISECONDS);
+
+    /**
+     * Enables the coalescing of batched events: of subsequent update events for the same entry
+     * and listener in a batch, only the last one is delivered (see {@link CoalescableEvent}).
+     * The listener doesn't observe the intermediate values then, so only enable it when the
+     * listeners are only interested in the latest value. Requires {@link #EVENT_BATCHING_ENABLED}.
+     */
+    public static final HazelcastProperty EVENT_COALESCING_ENABLED
+            = new HazelcastProperty("hazelcast.event.coalescing.enabled", false);
+
     private static final EventRegistration[] EMPTY_REGISTRATIONS = new EventRegistration[0];
 
     /**
      * The default value for the {@link #EVENT_SYNC_FREQUENCY_PROP}.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     private static final int EVENT_SYNC_FREQUENCY = 100000;
     /**
      * The retry count for the synchronous remote events.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     private static final int SEND_RETRY_COUNT = 50;
     /**
@@ -183,6 +225,10 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     private final ConcurrentMap<UUID, Object> listenerCache = new ConcurrentHashMap<>();
 
+    // null if the event batching is disabled
+    private final EventBatcher eventBatcher;
+    private final long eventBatchingMaxDelayMillis;
+
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
@@ -200,6 +246,19 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                 eventThreadCount,
                 eventQueueCapacity);
         this.segments = new ConcurrentHashMap<>();
+
+        this.eventBatchingMaxDelayMillis = hazelcastProperties.getMillis(EVENT_BATCHING_MAX_DELAY_MILLIS);
+        this.eventBatcher = hazelcastProperties.getBoolean(EVENT_BATCHING_ENABLED)
+                ? new EventBatcher(hazelcastProperties.getInteger(EVENT_BATCHING_MAX_SIZE),
+                hazelcastProperties.getBoolean(EVENT_COALESCING_ENABLED), this::transmit)
+                : null;
+    }
+
+    public void start() {
+        if (eventBatcher != null) {
+            nodeEngine.getExecutionService().scheduleWithRepetition(eventBatcher::flushAll,
+                    eventBatchingMaxDelayMillis, eventBatchingMaxDelayMillis, MILLISECONDS);
+        }
     }
 
 
@@ -218,6 +277,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, EVENT_PREFIX);
+        if (eventBatcher != null) {
+            registry.registerStaticMetrics(eventBatcher, EVENT_PREFIX);
+        }
     }
 
     @Override
@@ -532,7 +594,7 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
             executeLocal(serviceName, event, registration, orderKey);
         } else {
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, event);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, event);
         }
     }
 
@@ -552,7 +614,7 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                 eventData = serializationService.toData(event);
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, event);
         }
     }
 
@@ -579,7 +641,7 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                 continue;
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, event);
         }
     }
 
@@ -624,14 +686,21 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * A synchronous event means that we send the event as an {@link SendEventOperation} and in case of failure
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
-     * exception (see {@link RemoteEventProcessor})
+     * exception (see {@link RemoteEventProcessor}). If event batching is enabled, an asynchronous event is handed
+     * to the {@link EventBatcher}; a synchronous event is sent after the pending events of the subscriber.
+     *
+     * @param event the event before serialization, used for the coalescing
      */
-    private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
+    private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey, Object event) {
         String serviceName = eventEnvelope.getServiceName();
         EventServiceSegment segment = getSegment(serviceName, true);
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
+        boolean batch = eventBatcher != null && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V5_4);
 
         if (sync) {
+            if (batch) {
+                eventBatcher.flush(subscriber);
+            }
             SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
             Future f = nodeEngine.getOperationService()
                     .createInvocationBuilder(serviceName, op, subscriber)
@@ -644,15 +713,22 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (batch) {
+            CoalescableEvent coalescableEvent = event instanceof CoalescableEvent ? (CoalescableEvent) event : null;
+            eventBatcher.offer(subscriber, eventEnvelope.getEventId(), serializationService.toBytes(eventEnvelope),
+                    orderKey, coalescableEvent);
         } else {
             Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
                     .setPacketType(Packet.Type.EVENT);
+            transmit(packet, subscriber);
+        }
+    }
 
-            ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
-            if (!cm.transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    private void transmit(Packet packet, Address subscriber) {
+        ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
+        if (!cm.transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
@@ -686,6 +762,11 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         return segment;
     }
 
+    // for testing
+    EventBatcher getEventBatcher() {
+        return eventBatcher;
+    }
+
     /** Returns {@code true} if the subscriber of the registration is this node */
     boolean isLocal(EventRegistration reg) {
         return nodeEngine.getThisAddress().equals(reg.getSubscriber());
@@ -721,12 +802,46 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * the rejection count is increased and a failure is logged. The event processing is not retried.
      *
      * @param packet the response packet to handle
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     @Override
     public void accept(Packet packet) {
+        if (packet.isFlagRaised(FLAG_EVENT_BATCH)) {
+            acceptBatch(packet);
+        } else {
+            executeRemote(new RemoteEventProcessor(this, packet), packet);
+        }
+    }
+
+    /**
+     * Handles a batch of remote events. The events of the batch which map to the same stripe
+     * of the executor are processed by a single {@link RemoteEventBatchProcessor}. Since all
+     * events with the same order key map to the same stripe, their order is kept.
+     *
+     * @param batch the batch packet
+     * @see PacketBatchCodec
+     */
+    @SuppressWarnings("unchecked")
+    private void acceptBatch(Packet batch) {
+        List<Packet>[] packetsByStripe = new List[eventThreadCount];
+        PacketBatchCodec.unpack(batch, packet -> {
+            int stripe = hashToIndex(packet.getPartitionId(), eventThreadCount);
+            if (packetsByStripe[stripe] == null) {
+                packetsByStripe[stripe] = new ArrayList<>();
+            }
+            packetsByStripe[stripe].add(packet);
+        });
+
+        for (List<Packet> packets : packetsByStripe) {
+            if (packets != null) {
+                executeRemote(new RemoteEventBatchProcessor(this, packets), batch);
+            }
+        }
+    }
+
+    private void executeRemote(RemoteEventProcessor processor, Packet packet) {
         try {
-            eventExecutor.execute(new RemoteEventProcessor(this, packet));
+            eventExecutor.execute(processor);
         } catch (RejectedExecutionException e) {
             rejectedCount.inc();
 
@@ -768,6 +883,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     }
 
     public void shutdown() {
+        if (eventBatcher != null) {
+            eventBatcher.flushAll();
+        }
         logger.finest("Stopping event executor...");
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
@@ -778,6 +896,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     public void onMemberLeft(MemberImpl member) {
         Address address = member.getAddress();
+        if (eventBatcher != null) {
+            eventBatcher.remove(address);
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.internal.nio.Packet;
+
+import java.util.List;
+
+/**
+ * Processes the events of a batch packet which belong to the same stripe of the event executor.
+ * The events are processed in the order they were published. The order key of the processor is
+ * the order key of the first event, all other events map to the same stripe.
+ *
+ * @see com.hazelcast.internal.nio.PacketBatchCodec
+ */
+class RemoteEventBatchProcessor extends RemoteEventProcessor {
+
+    private final List<Packet> packets;
+
+    RemoteEventBatchProcessor(EventServiceImpl eventService, List<Packet> packets) {
+        super(eventService, packets.get(0));
+        this.packets = packets;
+    }
+
+    @Override
+    public void run() {
+        for (Packet packet : packets) {
+            process(packet);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteEventBatchProcessor{eventCount=" + packets.size() + '}';
+    }
+}
@@ -28,7 +28,7 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.internal.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
  *
- * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int)
+ * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int, Object)
  */
 public class RemoteEventProcessor extends EventProcessor implements StripedRunnable {
 
@@ -43,6 +43,15 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
 
     @Override
     public void run() {
+        process(packet);
+    }
+
+    /**
+     * Deserializes and processes the event of the given packet.
+     *
+     * @param packet the Event packet
+     */
+    void process(Packet packet) {
         try {
             EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
             process(eventEnvelope);
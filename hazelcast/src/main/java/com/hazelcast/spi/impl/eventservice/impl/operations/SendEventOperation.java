@@ -34,7 +34,7 @@ import java.io.IOException;
  * It will process the event on a thread defined by the {@link #orderKey} and in case of an exception,
  * the exception is returned to the caller.
  *
- * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int)
+ * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int, Object)
  */
 public class SendEventOperation extends Operation implements AllowedDuringPassiveState, IdentifiedDataSerializable {
     private EventEnvelope eventEnvelope;
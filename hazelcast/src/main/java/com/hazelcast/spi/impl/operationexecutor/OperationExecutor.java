@@ -50,6 +50,15 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
     // Will be replaced by metrics
     int getPriorityQueueSize();
 
+    /**
+     * Returns the estimated time an operation that is executed now has to wait in
+     * the queue of its partition thread before it is processed. If the partition
+     * threads have different estimates, the largest one is returned.
+     *
+     * @return the estimated queue wait time in nanoseconds.
+     */
+    long getEstimatedQueueWaitNanos();
+
     /**
      * Returns the number of executed operations.
      */
@@ -159,6 +168,21 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
      */
     void runOrExecute(Operation op);
 
+    /**
+     * Tries to run the {@link PartitionSpecificRunnable} on the calling thread
+     * if the calling thread is the partition thread owning the partition of
+     * the task and it isn't already running another task. Otherwise the task
+     * is submitted for executing using {@link #execute(PartitionSpecificRunnable)}.
+     * <p>
+     * This is used by the TPC reactors, which double as partition threads, to
+     * process a request for a partition they own without a hop through the
+     * operation queue.
+     *
+     * @param task the task to run or execute.
+     * @throws java.lang.NullPointerException if task is null.
+     */
+    void runOrExecuteTask(PartitionSpecificRunnable task);
+
     /**
      * Checks if the {@link Operation} is allowed to run on the current thread.
      *
@@ -185,6 +209,9 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
     /**
      * Returns the ID of the partitionThread assigned to handle partition
      * with given partitionId
+     * <p>
+     * The assignment can change at runtime when the partitions are rebalanced
+     * over the partition threads, so the result should not be cached.
      *
      * @param partitionId given partitionId
      * @return ID of the partitionThread assigned to handle partition
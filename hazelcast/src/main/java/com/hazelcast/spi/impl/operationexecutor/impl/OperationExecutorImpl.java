@@ -22,9 +22,11 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
 import com.hazelcast.internal.tpc.TpcServerBootstrap;
 import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.MPSCArrayQueue;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
@@ -37,20 +39,26 @@ import com.hazelcast.spi.impl.operationservice.LiveOperations;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.spi.impl.operationservice.impl.OperationLatencyHistograms;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.BitSet;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_ESTIMATED_QUEUE_WAIT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_HANDOFF_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_UTILIZATION_SKEW;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_RUNNING_COUNT;
@@ -58,6 +66,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_RUNNING_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadAffinity.newSystemThreadAffinity;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
@@ -71,7 +82,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 /**
  * An {@link OperationExecutor} that schedules:
  * <ol>
- * <li>partition-specific operations to a specific-partition operation thread (using a mod on the partition ID)</li>
+ * <li>partition-specific operations to a specific-partition operation thread (using a mod on the partition ID,
+ * unless the partitions are rebalanced over the threads; see {@link PartitionThreadBalancer})</li>
  * <li>non-specific operations to generic operation threads</li>
  * </ol>
  * The {@link #execute(Object, int, boolean)} accepts an Object instead of a runnable to prevent needing to
@@ -93,6 +105,17 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    /**
+     * If the partition threads should use a {@link MPSCArrayQueue} instead of a {@link MPSCQueue}.
+     * The {@link #IDLE_STRATEGY} is ignored; the array queue spins {@link #ARRAY_QUEUE_SPINS}
+     * times before the partition thread parks.
+     */
+    static final HazelcastProperty ARRAY_QUEUE_ENABLED
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.enabled", false);
+    static final HazelcastProperty ARRAY_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.capacity", 1 << 14);
+    static final HazelcastProperty ARRAY_QUEUE_SPINS
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.spins", 1000);
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
     private final ThreadAffinity threadAffinity = newSystemThreadAffinity("hazelcast.operation.thread.affinity");
     private final ILogger logger;
@@ -100,6 +123,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null when the partition to thread mapping is fixed
+    private final PartitionThreadBalancer balancer;
 
     private final OperationQueue genericQueue
             = new OperationQueueImpl(new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>());
@@ -112,6 +137,9 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
     private final TpcServerBootstrap tpcServerBootstrap;
+    // if the packets should be timestamped for the queue wait histograms
+    private final boolean timestampPackets;
+    private final Consumer<Packet> batchedPacketConsumer = this::executePacket;
 
     @SuppressWarnings("java:S107")
     public OperationExecutorImpl(HazelcastProperties properties,
@@ -123,6 +151,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
                                  ClassLoader configClassLoader,
                                  TpcServerBootstrap tpcServerBootstrap) {
         this.tpcServerBootstrap = tpcServerBootstrap;
+        this.timestampPackets = properties.getBoolean(OperationLatencyHistograms.ENABLED);
         this.thisAddress = thisAddress;
         this.logger = loggerService.getLogger(OperationExecutorImpl.class);
 
@@ -134,6 +163,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         } else {
             this.partitionThreads = initTpcPartitionThreads(tpcServerBootstrap, hzName, nodeExtension, configClassLoader);
         }
+        this.balancer = initBalancer(properties);
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
         this.genericThreads = initGenericThreads(hzName, nodeExtension, configClassLoader);
@@ -171,11 +201,18 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        boolean arrayQueueEnabled = properties.getBoolean(ARRAY_QUEUE_ENABLED);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
             // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
+            BlockingQueue<Object> normalQueue;
+            if (arrayQueueEnabled) {
+                normalQueue = new MPSCArrayQueue<>(properties.getInteger(ARRAY_QUEUE_CAPACITY),
+                        properties.getInteger(ARRAY_QUEUE_SPINS));
+            } else {
+                normalQueue = new MPSCQueue<>(idleStrategy);
+            }
 
             OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
 
@@ -183,7 +220,11 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
                     operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
             partitionThread.setThreadAffinity(threadAffinity);
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
+            if (arrayQueueEnabled) {
+                ((MPSCArrayQueue<Object>) normalQueue).setConsumerThread(partitionThread);
+            } else {
+                ((MPSCQueue<Object>) normalQueue).setConsumerThread(partitionThread);
+            }
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -228,6 +269,24 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return threads;
     }
 
+    private PartitionThreadBalancer initBalancer(HazelcastProperties properties) {
+        if (!properties.getBoolean(PartitionThreadBalancer.ENABLED)) {
+            return null;
+        }
+
+        if (tpcServerBootstrap.isEnabled()) {
+            logger.warning("Rebalancing of partitions over the partition threads is not supported when TPC is enabled");
+            return null;
+        }
+
+        PartitionThreadBalancer balancer = new PartitionThreadBalancer(properties, partitionThreads,
+                partitionOperationRunners, logger);
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            partitionThread.balancer = balancer;
+        }
+        return balancer;
+    }
+
     static int getPartitionThreadId(int partitionId, int partitionThreadCount) {
         return partitionId % partitionThreadCount;
     }
@@ -350,6 +409,26 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return size;
     }
 
+    @Override
+    @Probe(name = OPERATION_METRIC_EXECUTOR_ESTIMATED_QUEUE_WAIT, unit = NS)
+    public long getEstimatedQueueWaitNanos() {
+        long max = 0;
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            max = Math.max(max, partitionThread.estimatedQueueWaitNanos());
+        }
+        return max;
+    }
+
+    @Probe(name = OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_UTILIZATION_SKEW, unit = PERCENT)
+    private long getPartitionThreadUtilizationSkew() {
+        return balancer == null ? 0 : balancer.utilizationSkew();
+    }
+
+    @Probe(name = OPERATION_METRIC_EXECUTOR_PARTITION_HANDOFF_COUNT)
+    private long getPartitionHandoffCount() {
+        return balancer == null ? 0 : balancer.handoffCount();
+    }
+
     @Probe(name = OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE)
     private int getGenericQueueSize() {
         return genericQueue.normalSize();
@@ -389,7 +468,12 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public int getPartitionThreadId(int partitionId) {
-        return getPartitionThreadId(partitionId, partitionThreads.length);
+        return toPartitionThreadIndex(partitionId);
+    }
+
+    // for testing purposes
+    PartitionThreadBalancer getBalancer() {
+        return balancer;
     }
 
     @Override
@@ -404,12 +488,41 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         checkNotNull(taskFactory, "taskFactory can't be null");
         checkNotNull(partitions, "partitions can't be null");
 
+        if (balancer != null) {
+            executeOnRoutedPartitions(taskFactory, partitions);
+            return;
+        }
+
         for (PartitionOperationThread partitionThread : partitionThreads) {
             TaskBatch batch = new TaskBatch(taskFactory, partitions, partitionThread.threadId, partitionThreads.length);
             partitionThread.queue.add(batch, false);
         }
     }
 
+    /**
+     * Splits the partitions based on the current routes, so that every partition ends up
+     * in exactly one batch, even if it is handed off while the batches are processed.
+     */
+    private void executeOnRoutedPartitions(PartitionTaskFactory taskFactory, BitSet partitions) {
+        BitSet[] partitionsPerThread = new BitSet[partitionThreads.length];
+        int partitionId = partitions.nextSetBit(0);
+        for (; partitionId >= 0; partitionId = partitions.nextSetBit(partitionId + 1)) {
+            int threadId = balancer.route(partitionId);
+            if (partitionsPerThread[threadId] == null) {
+                partitionsPerThread[threadId] = new BitSet(partitionOperationRunners.length);
+            }
+            partitionsPerThread[threadId].set(partitionId);
+        }
+
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            BitSet threadPartitions = partitionsPerThread[partitionThread.threadId];
+            if (threadPartitions != null) {
+                TaskBatch batch = new TaskBatch(taskFactory, threadPartitions, partitionThread.threadId, balancer);
+                partitionThread.queue.add(batch, false);
+            }
+        }
+    }
+
     @Override
     public void execute(PartitionSpecificRunnable task) {
         checkNotNull(task, "task can't be null");
@@ -419,6 +532,18 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public void accept(Packet packet) {
+        if (packet.isFlagRaised(FLAG_OP_BATCH)) {
+            // fan out the operations of the batch to their partition threads
+            PacketBatchCodec.unpack(packet, batchedPacketConsumer);
+        } else {
+            executePacket(packet);
+        }
+    }
+
+    private void executePacket(Packet packet) {
+        if (timestampPackets) {
+            packet.setReceivedNanos(System.nanoTime());
+        }
         execute(packet, packet.getPartitionId(), packet.isUrgent());
     }
 
@@ -426,8 +551,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         if (partitionId < 0) {
             genericQueue.add(task, priority);
         } else {
-            OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
-            partitionThread.queue.add(task, priority);
+            int threadId = balancer == null ? toPartitionThreadIndex(partitionId) : balancer.route(partitionId);
+            partitionThreads[threadId].queue.add(task, priority);
         }
     }
 
@@ -514,6 +639,26 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
     }
 
+    @Override
+    public void runOrExecuteTask(PartitionSpecificRunnable task) {
+        checkNotNull(task, "task can't be null");
+
+        Thread currentThread = Thread.currentThread();
+        if (currentThread instanceof PartitionOperationThread) {
+            PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+            // a non null runner means the thread is already processing a task; running
+            // the task inline would nest it in the current task, so it is queued instead.
+            if (partitionThread.currentRunner == null
+                    && task.getPartitionId() >= 0
+                    && toPartitionThreadIndex(task.getPartitionId()) == partitionThread.threadId) {
+                partitionThread.process(task);
+                return;
+            }
+        }
+
+        execute(task);
+    }
+
     @Override
     public boolean isInvocationAllowed(Operation op, boolean isAsync) {
         checkNotNull(op, "op can't be null");
@@ -553,6 +698,9 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     // public for testing purposes
     public int toPartitionThreadIndex(int partitionId) {
+        if (balancer != null) {
+            return balancer.owner(partitionId);
+        }
         return partitionId % partitionThreads.length;
     }
 
@@ -58,6 +58,9 @@ import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 @ExcludedMetricTargets(MANAGEMENT_CENTER)
 public abstract class OperationThread extends HazelcastManagedThread implements StaticMetricsProvider {
 
+    private static final int SERVICE_TIME_SAMPLE_MASK = 15;
+    private static final int SERVICE_TIME_EWMA_SHIFT = 3;
+
     final int threadId;
     final OperationQueue queue;
     // This field wil only be accessed by the thread itself when doing 'self'
@@ -85,6 +88,10 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     private final NodeExtension nodeExtension;
     private final ILogger logger;
     private volatile boolean shutdown;
+    // Only a sample of the tasks is timed, so the cost of the System.nanoTime calls is amortized.
+    // Only written by this OperationThread.
+    private int takenCount;
+    private volatile long serviceTimeNanos;
 
     public OperationThread(String name,
                            int threadId,
@@ -131,10 +138,32 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                 continue;
             }
 
-            process(task);
+            if ((takenCount++ & SERVICE_TIME_SAMPLE_MASK) != 0) {
+                process(task);
+            } else {
+                long startNanos = System.nanoTime();
+                process(task);
+                long durationNanos = System.nanoTime() - startNanos;
+                long avgNanos = serviceTimeNanos;
+                serviceTimeNanos = avgNanos + ((durationNanos - avgNanos) >> SERVICE_TIME_EWMA_SHIFT);
+            }
         }
     }
 
+    /**
+     * Returns an estimate of the time a task that is added to the queue of this
+     * thread now, has to wait before it is processed. The estimate is the number of
+     * pending normal tasks multiplied by the moving average of the time it takes to
+     * process a task.
+     * <p>
+     * This method is thread-safe.
+     *
+     * @return the estimated queue wait time in nanoseconds.
+     */
+    public long estimatedQueueWaitNanos() {
+        return queue.normalSize() * serviceTimeNanos;
+    }
+
     void process(Object task) {
         try {
             boolean putBackInQueue = false;
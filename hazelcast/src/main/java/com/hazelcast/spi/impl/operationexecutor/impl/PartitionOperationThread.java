@@ -22,8 +22,14 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayDeque;
+
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_UTILIZATION;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.spi.impl.operationexecutor.impl.PartitionThreadBalancer.partitionIdOf;
 
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
@@ -32,6 +38,12 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 public class PartitionOperationThread extends OperationThread {
 
     OperationRunner[] partitionOperationRunners;
+    // only set when the partitions are rebalanced over the partition threads.
+    PartitionThreadBalancer balancer;
+    // the percentage of time spent on tasks in the last rebalance round; written by the balancer.
+    volatile int utilization;
+    // the tasks of partitions that are being handed off to this thread; only accessed by this thread.
+    private ArrayDeque<Object> deferredTasks;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
@@ -54,6 +66,109 @@ public class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    /**
+     * When the partitions are rebalanced, the tasks of partitions that are not owned by
+     * this thread are not run. If the partition is being handed off to this thread, the
+     * task is deferred until the hand off completes; otherwise the task is forwarded to
+     * the thread the partition is routed to. See {@link PartitionThreadBalancer}.
+     */
+    @Override
+    void process(Object task) {
+        PartitionThreadBalancer balancer = this.balancer;
+        if (balancer != null && task instanceof TaskBatch) {
+            processBatch((TaskBatch) task);
+            return;
+        }
+
+        int partitionId;
+        if (balancer == null || (partitionId = partitionIdOf(task)) < 0) {
+            super.process(task);
+            return;
+        }
+
+        if (!balancer.isOwner(partitionId, threadId)) {
+            if (balancer.route(partitionId) == threadId) {
+                defer(task);
+            } else {
+                balancer.forward(task, partitionId);
+            }
+            return;
+        }
+
+        if (deferredTasks != null && !deferredTasks.isEmpty()) {
+            // the hand off completed before the Resume was processed; the deferred
+            // tasks are older, so they need to run first.
+            processDeferred(partitionId);
+        }
+        processOwned(task, partitionId);
+    }
+
+    private void processOwned(Object task, int partitionId) {
+        long startNanos = System.nanoTime();
+        super.process(task);
+        long endNanos = System.nanoTime();
+        balancer.recordBusy(partitionId, endNanos - startNanos);
+        balancer.maybeRebalance(endNanos);
+    }
+
+    /**
+     * Runs the next task of the batch and charges it to the partition of that task, just
+     * like a single task of the partition. The batch only returns tasks of partitions
+     * owned by this thread.
+     */
+    private void processBatch(TaskBatch batch) {
+        long startNanos = System.nanoTime();
+        super.process(batch);
+        long endNanos = System.nanoTime();
+        int partitionId = batch.currentPartitionId();
+        if (partitionId >= 0) {
+            balancer.recordBusy(partitionId, endNanos - startNanos);
+        }
+        balancer.maybeRebalance(endNanos);
+    }
+
+    private void defer(Object task) {
+        if (deferredTasks == null) {
+            deferredTasks = new ArrayDeque<>();
+        }
+        deferredTasks.add(task);
+    }
+
+    /**
+     * Runs the deferred tasks of the given partition in the order they were deferred.
+     */
+    void processDeferred(int partitionId) {
+        ArrayDeque<Object> deferred = deferredTasks;
+        if (deferred == null) {
+            return;
+        }
+
+        for (int k = deferred.size(); k > 0; k--) {
+            Object task = deferred.poll();
+            if (partitionIdOf(task) == partitionId) {
+                processOwned(task, partitionId);
+            } else {
+                deferred.add(task);
+            }
+        }
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_UTILIZATION, unit = PERCENT)
+    int utilization() {
+        return utilization;
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT)
+    int ownedPartitionCount() {
+        int count = 0;
+        for (OperationRunner runner : partitionOperationRunners) {
+            if (runner.currentThread() == this) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT)
     int priorityPendingCount() {
         return queue.prioritySize();
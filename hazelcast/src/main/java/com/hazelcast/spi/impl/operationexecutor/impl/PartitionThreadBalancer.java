@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Rebalances the partitions over the {@link PartitionOperationThread}s based on the
+ * measured execution time per partition.
+ * <p>
+ * By default a partition is mapped to a partition thread using a mod on the partition
+ * ID. When a few hot partitions end up on the same thread, that thread saturates while
+ * the other partition threads are idle. When rebalancing is enabled, the partition
+ * threads record the time spent on every partition, and periodically a partition
+ * is moved from the busiest thread to the least busy thread.
+ * <p>
+ * Every partition has 2 mappings:
+ * <ol>
+ * <li>the route: the thread the tasks for the partition are added to.</li>
+ * <li>the owner: the only thread that is allowed to run tasks for the partition.</li>
+ * </ol>
+ * Normally both are the same. A partition is handed off from thread A to thread B as follows:
+ * <ol>
+ * <li>the route is changed to B, so new tasks are added to the queue of B. B defers
+ * the tasks of the partition until it owns the partition.</li>
+ * <li>a {@link Handoff} task is added to the queue of A. Since the queue is FIFO, all
+ * tasks of the partition that were added to A before the route was changed, are run
+ * by A before the Handoff.</li>
+ * <li>the Handoff changes the owner to B and wakes up B, which runs the deferred tasks
+ * in order.</li>
+ * </ol>
+ * So a partition is never run by 2 threads at the same time. A task that raced with the
+ * route change and ended up in the queue of A after the Handoff, is forwarded to B; only
+ * such a task can be reordered relative to the tasks that were added after the route change.
+ * <p>
+ * The rebalancing is done by the partition thread that completes a task once the
+ * interval has passed, so no additional thread is needed. Rebalancing is not supported
+ * when TPC is enabled.
+ */
+final class PartitionThreadBalancer {
+
+    /**
+     * If the partition to partition thread mapping should be rebalanced at runtime.
+     */
+    static final HazelcastProperty ENABLED
+            = new HazelcastProperty("hazelcast.operation.partitionthread.rebalance.enabled", false);
+    /**
+     * The interval between 2 rebalance rounds.
+     */
+    static final HazelcastProperty INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.operation.partitionthread.rebalance.interval.millis", 1000, MILLISECONDS);
+    /**
+     * The percentage the load of the busiest partition thread needs to exceed the mean
+     * load of the partition threads before partitions are moved.
+     */
+    static final HazelcastProperty IMBALANCE_PERCENT
+            = new HazelcastProperty("hazelcast.operation.partitionthread.rebalance.imbalance.percent", 20);
+
+    static final int MAX_HANDOFFS_PER_ROUND = 4;
+    // a thread that is busy less than this percentage of the time isn't worth offloading.
+    static final int MIN_UTILIZATION_PERCENT = 5;
+    private static final int HUNDRED = 100;
+
+    private final PartitionOperationThread[] threads;
+    private final OperationRunner[] partitionOperationRunners;
+    private final ILogger logger;
+    private final AtomicIntegerArray routes;
+    private final AtomicIntegerArray owners;
+    // the total time spent per partition, only written by the owner of the partition.
+    private final AtomicLongArray busyNanos;
+    private final long intervalNanos;
+    private final int imbalancePercent;
+    private final Counter handoffCount = newMwCounter();
+    private final AtomicBoolean rebalancing = new AtomicBoolean();
+
+    // the fields below are guarded by the rebalancing flag.
+    private final long[] lastBusyNanos;
+    private final long[] partitionLoads;
+    private final long[] threadLoads;
+    private long lastRoundNanos = System.nanoTime();
+
+    private volatile long nextRoundNanos;
+    private volatile long utilizationSkew;
+
+    PartitionThreadBalancer(HazelcastProperties properties,
+                            PartitionOperationThread[] threads,
+                            OperationRunner[] partitionOperationRunners,
+                            ILogger logger) {
+        this.threads = threads;
+        this.partitionOperationRunners = partitionOperationRunners;
+        this.logger = logger;
+        this.intervalNanos = properties.getNanos(INTERVAL_MILLIS);
+        this.imbalancePercent = properties.getInteger(IMBALANCE_PERCENT);
+        int partitionCount = partitionOperationRunners.length;
+        this.routes = new AtomicIntegerArray(partitionCount);
+        this.owners = new AtomicIntegerArray(partitionCount);
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            int threadId = OperationExecutorImpl.getPartitionThreadId(partitionId, threads.length);
+            routes.set(partitionId, threadId);
+            owners.set(partitionId, threadId);
+        }
+        this.busyNanos = new AtomicLongArray(partitionCount);
+        this.lastBusyNanos = new long[partitionCount];
+        this.partitionLoads = new long[partitionCount];
+        this.threadLoads = new long[threads.length];
+        this.nextRoundNanos = lastRoundNanos + intervalNanos;
+    }
+
+    /**
+     * Returns the ID of the partition thread the tasks for the given partition should
+     * be added to.
+     */
+    int route(int partitionId) {
+        return routes.get(partitionId);
+    }
+
+    /**
+     * Returns the ID of the partition thread that is allowed to run the tasks of the
+     * given partition.
+     */
+    int owner(int partitionId) {
+        return owners.get(partitionId);
+    }
+
+    boolean isOwner(int partitionId, int threadId) {
+        return owners.get(partitionId) == threadId;
+    }
+
+    /**
+     * Returns the load of the busiest partition thread as a percentage of the mean load
+     * in the last rebalance round; 100 means perfectly balanced. Returns 0 when there
+     * was no load.
+     */
+    long utilizationSkew() {
+        return utilizationSkew;
+    }
+
+    long handoffCount() {
+        return handoffCount.get();
+    }
+
+    /**
+     * Records the time the owner of a partition spent on a task of that partition.
+     * <p>
+     * Should only be called by the owner of the partition.
+     */
+    void recordBusy(int partitionId, long durationNanos) {
+        busyNanos.lazySet(partitionId, busyNanos.get(partitionId) + durationNanos);
+    }
+
+    /**
+     * Adds a task to the queue of the partition thread the partition is routed to.
+     */
+    void forward(Object task, int partitionId) {
+        threads[routes.get(partitionId)].queue.add(task, isUrgent(task));
+    }
+
+    /**
+     * Runs a rebalance round if the interval has passed and no other thread is
+     * rebalancing.
+     */
+    void maybeRebalance(long nowNanos) {
+        if (nowNanos - nextRoundNanos < 0 || !rebalancing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (nowNanos - nextRoundNanos >= 0) {
+                rebalance(nowNanos);
+                nextRoundNanos = nowNanos + intervalNanos;
+            }
+        } finally {
+            rebalancing.set(false);
+        }
+    }
+
+    /**
+     * Moves up to {@link #MAX_HANDOFFS_PER_ROUND} partitions from the busiest thread to
+     * the least busy thread, based on the time spent per partition since the previous round.
+     * <p>
+     * Should only be called while holding the rebalancing flag.
+     */
+    @SuppressWarnings({"checkstyle:CyclomaticComplexity", "checkstyle:NPathComplexity"})
+    void rebalance(long nowNanos) {
+        long elapsedNanos = nowNanos - lastRoundNanos;
+        lastRoundNanos = nowNanos;
+        if (elapsedNanos <= 0) {
+            return;
+        }
+
+        long totalLoad = 0;
+        for (int threadId = 0; threadId < threadLoads.length; threadId++) {
+            threadLoads[threadId] = 0;
+        }
+        for (int partitionId = 0; partitionId < partitionLoads.length; partitionId++) {
+            long busy = busyNanos.get(partitionId);
+            long load = busy - lastBusyNanos[partitionId];
+            lastBusyNanos[partitionId] = busy;
+            partitionLoads[partitionId] = load;
+            threadLoads[routes.get(partitionId)] += load;
+            totalLoad += load;
+        }
+
+        long maxLoad = 0;
+        for (int threadId = 0; threadId < threads.length; threadId++) {
+            long load = threadLoads[threadId];
+            maxLoad = Math.max(maxLoad, load);
+            threads[threadId].utilization = (int) Math.min(HUNDRED, load * HUNDRED / elapsedNanos);
+        }
+        long meanLoad = totalLoad / threads.length;
+        utilizationSkew = meanLoad == 0 ? 0 : maxLoad * HUNDRED / meanLoad;
+
+        for (int k = 0; k < MAX_HANDOFFS_PER_ROUND; k++) {
+            int busiest = 0;
+            int idlest = 0;
+            for (int threadId = 1; threadId < threadLoads.length; threadId++) {
+                if (threadLoads[threadId] > threadLoads[busiest]) {
+                    busiest = threadId;
+                }
+                if (threadLoads[threadId] < threadLoads[idlest]) {
+                    idlest = threadId;
+                }
+            }
+
+            long busiestLoad = threadLoads[busiest];
+            if (busiestLoad * HUNDRED <= meanLoad * (HUNDRED + imbalancePercent)
+                    || busiestLoad * HUNDRED < elapsedNanos * MIN_UTILIZATION_PERCENT) {
+                return;
+            }
+
+            int partitionId = selectPartition(busiest, busiestLoad - threadLoads[idlest]);
+            if (partitionId == -1) {
+                return;
+            }
+
+            long load = partitionLoads[partitionId];
+            threadLoads[busiest] -= load;
+            threadLoads[idlest] += load;
+            // prevents the partition from being selected again in this round
+            partitionLoads[partitionId] = 0;
+            handOff(partitionId, idlest);
+        }
+    }
+
+    /**
+     * Selects the partition of the given thread with a load closest to half of the gap
+     * between the busiest and the least busy thread. A partition with a load equal to
+     * or larger than the gap is never selected since moving it would only move the
+     * hotspot. Partitions that are being handed off are skipped.
+     */
+    private int selectPartition(int threadId, long gap) {
+        int selected = -1;
+        long selectedDistance = Long.MAX_VALUE;
+        for (int partitionId = 0; partitionId < partitionLoads.length; partitionId++) {
+            long load = partitionLoads[partitionId];
+            if (load <= 0 || load >= gap
+                    || routes.get(partitionId) != threadId
+                    || owners.get(partitionId) != threadId) {
+                continue;
+            }
+
+            long distance = Math.abs(load - gap / 2);
+            if (distance < selectedDistance) {
+                selected = partitionId;
+                selectedDistance = distance;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Hands off the partition to the given partition thread. Is ignored when the
+     * partition is being handed off already or when the partition is already owned by
+     * that thread.
+     *
+     * @return true if the hand off was started.
+     */
+    boolean handOff(int partitionId, int threadId) {
+        int owner = owners.get(partitionId);
+        if (owner == threadId || !routes.compareAndSet(partitionId, owner, threadId)) {
+            return false;
+        }
+
+        if (logger.isFineEnabled()) {
+            logger.fine("Handing off partition " + partitionId + " from " + threads[owner].getName()
+                    + " to " + threads[threadId].getName());
+        }
+        handoffCount.inc();
+        threads[owner].queue.add(new Handoff(partitionId, threadId), false);
+        return true;
+    }
+
+    /**
+     * Returns the partition ID of a task on a partition thread, or -1 if the task isn't
+     * partition specific.
+     */
+    static int partitionIdOf(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        } else {
+            return -1;
+        }
+    }
+
+    private static boolean isUrgent(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).isUrgent();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).isUrgent();
+        } else {
+            return task instanceof UrgentSystemOperation;
+        }
+    }
+
+    /**
+     * Runs on the old owner of the partition, after all tasks of the partition that were
+     * added to the old owner before the route was changed.
+     */
+    private final class Handoff implements Runnable {
+        private final int partitionId;
+        private final int threadId;
+
+        private Handoff(int partitionId, int threadId) {
+            this.partitionId = partitionId;
+            this.threadId = threadId;
+        }
+
+        @Override
+        public void run() {
+            PartitionOperationThread thread = threads[threadId];
+            partitionOperationRunners[partitionId].setCurrentThread(thread);
+            owners.set(partitionId, threadId);
+            thread.queue.add(new Resume(partitionId), true);
+        }
+
+        @Override
+        public String toString() {
+            return "Handoff{partitionId=" + partitionId + ", threadId=" + threadId + '}';
+        }
+    }
+
+    /**
+     * Runs the tasks that the new owner deferred while the partition was handed off.
+     */
+    private final class Resume implements Runnable {
+        private final int partitionId;
+
+        private Resume(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public void run() {
+            ((PartitionOperationThread) Thread.currentThread()).processDeferred(partitionId);
+        }
+
+        @Override
+        public String toString() {
+            return "Resume{partitionId=" + partitionId + '}';
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 
 import java.util.BitSet;
@@ -24,6 +26,10 @@ import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImp
 
 /**
  * A 'batch' of tasks to be executed on a partition thread.
+ * <p>
+ * When the partitions are rebalanced over the partition threads, the batch only contains
+ * the partitions that were routed to the thread when the batch was created. A partition
+ * that has been handed off to another thread since, is forwarded to that thread.
  */
 public class TaskBatch {
 
@@ -31,13 +37,24 @@ public class TaskBatch {
     private final BitSet partitions;
     private final int threadId;
     private final int partitionThreadCount;
+    private final PartitionThreadBalancer balancer;
     private int nextPartitionId;
+    private int currentPartitionId = -1;
 
     public TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, int threadId, int partitionThreadCount) {
         this.taskFactory = taskFactory;
         this.partitions = partitions;
         this.threadId = threadId;
         this.partitionThreadCount = partitionThreadCount;
+        this.balancer = null;
+    }
+
+    TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, int threadId, PartitionThreadBalancer balancer) {
+        this.taskFactory = taskFactory;
+        this.partitions = partitions;
+        this.threadId = threadId;
+        this.partitionThreadCount = -1;
+        this.balancer = balancer;
     }
 
     public PartitionTaskFactory taskFactory() {
@@ -51,9 +68,18 @@ public class TaskBatch {
      */
     public Object next() {
         int partitionId = nextPartitionId();
+        currentPartitionId = partitionId;
         return partitionId == -1 ? null : taskFactory.create(partitionId);
     }
 
+    /**
+     * Returns the partition ID of the task last returned by {@link #next()}, or -1
+     * if the batch is complete.
+     */
+    int currentPartitionId() {
+        return currentPartitionId;
+    }
+
     private int nextPartitionId() {
         for (; ; ) {
             int partitionId = partitions.nextSetBit(nextPartitionId);
@@ -63,10 +89,49 @@ public class TaskBatch {
 
             nextPartitionId = partitionId + 1;
 
-            if (getPartitionThreadId(partitionId, partitionThreadCount) == threadId) {
+            if (balancer != null) {
+                if (balancer.isOwner(partitionId, threadId)) {
+                    return partitionId;
+                }
+                forward(partitionId);
+            } else if (getPartitionThreadId(partitionId, partitionThreadCount) == threadId) {
                 // only selected partitions that belong to the right partition thread.
                 return partitionId;
             }
         }
     }
+
+    private void forward(int partitionId) {
+        Object task = taskFactory.create(partitionId);
+        if (!(task instanceof Operation)) {
+            // the partition ID is needed by the receiving thread to check if it owns the partition.
+            task = new ForwardedTask((Runnable) task, partitionId);
+        }
+        balancer.forward(task, partitionId);
+    }
+
+    private static final class ForwardedTask implements PartitionSpecificRunnable {
+        private final Runnable task;
+        private final int partitionId;
+
+        private ForwardedTask(Runnable task, int partitionId) {
+            this.task = task;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.Timer;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongSupplier;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_TARGET;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_LIMIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_REJECTIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_THROTTLED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_BACKPRESSURE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Limits the number of concurrent invocations per target member using an AIMD (additive increase,
+ * multiplicative decrease) algorithm, instead of relying only on the fixed number of concurrent
+ * invocations of the {@link com.hazelcast.spi.impl.sequence.CallIdSequenceWithBackpressure}.
+ * <p>
+ * Every target gets its own limit. When an invocation completes, the time it had to wait in a queue is
+ * compared to the target queue wait:
+ * <ul>
+ * <li>if it is above the target, the limit is multiplied by {@link #DECREASE_FACTOR}. To prevent a burst of
+ * slow responses from collapsing the limit, it is decreased at most once per {@link #DECREASE_INTERVAL_NANOS}.</li>
+ * <li>otherwise, if the limit is actually being used, it is increased by {@code 1/limit}; so roughly by 1 for
+ * every limit worth of completed invocations.</li>
+ * </ul>
+ * For the local member the queue wait is the
+ * {@link com.hazelcast.spi.impl.operationexecutor.OperationExecutor#getEstimatedQueueWaitNanos() estimated queue wait}
+ * of the partition threads. The queue wait of a remote member isn't visible on this member, so for a remote member
+ * the queue wait is approximated by how much the latency of the invocation exceeds the lowest latency seen recently.
+ * The lowest latency is forgotten every {@link #MIN_LATENCY_WINDOW_NANOS} so that a change in the network doesn't
+ * lead to a permanently low limit.
+ * <p>
+ * When the limit of a target has been reached, the invocation backs off until there is space again or the
+ * {@link com.hazelcast.spi.properties.ClusterProperty#BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS} has expired, in which
+ * case a {@link HazelcastOverloadException} is thrown. Invocations made by an {@link OperationThread} are never
+ * delayed; a partition thread waiting for its own queue to drain would deadlock.
+ * <p>
+ * The limits are updated without any locking, so concurrent completions can overwrite each other's update. This
+ * is fine since the limit is a heuristic and converges anyway; the in-flight count is updated atomically.
+ */
+@SuppressWarnings("checkstyle:MagicNumber")
+class AdaptiveConcurrencyLimiter implements DynamicMetricsProvider {
+
+    /**
+     * If the number of concurrent invocations per target should be limited adaptively.
+     */
+    static final HazelcastProperty ENABLED
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.enabled", false);
+
+    /**
+     * The queue wait above which the limit of a target is decreased.
+     */
+    static final HazelcastProperty TARGET_QUEUE_WAIT_MICROS
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.target.queue.wait.micros", 2000, MICROSECONDS);
+
+    /**
+     * The limit a target starts with.
+     */
+    static final HazelcastProperty INITIAL_LIMIT
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.initial.limit", 1000);
+
+    /**
+     * The lowest limit of a target.
+     */
+    static final HazelcastProperty MIN_LIMIT
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.min.limit", 10);
+
+    /**
+     * The highest limit of a target.
+     */
+    static final HazelcastProperty MAX_LIMIT
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.max.limit", 100_000);
+
+    static final double DECREASE_FACTOR = 0.9;
+    static final long DECREASE_INTERVAL_NANOS = MILLISECONDS.toNanos(10);
+    static final long MIN_LATENCY_WINDOW_NANOS = SECONDS.toNanos(10);
+    static final long LOCAL_QUEUE_WAIT_CACHE_NANOS = MILLISECONDS.toNanos(1);
+
+    private static final IdleStrategy IDLER = new BackoffIdleStrategy(
+            0, 0, MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(500));
+
+    private final ConcurrentMap<Address, TargetLimit> limits = new ConcurrentHashMap<>();
+    private final Address thisAddress;
+    private final LongSupplier localQueueWaitNanos;
+    private final long targetQueueWaitNanos;
+    private final double initialLimit;
+    private final double minLimit;
+    private final double maxLimit;
+    private final long backoffTimeoutNanos;
+    private volatile long localQueueWaitCache;
+    private volatile long localQueueWaitCacheExpiration = Long.MIN_VALUE / 2;
+
+    AdaptiveConcurrencyLimiter(Address thisAddress, LongSupplier localQueueWaitNanos, HazelcastProperties properties) {
+        this.thisAddress = thisAddress;
+        this.localQueueWaitNanos = localQueueWaitNanos;
+        this.targetQueueWaitNanos = properties.getNanos(TARGET_QUEUE_WAIT_MICROS);
+        this.minLimit = checkPositive(MIN_LIMIT.getName(), properties.getInteger(MIN_LIMIT));
+        this.maxLimit = max(minLimit, properties.getInteger(MAX_LIMIT));
+        this.initialLimit = min(maxLimit, max(minLimit, properties.getInteger(INITIAL_LIMIT)));
+        this.backoffTimeoutNanos = properties.getNanos(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Acquires a permit to invoke an operation on the given target. If there is no space, the call backs off
+     * until there is space.
+     *
+     * @param target the address of the target member
+     * @return the TargetLimit the permit was acquired from; needs to be passed to {@link #release(TargetLimit, long)}
+     * when the invocation completes.
+     * @throws HazelcastOverloadException if no permit could be acquired within the backoff timeout.
+     */
+    TargetLimit acquire(Address target) {
+        TargetLimit limit = limits.computeIfAbsent(target, k -> new TargetLimit(initialLimit));
+        if (limit.tryAcquire()) {
+            return limit;
+        } else if (Thread.currentThread() instanceof OperationThread) {
+            limit.forceAcquire();
+            return limit;
+        }
+
+        limit.throttled.inc();
+        long startNanos = Timer.nanos();
+        for (long idleCount = 0; ; idleCount++) {
+            long elapsedNanos = Timer.nanosElapsed(startNanos);
+            if (elapsedNanos > backoffTimeoutNanos) {
+                limit.rejections.inc();
+                throw new HazelcastOverloadException(String.format("Timed out trying to start an invocation on %s."
+                                + " limit = %d, backoffTimeout = %d msecs, elapsed:%d msecs",
+                        target, (int) limit.limit, NANOSECONDS.toMillis(backoffTimeoutNanos),
+                        NANOSECONDS.toMillis(elapsedNanos)));
+            }
+            IDLER.idle(idleCount);
+            if (limit.tryAcquire()) {
+                return limit;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit acquired using {@link #acquire(Address)} and adapts the limit of the target.
+     *
+     * @param limit      the TargetLimit returned by {@link #acquire(Address)}
+     * @param startNanos the {@link Timer#nanos()} at which the permit was acquired.
+     */
+    void release(TargetLimit limit, long startNanos) {
+        long nowNanos = Timer.nanos();
+        limit.release();
+        long queueWaitNanos = limit == limits.get(thisAddress)
+                ? localQueueWaitNanos(nowNanos)
+                : limit.latencyAboveMin(nowNanos - startNanos, nowNanos);
+        adapt(limit, queueWaitNanos, nowNanos);
+    }
+
+    // visible for testing
+    void adapt(TargetLimit limit, long queueWaitNanos, long nowNanos) {
+        double current = limit.limit;
+        if (queueWaitNanos > targetQueueWaitNanos) {
+            if (nowNanos - limit.lastDecreaseNanos >= DECREASE_INTERVAL_NANOS && current > minLimit) {
+                limit.lastDecreaseNanos = nowNanos;
+                limit.limit = max(minLimit, current * DECREASE_FACTOR);
+            }
+        } else if (current < maxLimit && limit.inFlight + 1 >= current * DECREASE_FACTOR) {
+            // only grow when the limit is close to being used; otherwise an idle target would end
+            // up with a limit that has no relation to what it can handle.
+            limit.limit = min(maxLimit, current + 1 / current);
+        }
+    }
+
+    private long localQueueWaitNanos(long nowNanos) {
+        if (nowNanos - localQueueWaitCacheExpiration < 0) {
+            return localQueueWaitCache;
+        }
+        long queueWaitNanos = localQueueWaitNanos.getAsLong();
+        localQueueWaitCache = queueWaitNanos;
+        localQueueWaitCacheExpiration = nowNanos + LOCAL_QUEUE_WAIT_CACHE_NANOS;
+        return queueWaitNanos;
+    }
+
+    // visible for testing
+    TargetLimit getLimit(Address target) {
+        return limits.get(target);
+    }
+
+    /**
+     * Removes the limit of a target, e.g. because the member has left the cluster.
+     */
+    void onEndpointLeft(Address target) {
+        limits.remove(target);
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (Map.Entry<Address, TargetLimit> entry : limits.entrySet()) {
+            context.collect(descriptor.copy()
+                    .withPrefix(OPERATION_PREFIX_BACKPRESSURE)
+                    .withDiscriminator(OPERATION_DISCRIMINATOR_TARGET, entry.getKey().toString()), entry.getValue());
+        }
+    }
+
+    /**
+     * The limit and the number of in-flight invocations of a single target.
+     */
+    static final class TargetLimit {
+        private static final AtomicIntegerFieldUpdater<TargetLimit> IN_FLIGHT =
+                AtomicIntegerFieldUpdater.newUpdater(TargetLimit.class, "inFlight");
+
+        @Probe(name = OPERATION_METRIC_BACKPRESSURE_LIMIT)
+        volatile double limit;
+        @Probe(name = OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT)
+        volatile int inFlight;
+        @Probe(name = OPERATION_METRIC_BACKPRESSURE_THROTTLED)
+        final Counter throttled = newMwCounter();
+        @Probe(name = OPERATION_METRIC_BACKPRESSURE_REJECTIONS)
+        final Counter rejections = newMwCounter();
+
+        volatile long lastDecreaseNanos = Long.MIN_VALUE / 2;
+        private volatile long minLatencyNanos = Long.MAX_VALUE;
+        private volatile long minLatencyResetNanos = Long.MIN_VALUE / 2;
+
+        TargetLimit(double limit) {
+            this.limit = limit;
+        }
+
+        boolean tryAcquire() {
+            for (; ; ) {
+                int current = inFlight;
+                if (current >= (int) limit) {
+                    return false;
+                }
+                if (IN_FLIGHT.compareAndSet(this, current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void forceAcquire() {
+            IN_FLIGHT.incrementAndGet(this);
+        }
+
+        void release() {
+            IN_FLIGHT.decrementAndGet(this);
+        }
+
+        // visible for testing
+        long latencyAboveMin(long latencyNanos, long nowNanos) {
+            long minLatency = minLatencyNanos;
+            if (nowNanos - minLatencyResetNanos >= MIN_LATENCY_WINDOW_NANOS) {
+                minLatencyResetNanos = nowNanos;
+                minLatency = Long.MAX_VALUE;
+            }
+            if (latencyNanos < minLatency) {
+                minLatency = latencyNanos;
+            }
+            minLatencyNanos = minLatency;
+            return latencyNanos - minLatency;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.StaticMetricsProvider;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupAckBatchOperation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKUP_PIPELINE_ACKS_RECEIVED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKUP_PIPELINE_ACKS_SENT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKUP_PIPELINE_SEQUENCED_BACKUPS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKUP_PIPELINE_SKIPPED_SEQUENCES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_BACKUP_PIPELINE;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_TIMEOUT_MILLIS;
+
+/**
+ * Replaces the individual backup acks of sync backups by cumulative acks.
+ * <p>
+ * Normally the member that runs a {@link com.hazelcast.spi.impl.operationservice.impl.operations.Backup}
+ * sends an ack per backup to the caller. When pipelining is enabled, the primary replica gives every
+ * sync backup it sends to a backup replica a sequence number, if the caller is the primary replica
+ * itself. The sequence numbers are per (primary, backup) member pair. The backup replica records
+ * the completed sequence numbers and periodically sends a single {@link BackupAckBatchOperation}
+ * that acks all sequence numbers up to the highest one for which all backups have completed. So
+ * under load, many backups are acked with a single packet instead of a packet per backup.
+ * <p>
+ * The backups themselves are sent and applied exactly like before, including the
+ * {@link com.hazelcast.internal.partition.PartitionReplicaVersionManager replica version} checks.
+ * A backup that is not applied, e.g. because it is stale, is reported as failed in the cumulative
+ * ack, so the invocation isn't notified; just like an individual ack would not have been sent.
+ * Gaps in the replica versions are detected and repaired by the anti-entropy as before.
+ * <p>
+ * The number of unacked sequenced backups per member pair is bounded by {@link #WINDOW}; a sync
+ * backup that doesn't fit in the window is acked individually. If a sequenced backup never
+ * completes on the backup replica, e.g. because it got lost, the sequence number is skipped as
+ * failed once the backup timeout has passed, so that the following backups can be acked. The
+ * gaps are checked when a backup completes and periodically by the {@link InvocationMonitor},
+ * so that the backups behind a gap are acked even if no more backups arrive.
+ * <p>
+ * The backup replica side is always active, so it is enough to enable pipelining on the members
+ * that should send sequenced backups. Sequenced backups are only sent if the cluster version is
+ * at least 5.4.
+ */
+public final class BackupPipeline implements StaticMetricsProvider {
+
+    /**
+     * If sync backups should be acked cumulatively per member pair instead of individually.
+     */
+    public static final HazelcastProperty ENABLED
+            = new HazelcastProperty("hazelcast.operation.backup.pipelining.enabled", false);
+
+    /**
+     * The maximum number of unacked sequenced backups per member pair. Must be a power of 2.
+     */
+    static final int WINDOW = 1 << 12;
+    private static final int WINDOW_MASK = WINDOW - 1;
+
+    @Probe(name = OPERATION_METRIC_BACKUP_PIPELINE_SEQUENCED_BACKUPS)
+    private final Counter sequencedBackups = newMwCounter();
+    @Probe(name = OPERATION_METRIC_BACKUP_PIPELINE_ACKS_SENT)
+    private final Counter acksSent = newMwCounter();
+    @Probe(name = OPERATION_METRIC_BACKUP_PIPELINE_ACKS_RECEIVED)
+    private final Counter acksReceived = newMwCounter();
+    @Probe(name = OPERATION_METRIC_BACKUP_PIPELINE_SKIPPED_SEQUENCES)
+    private final Counter skippedSequences = newMwCounter();
+
+    private final OperationServiceImpl operationService;
+    private final ILogger logger;
+    private final boolean enabled;
+    private final long gapTimeoutNanos;
+    // the streams of the backups sent by this member, by backup replica
+    private final ConcurrentMap<Address, OutboundStream> outboundStreams = new ConcurrentHashMap<>();
+    // the streams of the backups received by this member, by primary replica
+    private final ConcurrentMap<Address, InboundStream> inboundStreams = new ConcurrentHashMap<>();
+
+    BackupPipeline(OperationServiceImpl operationService, HazelcastProperties properties) {
+        this.operationService = operationService;
+        this.logger = operationService.node.getLogger(BackupPipeline.class);
+        this.enabled = properties.getBoolean(ENABLED);
+        this.gapTimeoutNanos = properties.getNanos(OPERATION_BACKUP_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    public void provideStaticMetrics(MetricsRegistry registry) {
+        registry.registerStaticMetrics(this, OPERATION_PREFIX_BACKUP_PIPELINE);
+    }
+
+    /**
+     * Checks if this member sends sequenced backups.
+     */
+    boolean isEnabled() {
+        return enabled
+                && operationService.nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4);
+    }
+
+    /**
+     * Assigns the next sequence number of the stream to the given backup replica.
+     *
+     * @param target the address of the backup replica.
+     * @param callId the call ID of the invocation waiting for the backup ack.
+     * @return the sequence number, or 0 if the window is full and the backup should be acked individually.
+     */
+    long nextSequence(Address target, long callId) {
+        OutboundStream stream = outboundStreams.computeIfAbsent(target, a -> new OutboundStream());
+        long sequence = stream.nextSequence(callId);
+        if (sequence != 0) {
+            sequencedBackups.inc();
+        }
+        return sequence;
+    }
+
+    /**
+     * Processes a cumulative ack sent by a backup replica. Notifies the invocations of all
+     * backups with a sequence number in the range (fromSequence, toSequence] that were applied.
+     */
+    public void onAck(Address sender, long fromSequence, long toSequence, long[] failedSequences) {
+        acksReceived.inc();
+        OutboundStream stream = outboundStreams.get(sender);
+        if (stream != null) {
+            stream.onAck(fromSequence, toSequence, failedSequences);
+        }
+    }
+
+    /**
+     * Records that the sequenced backup sent by the given primary replica has completed.
+     * Should be called exactly once for every sequenced backup, whether or not it was applied.
+     *
+     * @param source   the address of the primary replica.
+     * @param sequence the sequence number of the backup.
+     * @param applied  true if the backup was applied, false if it was rejected.
+     */
+    public void complete(Address source, long sequence, boolean applied) {
+        InboundStream stream = inboundStreams.computeIfAbsent(source, InboundStream::new);
+        stream.complete(sequence, applied, System.nanoTime());
+        stream.flush();
+    }
+
+    /**
+     * Skips the sequences that didn't complete within the backup timeout in all the streams
+     * received by this member and sends the acks of the backups completed behind them.
+     * Called periodically.
+     */
+    void expireGaps(long nowNanos) {
+        for (InboundStream stream : inboundStreams.values()) {
+            if (stream.expireGap(nowNanos)) {
+                stream.flush();
+            }
+        }
+    }
+
+    void onEndpointLeft(Address endpoint) {
+        outboundStreams.remove(endpoint);
+        inboundStreams.remove(endpoint);
+    }
+
+    long sequencedBackups() {
+        return sequencedBackups.get();
+    }
+
+    long acksReceived() {
+        return acksReceived.get();
+    }
+
+    long skippedSequences() {
+        return skippedSequences.get();
+    }
+
+    private static int slot(long sequence) {
+        return (int) (sequence & WINDOW_MASK);
+    }
+
+    /**
+     * The sequenced backups sent to a single backup replica.
+     */
+    private final class OutboundStream {
+        private final AtomicLong nextSequence = new AtomicLong(1);
+        // the call IDs of the unacked sequences; 0 if there is no invocation to notify.
+        private final AtomicLongArray callIds = new AtomicLongArray(WINDOW);
+        // the acks that were received before the acks preceding them; guarded by this.
+        private final Map<Long, long[]> pendingAcks = new HashMap<>();
+        // the highest acked sequence; only written while holding the lock on this.
+        private volatile long ackedSequence;
+
+        long nextSequence(long callId) {
+            for (; ; ) {
+                long sequence = nextSequence.get();
+                if (sequence - ackedSequence > WINDOW) {
+                    return 0;
+                }
+
+                if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                    // the slot was cleared when the sequence that used it before was acked.
+                    callIds.set(slot(sequence), callId);
+                    return sequence;
+                }
+            }
+        }
+
+        // the acks are executed on the generic threads, so they can be processed out of order.
+        synchronized void onAck(long fromSequence, long toSequence, long[] failedSequences) {
+            if (toSequence <= ackedSequence) {
+                return;
+            }
+
+            if (fromSequence != ackedSequence) {
+                long[] ack = new long[failedSequences.length + 1];
+                ack[0] = toSequence;
+                System.arraycopy(failedSequences, 0, ack, 1, failedSequences.length);
+                pendingAcks.put(fromSequence, ack);
+                return;
+            }
+
+            apply(toSequence, failedSequences, 0);
+            long[] ack;
+            while ((ack = pendingAcks.remove(ackedSequence)) != null) {
+                apply(ack[0], ack, 1);
+            }
+        }
+
+        private void apply(long toSequence, long[] failedSequences, int failedOffset) {
+            InboundResponseHandler responseHandler = operationService.getBackupHandler();
+            for (long sequence = ackedSequence + 1; sequence <= toSequence; sequence++) {
+                long callId = callIds.getAndSet(slot(sequence), 0);
+                if (callId != 0 && !contains(failedSequences, failedOffset, sequence)) {
+                    responseHandler.notifyBackupComplete(callId);
+                }
+            }
+            ackedSequence = toSequence;
+        }
+
+        private boolean contains(long[] sequences, int offset, long sequence) {
+            for (int k = offset; k < sequences.length; k++) {
+                if (sequences[k] == sequence) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The sequenced backups received from a single primary replica.
+     */
+    private final class InboundStream {
+        private final Address source;
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        // the fields below are guarded by this.
+        private final long[] completed = new long[WINDOW / Long.SIZE];
+        private final List<Long> failed = new ArrayList<>();
+        // all sequences up to the completed sequence have completed
+        private long completedSequence;
+        private long highestSequence;
+        // when the current gap was detected, 0 if there is no gap
+        private long gapStartNanos;
+        // the highest sequence when the current gap was detected, the missing sequences up to it
+        // were sent before it, so they are overdue when the gap is
+        private long gapHighestSequence;
+        private long sentSequence;
+
+        private InboundStream(Address source) {
+            this.source = source;
+        }
+
+        synchronized void complete(long sequence, boolean applied, long nowNanos) {
+            if (sequence <= completedSequence || isCompleted(sequence)) {
+                return;
+            }
+
+            setCompleted(sequence, true);
+            if (!applied) {
+                failed.add(sequence);
+            }
+            highestSequence = Math.max(highestSequence, sequence);
+            advance();
+            expireGap(nowNanos);
+        }
+
+        /**
+         * Skips the missing sequences of the current gap, if it is older than the backup timeout.
+         *
+         * @return true if the completed sequence advanced.
+         */
+        synchronized boolean expireGap(long nowNanos) {
+            long oldCompletedSequence = completedSequence;
+            if (gapStartNanos != 0 && nowNanos - gapStartNanos > gapTimeoutNanos) {
+                while (completedSequence < gapHighestSequence) {
+                    skipGap();
+                }
+                gapStartNanos = 0;
+            }
+            if (completedSequence == highestSequence) {
+                gapStartNanos = 0;
+            } else if (gapStartNanos == 0) {
+                gapStartNanos = nowNanos;
+                gapHighestSequence = highestSequence;
+            }
+            return completedSequence != oldCompletedSequence;
+        }
+
+        private void advance() {
+            while (isCompleted(completedSequence + 1)) {
+                completedSequence++;
+                setCompleted(completedSequence, false);
+            }
+        }
+
+        // the backups in the gap are assumed to be lost.
+        private void skipGap() {
+            long missing = completedSequence + 1;
+            if (logger.isFineEnabled()) {
+                logger.fine("Backup with sequence " + missing + " from " + source
+                        + " did not complete within the backup timeout, skipping it");
+            }
+            skippedSequences.inc();
+            failed.add(missing);
+            setCompleted(missing, true);
+            advance();
+        }
+
+        private boolean isCompleted(long sequence) {
+            int slot = slot(sequence);
+            return (completed[slot / Long.SIZE] & (1L << slot)) != 0;
+        }
+
+        private void setCompleted(long sequence, boolean value) {
+            int slot = slot(sequence);
+            if (value) {
+                completed[slot / Long.SIZE] |= 1L << slot;
+            } else {
+                completed[slot / Long.SIZE] &= ~(1L << slot);
+            }
+        }
+
+        /**
+         * Sends the cumulative ack if the completed sequence has advanced. Only a single thread
+         * sends at any given moment; the completions recorded while it sends, are included in
+         * the next ack it sends. So the busier the stream, the more backups are acked per ack.
+         */
+        void flush() {
+            while (flushing.compareAndSet(false, true)) {
+                try {
+                    BackupAckBatchOperation ack = nextAck();
+                    if (ack != null) {
+                        acksSent.inc();
+                        operationService.send(ack, source);
+                    }
+                } finally {
+                    flushing.set(false);
+                }
+
+                // a completion recorded after the last ack was created, could have failed to
+                // acquire the flushing flag; so check again after the flag is released.
+                if (!hasUnsentAck()) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean hasUnsentAck() {
+            return sentSequence != completedSequence;
+        }
+
+        private synchronized BackupAckBatchOperation nextAck() {
+            if (sentSequence == completedSequence) {
+                return null;
+            }
+
+            long[] failedSequences = drainFailed(completedSequence);
+            BackupAckBatchOperation ack = new BackupAckBatchOperation(sentSequence, completedSequence, failedSequences);
+            sentSequence = completedSequence;
+            return ack;
+        }
+
+        private long[] drainFailed(long toSequence) {
+            int count = 0;
+            for (Long sequence : failed) {
+                if (sequence <= toSequence) {
+                    count++;
+                }
+            }
+
+            long[] result = new long[count];
+            if (count > 0) {
+                int index = 0;
+                for (int k = failed.size() - 1; k >= 0; k--) {
+                    long sequence = failed.get(k);
+                    if (sequence <= toSequence) {
+                        result[index++] = sequence;
+                        failed.remove(k);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.core.IndeterminateOperationStateException;
 import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.AbstractInvocationFuture;
 
@@ -51,6 +52,12 @@ public abstract class BaseInvocation {
      */
     volatile long pendingResponseReceivedMillis = -1;
 
+    /**
+     * The {@link Timer#nanos()} when the response of the primary has been received while the backups were
+     * still pending; 0 if no backup acks had to be waited for.
+     */
+    volatile long pendingResponseReceivedNanos;
+
     /**
      * Contains the pending response from the primary. It is pending because it could be that backups need to complete.
      */
@@ -94,6 +101,7 @@ public abstract class BaseInvocation {
             // (it could be that backups arrive earlier than the response)
 
             this.pendingResponseReceivedMillis = Clock.currentTimeMillis();
+            this.pendingResponseReceivedNanos = Timer.nanos();
 
             this.backupsAcksExpected = expectedBackups;
 
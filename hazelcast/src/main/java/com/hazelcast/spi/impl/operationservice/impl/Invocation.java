@@ -34,6 +34,7 @@ import com.hazelcast.internal.server.Server;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerConnectionManager;
 import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.internal.util.executor.ManagedExecutorService;
 import com.hazelcast.logging.ILogger;
@@ -178,6 +179,14 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
      * invocation during a member left event.
      */
     private int memberListVersion;
+    /**
+     * The limit of the target this invocation acquired a permit from when it was registered, or null if
+     * the adaptive backpressure is disabled or the invocation bypassed it.
+     * <p>
+     * Only accessed by the {@link InvocationRegistry}.
+     */
+    AdaptiveConcurrencyLimiter.TargetLimit targetLimit;
+    long targetLimitAcquiredNanos;
 
     private final ServerConnectionManager connectionManager;
 
@@ -371,6 +380,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
             // (it could be that backups arrive earlier than the response)
 
             this.pendingResponseReceivedMillis = Clock.currentTimeMillis();
+            this.pendingResponseReceivedNanos = Timer.nanos();
 
             this.backupsAcksExpected = expectedBackups;
 
@@ -750,6 +760,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
         invokeCount = 0;
         pendingResponse = VOID;
         pendingResponseReceivedMillis = -1;
+        pendingResponseReceivedNanos = 0;
         backupsAcksExpected = 0;
         backupsAcksReceived = 0;
         lastHeartbeatMillis = 0;
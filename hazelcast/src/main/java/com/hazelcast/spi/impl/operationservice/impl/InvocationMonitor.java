@@ -89,6 +89,7 @@ public class InvocationMonitor implements Consumer<Packet>, StaticMetricsProvide
     private final InternalSerializationService serializationService;
     private final ServiceManager serviceManager;
     private final InvocationRegistry invocationRegistry;
+    private final BackupPipeline backupPipeline;
     private final ILogger logger;
     private final ScheduledExecutorService scheduler;
     private final Address thisAddress;
@@ -120,12 +121,14 @@ public class InvocationMonitor implements Consumer<Packet>, StaticMetricsProvide
                       InvocationRegistry invocationRegistry,
                       ILogger logger,
                       InternalSerializationService serializationService,
-                      ServiceManager serviceManager) {
+                      ServiceManager serviceManager,
+                      BackupPipeline backupPipeline) {
         this.nodeEngine = nodeEngine;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.serviceManager = serviceManager;
         this.invocationRegistry = invocationRegistry;
+        this.backupPipeline = backupPipeline;
         this.logger = logger;
         this.backupTimeoutMillis = backupTimeoutMillis(properties);
         this.invocationTimeoutMillis = invocationTimeoutMillis(properties);
@@ -307,6 +310,9 @@ public class InvocationMonitor implements Consumer<Packet>, StaticMetricsProvide
 
         @Override
         public void run0() {
+            // the backups received by this member are acked even if it has no invocations
+            backupPipeline.expireGaps(System.nanoTime());
+
             if (logger.isFinestEnabled()) {
                 logger.finest("Scanning all invocations");
             }
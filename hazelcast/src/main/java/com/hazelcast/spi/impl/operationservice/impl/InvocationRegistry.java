@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.cluster.Address;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.HazelcastOverloadException;
 import com.hazelcast.core.MemberLeftException;
@@ -25,11 +26,13 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.util.LatencyDistribution;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -55,17 +58,36 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
+ * By default the invocations are stored in a {@link ConcurrentHashMap}. When {@link #SLOTS_ENABLED} is set,
+ * the invocations are stored in {@link InvocationSlots} instead: an array of slots indexed by the call ID, so
+ * that registering and looking up an invocation doesn't box the call ID or allocate a map node.
+ * <p>
+ * When the {@link AdaptiveConcurrencyLimiter#ENABLED adaptive backpressure} is enabled, an invocation
+ * first needs to acquire a permit from the {@link AdaptiveConcurrencyLimiter} for its target before
+ * it gets a call ID. The permit is released when the invocation is deregistered.
+ * <p>
  * Some ideas:
  * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
+ * <li>Pre-allocate all invocations. Because the slots have a fixed capacity, pre-allocation should be easy. Also
  * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
  * </ul>
  */
 public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsProvider {
 
+    /**
+     * If the pending invocations should be stored in {@link InvocationSlots} instead of a map.
+     */
+    public static final HazelcastProperty SLOTS_ENABLED
+            = new HazelcastProperty("hazelcast.invocation.registry.slots.enabled", false);
+
+    /**
+     * The number of slots when {@link #SLOTS_ENABLED} is set. Will be rounded up to the next power of two.
+     * Invocations that don't fit in their slot are stored in an overflow map, so this isn't a hard limit on
+     * the number of pending invocations.
+     */
+    public static final HazelcastProperty SLOTS_CAPACITY
+            = new HazelcastProperty("hazelcast.invocation.registry.slots.capacity", 1 << 16);
+
     private static final int CORE_SIZE_CHECK = 8;
     private static final int CORE_SIZE_FACTOR = 4;
     private static final int CONCURRENCY_LEVEL = 16;
@@ -74,23 +96,42 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     private static final float LOAD_FACTOR = 0.75f;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
+    // null if the slots are enabled
     private final ConcurrentMap<Long, Invocation> invocations;
+    // null if the slots are disabled
+    private final InvocationSlots slots;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    // null if the adaptive backpressure is disabled
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    // null if the latency histograms are disabled
+    private final OperationLatencyHistograms latencyHistograms;
     private final boolean profilerEnabled;
     private final ConcurrentMap<Class, LatencyDistribution> latencyDistributions = new ConcurrentHashMap<>();
     private volatile boolean alive = true;
 
     public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, HazelcastProperties properties) {
+        this(logger, callIdSequence, null, null, properties);
+    }
+
+    InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                       OperationLatencyHistograms latencyHistograms, HazelcastProperties properties) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.latencyHistograms = latencyHistograms;
 
         int coreSize = RuntimeAvailableProcessors.get();
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        if (properties.getBoolean(SLOTS_ENABLED)) {
+            this.invocations = null;
+            this.slots = new InvocationSlots(properties.getInteger(SLOTS_CAPACITY));
+        } else {
+            this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+            this.slots = null;
+        }
         this.profilerEnabled = properties.getInteger(InvocationProfilerPlugin.PERIOD_SECONDS) > 0;
     }
 
@@ -106,7 +147,12 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
+    }
+
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
+    private int pendingInvocations() {
+        return size();
     }
 
     @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID)
@@ -123,9 +169,16 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     public boolean register(Invocation invocation) {
         final long callId;
         boolean force = invocation.op.isUrgent() || invocation.isRetryCandidate();
+        Address target = invocation.getTargetAddress();
         try {
+            if (concurrencyLimiter != null && !force && target != null) {
+                invocation.targetLimit = concurrencyLimiter.acquire(target);
+                // taken after acquiring, so the time spent waiting for a permit isn't counted as latency
+                invocation.targetLimitAcquiredNanos = Timer.nanos();
+            }
             callId = force ? callIdSequence.forceNext() : callIdSequence.next();
         } catch (HazelcastOverloadException e) {
+            releaseTargetLimit(invocation);
             throw new HazelcastOverloadException("Failed to start invocation due to overload: " + invocation, e);
         }
         try {
@@ -133,9 +186,14 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             setCallId(invocation.op, callId);
         } catch (IllegalStateException e) {
             callIdSequence.complete();
+            releaseTargetLimit(invocation);
             throw e;
         }
-        invocations.put(callId, invocation);
+        if (slots != null) {
+            slots.put(callId, invocation);
+        } else {
+            invocations.put(callId, invocation);
+        }
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -154,12 +212,31 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        long callId = invocation.op.getCallId();
+        if (slots != null) {
+            slots.remove(callId, invocation);
+        } else {
+            invocations.remove(callId);
+        }
         callIdSequence.complete();
+        releaseTargetLimit(invocation);
         return true;
     }
 
+    private void releaseTargetLimit(Invocation invocation) {
+        AdaptiveConcurrencyLimiter.TargetLimit targetLimit = invocation.targetLimit;
+        if (targetLimit != null) {
+            invocation.targetLimit = null;
+            concurrencyLimiter.release(targetLimit, invocation.targetLimitAcquiredNanos);
+        }
+    }
+
     public void retire(Invocation invocation) {
+        long pendingResponseReceivedNanos = invocation.pendingResponseReceivedNanos;
+        if (latencyHistograms != null && pendingResponseReceivedNanos != 0) {
+            latencyHistograms.recordBackupAckWait(invocation.op, Timer.nanosElapsed(pendingResponseReceivedNanos));
+        }
+
         if (!profilerEnabled) {
             return;
         }
@@ -184,21 +261,23 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the number of pending invocations
      */
     public int size() {
-        return invocations.size();
+        return slots != null ? slots.size() : invocations.size();
     }
 
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        return slots != null ? slots.iterator() : invocations.values().iterator();
     }
 
     /**
      * Intention to expose the entry set is to mutate it.
+     * <p>
+     * When the slots are enabled, a snapshot of the entries is returned and mutating it has no effect.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        return slots != null ? slots.entrySnapshot() : invocations.entrySet();
     }
 
     /**
@@ -208,7 +287,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        return slots != null ? slots.get(callId) : invocations.get(callId);
     }
 
     public void reset(Throwable cause) {
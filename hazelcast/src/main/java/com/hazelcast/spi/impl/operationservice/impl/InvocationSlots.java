@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+/**
+ * Stores the pending invocations of the {@link InvocationRegistry} in a fixed number of
+ * slots that are indexed by the call ID, so registering and looking up an invocation
+ * doesn't box the call ID or allocate a map node.
+ * <p>
+ * The slots are split over a power of two number of stripes. Consecutive call IDs end
+ * up in different stripes, so threads registering invocations at the same time don't
+ * write to the same cache line.
+ * <p>
+ * A slot can be reused by a later call ID once the invocation has been removed. A stale
+ * response for an old call ID could therefore find a newer invocation in the slot. That
+ * is why a lookup checks that the call ID of the operation in the slot matches the
+ * requested call ID; the bits of the call ID above the slot index act as the generation
+ * of the slot.
+ * <p>
+ * When the slot for a call ID is still occupied by a long running invocation, the
+ * invocation is stored in an overflow map. So the number of pending invocations isn't
+ * limited by the number of slots.
+ * <p>
+ * This class is thread-safe.
+ */
+final class InvocationSlots implements Iterable<Invocation> {
+
+    static final int STRIPE_COUNT = 16;
+
+    private final AtomicReferenceArray<Invocation>[] stripes;
+    private final int stripeShift;
+    private final int slotMask;
+    private final ConcurrentMap<Long, Invocation> overflow = new ConcurrentHashMap<>();
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param capacity the total number of slots. Will be rounded up to the next power of two.
+     */
+    @SuppressWarnings("unchecked")
+    InvocationSlots(int capacity) {
+        checkPositive("capacity", capacity);
+        int stripeCapacity = Math.max(1, nextPowerOfTwo(capacity) / STRIPE_COUNT);
+        this.stripeShift = numberOfTrailingZeros(STRIPE_COUNT);
+        this.slotMask = stripeCapacity - 1;
+        this.stripes = new AtomicReferenceArray[STRIPE_COUNT];
+        for (int k = 0; k < STRIPE_COUNT; k++) {
+            stripes[k] = new AtomicReferenceArray<>(stripeCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    int capacity() {
+        return STRIPE_COUNT * (slotMask + 1);
+    }
+
+    /**
+     * Stores the invocation with the given call ID.
+     */
+    void put(long callId, Invocation invocation) {
+        if (!stripe(callId).compareAndSet(slot(callId), null, invocation)) {
+            overflow.put(callId, invocation);
+        }
+        size.increment();
+    }
+
+    /**
+     * Removes the invocation with the given call ID.
+     *
+     * @return {@code true} if the invocation was removed, {@code false} if it wasn't found.
+     */
+    boolean remove(long callId, Invocation invocation) {
+        if (stripe(callId).compareAndSet(slot(callId), invocation, null)
+                || overflow.remove(callId, invocation)) {
+            size.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the invocation with the given call ID.
+     *
+     * @return the invocation, or {@code null} if not found.
+     */
+    Invocation get(long callId) {
+        Invocation invocation = stripe(callId).get(slot(callId));
+        if (invocation != null && invocation.op.getCallId() == callId) {
+            return invocation;
+        }
+        return overflow.isEmpty() ? null : overflow.get(callId);
+    }
+
+    int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Returns the number of invocations that didn't fit in their slot.
+     */
+    int overflowSize() {
+        return overflow.size();
+    }
+
+    /**
+     * Returns a snapshot of the entries. Modifying the returned set has no effect on
+     * the stored invocations.
+     */
+    Set<Map.Entry<Long, Invocation>> entrySnapshot() {
+        Set<Map.Entry<Long, Invocation>> entries = new HashSet<>();
+        for (Invocation invocation : this) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(invocation.op.getCallId(), invocation));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the invocations; just like the iterators
+     * of a {@link ConcurrentHashMap}, it doesn't fail on concurrent modifications.
+     */
+    @Override
+    public Iterator<Invocation> iterator() {
+        return new SlotIterator();
+    }
+
+    private AtomicReferenceArray<Invocation> stripe(long callId) {
+        return stripes[(int) callId & (STRIPE_COUNT - 1)];
+    }
+
+    private int slot(long callId) {
+        return (int) (callId >>> stripeShift) & slotMask;
+    }
+
+    private final class SlotIterator implements Iterator<Invocation> {
+        private final Iterator<Invocation> overflowIterator = overflow.values().iterator();
+        private int stripeIndex;
+        private int slotIndex = -1;
+        private Invocation next;
+
+        private SlotIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            Invocation invocation = next;
+            if (invocation == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return invocation;
+        }
+
+        private void advance() {
+            while (stripeIndex < STRIPE_COUNT) {
+                AtomicReferenceArray<Invocation> stripe = stripes[stripeIndex];
+                while (++slotIndex <= slotMask) {
+                    Invocation invocation = stripe.get(slotIndex);
+                    if (invocation != null) {
+                        next = invocation;
+                        return;
+                    }
+                }
+                stripeIndex++;
+                slotIndex = -1;
+            }
+            next = overflowIterator.hasNext() ? overflowIterator.next() : null;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.cluster.Address;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.partition.InternalPartition;
@@ -49,10 +50,13 @@ public final class OperationBackupHandler {
     private final NodeEngineImpl nodeEngine;
     private final BackpressureRegulator backpressureRegulator;
     private final OutboundOperationHandler outboundOperationHandler;
+    private final BackupPipeline backupPipeline;
     private final ILogger logger;
 
-    OperationBackupHandler(OperationServiceImpl operationService, OutboundOperationHandler outboundOperationHandler) {
+    OperationBackupHandler(OperationServiceImpl operationService, OutboundOperationHandler outboundOperationHandler,
+                           BackupPipeline backupPipeline) {
         this.outboundOperationHandler = outboundOperationHandler;
+        this.backupPipeline = backupPipeline;
         this.node = operationService.node;
         this.nodeEngine = operationService.nodeEngine;
         this.backpressureRegulator = operationService.backpressureRegulator;
@@ -225,7 +229,7 @@ public final class OperationBackupHandler {
                 boolean isSyncBackup = replicaIndex <= syncBackups;
 
                 Backup backup = newBackup(backupAwareOp, backupOpData, replicaVersions, replicaIndex, isSyncBackup);
-                outboundOperationHandler.send(backup, target.address());
+                send(backup, target.address());
 
                 if (isSyncBackup) {
                     sendSyncBackups++;
@@ -265,7 +269,7 @@ public final class OperationBackupHandler {
             boolean isSyncBackup = syncBackups == 1;
 
             Backup backup = newBackup(backupAwareOp, backupOp, replicaVersions, 1, isSyncBackup);
-            outboundOperationHandler.send(backup, target.address());
+            send(backup, target.address());
 
             if (isSyncBackup) {
                 return 1;
@@ -274,6 +278,21 @@ public final class OperationBackupHandler {
         return 0;
     }
 
+    private void send(Backup backup, Address target) {
+        if (backupPipeline.isEnabled() && isSequenceable(backup)) {
+            backup.setSequence(backupPipeline.nextSequence(target, backup.getCallId()));
+        }
+        outboundOperationHandler.send(backup, target);
+    }
+
+    // only the acks of sync backups of invocations done by this member can be sent back to this member
+    private boolean isSequenceable(Backup backup) {
+        return backup.isSync()
+                && backup.getCallId() != 0
+                && backup.getClientCorrelationId() == -1
+                && node.getThisAddress().equals(backup.getOriginalCaller());
+    }
+
     private Operation getBackupOperation(BackupAwareOperation backupAwareOp) {
         Operation backupOp = backupAwareOp.getBackupOperation();
         if (backupOp == null) {
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.util.LatencyHistogram;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_OPERATION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_BACKUP_ACK_WAIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_EXECUTION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_QUEUE_WAIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+
+/**
+ * Keeps a {@link LatencyHistogram} per operation class for:
+ * <ol>
+ * <li>the queue wait: the time between a remote operation being received and the start of its
+ * execution. Not recorded for local operations, since these aren't timestamped when they are
+ * queued.</li>
+ * <li>the execution: the time to deserialize and run the operation on the
+ * {@link OperationRunnerImpl}.</li>
+ * <li>the backup-ack wait: the time the invocation of a backup aware operation had to wait for
+ * the backup acks after the response of the primary was received.</li>
+ * </ol>
+ * Unlike the {@link com.hazelcast.internal.diagnostics.OperationProfilerPlugin}, these histograms
+ * are always on. Recording is allocation free once the histograms of an operation class have been
+ * created. Every collection of the metrics exports the count, the p50, p99, p99.9 and max of the
+ * values recorded since the previous collection, with the operation class as discriminator.
+ * <p>
+ * The queue wait and backup-ack wait histograms are only created when a value is recorded, since
+ * most operation classes never have them.
+ */
+public final class OperationLatencyHistograms implements DynamicMetricsProvider {
+
+    /**
+     * If the latency histograms per operation class should be recorded.
+     */
+    public static final HazelcastProperty ENABLED
+            = new HazelcastProperty("hazelcast.operation.latency.histograms.enabled", true);
+
+    private static final String[] QUEUE_WAIT_NAMES = metricNames(OPERATION_METRIC_LATENCY_QUEUE_WAIT);
+    private static final String[] EXECUTION_NAMES = metricNames(OPERATION_METRIC_LATENCY_EXECUTION);
+    private static final String[] BACKUP_ACK_WAIT_NAMES = metricNames(OPERATION_METRIC_LATENCY_BACKUP_ACK_WAIT);
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+
+    private final ConcurrentMap<Class, Histograms> histograms = new ConcurrentHashMap<>();
+    // only used by the thread collecting the metrics; guarded by this
+    private final LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+
+    OperationLatencyHistograms() {
+    }
+
+    void recordQueueWait(Operation op, long nanos) {
+        Histograms h = histograms(op);
+        LatencyHistogram histogram = h.queueWait;
+        if (histogram == null) {
+            histogram = h.queueWait();
+        }
+        histogram.recordNanos(nanos);
+    }
+
+    void recordExecution(Operation op, long nanos) {
+        histograms(op).execution.recordNanos(nanos);
+    }
+
+    void recordBackupAckWait(Operation op, long nanos) {
+        Histograms h = histograms(op);
+        LatencyHistogram histogram = h.backupAckWait;
+        if (histogram == null) {
+            histogram = h.backupAckWait();
+        }
+        histogram.recordNanos(nanos);
+    }
+
+    private Histograms histograms(Operation op) {
+        Class c = op.getClass();
+        if (op instanceof PartitionIteratingOperation) {
+            c = ((PartitionIteratingOperation) op).getOperationFactory().getClass();
+        }
+        Histograms h = histograms.get(c);
+        // Note: we want to prevent lock here, if collision happened.
+        if (h == null) {
+            h = histograms.computeIfAbsent(c, k -> new Histograms());
+        }
+        return h;
+    }
+
+    @Override
+    public synchronized void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (Map.Entry<Class, Histograms> entry : histograms.entrySet()) {
+            MetricDescriptor operationDescriptor = descriptor.copy()
+                    .withPrefix(OPERATION_PREFIX_LATENCY)
+                    .withDiscriminator(OPERATION_DISCRIMINATOR_OPERATION, entry.getKey().getName());
+            Histograms h = entry.getValue();
+            collect(operationDescriptor, context, h.queueWait, QUEUE_WAIT_NAMES);
+            collect(operationDescriptor, context, h.execution, EXECUTION_NAMES);
+            collect(operationDescriptor, context, h.backupAckWait, BACKUP_ACK_WAIT_NAMES);
+        }
+    }
+
+    private void collect(MetricDescriptor descriptor, MetricsCollectionContext context,
+                         LatencyHistogram histogram, String[] names) {
+        if (histogram == null) {
+            return;
+        }
+
+        histogram.intervalSnapshot(snapshot);
+        context.collect(descriptor, names[0], INFO, COUNT, snapshot.count());
+        context.collect(descriptor, names[1], INFO, NS, snapshot.valueAtPercentile(P50));
+        context.collect(descriptor, names[2], INFO, NS, snapshot.valueAtPercentile(P99));
+        context.collect(descriptor, names[3], INFO, NS, snapshot.valueAtPercentile(P999));
+        context.collect(descriptor, names[4], INFO, NS, snapshot.max());
+    }
+
+    // visible for testing
+    Histograms get(Class c) {
+        return histograms.get(c);
+    }
+
+    private static String[] metricNames(String prefix) {
+        return new String[]{prefix + "Count", prefix + "P50", prefix + "P99", prefix + "P999", prefix + "Max"};
+    }
+
+    /**
+     * The histograms of a single operation class.
+     */
+    static final class Histograms {
+        private static final AtomicReferenceFieldUpdater<Histograms, LatencyHistogram> QUEUE_WAIT =
+                AtomicReferenceFieldUpdater.newUpdater(Histograms.class, LatencyHistogram.class, "queueWait");
+        private static final AtomicReferenceFieldUpdater<Histograms, LatencyHistogram> BACKUP_ACK_WAIT =
+                AtomicReferenceFieldUpdater.newUpdater(Histograms.class, LatencyHistogram.class, "backupAckWait");
+
+        final LatencyHistogram execution = new LatencyHistogram();
+        volatile LatencyHistogram queueWait;
+        volatile LatencyHistogram backupAckWait;
+
+        private LatencyHistogram queueWait() {
+            QUEUE_WAIT.compareAndSet(this, null, new LatencyHistogram());
+            return queueWait;
+        }
+
+        private LatencyHistogram backupAckWait() {
+            BACKUP_ACK_WAIT.compareAndSet(this, null, new LatencyHistogram());
+            return backupAckWait;
+        }
+    }
+}
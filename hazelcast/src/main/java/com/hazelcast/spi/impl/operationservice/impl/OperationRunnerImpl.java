@@ -129,6 +129,8 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
     private final OutboundResponseHandler outboundResponseHandler;
 
     private final ConcurrentMap<Class, LatencyDistribution> opLatencyDistributions;
+    // null if the latency histograms are disabled
+    private final OperationLatencyHistograms latencyHistograms;
 
     // When partitionId >= 0, it is a partition specific
     // when partitionId = -1, it is generic
@@ -152,6 +154,7 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
         this.failedBackupsCounter = failedBackupsCounter;
         this.backupHandler = operationService.backupHandler;
         this.opLatencyDistributions = opLatencyDistributions;
+        this.latencyHistograms = operationService.latencyHistograms;
         // only a ad-hoc operation runner will be called concurrently
         this.executedOperationsCounter = partitionId == AD_HOC_PARTITION_ID ? newMwCounter() : newSwCounter();
     }
@@ -279,22 +282,34 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
                 currentTask = null;
             }
             op.popThreadContext();
-            if (opLatencyDistributions != null) {
-                Class c = op.getClass();
-                if (op instanceof PartitionIteratingOperation) {
-                    c = ((PartitionIteratingOperation) op).getOperationFactory().getClass();
-                }
-                LatencyDistribution distribution = opLatencyDistributions.get(c);
-                // Note: we want to prevent lock here, if collision happened.
-                if (distribution == null) {
-                    distribution = opLatencyDistributions.computeIfAbsent(c, k -> new LatencyDistribution());
-                }
-                distribution.recordNanos(System.nanoTime() - startNanos);
-            }
+            recordLatency(op, startNanos);
         }
         return false;
     }
 
+    private void recordLatency(Operation op, long startNanos) {
+        if (opLatencyDistributions == null && latencyHistograms == null) {
+            return;
+        }
+
+        long durationNanos = System.nanoTime() - startNanos;
+        if (latencyHistograms != null) {
+            latencyHistograms.recordExecution(op, durationNanos);
+        }
+        if (opLatencyDistributions != null) {
+            Class c = op.getClass();
+            if (op instanceof PartitionIteratingOperation) {
+                c = ((PartitionIteratingOperation) op).getOperationFactory().getClass();
+            }
+            LatencyDistribution distribution = opLatencyDistributions.get(c);
+            // Note: we want to prevent lock here, if collision happened.
+            if (distribution == null) {
+                distribution = opLatencyDistributions.computeIfAbsent(c, k -> new LatencyDistribution());
+            }
+            distribution.recordNanos(durationNanos);
+        }
+    }
+
     private void call(Operation op) throws Exception {
         CallStatus callStatus = op.call();
 
@@ -376,6 +391,9 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
         }
 
         op.sendResponse(new CallTimeoutResponse(op.getCallId(), op.isUrgent()));
+        if (op instanceof Backup) {
+            ((Backup) op).onCallTimeout();
+        }
         return true;
     }
 
@@ -496,6 +514,11 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
                 return false;
             }
 
+            long receivedNanos = packet.getReceivedNanos();
+            if (latencyHistograms != null && receivedNanos != 0) {
+                latencyHistograms.recordQueueWait(op, startNanos - receivedNanos);
+            }
+
             if (publishCurrentTask) {
                 currentTask = null;
             }
@@ -133,7 +133,12 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     final Node node;
     final ILogger logger;
     final OperationBackupHandler backupHandler;
+    final BackupPipeline backupPipeline;
     final BackpressureRegulator backpressureRegulator;
+    // null if the adaptive backpressure is disabled
+    final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    // null if the latency histograms are disabled
+    final OperationLatencyHistograms latencyHistograms;
     final OutboundResponseHandler outboundResponseHandler;
     final OutboundOperationHandler outboundOperationHandler;
     volatile Invocation.Context invocationContext;
@@ -167,18 +172,32 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
                 node.getLogger(OutboundResponseHandler.class));
 
+        this.concurrencyLimiter = properties.getBoolean(AdaptiveConcurrencyLimiter.ENABLED)
+                ? new AdaptiveConcurrencyLimiter(thisAddress, () -> getOperationExecutor().getEstimatedQueueWaitNanos(),
+                properties)
+                : null;
+
+        this.latencyHistograms = properties.getBoolean(OperationLatencyHistograms.ENABLED)
+                ? new OperationLatencyHistograms()
+                : null;
+
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class),
                 backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()),
+                concurrencyLimiter,
+                latencyHistograms,
                 properties);
 
+        this.backupPipeline = new BackupPipeline(this, properties);
+
         this.invocationMonitor = new InvocationMonitor(
                 nodeEngine, thisAddress, properties, invocationRegistry,
-                node.getLogger(InvocationMonitor.class), serializationService, nodeEngine.getServiceManager());
+                node.getLogger(InvocationMonitor.class), serializationService, nodeEngine.getServiceManager(),
+                backupPipeline);
 
         this.outboundOperationHandler = new OutboundOperationHandler(node, serializationService);
 
-        this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler);
+        this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler, backupPipeline);
 
         String hzName = nodeEngine.getHazelcastInstance().getName();
         ClassLoader configClassLoader = node.getConfigClassLoader();
@@ -227,6 +246,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         return inboundResponseHandlerSupplier.backupHandler();
     }
 
+    public BackupPipeline getBackupPipeline() {
+        return backupPipeline;
+    }
+
     @Override
     public int getPartitionThreadCount() {
         return operationExecutor.getPartitionThreadCount();
@@ -501,6 +524,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     @Override
     public void onEndpointLeft(Address endpoint) {
         invocationMonitor.onEndpointLeft(endpoint);
+        backupPipeline.onEndpointLeft(endpoint);
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onEndpointLeft(endpoint);
+        }
     }
 
     public void reset() {
@@ -511,7 +538,14 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, OPERATION_PREFIX);
-        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                outboundOperationHandler, backupPipeline);
+        if (concurrencyLimiter != null) {
+            registry.registerDynamicMetricsProvider(concurrencyLimiter);
+        }
+        if (latencyHistograms != null) {
+            registry.registerDynamicMetricsProvider(latencyHistograms);
+        }
     }
 
     public void start() {
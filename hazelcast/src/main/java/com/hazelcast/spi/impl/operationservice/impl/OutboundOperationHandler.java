@@ -18,28 +18,104 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.internal.util.ConcurrentReferenceHashMap;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BATCHING_BATCHED_OPERATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BATCHING_BATCHES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_BATCHING;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
+import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Responsible for sending Operations to another member.
+ * <p>
+ * When {@link #BATCHING_ENABLED batching} is enabled, non-urgent partition operations for the same
+ * connection are combined into a single packet (see {@link PacketBatchCodec}). No delay is added to
+ * form a batch: the thread that finds the connection idle writes all packets that other threads offered
+ * in the meantime. So batches only form when multiple threads send to the same member at the same time,
+ * and a single sender isn't slowed down. The receiving member unpacks the batch and hands every operation
+ * to its partition thread.
+ * <p>
+ * Because all batched packets for a connection go through a single FIFO queue, the order of the operations
+ * sent over a connection is preserved. The writing thread writes at most a single batch at a time and then
+ * gives up the writer role, so a caller never ends up writing the packets of other threads for as long as
+ * there is traffic. A thread whose packet is written by another thread parks until that write is done and
+ * returns its result, so every caller gets the result of the write of its own packet.
+ * <p>
+ * Batch packets are only sent once the cluster version is at least 5.4, because older members don't
+ * understand them.
  */
-public class OutboundOperationHandler {
+public class OutboundOperationHandler implements StaticMetricsProvider {
+
+    /**
+     * If partition operations sent concurrently to the same member should be combined into a single packet.
+     */
+    public static final HazelcastProperty BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.batching.enabled", false);
+
+    /**
+     * The maximum number of operations in a single batch packet.
+     */
+    public static final HazelcastProperty BATCHING_MAX_SIZE
+            = new HazelcastProperty("hazelcast.operation.batching.max.size", 64);
+
+    // a parked sender is always unparked when its packet is written or when it is next in line to write, the
+    // timeout only guards against a sender being stuck forever.
+    private static final long MAX_PARK_NANOS = MILLISECONDS.toNanos(1);
+
+    @Probe(name = OPERATION_METRIC_BATCHING_BATCHES)
+    private final Counter batches = newMwCounter();
+    @Probe(name = OPERATION_METRIC_BATCHING_BATCHED_OPERATIONS)
+    private final Counter batchedOperations = newMwCounter();
+
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final Node node;
+    private final boolean batching;
+    private final int batchMaxSize;
+    // weak keys so that the batcher of a closed connection is removed
+    private final ConcurrentReferenceHashMap<ServerConnection, ConnectionBatcher> batchers
+            = new ConcurrentReferenceHashMap<>(WEAK, STRONG);
 
     public OutboundOperationHandler(Node node, InternalSerializationService serializationService) {
         this.node = node;
         this.thisAddress = node.getThisAddress();
         this.serializationService = serializationService;
+        HazelcastProperties properties = node.getProperties();
+        this.batching = properties.getBoolean(BATCHING_ENABLED);
+        this.batchMaxSize = checkPositive(BATCHING_MAX_SIZE.getName(), properties.getInteger(BATCHING_MAX_SIZE));
+    }
+
+    @Override
+    public void provideStaticMetrics(MetricsRegistry registry) {
+        if (batching) {
+            registry.registerStaticMetrics(this, OPERATION_PREFIX_BATCHING);
+        }
     }
 
     public boolean send(Operation op, Address target) {
@@ -57,14 +133,33 @@ public class OutboundOperationHandler {
         }
 
         int streamId = op.getPartitionId();
+        if (isBatchable(op)) {
+            ServerConnection connection = cm.get(target, streamId);
+            if (connection != null) {
+                return sendBatched(toPacket(op), connection);
+            }
+        }
         return cm.transmit(toPacket(op), target, streamId);
     }
 
     public boolean send(Operation op, ServerConnection connection) {
         Packet packet = toPacket(op);
+        if (isBatchable(op)) {
+            return sendBatched(packet, connection);
+        }
         return connection.write(packet);
     }
 
+    private boolean isBatchable(Operation op) {
+        return batching && !op.isUrgent() && op.getPartitionId() >= 0
+                && node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4);
+    }
+
+    private boolean sendBatched(Packet packet, ServerConnection connection) {
+        ConnectionBatcher batcher = batchers.applyIfAbsent(connection, c -> new ConnectionBatcher());
+        return batcher.send(packet, connection);
+    }
+
     private Packet toPacket(Operation op) {
         byte[] bytes = serializationService.toBytes(op);
         int partitionId = op.getPartitionId();
@@ -75,4 +170,98 @@ public class OutboundOperationHandler {
         }
         return packet;
     }
+
+    /**
+     * Combines the packets for a single connection. Doesn't reference the connection, otherwise the
+     * weak key in the {@link #batchers} would never be cleared.
+     */
+    private final class ConnectionBatcher {
+        private final Queue<PendingPacket> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        // only accessed by the thread that is writing
+        private final PendingPacket[] batch = new PendingPacket[batchMaxSize];
+        private final Packet[] packets = new Packet[batchMaxSize];
+
+        private boolean send(Packet packet, ServerConnection connection) {
+            PendingPacket pending = new PendingPacket(packet, Thread.currentThread());
+            queue.offer(pending);
+
+            // after writing a batch, the writing thread unparks the owner of the next queued packet. So a packet
+            // offered while another thread was writing is either written by that thread or by the thread that
+            // is unparked, which can be the thread that offered it.
+            while (pending.state == PendingPacket.QUEUED) {
+                if (writing.compareAndSet(false, true)) {
+                    try {
+                        writeBatch(connection);
+                    } finally {
+                        writing.set(false);
+                    }
+                    PendingPacket next = queue.peek();
+                    if (next != null) {
+                        LockSupport.unpark(next.owner);
+                    }
+                } else {
+                    LockSupport.parkNanos(MAX_PARK_NANOS);
+                }
+            }
+            return pending.state == PendingPacket.WRITTEN;
+        }
+
+        private void writeBatch(ServerConnection connection) {
+            int count = 0;
+            PendingPacket pending;
+            while (count < batch.length && (pending = queue.poll()) != null) {
+                batch[count++] = pending;
+            }
+
+            if (count == 0) {
+                return;
+            }
+
+            boolean written = false;
+            try {
+                if (count == 1) {
+                    written = connection.write(batch[0].packet);
+                } else {
+                    for (int k = 0; k < count; k++) {
+                        packets[k] = batch[k].packet;
+                    }
+                    batches.inc();
+                    batchedOperations.inc(count);
+                    written = connection.write(PacketBatchCodec.pack(packets, count, Packet.Type.OPERATION));
+                }
+            } finally {
+                // the state is also set if the write threw, otherwise the owners would wait forever
+                int state = written ? PendingPacket.WRITTEN : PendingPacket.FAILED;
+                Thread current = Thread.currentThread();
+                for (int k = 0; k < count; k++) {
+                    PendingPacket done = batch[k];
+                    done.state = state;
+                    if (done.owner != current) {
+                        LockSupport.unpark(done.owner);
+                    }
+                }
+                Arrays.fill(batch, 0, count, null);
+                Arrays.fill(packets, 0, count, null);
+            }
+        }
+    }
+
+    /**
+     * A packet queued in a {@link ConnectionBatcher} and the result of its write.
+     */
+    private static final class PendingPacket {
+        static final int QUEUED = 0;
+        static final int WRITTEN = 1;
+        static final int FAILED = 2;
+
+        final Packet packet;
+        final Thread owner;
+        volatile int state;
+
+        PendingPacket(Packet packet, Thread owner) {
+            this.packet = packet;
+            this.owner = owner;
+        }
+    }
 }
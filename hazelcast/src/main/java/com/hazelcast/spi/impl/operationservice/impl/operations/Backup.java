@@ -37,6 +37,7 @@ import com.hazelcast.spi.impl.SpiDataSerializerHook;
 import com.hazelcast.spi.impl.operationservice.BackupOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.impl.BackupPipeline;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -53,6 +54,10 @@ import static com.hazelcast.spi.impl.operationservice.OperationResponseHandlerFa
 public final class Backup extends Operation implements BackupOperation, AllowedDuringPassiveState,
         IdentifiedDataSerializable {
 
+    // the replica version count is at most MAX_BACKUP_COUNT, so a bit of that byte is used
+    // to mark that the backup has a sequence number.
+    private static final int SEQUENCED_BIT = 1 << 6;
+
     private Address originalCaller;
     private ServiceNamespace namespace;
     private long[] replicaVersions;
@@ -64,6 +69,9 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
     private transient Throwable validationFailure;
     private transient boolean backupOperationInitialized;
     private long clientCorrelationId;
+    // the sequence number assigned by the BackupPipeline; 0 if the backup is acked individually.
+    private long sequence;
+    private transient boolean sequenceCompleted;
 
     public Backup() {
     }
@@ -107,6 +115,30 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
         return backupOp;
     }
 
+    /**
+     * Sets the sequence number of this backup in the stream from the primary replica to the
+     * backup replica. A sequenced backup is acked cumulatively, see {@link BackupPipeline}.
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isSync() {
+        return sync;
+    }
+
+    public Address getOriginalCaller() {
+        return originalCaller;
+    }
+
+    public long getClientCorrelationId() {
+        return clientCorrelationId;
+    }
+
     @Override
     public void beforeRun() {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
@@ -183,6 +215,11 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
 
     @Override
     public void afterRun() throws Exception {
+        if (sequence != 0) {
+            completeSequence(validationFailure == null);
+            return;
+        }
+
         if (validationFailure != null || !sync || getCallId() == 0 || originalCaller == null) {
             return;
         }
@@ -204,6 +241,26 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
         }
     }
 
+    /**
+     * Called if the backup is not run because its call timed out.
+     */
+    public void onCallTimeout() {
+        if (sequence != 0) {
+            completeSequence(false);
+        }
+    }
+
+    // a sequenced backup needs to be completed exactly once, whether it was applied or not,
+    // otherwise the backups following it in the stream can't be acked.
+    private void completeSequence(boolean applied) {
+        if (sequenceCompleted) {
+            return;
+        }
+        sequenceCompleted = true;
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        nodeEngine.getOperationService().getBackupPipeline().complete(originalCaller, sequence, applied);
+    }
+
     private boolean isCallerClient() {
         return clientCorrelationId != -1;
     }
@@ -220,6 +277,10 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
 
     @Override
     public void onExecutionFailure(Throwable e) {
+        if (sequence != 0 && getNodeEngine() != null) {
+            completeSequence(false);
+        }
+
         if (backupOp != null) {
             try {
                 // Ensure that backup operation is initialized.
@@ -280,10 +341,13 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
             }
         }
 
-        out.writeByte(replicaVersionCount);
+        out.writeByte(sequence != 0 ? replicaVersionCount | SEQUENCED_BIT : replicaVersionCount);
         for (int k = 0; k < replicaVersionCount; k++) {
             out.writeLong(replicaVersions[k]);
         }
+        if (sequence != 0) {
+            out.writeLong(sequence);
+        }
 
         out.writeBoolean(sync);
         out.writeLong(clientCorrelationId);
@@ -303,10 +367,14 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
         }
 
         replicaVersions = new long[MAX_BACKUP_COUNT];
-        byte replicaVersionCount = in.readByte();
+        byte header = in.readByte();
+        int replicaVersionCount = header & ~SEQUENCED_BIT;
         for (int k = 0; k < replicaVersionCount; k++) {
             replicaVersions[k] = in.readLong();
         }
+        if ((header & SEQUENCED_BIT) != 0) {
+            sequence = in.readLong();
+        }
 
         sync = in.readBoolean();
         clientCorrelationId = in.readLong();
@@ -321,5 +389,8 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
         sb.append(", originalCaller=").append(originalCaller);
         sb.append(", version=").append(Arrays.toString(replicaVersions));
         sb.append(", sync=").append(sync);
+        if (sequence != 0) {
+            sb.append(", sequence=").append(sequence);
+        }
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.operations;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.spi.impl.operationservice.impl.BackupPipeline;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+
+/**
+ * The cumulative ack of the sequenced backups sent by a primary replica to a backup replica.
+ * Acks all backups with a sequence number in the range (fromSequence, toSequence], except the
+ * failed ones.
+ * <p>
+ * The operation is urgent so that, just like a single
+ * {@link com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse}, it doesn't queue behind the
+ * user operations on the generic threads.
+ *
+ * @see BackupPipeline
+ */
+public final class BackupAckBatchOperation extends Operation implements UrgentSystemOperation, AllowedDuringPassiveState,
+        IdentifiedDataSerializable {
+
+    private long fromSequence;
+    private long toSequence;
+    private long[] failedSequences;
+
+    public BackupAckBatchOperation() {
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public BackupAckBatchOperation(long fromSequence, long toSequence, long[] failedSequences) {
+        this.fromSequence = fromSequence;
+        this.toSequence = toSequence;
+        this.failedSequences = failedSequences;
+    }
+
+    @Override
+    public void run() throws Exception {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        nodeEngine.getOperationService().getBackupPipeline()
+                .onAck(getCallerAddress(), fromSequence, toSequence, failedSequences);
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.BACKUP_ACK_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeLong(fromSequence);
+        out.writeLong(toSequence);
+        out.writeLongArray(failedSequences);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        fromSequence = in.readLong();
+        toSequence = in.readLong();
+        failedSequences = in.readLongArray();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", fromSequence=").append(fromSequence);
+        sb.append(", toSequence=").append(toSequence);
+        sb.append(", failedSequences=").append(failedSequences.length);
+    }
+}
@@ -735,6 +735,33 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_MAX_PARALLEL_REPLICATIONS
             = new HazelcastProperty("hazelcast.partition.max.parallel.replications", PARTITION_MAX_PARALLEL_MIGRATIONS);
 
+    /**
+     * Maximum number of bytes per second a member sends as the source of partition
+     * migrations. The budget is shared by all migrations running concurrently on
+     * the member; when it is exhausted, the next migration fragment is delayed.
+     * <p>
+     * Limiting the bandwidth prevents migrations from saturating the network and
+     * hurting the latency of the live traffic, at the cost of a longer rebalance.
+     * <p>
+     * Default is 0, which means unlimited.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_MAX_BYTES_PER_SECOND
+            = new HazelcastProperty("hazelcast.partition.migration.max.bytes.per.second", 0L);
+
+    /**
+     * Maximum number of migration fragments of a single partition migration that
+     * the source sends before receiving the acknowledgement of the destination.
+     * <p>
+     * With a value larger than 1, the source prepares and sends the next fragments
+     * while the destination is still applying the previous one, so the round trip
+     * per fragment doesn't limit the migration throughput. Every fragment in flight
+     * holds up to {@link #PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB} of data.
+     * <p>
+     * Default is 1, which means the fragments are sent one after another.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT
+            = new HazelcastProperty("hazelcast.partition.migration.max.fragments.in.flight", 1);
+
     /**
      * Class name implementing {@link com.hazelcast.partition.PartitioningStrategy}, which
      * defines key to partition mapping.
@@ -1811,6 +1838,42 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.jet.idle.noncooperative.max.microseconds", 5000, MICROSECONDS)
             .setDeprecatedName("jet.idle.noncooperative.max.microseconds");
 
+    /**
+     * Whether the cooperative worker threads of Jet steal tasklets from each
+     * other. The cooperative tasklets are assigned to the threads round-robin
+     * when the job starts. If the tasklets of a job aren't equally busy, some
+     * threads can be overloaded while others are idle. When enabled, a thread
+     * that made no progress in its last iteration asks for a tasklet and a
+     * thread with more than one busy tasklet hands one of them over. A tasklet
+     * is still executed by only one thread at a time, but cooperative
+     * processors must not rely on always being called on the same thread.
+     * <p>
+     * The default value is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_WORK_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.jet.cooperative.work.stealing.enabled", false);
+
+    /**
+     * Whether the non-cooperative tasklets of Jet run on virtual threads
+     * instead of platform threads. Every non-cooperative processor, for
+     * example a JDBC source or sink, gets its own thread, so jobs with a high
+     * local parallelism can create many platform threads. Virtual threads
+     * are much cheaper while the processor is blocked in I/O. Note that a
+     * virtual thread blocked inside a {@code synchronized} block or a native
+     * call occupies its carrier thread, which some drivers do.
+     * <p>
+     * Virtual threads require Java 21 or newer. On older versions a warning
+     * is logged and platform threads are used.
+     * <p>
+     * The default value is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_BLOCKING_VIRTUAL_THREADS_ENABLED
+            = new HazelcastProperty("hazelcast.jet.blocking.virtual.threads.enabled", false);
+
     /**
      * The directory containing jars, that can be used to specify custom classpath for
      * a stage in a pipeline.
@@ -1849,6 +1912,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty SQL_CUSTOM_TYPES_ENABLED = new HazelcastProperty(
             "hazelcast.sql.experimental.custom.types.enabled", false);
 
+    /**
+     * When {@code true}, the SQL engine sends consecutive rows over the
+     * network between members as columnar batches, which are serialized once
+     * per batch. It sets the {@link
+     * com.hazelcast.jet.config.JobConfigArguments#KEY_COLUMNAR_ROW_BATCHES_ENABLED}
+     * argument of its jobs. Only the members that submit the queries need
+     * this property.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty SQL_COLUMNAR_ROW_BATCHES_ENABLED = new HazelcastProperty(
+            "hazelcast.sql.columnar.row.batches.enabled", false);
+
     /**
      * When {@code true}, enables monitoring of the runtime environment to detect the intent of shutdown
      * and automate cluster state management decisions.
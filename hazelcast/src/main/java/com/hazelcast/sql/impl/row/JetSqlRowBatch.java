@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.sql.impl.row;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.jet.core.JetDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A batch of {@link JetSqlRow}s with the same number of fields, together
+ * with the partition ID of each row. A {@code SenderTasklet} sends
+ * consecutive rows as a single batch over a distributed edge, the {@code
+ * ReceiverTasklet} splits it into the rows again, so the processors aren't
+ * aware of it.
+ * <p>
+ * The batch is serialized column by column: if all non-null values of a
+ * column have the same common type, the type is written once and the
+ * values are written in their raw form. Other columns are written in the
+ * same way as {@link JetSqlRow} writes the values. The nulls are written as
+ * a bitmap for each column.
+ */
+public class JetSqlRowBatch implements IdentifiedDataSerializable {
+
+    private static final byte TYPE_GENERIC = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_BIGINT = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_VARCHAR = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+
+    private SerializationService ss;
+    private int fieldCount;
+    private JetSqlRow[] rows;
+    private int[] partitionIds;
+    private int size;
+
+    // for deserialization
+    public JetSqlRowBatch() { }
+
+    public JetSqlRowBatch(@Nonnull SerializationService ss, int capacity) {
+        this.ss = ss;
+        this.rows = new JetSqlRow[capacity];
+        this.partitionIds = new int[capacity];
+    }
+
+    /**
+     * Adds the row to the batch. Returns false, if the batch is full or the
+     * row has a different number of fields than the rows in the batch.
+     */
+    public boolean add(@Nonnull JetSqlRow row, int partitionId) {
+        if (size == rows.length || size > 0 && row.getFieldCount() != fieldCount) {
+            return false;
+        }
+        fieldCount = row.getFieldCount();
+        rows[size] = row;
+        partitionIds[size] = partitionId;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public JetSqlRow row(int index) {
+        return rows[index];
+    }
+
+    public int partitionId(int index) {
+        return partitionIds[index];
+    }
+
+    /**
+     * Removes all rows from the batch, so that it can be reused.
+     */
+    public void clear() {
+        Arrays.fill(rows, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetDataSerializerHook.JET_SQL_ROW_BATCH;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(fieldCount);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(partitionIds[i]);
+        }
+        long[] nulls = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        for (int column = 0; column < fieldCount; column++) {
+            Arrays.fill(nulls, 0);
+            byte type = columnType(column, nulls);
+            out.writeByte(type);
+            for (long word : nulls) {
+                out.writeLong(word);
+            }
+            for (int i = 0; i < size; i++) {
+                Object value = rows[i].getMaybeSerialized(column);
+                if (value != null) {
+                    writeValue(out, type, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the common type of the non-null values of the column and marks
+     * the null values in the bitmap.
+     */
+    private byte columnType(int column, long[] nulls) {
+        byte type = -1;
+        for (int i = 0; i < size; i++) {
+            Object value = rows[i].getMaybeSerialized(column);
+            if (value == null) {
+                nulls[i / Long.SIZE] |= 1L << i;
+                continue;
+            }
+            byte valueType = valueType(value);
+            if (type == -1) {
+                type = valueType;
+            } else if (type != valueType) {
+                type = TYPE_GENERIC;
+            }
+        }
+        return type == -1 ? TYPE_GENERIC : type;
+    }
+
+    private static byte valueType(Object value) {
+        // exact classes only, serialized values (Data) are generic
+        Class<?> clazz = value.getClass();
+        if (clazz == Integer.class) {
+            return TYPE_INT;
+        } else if (clazz == Long.class) {
+            return TYPE_BIGINT;
+        } else if (clazz == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (clazz == String.class) {
+            return TYPE_VARCHAR;
+        } else if (clazz == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else {
+            return TYPE_GENERIC;
+        }
+    }
+
+    private void writeValue(ObjectDataOutput out, byte type, Object value) throws IOException {
+        switch (type) {
+            case TYPE_INT:
+                out.writeInt((Integer) value);
+                break;
+            case TYPE_BIGINT:
+                out.writeLong((Long) value);
+                break;
+            case TYPE_DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case TYPE_VARCHAR:
+                out.writeString((String) value);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            default:
+                IOUtil.writeData(out, ss.toData(value));
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        ss = ((SerializationServiceSupport) in).getSerializationService();
+        size = in.readInt();
+        fieldCount = in.readInt();
+        partitionIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            partitionIds[i] = in.readInt();
+        }
+        Object[][] values = new Object[size][fieldCount];
+        long[] nulls = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        for (int column = 0; column < fieldCount; column++) {
+            byte type = in.readByte();
+            for (int w = 0; w < nulls.length; w++) {
+                nulls[w] = in.readLong();
+            }
+            for (int i = 0; i < size; i++) {
+                if ((nulls[i / Long.SIZE] & 1L << i) == 0) {
+                    values[i][column] = readValue(in, type);
+                }
+            }
+        }
+        rows = new JetSqlRow[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = new JetSqlRow(ss, values[i]);
+        }
+    }
+
+    private static Object readValue(ObjectDataInput in, byte type) throws IOException {
+        switch (type) {
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_BIGINT:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_VARCHAR:
+                return in.readString();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_GENERIC:
+                return IOUtil.readData(in);
+            default:
+                throw new IOException("Unknown column type " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JetSqlRowBatch{size=" + size + ", fieldCount=" + fieldCount + '}';
+    }
+}
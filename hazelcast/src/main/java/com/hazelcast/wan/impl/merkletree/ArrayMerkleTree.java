@@ -105,9 +105,16 @@ public class ArrayMerkleTree extends AbstractMerkleTreeView implements MerkleTre
 
     @Override
     public void updateAdd(Object key, Object value) {
-        int keyHash = key.hashCode();
-        int valueHash = value.hashCode();
+        updateAdd(key.hashCode(), value.hashCode());
+    }
 
+    /**
+     * Updating the tree with adding a new entry to the tree
+     *
+     * @param keyHash   The hash of the key that value belongs to
+     * @param valueHash The hash of the value of the added entry
+     */
+    public void updateAdd(int keyHash, int valueHash) {
         int leafOrder = MerkleTreeUtil.getLeafOrderForHash(keyHash, leafLevel);
         int leafCurrentHash = getNodeHash(leafOrder);
         int leafNewHash = MerkleTreeUtil.addHash(leafCurrentHash, valueHash);
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.tpc;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastTestSupport;
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Compares the end-to-end latency of client {@code IMap.get/put} calls on the TPC
+ * path, where the request is run inline on the reactor that owns the partition,
+ * against the classic path through the {@code OperationExecutorImpl} queues.
+ */
+// ignored - meant to be run manually. Doesn't assert anything.
+@Ignore
+public class ClientTpcLatencyBenchmark {
+
+    private static final int KEY_COUNT = 10_000;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int EVENTLOOP_COUNT = 4;
+
+    @After
+    public void after() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void tpc() {
+        run(true);
+    }
+
+    @Test
+    public void classic() {
+        run(false);
+    }
+
+    private void run(boolean tpcEnabled) {
+        Config config = HazelcastTestSupport.smallInstanceConfigWithoutJetAndMetrics();
+        config.getTpcConfig()
+                .setEnabled(tpcEnabled)
+                .setEventloopCount(EVENTLOOP_COUNT);
+        Hazelcast.newHazelcastInstance(config);
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.getTpcConfig().setEnabled(tpcEnabled);
+        HazelcastInstance client = HazelcastClient.newHazelcastClient(clientConfig);
+        IMap<Integer, Integer> map = client.getMap("map");
+
+        for (int k = 0; k < WARMUP_ITERATIONS; k++) {
+            map.put(k % KEY_COUNT, k);
+            map.get(k % KEY_COUNT);
+        }
+
+        long[] putLatencies = new long[ITERATIONS];
+        long[] getLatencies = new long[ITERATIONS];
+        long startMs = System.currentTimeMillis();
+        for (int k = 0; k < ITERATIONS; k++) {
+            int key = k % KEY_COUNT;
+
+            long start = System.nanoTime();
+            map.put(key, k);
+            long afterPut = System.nanoTime();
+            map.get(key);
+            long afterGet = System.nanoTime();
+
+            putLatencies[k] = afterPut - start;
+            getLatencies[k] = afterGet - afterPut;
+        }
+        long durationMs = System.currentTimeMillis() - startMs;
+
+        String mode = tpcEnabled ? "tpc" : "classic";
+        System.out.println(mode + " throughput: " + (2L * ITERATIONS * 1000 / durationMs) + " ops/s");
+        print(mode + " put", putLatencies);
+        print(mode + " get", getLatencies);
+    }
+
+    private static void print(String name, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.println(name + " latency (us):"
+                + " p50=" + percentileMicros(latencies, 0.50)
+                + " p90=" + percentileMicros(latencies, 0.90)
+                + " p99=" + percentileMicros(latencies, 0.99)
+                + " p99.9=" + percentileMicros(latencies, 0.999)
+                + " max=" + latencies[latencies.length - 1] / 1000);
+    }
+
+    private static long percentileMicros(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1000;
+    }
+}
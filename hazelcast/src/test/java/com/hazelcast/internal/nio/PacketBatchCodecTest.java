@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_EVENT_BATCH;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketBatchCodecTest {
+
+    @Test
+    public void packAndUnpack() {
+        Packet packet1 = newPacket(1, 10);
+        Packet packet2 = newPacket(2, 100).raiseFlags(FLAG_URGENT);
+        Packet packet3 = new Packet(new byte[0], 3).setPacketType(Packet.Type.OPERATION);
+
+        Packet batch = PacketBatchCodec.pack(new Packet[]{packet1, packet2, packet3, null}, 3, Packet.Type.OPERATION);
+
+        assertTrue(batch.isFlagRaised(FLAG_OP_BATCH));
+        assertEquals(Packet.Type.OPERATION, batch.getPacketType());
+        assertEquals(-1, batch.getPartitionId());
+
+        ServerConnection connection = mock(ServerConnection.class);
+        batch.setConn(connection);
+        List<Packet> unpacked = new ArrayList<>();
+        PacketBatchCodec.unpack(batch, unpacked::add);
+
+        assertEquals(3, unpacked.size());
+        // the packets aren't copied
+        assertSame(packet1, unpacked.get(0));
+        assertSame(packet2, unpacked.get(1));
+        assertSame(packet3, unpacked.get(2));
+        assertTrue(unpacked.get(1).isUrgent());
+        for (Packet packet : unpacked) {
+            assertSame(connection, packet.getConn());
+        }
+    }
+
+    @Test
+    public void packAndUnpack_events() {
+        Packet packet1 = new Packet(new byte[10], 5).setPacketType(Packet.Type.EVENT);
+        Packet packet2 = new Packet(new byte[20], 6).setPacketType(Packet.Type.EVENT);
+
+        Packet batch = PacketBatchCodec.pack(new Packet[]{packet1, packet2}, 2, Packet.Type.EVENT);
+
+        assertTrue(batch.isFlagRaised(FLAG_EVENT_BATCH));
+        assertEquals(Packet.Type.EVENT, batch.getPacketType());
+        assertTrue(PacketBatchCodec.isBatch(batch.getFlags()));
+        List<Packet> unpacked = new ArrayList<>();
+        PacketBatchCodec.unpack(batch, unpacked::add);
+        assertEquals(2, unpacked.size());
+        assertSame(packet1, unpacked.get(0));
+        assertSame(packet2, unpacked.get(1));
+    }
+
+    @Test
+    public void isBatch_whenFlagOfOtherType_thenFalse() {
+        // FLAG_EVENT_BATCH and FLAG_JET_FLOW_CONTROL share the same bit
+        Packet packet = new Packet(new byte[10]).setPacketType(Packet.Type.JET).raiseFlags(FLAG_EVENT_BATCH);
+
+        assertFalse(PacketBatchCodec.isBatch(packet.getFlags()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pack_whenTypeNotBatchable() {
+        PacketBatchCodec.pack(new Packet[]{newPacket(1, 10)}, 1, Packet.Type.JET);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unpack_whenNotBatch() {
+        PacketBatchCodec.unpack(newPacket(1, 10), packet -> {
+        });
+    }
+
+    private static Packet newPacket(int partitionId, int size) {
+        byte[] payload = new byte[size];
+        for (int k = 0; k < size; k++) {
+            payload[k] = (byte) k;
+        }
+        return new Packet(payload, partitionId).setPacketType(Packet.Type.OPERATION);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ReplicaFragmentMerkleTreeTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testLeaves() {
+        ReplicaFragmentMerkleTree tree = new ReplicaFragmentMerkleTree(4);
+
+        assertEquals(4, tree.depth());
+        assertEquals(8, tree.leaves().length);
+        assertEquals(4, ReplicaFragmentMerkleTree.depthOf(tree.leaves()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepthOf_whenNotPowerOfTwo() {
+        ReplicaFragmentMerkleTree.depthOf(new int[6]);
+    }
+
+    @Test
+    public void testDiff_whenSameEntries_thenEmpty() {
+        ReplicaFragmentMerkleTree tree1 = newTree(100);
+        ReplicaFragmentMerkleTree tree2 = newTree(100);
+
+        assertEquals(100, tree1.entryCount());
+        assertEquals(0, tree1.diff(tree2.leaves()).length);
+    }
+
+    @Test
+    public void testDiff_whenEntryMissing() {
+        ReplicaFragmentMerkleTree tree1 = newTree(100);
+        ReplicaFragmentMerkleTree tree2 = newTree(99);
+
+        int[] diff = tree1.diff(tree2.leaves());
+
+        // a single [leafOrder, hash] pair containing the missing key
+        assertEquals(2, diff.length);
+        Predicate<Data> inDiff = ReplicaFragmentMerkleTree.keysInLeaves(diff);
+        assertTrue(inDiff.test(toData(99)));
+        int matchingKeys = 0;
+        for (int i = 0; i < 100; i++) {
+            if (inDiff.test(toData(i))) {
+                matchingKeys++;
+            }
+        }
+        // only the keys of a single leaf out of 8
+        assertTrue("matchingKeys: " + matchingKeys, matchingKeys < 50);
+    }
+
+    @Test
+    public void testDiff_whenValueDiffers() {
+        ReplicaFragmentMerkleTree tree1 = newTree(100);
+        ReplicaFragmentMerkleTree tree2 = new ReplicaFragmentMerkleTree(4);
+        for (int i = 0; i < 100; i++) {
+            tree2.add(toData(i), toData(i == 42 ? "other" : "value-" + i));
+        }
+
+        int[] diff = tree1.diff(tree2.leaves());
+
+        assertEquals(2, diff.length);
+        assertTrue(ReplicaFragmentMerkleTree.keysInLeaves(diff).test(toData(42)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDiff_whenDepthDiffers() {
+        newTree(10).diff(new ReplicaFragmentMerkleTree(5).leaves());
+    }
+
+    @Test
+    public void testKeysInLeaves_whenNoLeaves() {
+        assertFalse(ReplicaFragmentMerkleTree.keysInLeaves(new int[0]).test(toData(1)));
+    }
+
+    private ReplicaFragmentMerkleTree newTree(int entryCount) {
+        ReplicaFragmentMerkleTree tree = new ReplicaFragmentMerkleTree(4);
+        for (int i = 0; i < entryCount; i++) {
+            tree.add(toData(i), toData("value-" + i));
+        }
+        return tree;
+    }
+
+    private Data toData(Object o) {
+        return serializationService.toData(o);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DeltaReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+
+    @Test
+    public void testMapBackupRepairedWithDelta() {
+        Config config = smallInstanceConfig()
+                .setProperty(PartitionReplicaManager.DELTA_SYNC_ENABLED.getName(), "true");
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(instances);
+
+        IMap<String, String> map = instances[0].getMap(MAP_NAME);
+        for (int i = 0; i < 1000; i++) {
+            map.put("key-" + i, "value-" + i);
+        }
+
+        int partitionId = getPartitionService(instances[0]).getPartitionId("key-0");
+        HazelcastInstance primary = getPartitionService(instances[0]).getPartition(partitionId).isLocal()
+                ? instances[0] : instances[1];
+        HazelcastInstance backup = primary == instances[0] ? instances[1] : instances[0];
+
+        List<Data> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Data key = getSerializationService(primary).toData("key-" + i);
+            if (getPartitionService(primary).getPartitionId(key) == partitionId) {
+                keys.add(key);
+            }
+        }
+        assertTrue("keys: " + keys.size(), keys.size() > 4);
+
+        // lose some backups and let the backup hold a record which has been removed on the primary
+        runOnPartitionThread(backup, partitionId, () -> {
+            RecordStore recordStore = getRecordStore(backup, partitionId);
+            recordStore.removeReplicatedRecord(keys.get(0), true);
+            recordStore.removeReplicatedRecord(keys.get(1), true);
+        });
+        runOnPartitionThread(primary, partitionId,
+                () -> getRecordStore(primary, partitionId).removeReplicatedRecord(keys.get(2), false));
+
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+        partitionService.getReplicaManager()
+                .triggerPartitionReplicaSync(partitionId, singleton(MapService.getObjectNamespace(MAP_NAME)), 1);
+
+        assertTrueEventually(() -> {
+            RecordStore recordStore = getRecordStore(backup, partitionId);
+            assertNotNull(recordStore.getRecord(keys.get(0)));
+            assertNotNull(recordStore.getRecord(keys.get(1)));
+            assertNull(recordStore.getRecord(keys.get(2)));
+            assertEquals(keys.size() - 1, recordStore.size());
+        });
+        assertTrue(primary.getMap(MAP_NAME).getLocalMapStats().getReplicationStats()
+                .getDifferentialPartitionReplicationCount() > 0);
+    }
+
+    private static RecordStore getRecordStore(HazelcastInstance instance, int partitionId) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getExistingRecordStore(partitionId, MAP_NAME);
+    }
+
+    private static void runOnPartitionThread(HazelcastInstance instance, int partitionId, Runnable task) {
+        CountDownLatch latch = new CountDownLatch(1);
+        getOperationService(instance).execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+        assertOpenEventually(latch);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MigrationBandwidthLimiterTest {
+
+    private static final long NOW = SECONDS.toNanos(100);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenNegativeBandwidth_thenFail() {
+        new MigrationBandwidthLimiter(-1);
+    }
+
+    @Test
+    public void whenUnlimited_thenNeverDelayed() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(0);
+
+        assertFalse(limiter.isEnabled());
+        assertEquals(0, limiter.charge(Long.MAX_VALUE / 2, NOW));
+        assertEquals(0, limiter.charge(Long.MAX_VALUE / 2, NOW));
+    }
+
+    @Test
+    public void whenIdle_thenOneSecondOfBytesWithoutDelay() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(1000);
+
+        assertTrue(limiter.isEnabled());
+        assertEquals(0, limiter.charge(600, NOW));
+        assertEquals(0, limiter.charge(400, NOW));
+        assertEquals(MILLISECONDS.toNanos(500), limiter.charge(500, NOW));
+    }
+
+    @Test
+    public void whenBudgetExceeded_thenDelayedByExcess() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(1000);
+
+        assertEquals(SECONDS.toNanos(2), limiter.charge(3000, NOW));
+        // half a second later, the remaining delay has decreased accordingly
+        assertEquals(MILLISECONDS.toNanos(1500), limiter.charge(0, NOW + MILLISECONDS.toNanos(500)));
+        // the charges of concurrent senders add up
+        assertEquals(MILLISECONDS.toNanos(2500), limiter.charge(1000, NOW + MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    public void whenDelayPassed_thenNotDelayed() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(1000);
+
+        limiter.charge(2000, NOW);
+        assertEquals(0, limiter.charge(1000, NOW + SECONDS.toNanos(2)));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_MAX_BYTES_PER_SECOND;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PipelinedMigrationTest extends HazelcastTestSupport {
+
+    private static final int MAP_COUNT = 4;
+    private static final int ENTRY_COUNT = 1000;
+    private static final int VALUE_SIZE = 1024;
+
+    @Test
+    public void whenFragmentsPipelined_thenAllDataMigrated() {
+        testMigration(newConfig(4, 0));
+    }
+
+    @Test
+    public void whenBandwidthLimited_thenAllDataMigratedAndThrottled() {
+        Config config = newConfig(4, 1024 * 1024);
+        HazelcastInstance source = testMigration(config);
+
+        MigrationStats stats = getMigrationManager(source).getStats();
+        assertTrue(stats.getTotalThrottledTime() > 0);
+    }
+
+    @Test
+    public void whenFragmentsSentOneByOne_thenAllDataMigrated() {
+        testMigration(newConfig(1, 0));
+    }
+
+    private HazelcastInstance testMigration(Config config) {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance source = factory.newHazelcastInstance(config);
+        for (int m = 0; m < MAP_COUNT; m++) {
+            IMap<Integer, byte[]> map = source.getMap("map-" + m);
+            for (int k = 0; k < ENTRY_COUNT; k++) {
+                map.set(k, value(m, k));
+            }
+        }
+
+        HazelcastInstance destination = factory.newHazelcastInstance(config);
+        waitAllForSafeState(source, destination);
+
+        for (int m = 0; m < MAP_COUNT; m++) {
+            IMap<Integer, byte[]> map = destination.getMap("map-" + m);
+            assertEquals(ENTRY_COUNT, map.size());
+            for (int k = 0; k < ENTRY_COUNT; k++) {
+                assertArrayEquals(value(m, k), map.get(k));
+            }
+        }
+
+        MigrationStats stats = getMigrationManager(source).getStats();
+        assertTrue(stats.getTotalMigrationFragments() > 0);
+        // at least the owned half of the data has been migrated to the destination
+        assertTrue("migrated bytes: " + stats.getTotalMigratedBytes(),
+                stats.getTotalMigratedBytes() > (long) MAP_COUNT * ENTRY_COUNT * VALUE_SIZE / 2);
+        assertTrueEventually(() -> assertEquals(0, stats.getOngoingMigrations()));
+        return source;
+    }
+
+    private Config newConfig(int maxFragmentsInFlight, long maxBytesPerSecond) {
+        return smallInstanceConfig()
+                .setProperty(PARTITION_COUNT.getName(), "31")
+                .setProperty(PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB.getName(), "1")
+                .setProperty(PARTITION_MIGRATION_MAX_FRAGMENTS_IN_FLIGHT.getName(), String.valueOf(maxFragmentsInFlight))
+                .setProperty(PARTITION_MIGRATION_MAX_BYTES_PER_SECOND.getName(), String.valueOf(maxBytesPerSecond));
+    }
+
+    private static byte[] value(int map, int key) {
+        byte[] value = new byte[VALUE_SIZE];
+        value[0] = (byte) map;
+        value[1] = (byte) key;
+        value[VALUE_SIZE - 1] = (byte) (key >> 8);
+        return value;
+    }
+
+    private static MigrationManager getMigrationManager(HazelcastInstance instance) {
+        return ((InternalPartitionServiceImpl) getPartitionService(instance)).getMigrationManager();
+    }
+}
@@ -45,6 +45,8 @@ import java.io.Serializable;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -84,6 +86,36 @@ public class AbstractSerializationServiceTest {
         }
     }
 
+    @Test
+    public void toData_whenSerializedSizeStable_thenSerializedArrayNotCopied() {
+        BufferCapturingSerializer serializer = new BufferCapturingSerializer();
+        abstractSerializationService.register(StringBuilder.class, serializer);
+
+        // the first serializations learn the size, so their output is copied
+        for (int k = 0; k < SerializedSizeHint.STABLE_COUNT; k++) {
+            Data data = abstractSerializationService.toData(new StringBuilder("value"));
+            assertNotSame(serializer.buffer, data.toByteArray());
+        }
+
+        Data data = abstractSerializationService.toData(new StringBuilder("value"));
+        assertSame(serializer.buffer, data.toByteArray());
+        assertEquals("value", abstractSerializationService.toObject(data).toString());
+    }
+
+    @Test
+    public void toData_whenSerializedSizeChanges_thenSerializedArrayCopied() {
+        BufferCapturingSerializer serializer = new BufferCapturingSerializer();
+        abstractSerializationService.register(StringBuilder.class, serializer);
+        for (int k = 0; k < SerializedSizeHint.STABLE_COUNT; k++) {
+            abstractSerializationService.toData(new StringBuilder("value"));
+        }
+
+        Data data = abstractSerializationService.toData(new StringBuilder("longer value"));
+
+        assertNotSame(serializer.buffer, data.toByteArray());
+        assertEquals("longer value", abstractSerializationService.toObject(data).toString());
+    }
+
     @Test
     public void testExternalizable() {
         ExternalizableValue original = new ExternalizableValue(100);
@@ -410,6 +442,30 @@ public class AbstractSerializationServiceTest {
         }
     }
 
+    /**
+     * Remembers the buffer of the output it last wrote to.
+     */
+    private static class BufferCapturingSerializer implements StreamSerializer<StringBuilder> {
+
+        byte[] buffer;
+
+        @Override
+        public int getTypeId() {
+            return 100001;
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, StringBuilder stringBuilder) throws IOException {
+            out.writeString(stringBuilder.toString());
+            buffer = ((ByteArrayObjectDataOutput) out).buffer;
+        }
+
+        @Override
+        public StringBuilder read(ObjectDataInput in) throws IOException {
+            return new StringBuilder(in.readString());
+        }
+    }
+
     private class StringBufferSerializer implements StreamSerializer<StringBuffer> {
 
         int typeId = 100000;
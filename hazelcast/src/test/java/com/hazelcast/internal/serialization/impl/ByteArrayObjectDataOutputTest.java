@@ -39,7 +39,9 @@ import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -384,6 +386,53 @@ public class ByteArrayObjectDataOutputTest {
         assertArrayEquals(new byte[0], arrayWhenBufferNull);
     }
 
+    @Test
+    public void testToByteArray_whenExpectedSizeWritten_thenBufferHandedOver() throws IOException {
+        byte[] previousBuffer = out.buffer;
+        out.expectSize(12);
+        byte[] exactBuffer = out.buffer;
+        out.writeLong(1);
+        out.writeInt(2);
+
+        byte[] bytes = out.toByteArray();
+
+        assertSame(exactBuffer, bytes);
+        assertSame(previousBuffer, out.buffer);
+        assertEquals(0, out.position());
+    }
+
+    @Test
+    public void testToByteArray_whenOtherSizeWritten_thenCopied() throws IOException {
+        byte[] previousBuffer = out.buffer;
+        out.expectSize(12);
+        byte[] exactBuffer = out.buffer;
+        out.writeLong(1);
+
+        byte[] bytes = out.toByteArray();
+
+        assertNotSame(exactBuffer, bytes);
+        assertEquals(8, bytes.length);
+        out.clear();
+        assertSame(previousBuffer, out.buffer);
+    }
+
+    @Test
+    public void testToByteArray_whenExpectedSizeExceeded_thenCopied() throws IOException {
+        out.expectSize(4);
+        out.writeLong(1);
+
+        byte[] bytes = out.toByteArray();
+
+        assertEquals(8, bytes.length);
+        assertEquals(1, Bits.readLongB(bytes, 0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExpectSize_whenWritten() throws IOException {
+        out.writeInt(1);
+        out.expectSize(12);
+    }
+
     @Test
     public void testClear() {
         out.clear();
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput and the bytes allocated per {@code toData} call while
+ * serializing values of mixed sizes from multiple threads.
+ * <p>
+ * Run it once as is and once with
+ * <code>-Dhazelcast.serialization.bufferpool.maxPooledArraySize=0</code> to compare
+ * the pooled byte arrays of the output buffers with the unpooled ones.
+ * <p>
+ * This is no JUnit test.
+ */
+public class ToDataAllocationBenchmark {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int[] VALUE_SIZES = {100, 10_000, 100_000};
+
+    public static void main(String[] args) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+        byte[][] values = new byte[VALUE_SIZES.length][];
+        for (int k = 0; k < VALUE_SIZES.length; k++) {
+            values[k] = new byte[VALUE_SIZES[k]];
+        }
+
+        AtomicLong allocatedBytes = new AtomicLong();
+        AtomicLong blackhole = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            Thread thread = new Thread(() -> {
+                blackhole.addAndGet(serialize(serializationService, values, WARMUP_ITERATIONS));
+
+                long threadId = Thread.currentThread().getId();
+                long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+                blackhole.addAndGet(serialize(serializationService, values, ITERATIONS));
+                allocatedBytes.addAndGet(threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long durationNanos = System.nanoTime() - start;
+
+        long operations = (long) THREAD_COUNT * (WARMUP_ITERATIONS + ITERATIONS);
+        System.out.printf("throughput: %.0f ops/s%n", operations * 1_000_000_000d / durationNanos);
+        System.out.printf("allocated: %.1f bytes/op%n", (double) allocatedBytes.get() / (THREAD_COUNT * (long) ITERATIONS));
+        System.out.println("blackhole: " + blackhole.get());
+    }
+
+    private static long serialize(InternalSerializationService serializationService, byte[][] values, int iterations) {
+        long result = 0;
+        for (int k = 0; k < iterations; k++) {
+            result += serializationService.toData(values[k % values.length]).totalSize();
+        }
+        return result;
+    }
+}
@@ -33,8 +33,12 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -112,6 +116,50 @@ public class BufferPoolTest extends HazelcastTestSupport {
         assertEquals(Version.UNKNOWN, found2.getVersion());
     }
 
+    @Test
+    public void takeOutputBuffer_whenRepeatedlyGrown_thenByteArraysReused() throws Exception {
+        byte[] value = new byte[100_000];
+        writeAndReturn(value);
+        writeAndReturn(value);
+        long allocations = bufferPool.byteArrayPool.allocations();
+
+        writeAndReturn(value);
+
+        assertEquals(allocations, bufferPool.byteArrayPool.allocations());
+    }
+
+    @Test
+    public void takeOutputBuffer_whenGrownWithPooledByteArrays_thenContentPreserved() throws Exception {
+        // dirty the pooled arrays
+        byte[] garbage = new byte[100_000];
+        Arrays.fill(garbage, (byte) -1);
+        writeAndReturn(garbage);
+
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        for (int k = 0; k < 50_000; k++) {
+            out.writeInt(k);
+        }
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(out.toByteArray());
+        for (int k = 0; k < 50_000; k++) {
+            assertEquals(k, in.readInt());
+        }
+    }
+
+    @Test
+    public void takeOutputBuffer_whenByteArrayPoolDisabled() {
+        bufferPool = new BufferPoolImpl(serializationService, 0);
+
+        assertNull(bufferPool.byteArrayPool);
+        assertNotNull(bufferPool.takeOutputBuffer());
+    }
+
+    private void writeAndReturn(byte[] value) throws Exception {
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        out.write(value);
+        bufferPool.returnOutputBuffer(out);
+    }
+
     // ======================= in ==========================================
 
     @Test
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool.ARRAYS_PER_SIZE_CLASS;
+import static com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool.MIN_POOLED_ARRAY_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ByteArrayPoolTest {
+
+    private final ByteArrayPool pool = new ByteArrayPool(64 * 1024);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construction_whenMaxPooledArraySizeTooSmall() {
+        new ByteArrayPool(MIN_POOLED_ARRAY_SIZE - 1);
+    }
+
+    @Test
+    public void take_roundsUpToSizeClass() {
+        assertEquals(MIN_POOLED_ARRAY_SIZE, pool.take(10).length);
+        assertEquals(2048, pool.take(1025).length);
+        assertEquals(64 * 1024, pool.take(40000).length);
+        assertEquals(3, pool.allocations());
+        assertEquals(MIN_POOLED_ARRAY_SIZE + 2048 + 64 * 1024, pool.allocatedBytes());
+    }
+
+    @Test
+    public void take_whenLargerThanMaxPooledArraySize_thenExactLength() {
+        assertEquals(100_000, pool.take(100_000).length);
+    }
+
+    @Test
+    public void offer_thenReused() {
+        byte[] array = pool.take(4096);
+        pool.offer(array);
+
+        assertSame(array, pool.take(3000));
+        assertEquals(1, pool.allocations());
+    }
+
+    @Test
+    public void offer_whenNotPowerOfTwo_thenNotPooled() {
+        byte[] array = new byte[3000];
+        pool.offer(array);
+
+        assertNotSame(array, pool.take(3000));
+    }
+
+    @Test
+    public void offer_whenLargerThanMaxPooledArraySize_thenNotPooled() {
+        byte[] array = pool.take(128 * 1024);
+        pool.offer(array);
+
+        assertNotSame(array, pool.take(128 * 1024));
+    }
+
+    @Test
+    public void offer_whenSizeClassFull_thenDropped() {
+        for (int k = 0; k < ARRAYS_PER_SIZE_CLASS + 1; k++) {
+            pool.offer(new byte[4096]);
+        }
+
+        for (int k = 0; k < ARRAYS_PER_SIZE_CLASS; k++) {
+            pool.take(4096);
+        }
+        assertEquals(0, pool.allocations());
+
+        pool.take(4096);
+        assertEquals(1, pool.allocations());
+    }
+}
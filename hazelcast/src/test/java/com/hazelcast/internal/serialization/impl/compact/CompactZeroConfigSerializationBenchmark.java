@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import example.serialization.EmployeeDTO;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static com.hazelcast.internal.serialization.impl.compact.SchemaSpecializedReaderWriters.PROPERTY_SPECIALIZATION_ENABLED;
+
+/**
+ * Measures the serialize/deserialize throughput of a zero-config Compact class.
+ * <p>
+ * Run it once as is and once with <code>-Dhazelcast.compact.specialization.enabled=false</code>
+ * to compare the schema specialized reader/writers with the reflective ones.
+ * <p>
+ * This is no JUnit test.
+ */
+public class CompactZeroConfigSerializationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5_000_000;
+    private static final int ITERATIONS = 20_000_000;
+
+    public static void main(String[] args) {
+        System.out.println(PROPERTY_SPECIALIZATION_ENABLED + "=" + SchemaSpecializedReaderWriters.SPECIALIZATION_ENABLED);
+
+        SerializationService serializationService = createSerializationService();
+        EmployeeDTO employee = new EmployeeDTO(30, 102310312);
+        Data data = serializationService.toData(employee);
+
+        long blackhole = 0;
+        blackhole += serialize(serializationService, employee, WARMUP_ITERATIONS);
+        blackhole += deserialize(serializationService, data, WARMUP_ITERATIONS);
+
+        long start = System.nanoTime();
+        blackhole += serialize(serializationService, employee, ITERATIONS);
+        report("serialize", start);
+
+        start = System.nanoTime();
+        blackhole += deserialize(serializationService, data, ITERATIONS);
+        report("deserialize", start);
+
+        System.out.println("blackhole: " + blackhole);
+    }
+
+    private static long serialize(SerializationService serializationService, EmployeeDTO employee, int iterations) {
+        long result = 0;
+        for (int k = 0; k < iterations; k++) {
+            result += serializationService.toData(employee).totalSize();
+        }
+        return result;
+    }
+
+    private static long deserialize(SerializationService serializationService, Data data, int iterations) {
+        long result = 0;
+        for (int k = 0; k < iterations; k++) {
+            EmployeeDTO employee = serializationService.toObject(data);
+            result += employee.getAge();
+        }
+        return result;
+    }
+
+    private static void report(String name, long startNanos) {
+        long durationNanos = System.nanoTime() - startNanos;
+        System.out.printf("%s: %.1f ns/op, %.0f ops/s%n", name,
+                (double) durationNanos / ITERATIONS, ITERATIONS * 1_000_000_000d / durationNanos);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Objects;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder.compact;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SchemaSpecializedReaderWritersTest {
+
+    @Test
+    public void testRoundTrip() {
+        SerializationService serializationService = createSerializationService();
+        PrimitivesPojo expected = PrimitivesPojo.create();
+
+        Data data = serializationService.toData(expected);
+        PrimitivesPojo actual = serializationService.toObject(data);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRoundTrip_repeated() {
+        SerializationService serializationService = createSerializationService();
+
+        for (int k = 0; k < 100; k++) {
+            PrimitivesPojo expected = PrimitivesPojo.create();
+            expected.i = k;
+            expected.flag = k % 2 == 0;
+
+            Data data = serializationService.toData(expected);
+            PrimitivesPojo actual = serializationService.toObject(data);
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testRead_whenSchemaHasNullableKinds() {
+        SerializationService serializationService = createSerializationService();
+        GenericRecord record = compact(PrimitivesPojo.class.getName())
+                .setNullableInt8("b", (byte) 1)
+                .setNullableInt16("c", (short) 'x')
+                .setNullableInt16("s", (short) 2)
+                .setNullableInt32("i", 3)
+                .setNullableInt64("l", 4L)
+                .setNullableFloat32("f", 5.5f)
+                .setNullableFloat64("d", 6.5d)
+                .setNullableBoolean("flag", true)
+                .setString("str", "foo")
+                .build();
+
+        PrimitivesPojo actual = serializationService.toObject(serializationService.toData(record));
+
+        PrimitivesPojo expected = PrimitivesPojo.create();
+        expected.str = "foo";
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRead_whenFieldsMissingInSchema() {
+        SerializationService serializationService = createSerializationService();
+        GenericRecord record = compact(PrimitivesPojo.class.getName())
+                .setInt32("i", 42)
+                .setBoolean("flag", true)
+                .build();
+
+        PrimitivesPojo actual = serializationService.toObject(serializationService.toData(record));
+
+        assertEquals(42, actual.i);
+        assertEquals(true, actual.flag);
+        assertEquals(0, actual.l);
+        assertEquals(0, actual.c);
+        assertNull(actual.str);
+    }
+
+    @Test
+    public void testRead_whenFieldHasDifferentKindInSchema() {
+        SerializationService serializationService = createSerializationService();
+        GenericRecord record = compact(PrimitivesPojo.class.getName())
+                .setInt64("i", 42)
+                .setInt32("l", 43)
+                .build();
+
+        PrimitivesPojo actual = serializationService.toObject(serializationService.toData(record));
+
+        // fields with an incompatible kind are ignored, just like the reflective serializer does
+        assertEquals(0, actual.i);
+        assertEquals(0, actual.l);
+    }
+
+    @Test
+    public void testInheritedFields() {
+        SerializationService serializationService = createSerializationService();
+        ChildPojo expected = new ChildPojo();
+        expected.i = 10;
+        expected.childValue = 20L;
+
+        ChildPojo actual = serializationService.toObject(serializationService.toData(expected));
+
+        assertEquals(10, actual.i);
+        assertEquals(20L, actual.childValue);
+    }
+
+    public static class PrimitivesPojo {
+        byte b;
+        char c;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        boolean flag;
+        String str;
+
+        public PrimitivesPojo() {
+        }
+
+        static PrimitivesPojo create() {
+            PrimitivesPojo pojo = new PrimitivesPojo();
+            pojo.b = 1;
+            pojo.c = 'x';
+            pojo.s = 2;
+            pojo.i = 3;
+            pojo.l = 4;
+            pojo.f = 5.5f;
+            pojo.d = 6.5d;
+            pojo.flag = true;
+            pojo.str = "bar";
+            return pojo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PrimitivesPojo that = (PrimitivesPojo) o;
+            return b == that.b
+                    && c == that.c
+                    && s == that.s
+                    && i == that.i
+                    && l == that.l
+                    && Float.compare(that.f, f) == 0
+                    && Double.compare(that.d, d) == 0
+                    && flag == that.flag
+                    && Objects.equals(str, that.str);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(b, c, s, i, l, f, d, flag, str);
+        }
+    }
+
+    public static class ChildPojo extends PrimitivesPojo {
+        long childValue;
+
+        public ChildPojo() {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.util.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketIndex;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketLowerBound;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketUpperBound;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketBounds_areContiguous() {
+        assertEquals(0, bucketLowerBound(0));
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            assertEquals(bucket, bucketIndex(bucketLowerBound(bucket)));
+            if (bucket > 0) {
+                assertEquals(bucketUpperBound(bucket - 1) + 1, bucketLowerBound(bucket));
+            }
+            if (bucket < BUCKET_COUNT - 1) {
+                assertEquals(bucket, bucketIndex(bucketUpperBound(bucket)));
+            }
+        }
+    }
+
+    @Test
+    public void bucketIndex_whenNegative() {
+        assertEquals(0, bucketIndex(-1));
+    }
+
+    @Test
+    public void bucketIndex_whenTooLarge() {
+        assertEquals(BUCKET_COUNT - 1, bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void bucketWidth_withinRelativeError() {
+        for (int bucket = LatencyHistogram.SUB_BUCKET_COUNT; bucket < BUCKET_COUNT - 1; bucket++) {
+            long lower = bucketLowerBound(bucket);
+            long width = bucketUpperBound(bucket) - lower + 1;
+            assertTrue("bucket " + bucket, width * LatencyHistogram.SUB_BUCKET_COUNT <= lower);
+        }
+    }
+
+    @Test
+    public void intervalSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int k = 1; k <= 1000; k++) {
+            histogram.recordNanos(MICROSECONDS.toNanos(k));
+        }
+
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+        histogram.intervalSnapshot(snapshot);
+
+        assertEquals(1000, snapshot.count());
+        assertWithinRelativeError(MICROSECONDS.toNanos(500), snapshot.valueAtPercentile(50));
+        assertWithinRelativeError(MICROSECONDS.toNanos(990), snapshot.valueAtPercentile(99));
+        assertWithinRelativeError(MICROSECONDS.toNanos(999), snapshot.valueAtPercentile(99.9));
+        assertWithinRelativeError(MICROSECONDS.toNanos(1000), snapshot.max());
+
+        // only the values recorded since the previous snapshot are included
+        histogram.recordNanos(100);
+        histogram.intervalSnapshot(snapshot);
+        assertEquals(1, snapshot.count());
+        assertWithinRelativeError(100, snapshot.max());
+
+        histogram.intervalSnapshot(snapshot);
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.valueAtPercentile(99));
+        assertEquals(0, snapshot.max());
+    }
+
+    @Test
+    public void intervalSnapshot_whenValueTooLarge() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(SECONDS.toNanos(1000));
+
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+        histogram.intervalSnapshot(snapshot);
+
+        assertEquals(bucketLowerBound(BUCKET_COUNT - 1), snapshot.max());
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
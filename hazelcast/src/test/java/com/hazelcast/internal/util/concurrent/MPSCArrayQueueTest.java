@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MPSCArrayQueueTest extends HazelcastTestSupport {
+
+    private MPSCArrayQueue<String> queue;
+
+    @Before
+    public void setup() {
+        queue = new MPSCArrayQueue<>(4, 10);
+        queue.setConsumerThread(Thread.currentThread());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setConsumerThread_whenNull() {
+        queue.setConsumerThread(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construction_whenNegativeSpins() {
+        new MPSCArrayQueue<String>(4, -1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offer_whenNull() {
+        queue.offer(null);
+    }
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void offer_thenPoll() {
+        queue.offer("1");
+        queue.offer("2");
+
+        assertEquals(2, queue.size());
+        assertEquals("1", queue.peek());
+        assertEquals("1", queue.poll());
+        assertEquals("2", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void offer_whenArrayFull_thenOverflowAndOrderPreserved() {
+        int itemCount = queue.capacity() * 3;
+        for (int k = 0; k < itemCount; k++) {
+            assertTrue(queue.offer("" + k));
+        }
+
+        assertEquals(itemCount, queue.size());
+        for (int k = 0; k < itemCount; k++) {
+            assertEquals("" + k, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void offer_whenOverflowNotEmpty_thenOrderPreservedAfterArrayDrained() {
+        for (int k = 0; k < queue.capacity() + 1; k++) {
+            queue.offer("" + k);
+        }
+        // frees up space in the array, but the item must still go behind the overflow.
+        assertEquals("0", queue.poll());
+        queue.offer("last");
+
+        for (int k = 1; k < queue.capacity() + 1; k++) {
+            assertEquals("" + k, queue.poll());
+        }
+        assertEquals("last", queue.poll());
+    }
+
+    @Test
+    public void take_whenItemAvailable() throws Exception {
+        queue.offer("1");
+
+        assertEquals("1", queue.take());
+    }
+
+    @Test
+    public void take_whenEmpty_thenParkedUntilOffer() throws Exception {
+        MPSCArrayQueue<String> queue = new MPSCArrayQueue<>(4, 0);
+        Future<String> f = spawn(() -> {
+            queue.setConsumerThread(Thread.currentThread());
+            return queue.take();
+        });
+
+        sleepMillis(100);
+        assertFalse(f.isDone());
+        queue.offer("1");
+
+        assertEquals("1", f.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws Exception {
+        Thread.currentThread().interrupt();
+        queue.take();
+    }
+
+    @Test
+    public void multipleProducers_thenOrderPerProducerPreserved() throws Exception {
+        MPSCArrayQueue<long[]> queue = new MPSCArrayQueue<>(16, 10);
+        queue.setConsumerThread(Thread.currentThread());
+        int producerCount = 4;
+        int itemsPerProducer = 20_000;
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producerId = p;
+            Thread producer = new Thread(() -> {
+                for (long k = 0; k < itemsPerProducer; k++) {
+                    queue.offer(new long[]{producerId, k});
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        long[] lastSeen = new long[producerCount];
+        for (int k = 0; k < producerCount * itemsPerProducer; k++) {
+            long[] item = queue.take();
+            int producerId = (int) item[0];
+            assertEquals(lastSeen[producerId], item[1]);
+            lastSeen[producerId]++;
+        }
+        for (Thread producer : producers) {
+            assertJoinable(producer);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void iterator() {
+        queue.iterator();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void drainTo() {
+        queue.drainTo(new ArrayList<>());
+    }
+}
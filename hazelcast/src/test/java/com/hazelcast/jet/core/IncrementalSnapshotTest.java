@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.client.map.helpers.AMapStore;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.JobRestartWithSnapshotTest.SequencesInPartitionsGeneratorP;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.jet.impl.JobExecutionRecord;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.SlowTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.function.Functions.entryKey;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.EventTimePolicy.eventTimePolicy;
+import static com.hazelcast.jet.core.JobStatus.SUSPENDED;
+import static com.hazelcast.jet.core.TestUtil.throttle;
+import static com.hazelcast.jet.core.WatermarkPolicy.limitingLag;
+import static com.hazelcast.jet.core.processor.Processors.insertWatermarksP;
+import static com.hazelcast.jet.core.processor.Processors.mapP;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of jobs with {@link JobConfigArguments#KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH}
+ * set. The jobs count the items of a generator in tumbling windows, the
+ * {@code SlidingWindowP} saves incremental snapshots.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({SlowTest.class, ParallelJVMTest.class})
+public class IncrementalSnapshotTest extends JetTestSupport {
+
+    private static final int LOCAL_PARALLELISM = 4;
+    private static final int NUM_PARTITIONS = 3;
+    private static final int ELEMENTS_IN_PARTITION = 250;
+    private static final int SNAPSHOT_INTERVAL_MILLIS = 500;
+    private static final int TIMEOUT_SECONDS = 20;
+
+    private static final SlidingWindowPolicy WINDOW_POLICY = SlidingWindowPolicy.tumblingWinPolicy(3);
+
+    // if true, the snapshot chunks fail to be stored, see FailingSnapshotDataStore
+    private static volatile boolean failSnapshotData;
+
+    private HazelcastInstance instance1;
+    private HazelcastInstance instance2;
+
+    @Test
+    public void when_chainLongerThanOne_then_suspendAndResumeRestoresState() {
+        createInstances(false);
+        Job job = instance1.getJet().newJob(buildDag(), jobConfig(100));
+        JobRepository jobRepository = new JobRepository(instance1);
+
+        waitForFirstSnapshot(jobRepository, job.getId(), TIMEOUT_SECONDS, false);
+        // the first snapshot is full, the following ones are incremental and added to its map
+        assertTrueEventually(() -> assertTrue(chainLength(jobRepository.getJobExecutionRecord(job.getId())) > 1),
+                TIMEOUT_SECONDS);
+
+        job.suspend();
+        assertJobStatusEventually(job, SUSPENDED);
+        job.resume();
+        job.join();
+
+        assertEquals(expectedResult(), new HashMap<>(instance1.getMap("result")));
+    }
+
+    @Test
+    public void when_chainReachesMaxLength_then_nextSnapshotIsFull() {
+        createInstances(false);
+        int maxChainLength = 2;
+        Job job = instance1.getJet().newJob(buildDag(), jobConfig(maxChainLength));
+        JobRepository jobRepository = new JobRepository(instance1);
+
+        waitForFirstSnapshot(jobRepository, job.getId(), TIMEOUT_SECONDS, false);
+        // the full snapshot and maxChainLength incremental snapshots are in the same map
+        JobExecutionRecord[] fullChainRecord = {null};
+        assertTrueEventually(() -> {
+            JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+            assertEquals(maxChainLength + 1, chainLength(record));
+            fullChainRecord[0] = record;
+        }, TIMEOUT_SECONDS);
+
+        // the next snapshot is a full one, written to the other map
+        assertTrueEventually(() -> {
+            JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+            assertTrue(record.snapshotId() > fullChainRecord[0].snapshotId());
+        }, TIMEOUT_SECONDS);
+        JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+        if (record.snapshotId() == fullChainRecord[0].snapshotId() + 1) {
+            assertEquals(1 - fullChainRecord[0].dataMapIndex(), record.dataMapIndex());
+            assertEquals(1, chainLength(record));
+        }
+        assertTrue(chainLength(record) <= maxChainLength + 1);
+
+        job.join();
+        assertEquals(expectedResult(), new HashMap<>(instance1.getMap("result")));
+    }
+
+    @Test
+    public void when_incrementalSnapshotFailed_then_restartRestoresLastSuccessfulChain() {
+        createInstances(true);
+        Job job = instance1.getJet().newJob(buildDag(), jobConfig(100));
+        JobRepository jobRepository = new JobRepository(instance1);
+
+        waitForFirstSnapshot(jobRepository, job.getId(), TIMEOUT_SECONDS, false);
+        assertTrueEventually(() -> assertTrue(chainLength(jobRepository.getJobExecutionRecord(job.getId())) > 1),
+                TIMEOUT_SECONDS);
+
+        // When
+        // the next snapshot is incremental, let it fail
+        failSnapshotData = true;
+        assertTrueEventually(() -> assertNotNull(jobRepository.getJobExecutionRecord(job.getId()).lastSnapshotFailure()),
+                TIMEOUT_SECONDS);
+        // restart the job before any other snapshot succeeds
+        instance2.getLifecycleService().terminate();
+        failSnapshotData = false;
+
+        // Then
+        job.join();
+        assertEquals(expectedResult(), new HashMap<>(instance1.getMap("result")));
+    }
+
+    private void createInstances(boolean withFailingSnapshotStore) {
+        failSnapshotData = false;
+        Config config = smallInstanceConfig();
+        config.getJetConfig().setCooperativeThreadCount(LOCAL_PARALLELISM);
+        if (withFailingSnapshotStore) {
+            MapConfig mapConfig = new MapConfig(JobRepository.SNAPSHOT_DATA_MAP_PREFIX + '*');
+            mapConfig.getMapStoreConfig()
+                     .setEnabled(true)
+                     .setImplementation(new FailingSnapshotDataStore());
+            config.addMapConfig(mapConfig);
+        }
+        instance1 = createHazelcastInstance(config);
+        instance2 = createHazelcastInstance(config);
+    }
+
+    private static JobConfig jobConfig(int maxChainLength) {
+        return new JobConfig()
+                .setProcessingGuarantee(EXACTLY_ONCE)
+                .setSnapshotIntervalMillis(SNAPSHOT_INTERVAL_MILLIS)
+                .setArgument(JobConfigArguments.KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH, maxChainLength);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DAG buildDag() {
+        DAG dag = new DAG();
+        AggregateOperation1<Object, LongAccumulator, Long> aggrOp = counting();
+        SupplierEx<Processor> sup = () ->
+                new SequencesInPartitionsGeneratorP(NUM_PARTITIONS, ELEMENTS_IN_PARTITION, true);
+        Vertex generator = dag.newVertex("generator", throttle(sup, 30))
+                              .localParallelism(1);
+        Vertex insWm = dag.newVertex("insWm", insertWatermarksP(eventTimePolicy(
+                o -> ((Entry<Integer, Integer>) o).getValue(), limitingLag(0),
+                WINDOW_POLICY.frameSize(), WINDOW_POLICY.frameOffset(), 0)))
+                          .localParallelism(1);
+        Vertex aggregate = dag.newVertex("aggregate", Processors.aggregateToSlidingWindowP(
+                singletonList((FunctionEx<Object, Integer>) t -> ((Entry<Integer, Integer>) t).getKey()),
+                singletonList(t1 -> ((Entry<Integer, Integer>) t1).getValue()),
+                TimestampKind.EVENT,
+                WINDOW_POLICY,
+                0L,
+                aggrOp,
+                KeyedWindowResult::new));
+        Vertex map = dag.newVertex("map",
+                mapP((KeyedWindowResult kwr) -> entry(asList(kwr.end(), (long) (int) kwr.key()), kwr.result())));
+        Vertex writeMap = dag.newVertex("writeMap", SinkProcessors.writeMapP("result"));
+
+        dag.edge(between(generator, insWm))
+           .edge(between(insWm, aggregate).distributed().partitioned(entryKey()))
+           .edge(between(aggregate, map))
+           .edge(between(map, writeMap));
+        return dag;
+    }
+
+    private static Map<List<Long>, Long> expectedResult() {
+        Map<List<Long>, Long> expected = new HashMap<>();
+        for (long partition = 0; partition < NUM_PARTITIONS; partition++) {
+            long cnt = 0;
+            for (long value = 1; value <= ELEMENTS_IN_PARTITION; value++) {
+                cnt++;
+                if (value % WINDOW_POLICY.frameSize() == 0) {
+                    expected.put(asList(value, partition), cnt);
+                    cnt = 0;
+                }
+            }
+            if (cnt > 0) {
+                expected.put(asList(WINDOW_POLICY.higherFrameTs(ELEMENTS_IN_PARTITION - 1), partition), cnt);
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Returns the number of snapshots in the map of the last successful
+     * snapshot, ignoring the data of snapshots not completed yet.
+     */
+    private int chainLength(JobExecutionRecord record) {
+        IMap<Object, Object> snapshotMap =
+                instance1.getMap(JobRepository.snapshotDataMapName(record.getJobId(), record.dataMapIndex()));
+        return (int) snapshotMap.keySet().stream()
+                                .filter(key -> key instanceof SnapshotDataKey)
+                                .mapToLong(key -> ((SnapshotDataKey) key).snapshotId())
+                                .filter(snapshotId -> snapshotId <= record.snapshotId())
+                                .distinct()
+                                .count();
+    }
+
+    /**
+     * Fails to store the snapshot chunks if {@link #failSnapshotData} is set,
+     * the validation record is stored.
+     */
+    private static class FailingSnapshotDataStore extends AMapStore implements Serializable {
+        @Override
+        public void store(Object key, Object value) {
+            if (failSnapshotData && key instanceof SnapshotDataKey) {
+                throw new UnsupportedOperationException("failing snapshot data store");
+            }
+            super.store(key, value);
+        }
+    }
+}
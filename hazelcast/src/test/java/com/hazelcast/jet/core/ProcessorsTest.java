@@ -19,6 +19,7 @@ package com.hazelcast.jet.core;
 import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.SimpleTestInClusterSupport;
 import com.hazelcast.jet.Util;
+import com.hazelcast.jet.accumulator.LongAccumulator;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.processor.Processors;
@@ -39,6 +40,9 @@ import java.util.stream.Stream;
 import static com.hazelcast.jet.Traversers.traverseItems;
 import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.averagingLong;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingLong;
 import static com.hazelcast.jet.core.processor.Processors.aggregateByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineP;
@@ -268,6 +272,60 @@ public class ProcessorsTest extends SimpleTestInClusterSupport {
                 ));
     }
 
+    @Test
+    public void aggregate_withPrimitiveAccumulationAndNoInput() {
+        TestSupport
+                .verifyProcessor(Processors.aggregateP(counting()))
+                .disableSnapshots()
+                .input(emptyList())
+                .expectOutput(singletonList(0L));
+    }
+
+    @Test
+    public void aggregateByKey_withPrimitiveAccumulation() {
+        FunctionEx<Object, String> keyFn = Object::toString;
+        TestSupport
+                .verifyProcessor(aggregateByKeyP(singletonList(keyFn), averagingLong(i -> (int) i), Util::entry))
+                .disableSnapshots()
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .input(asList(1, 1, 2, 2, 2))
+                .expectOutput(asList(
+                        entry("1", 1.0),
+                        entry("2", 2.0)
+                ));
+    }
+
+    @Test
+    public void accumulateByKey_withPrimitiveAccumulation() {
+        FunctionEx<Object, String> keyFn = Object::toString;
+        TestSupport
+                .verifyProcessor(Processors.accumulateByKeyP(singletonList(keyFn), counting()))
+                .disableSnapshots()
+                .input(asList(1, 1, 2, 2, 2))
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .expectOutput(asList(
+                        entry("1", new LongAccumulator(2)),
+                        entry("2", new LongAccumulator(3))
+                ));
+    }
+
+    @Test
+    public void combineByKey_withPrimitiveAccumulation() {
+        TestSupport
+                .verifyProcessor(combineByKeyP(summingLong(i -> (long) i), Util::entry))
+                .disableSnapshots()
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .input(asList(
+                        entry("1", new LongAccumulator(1)),
+                        entry("1", new LongAccumulator(2)),
+                        entry("2", new LongAccumulator(3))
+                ))
+                .expectOutput(asList(
+                        entry("1", 3L),
+                        entry("2", 3L)
+                ));
+    }
+
     @Test
     public void aggregate() {
         TestSupport
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core.metrics;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_PHASE_TIME;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ProcessorTimeBreakdownTest {
+
+    private final List<Measurement> measurements = new ArrayList<>();
+
+    @Test
+    public void when_severalProcessors_then_timesSummedByVertexAndPhase() {
+        addPhaseTime("map", "0", "process", 100);
+        addPhaseTime("map", "1", "process", 50);
+        addPhaseTime("map", "0", "snapshot", 10);
+        addPhaseTime("sink", "2", "process", 7);
+
+        ProcessorTimeBreakdown breakdown = ProcessorTimeBreakdown.of(jobMetrics());
+
+        assertEquals(asList("map", "sink"), new ArrayList<>(breakdown.vertices()));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("process", 150L);
+        expected.put("snapshot", 10L);
+        assertEquals(expected, breakdown.phaseTimes("map"));
+        assertEquals(160, breakdown.totalTime("map"));
+        assertEquals(singletonMap("process", 7L), breakdown.phaseTimes("sink"));
+    }
+
+    @Test
+    public void when_toFoldedStacks_then_oneLinePerNonZeroPhase() {
+        addPhaseTime("map", "0", "complete", 0);
+        addPhaseTime("map", "0", "process", 100);
+        addPhaseTime("sink", "1", "process", 7);
+
+        String folded = ProcessorTimeBreakdown.of(jobMetrics()).toFoldedStacks();
+
+        assertEquals("map;process 100\nsink;process 7\n", folded);
+    }
+
+    @Test
+    public void when_noProfilingMetrics_then_empty() {
+        ProcessorTimeBreakdown breakdown = ProcessorTimeBreakdown.of(JobMetrics.empty());
+
+        assertTrue(breakdown.vertices().isEmpty());
+        assertEquals(emptyMap(), breakdown.phaseTimes("map"));
+        assertEquals(0, breakdown.totalTime("map"));
+        assertEquals("", breakdown.toFoldedStacks());
+    }
+
+    private void addPhaseTime(String vertex, String processor, String phase, long nanos) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put(MetricTags.VERTEX, vertex);
+        tags.put(MetricTags.PROCESSOR, processor);
+        tags.put(MetricTags.PHASE, phase);
+        measurements.add(Measurement.of(PROCESSOR_PHASE_TIME, nanos, System.currentTimeMillis(), tags));
+    }
+
+    private JobMetrics jobMetrics() {
+        return JobMetrics.of(singletonMap(PROCESSOR_PHASE_TIME, measurements));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.Sources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_BLOCKING_VIRTUAL_THREADS_ENABLED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares the execution of the non-cooperative {@link ReadJdbcP} and {@link
+ * WriteJdbcP} on platform and on virtual threads, see {@link
+ * com.hazelcast.spi.properties.ClusterProperty#JET_BLOCKING_VIRTUAL_THREADS_ENABLED}.
+ * <p>
+ * The job copies a table of an in-memory H2 database to another table with a
+ * high local parallelism of the source and the sink. For both modes, the peak
+ * number of live threads, the peak heap usage and the throughput are printed.
+ * Run on Java 21 or newer, on older versions both modes use platform threads.
+ * <p>
+ * This is no JUnit test.
+ */
+public class JdbcVirtualThreadsBenchmark {
+
+    private static final String DB_URL = "jdbc:h2:mem:" + JdbcVirtualThreadsBenchmark.class.getSimpleName()
+            + ";DB_CLOSE_DELAY=-1";
+    private static final int ROW_COUNT = 200_000;
+    private static final int LOCAL_PARALLELISM = 64;
+    private static final int JOB_COUNT = 5;
+
+    public static void main(String[] args) throws Exception {
+        createTables();
+        for (boolean virtualThreads : new boolean[] {false, true}) {
+            Config config = new Config();
+            config.getJetConfig().setEnabled(true);
+            config.setProperty(JET_BLOCKING_VIRTUAL_THREADS_ENABLED.getName(), String.valueOf(virtualThreads));
+            HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+            try {
+                run(instance, virtualThreads);
+            } finally {
+                instance.shutdown();
+            }
+        }
+        try (Connection conn = DriverManager.getConnection(DB_URL)) {
+            conn.createStatement().execute("shutdown");
+        }
+    }
+
+    private static void run(HazelcastInstance instance, boolean virtualThreads) throws SQLException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeapUsed = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        // the first job is a warm-up
+        runJob(instance);
+        System.gc();
+        threadBean.resetPeakThreadCount();
+        sampler.scheduleAtFixedRate(
+                () -> peakHeapUsed.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 10, MILLISECONDS);
+        long totalNanos = 0;
+        try {
+            for (int i = 0; i < JOB_COUNT; i++) {
+                totalNanos += runJob(instance);
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        // ThreadMXBean only counts platform threads
+        System.out.printf("virtualThreads=%b: peak platform threads=%d, peak heap used=%,d MB, throughput=%,d rows/s%n",
+                virtualThreads, threadBean.getPeakThreadCount(), peakHeapUsed.get() >> 20,
+                (long) JOB_COUNT * ROW_COUNT * SECONDS.toNanos(1) / totalNanos);
+    }
+
+    private static long runJob(HazelcastInstance instance) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL);
+             Statement stmt = conn.createStatement()
+        ) {
+            stmt.execute("DELETE FROM target");
+        }
+        Pipeline p = Pipeline.create();
+        p.readFrom(Sources.jdbc(
+                        () -> DriverManager.getConnection(DB_URL),
+                        (con, parallelism, index) -> {
+                            PreparedStatement statement = con.prepareStatement("SELECT * FROM source WHERE MOD(id, ?) = ?");
+                            statement.setInt(1, parallelism);
+                            statement.setInt(2, index);
+                            return statement.executeQuery();
+                        },
+                        resultSet -> entry(resultSet.getInt(1), resultSet.getString(2))))
+         .setLocalParallelism(LOCAL_PARALLELISM)
+         .writeTo(Sinks.<Entry<Integer, String>>jdbc("INSERT INTO target VALUES(?, ?)", DB_URL,
+                 (stmt, item) -> {
+                     stmt.setInt(1, item.getKey());
+                     stmt.setString(2, item.getValue());
+                 }))
+         .setLocalParallelism(LOCAL_PARALLELISM);
+        long start = System.nanoTime();
+        instance.getJet().newJob(p).join();
+        return System.nanoTime() - start;
+    }
+
+    private static void createTables() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL);
+             Statement stmt = conn.createStatement()
+        ) {
+            stmt.execute("CREATE TABLE source(id INT PRIMARY KEY, name VARCHAR(20))");
+            stmt.execute("CREATE TABLE target(id INT PRIMARY KEY, name VARCHAR(20))");
+            stmt.execute("INSERT INTO source SELECT x, 'name-' || x FROM SYSTEM_RANGE(1, " + ROW_COUNT + ")");
+        }
+    }
+}
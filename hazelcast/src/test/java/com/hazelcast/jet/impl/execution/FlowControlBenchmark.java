@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.instance.BuildInfoProvider;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.impl.LoggingServiceImpl;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.jet.impl.execution.ReceiverTasklet.estimatedMemoryFootprint;
+import static com.hazelcast.jet.impl.execution.SenderTasklet.isWithinLimit;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures the throughput of a distributed edge at different round-trip
+ * times, to see how the receive window of the {@link ReceiverTasklet}
+ * adapts to the latency of the link.
+ * <p>
+ * The network is replaced by a local stand-in: the packets and the
+ * flow-control messages are delivered after half of the simulated round-trip
+ * time. A sender thread respects the send limit the same way as the {@link
+ * SenderTasklet} does and the receiver thread drives a real {@code
+ * ReceiverTasklet} with a collector that never blocks, so the throughput is
+ * only limited by the flow control. For each round-trip time, the throughput,
+ * the final receive window and the measured round-trip time are printed.
+ * <p>
+ * This is no JUnit test.
+ */
+public class FlowControlBenchmark {
+
+    private static final int RWIN_MULTIPLIER = 3;
+    private static final int FLOW_CONTROL_PERIOD_MS = 100;
+    private static final int ITEMS_PER_PACKET = 1_000;
+    private static final int DURATION_SECONDS = 20;
+    private static final int[] ROUND_TRIP_TIMES_MS = {0, 2, 20, 100, 300};
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    public static void main(String[] args) throws Exception {
+        FlowControlBenchmark benchmark = new FlowControlBenchmark();
+        for (int rttMs : ROUND_TRIP_TIMES_MS) {
+            benchmark.run(rttMs);
+        }
+    }
+
+    private void run(int rttMs) throws Exception {
+        long oneWayDelayNanos = MILLISECONDS.toNanos(rttMs) / 2;
+        MockOutboundCollector collector = new MockOutboundCollector(ITEMS_PER_PACKET);
+        ReceiverTasklet receiver = new ReceiverTasklet(collector, serializationService, RWIN_MULTIPLIER, FLOW_CONTROL_PERIOD_MS,
+                new LoggingServiceImpl(null, null, BuildInfoProvider.getBuildInfo(), false, null),
+                new Address(), 0, "", null, "");
+        Queue<byte[]> incoming = new ConcurrentLinkedQueue<>();
+        receiver.initIncomingQueue(incoming);
+
+        // a single thread delivers in the order of scheduling for the same delay
+        ScheduledExecutorService link = Executors.newSingleThreadScheduledExecutor();
+        ScheduledExecutorService flowControl = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger sendSeqLimitCompressed = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder received = new LongAdder();
+
+        flowControl.scheduleAtFixedRate(() -> {
+            int limit = receiver.updateAndGetSendSeqLimitCompressed(null);
+            link.schedule(() -> sendSeqLimitCompressed.set(limit), oneWayDelayNanos, NANOSECONDS);
+        }, 0, FLOW_CONTROL_PERIOD_MS, MILLISECONDS);
+
+        Thread sender = new Thread(() -> {
+            long sentSeq = 0;
+            while (!stop.get()) {
+                if (!isWithinLimit(sentSeq, sendSeqLimitCompressed.get())) {
+                    LockSupport.parkNanos(10_000);
+                    continue;
+                }
+                BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+                try {
+                    // packet header
+                    out.writeLong(0);
+                    out.writeInt(0);
+                    out.writeInt(0);
+                    out.writeInt(ITEMS_PER_PACKET);
+                    for (int i = 0; i < ITEMS_PER_PACKET; i++) {
+                        int mark = out.position();
+                        out.writeObject(i);
+                        sentSeq += estimatedMemoryFootprint(out.position() - mark);
+                        out.writeInt(i);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                byte[] packet = out.toByteArray();
+                link.schedule(() -> incoming.add(packet), oneWayDelayNanos, NANOSECONDS);
+            }
+        });
+
+        Thread receiverThread = new Thread(() -> {
+            while (!stop.get()) {
+                receiver.call();
+                received.add(collector.getBuffer().size());
+                collector.getBuffer().clear();
+            }
+        });
+
+        sender.start();
+        receiverThread.start();
+        TimeUnit.SECONDS.sleep(DURATION_SECONDS);
+        stop.set(true);
+        sender.join();
+        receiverThread.join();
+        flowControl.shutdownNow();
+        link.shutdownNow();
+
+        System.out.printf("rtt=%d ms: %,.0f items per second, receive window %,d bytes, measured rtt %.1f ms%n",
+                rttMs, received.sum() / (double) DURATION_SECONDS,
+                receiver.receiveWindowBytes(), receiver.smoothedRttNanos() / 1e6);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.jet.core.Partitioner.HASH_CODE;
+import static com.hazelcast.jet.impl.execution.HotKeySplittingPartitioner.SAMPLES_PER_ROUND;
+import static com.hazelcast.jet.impl.execution.HotKeySplittingPartitioner.SAMPLE_INTERVAL;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class HotKeySplittingPartitionerTest {
+
+    private static final int PARTITION_COUNT = 271;
+    // enough items for several rounds of samples
+    private static final int ITEM_COUNT = 10 * SAMPLES_PER_ROUND * SAMPLE_INTERVAL;
+
+    private final HotKeySplittingPartitioner partitioner = new HotKeySplittingPartitioner(HASH_CODE, 0.1);
+
+    @Test
+    public void when_uniformKeys_then_noHotKeys_and_delegatePartitioning() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            int key = i % 1000;
+            assertEquals(HASH_CODE.getPartition(key, PARTITION_COUNT), partitioner.getPartition(key, PARTITION_COUNT));
+        }
+        assertEquals(0, partitioner.hotKeys().size());
+    }
+
+    @Test
+    public void when_skewedKeys_then_hotKeySplit() {
+        String hotKey = "hot";
+        Set<Integer> hotKeyPartitions = new HashSet<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            if (i % 2 == 0) {
+                hotKeyPartitions.add(partitioner.getPartition(hotKey, PARTITION_COUNT));
+            } else {
+                String key = "cold-" + i % 10_000;
+                assertEquals(HASH_CODE.getPartition(key, PARTITION_COUNT), partitioner.getPartition(key, PARTITION_COUNT));
+            }
+        }
+        assertEquals(singleton(hotKey), partitioner.hotKeys());
+        assertTrue("hot key sent to only " + hotKeyPartitions.size() + " partitions",
+                hotKeyPartitions.size() > PARTITION_COUNT / 2);
+    }
+
+    @Test
+    public void when_keyCoolsDown_then_notHotAnymore() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            partitioner.getPartition(i % 2 == 0 ? "hot" : "cold-" + i % 10_000, PARTITION_COUNT);
+        }
+        assertEquals(singleton("hot"), partitioner.hotKeys());
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            partitioner.getPartition("cold-" + i % 10_000, PARTITION_COUNT);
+        }
+        assertEquals(0, partitioner.hotKeys().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_invalidMinShare_then_fail() {
+        new HotKeySplittingPartitioner(HASH_CODE, 0);
+    }
+}
@@ -16,11 +16,18 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
 import com.hazelcast.jet.core.Inbox;
 import com.hazelcast.jet.core.Outbox;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.metrics.MetricTags;
 import com.hazelcast.jet.core.test.TestProcessorContext;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.test.HazelcastSerialClassRunner;
@@ -33,15 +40,23 @@ import org.junit.runner.RunWith;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 import java.util.stream.IntStream;
 
+import static com.hazelcast.internal.metrics.impl.DefaultMetricDescriptorSupplier.DEFAULT_DESCRIPTOR_SUPPLIER;
 import static com.hazelcast.jet.core.TestUtil.DIRECT_EXECUTOR;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_BACKPRESSURE_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_BUSY_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_IDLE_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_MAX_CALL_TIME;
+import static com.hazelcast.jet.core.metrics.MetricNames.PROCESSOR_PHASE_TIME;
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
@@ -265,6 +280,71 @@ public class ProcessorTaskletTest {
         assertTrueEventually(() -> assertEquals(DONE, tasklet.call()), 2);
     }
 
+    @Test
+    public void when_profilingEnabled_then_processorTimesReported() {
+        // Given
+        context = new TestProcessorContext().setJobConfig(
+                new JobConfig().setArgument(JobConfigArguments.KEY_PROCESSOR_PROFILING_ENABLED, true));
+        mockInput.add(DONE_ITEM);
+        instreams.add(new MockInboundStream(0, mockInput, mockInput.size()));
+        outstreams.add(new MockOutboundStream(0));
+        ProcessorTasklet tasklet = createTasklet();
+
+        // When
+        callUntil(tasklet, DONE);
+        Map<String, Long> metrics = collectMetrics(tasklet);
+
+        // Then
+        assertTrue(metrics.containsKey(PROCESSOR_MAX_CALL_TIME));
+        long phaseTimeSum = 0;
+        for (String phase : asList("process", "watermark", "complete", "snapshot", "other")) {
+            assertTrue("missing phase " + phase, metrics.containsKey(PROCESSOR_PHASE_TIME + "/" + phase));
+            phaseTimeSum += metrics.get(PROCESSOR_PHASE_TIME + "/" + phase);
+        }
+        assertEquals(phaseTimeSum, metrics.get(PROCESSOR_BUSY_TIME) + metrics.get(PROCESSOR_IDLE_TIME)
+                + metrics.get(PROCESSOR_BACKPRESSURE_TIME));
+    }
+
+    @Test
+    public void when_profilingDisabled_then_processorTimesNotReported() {
+        mockInput.add(DONE_ITEM);
+        instreams.add(new MockInboundStream(0, mockInput, mockInput.size()));
+        outstreams.add(new MockOutboundStream(0));
+        ProcessorTasklet tasklet = createTasklet();
+
+        callUntil(tasklet, DONE);
+
+        assertFalse(collectMetrics(tasklet).containsKey(PROCESSOR_BUSY_TIME));
+    }
+
+    private static Map<String, Long> collectMetrics(ProcessorTasklet tasklet) {
+        Map<String, Long> metrics = new HashMap<>();
+        tasklet.provideDynamicMetrics(DEFAULT_DESCRIPTOR_SUPPLIER.get(), new MetricsCollectionContext() {
+            @Override
+            public void collect(MetricDescriptor descriptor, Object source) {
+            }
+
+            @Override
+            public void collect(MetricDescriptor descriptor, String name, ProbeLevel level, ProbeUnit unit, long value) {
+                String phase = descriptor.tagValue(MetricTags.PHASE);
+                metrics.put(phase == null ? name : name + "/" + phase, value);
+            }
+
+            @Override
+            public void collect(MetricDescriptor descriptor, String name, ProbeLevel level, ProbeUnit unit, double value) {
+            }
+
+            @Override
+            public void collect(MetricDescriptor descriptor, long value) {
+            }
+
+            @Override
+            public void collect(MetricDescriptor descriptor, double value) {
+            }
+        });
+        return metrics;
+    }
+
     private ProcessorTasklet createTasklet() {
         return createTasklet(DIRECT_EXECUTOR);
     }
@@ -147,4 +147,66 @@ public class ReceiverTaskletSendLimitTest {
         final long rwin = seqLimitAfterRecover - ackedSeqCompressed;
         assertTrue(rwin >= RWIN_MULTIPLIER * ackedSeqsPerIterCompressed);
     }
+
+    @Test
+    public void when_senderStalledAndDataArrives_then_rttMeasured() {
+        // Given: the sender sent beyond the initial limit of 0, so it's stalled
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.updateAndGetSendSeqLimitCompressed(START, null);
+
+        // When
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.completeRttProbe(START + MILLISECONDS.toNanos(50));
+
+        // Then
+        assertEquals(MILLISECONDS.toNanos(50), tasklet.smoothedRttNanos());
+    }
+
+    @Test
+    public void when_noDataBeyondProbeSeq_then_rttNotMeasured() {
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.updateAndGetSendSeqLimitCompressed(START, null);
+
+        tasklet.completeRttProbe(START + MILLISECONDS.toNanos(50));
+
+        assertEquals(0, tasklet.smoothedRttNanos());
+    }
+
+    @Test
+    public void when_rttSampleTooLong_then_discarded() {
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.updateAndGetSendSeqLimitCompressed(START, null);
+
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.completeRttProbe(START + SECONDS.toNanos(10));
+
+        assertEquals(0, tasklet.smoothedRttNanos());
+    }
+
+    @Test
+    public void when_steadyFlowWithRtt_then_rwinCoversRtt() {
+        // Given
+        final long rttNanos = 2 * ACK_PERIOD;
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.updateAndGetSendSeqLimitCompressed(START, null);
+        tasklet.receiveItem(1 << COMPRESSED_SEQ_UNIT_LOG2);
+        tasklet.completeRttProbe(START + rttNanos);
+
+        final int ackedSeqsPerIterCompressed = 1000;
+        final long ackedSeqsPerIter = ackedSeqsPerIterCompressed << COMPRESSED_SEQ_UNIT_LOG2;
+        final int iterCount = 15;
+        long seqLimitCompressed = 0;
+
+        // When
+        for (int i = 1; i <= iterCount; i++) {
+            tasklet.ackItem(ackedSeqsPerIter);
+            seqLimitCompressed = tasklet.updateAndGetSendSeqLimitCompressed(START + i * ACK_PERIOD, null);
+        }
+
+        // Then
+        final long ackedSeqCompressed = (iterCount * ackedSeqsPerIter) >> COMPRESSED_SEQ_UNIT_LOG2;
+        final long rwin = seqLimitCompressed - ackedSeqCompressed;
+        final long expectedRwin = RWIN_MULTIPLIER * ackedSeqsPerIterCompressed + 2 * ackedSeqsPerIterCompressed;
+        assertTrue("rwin=" + rwin, abs(rwin - expectedRwin) < 2);
+    }
 }
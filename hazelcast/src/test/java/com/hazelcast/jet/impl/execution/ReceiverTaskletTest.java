@@ -21,6 +21,8 @@ import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.logging.LoggingService;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -62,6 +64,17 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
+    @Test
+    public void when_receiveRowBatch_then_emitRows() throws IOException {
+        JetSqlRowBatch batch = new JetSqlRowBatch(serService, 2);
+        batch.add(new JetSqlRow(serService, new Object[] {1, "a"}), 1);
+        batch.add(new JetSqlRow(serService, new Object[] {2, "b"}), 2);
+        pushObjects(batch);
+        t.call();
+        assertEquals(asList(new JetSqlRow(serService, new Object[] {1, "a"}), new JetSqlRow(serService, new Object[] {2, "b"})),
+                collector.getBuffer());
+    }
+
     private void pushObjects(Object... objs) throws IOException {
         final BufferObjectDataOutput out = serService.createObjectDataOutput();
         // packet header
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.DAG;
+
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures the duration of a job whose cooperative tasklets are skewed, with
+ * and without work stealing between the cooperative threads.
+ * <p>
+ * The job has a single vertex where the processors with an even index do
+ * some CPU work and the processors with an odd index complete immediately.
+ * The tasklets are assigned to the cooperative threads round-robin, so with
+ * two threads all the busy tasklets are assigned to the same thread. Without
+ * work stealing the job takes about twice as long as with it.
+ * <p>
+ * This is no JUnit test.
+ */
+public class SkewedDagBenchmark {
+
+    private static final int COOPERATIVE_THREAD_COUNT = 2;
+    private static final int LOCAL_PARALLELISM = 2 * COOPERATIVE_THREAD_COUNT;
+    private static final long WORK_ITERATIONS = 2_000_000_000L;
+    private static final int ITERATIONS_PER_CALL = 100_000;
+    private static final int WARMUP_JOBS = 2;
+    private static final int MEASURED_JOBS = 5;
+
+    public static void main(String[] args) {
+        for (boolean workStealing : new boolean[] {false, true}) {
+            Config config = new Config();
+            config.getJetConfig().setEnabled(true).setCooperativeThreadCount(COOPERATIVE_THREAD_COUNT);
+            config.setProperty(JET_COOPERATIVE_WORK_STEALING_ENABLED.getName(), String.valueOf(workStealing));
+            HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+            try {
+                for (int i = 0; i < WARMUP_JOBS; i++) {
+                    runJob(instance);
+                }
+                long totalNanos = 0;
+                for (int i = 0; i < MEASURED_JOBS; i++) {
+                    totalNanos += runJob(instance);
+                }
+                System.out.printf("workStealing=%b: %,d ms per job%n",
+                        workStealing, NANOSECONDS.toMillis(totalNanos / MEASURED_JOBS));
+            } finally {
+                instance.shutdown();
+            }
+        }
+    }
+
+    private static long runJob(HazelcastInstance instance) {
+        DAG dag = new DAG();
+        dag.newVertex("skewed", SkewedP::new).localParallelism(LOCAL_PARALLELISM);
+        long start = System.nanoTime();
+        instance.getJet().newJob(dag).join();
+        return System.nanoTime() - start;
+    }
+
+    private static final class SkewedP extends AbstractProcessor {
+        private long remaining;
+        private long hash;
+
+        @Override
+        protected void init(Context context) {
+            remaining = context.localProcessorIndex() % 2 == 0 ? WORK_ITERATIONS / LOCAL_PARALLELISM : 0;
+        }
+
+        @Override
+        public boolean complete() {
+            for (int i = 0; i < ITERATIONS_PER_CALL && remaining > 0; i++, remaining--) {
+                hash = hash * 31 + remaining;
+            }
+            if (remaining == 0) {
+                // prevent the loop from being eliminated
+                getLogger().finest("hash=" + hash);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SnapshotChainResolverTest {
+
+    private final Queue<Object> queue = new ArrayDeque<>();
+
+    @Test
+    public void when_notVersioned_then_passedUnchanged() {
+        SnapshotChainResolver resolver = new SnapshotChainResolver(true);
+        queue.add(entry("k", "v"));
+
+        resolver.resolve(queue);
+
+        assertEquals(asList(entry("k", "v")), asList(queue.toArray()));
+        assertFalse(resolver.hasBuffered());
+    }
+
+    @Test
+    public void when_notIncremental_then_onlyLatestPassed() {
+        SnapshotChainResolver resolver = new SnapshotChainResolver(false);
+        queue.add(entry("k", versioned(1, false, "old")));
+        queue.add(entry("k", versioned(2, true, "new")));
+        queue.add(new BroadcastEntry<>(broadcastKey("b"), versioned(2, true, "bNew")));
+
+        resolver.resolve(queue);
+
+        assertEquals(asList(entry("k", "new"), new BroadcastEntry<>(broadcastKey("b"), "bNew")),
+                asList(queue.toArray()));
+        assertTrue(queue.toArray()[1] instanceof BroadcastEntry);
+        assertFalse(resolver.hasBuffered());
+    }
+
+    @Test
+    public void when_incremental_then_latestVersionOfEachKeyRestored() {
+        SnapshotChainResolver resolver = new SnapshotChainResolver(true);
+        queue.add(entry("k1", versioned(3, true, "k1-3")));
+        queue.add(entry("k1", versioned(1, false, "k1-1")));
+        queue.add(entry("k2", versioned(1, false, "k2-1")));
+        queue.add(entry("k3", versioned(1, false, "k3-1")));
+        queue.add(entry("k3", versioned(2, false, SnapshotTombstone.INSTANCE)));
+        resolver.resolve(queue);
+        assertTrue(queue.isEmpty());
+        assertTrue(resolver.hasBuffered());
+
+        resolver.drainTo(queue, 10);
+
+        assertEquals(new HashSet<>(asList(entry("k1", "k1-3"), entry("k2", "k2-1"))), new HashSet<>(queue));
+        assertFalse(resolver.hasBuffered());
+    }
+
+    @Test
+    public void when_incrementalBroadcastKey_then_allValuesOfLatestSnapshotRestored() {
+        SnapshotChainResolver resolver = new SnapshotChainResolver(true);
+        queue.add(new BroadcastEntry<>(broadcastKey("b"), versioned(1, false, 1L)));
+        queue.add(new BroadcastEntry<>(broadcastKey("b"), versioned(2, true, 2L)));
+        queue.add(new BroadcastEntry<>(broadcastKey("b"), versioned(2, true, 3L)));
+        resolver.resolve(queue);
+
+        resolver.drainTo(queue, 10);
+
+        assertEquals(asList(new BroadcastEntry<>(broadcastKey("b"), 2L), new BroadcastEntry<>(broadcastKey("b"), 3L)),
+                asList(queue.toArray()));
+        for (Object item : queue) {
+            assertTrue(item instanceof BroadcastEntry);
+        }
+    }
+
+    @Test
+    public void when_drainToWithLimit_then_drainedInBatches() {
+        SnapshotChainResolver resolver = new SnapshotChainResolver(true);
+        for (int i = 0; i < 5; i++) {
+            queue.add(entry(i, versioned(1, true, i)));
+        }
+        resolver.resolve(queue);
+
+        resolver.drainTo(queue, 3);
+        assertEquals(3, queue.size());
+        assertTrue(resolver.hasBuffered());
+        queue.clear();
+
+        resolver.drainTo(queue, 3);
+        assertEquals(2, queue.size());
+        assertFalse(resolver.hasBuffered());
+    }
+
+    private static VersionedSnapshotValue versioned(long snapshotId, boolean latest, Object value) {
+        return new VersionedSnapshotValue(snapshotId, latest, value);
+    }
+}
@@ -58,6 +58,8 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_BLOCKING_VIRTUAL_THREADS_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -91,6 +93,10 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
+        tes = createService(THREAD_COUNT, new Properties());
+    }
+
+    private TaskletExecutionService createService(int threadCount, Properties props) {
         NodeEngineImpl neMock = mock(NodeEngineImpl.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
@@ -110,8 +116,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
         when(neMock.getMetricsRegistry()).thenReturn(metricsRegistry);
 
-        HazelcastProperties properties = new HazelcastProperties(new Properties());
-        tes = new TaskletExecutionService(neMock, THREAD_COUNT, properties);
+        return new TaskletExecutionService(neMock, threadCount, new HazelcastProperties(props));
     }
 
     @After
@@ -243,6 +248,56 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         tasklets.forEach(MockTasklet::assertDone);
     }
 
+    @Test
+    public void when_workStealingEnabledAndSkewedTasklets_then_busyTaskletsSpread() {
+        // Given
+        Properties props = new Properties();
+        props.setProperty(JET_COOPERATIVE_WORK_STEALING_ENABLED.getName(), "true");
+        TaskletExecutionService stealingTes = createService(2, props);
+        try {
+            // the tasklets are assigned round-robin, so both busy tasklets start on the first worker
+            ThreadRecordingTasklet busy1 = new ThreadRecordingTasklet();
+            ThreadRecordingTasklet busy2 = new ThreadRecordingTasklet();
+            List<Tasklet> tasklets = asList(busy1, new MockTasklet().callsBeforeDone(0),
+                    busy2, new MockTasklet().callsBeforeDone(0));
+
+            // When
+            CompletableFuture<Void> f = stealingTes.beginExecute(tasklets, cancellationFuture, classLoader);
+
+            // Then
+            assertTrueEventually(() -> assertNotEquals(busy1.lastThread, busy2.lastThread));
+            busy1.done = true;
+            busy2.done = true;
+            f.join();
+        } finally {
+            stealingTes.shutdown();
+        }
+    }
+
+    @Test
+    public void when_virtualThreadsEnabled_then_blockingTaskletRunsOnVirtualThreadIfSupported() throws Exception {
+        // Given
+        Properties props = new Properties();
+        props.setProperty(JET_BLOCKING_VIRTUAL_THREADS_ENABLED.getName(), "true");
+        TaskletExecutionService virtualTes = createService(THREAD_COUNT, props);
+        try {
+            ThreadRecordingTasklet t = new ThreadRecordingTasklet().blocking();
+            t.done = true;
+
+            // When
+            virtualTes.beginExecute(singletonList(t), cancellationFuture, classLoader).join();
+
+            // Then
+            boolean virtualThreadsSupported = Runtime.version().feature() >= 21;
+            assertEquals(virtualThreadsSupported, TaskletExecutionService.virtualThreadFactory("test-") != null);
+            boolean isVirtual = virtualThreadsSupported
+                    && (boolean) Thread.class.getMethod("isVirtual").invoke(t.lastThread);
+            assertEquals(virtualThreadsSupported, isVirtual);
+        } finally {
+            virtualTes.shutdown();
+        }
+    }
+
     @Test
     public void when_nonBlockingTaskletIsCancelled_then_completesEarly() throws Exception {
         // Given
@@ -504,6 +559,30 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    private static class ThreadRecordingTasklet implements Tasklet {
+
+        volatile Thread lastThread;
+        volatile boolean done;
+        private boolean isBlocking;
+
+        @Override
+        public boolean isCooperative() {
+            return !isBlocking;
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            lastThread = Thread.currentThread();
+            return done ? DONE : MADE_PROGRESS;
+        }
+
+        ThreadRecordingTasklet blocking() {
+            isBlocking = true;
+            return this;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
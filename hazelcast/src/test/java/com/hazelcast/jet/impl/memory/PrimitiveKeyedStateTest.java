@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.hazelcast.jet.Util.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveKeyedStateTest {
+
+    private final PrimitiveKeyedState<String> state = new PrimitiveKeyedState<>(2);
+
+    @Test
+    public void when_keyNotInserted_then_offsetNegative() {
+        assertEquals(-1, state.offsetOf("a"));
+    }
+
+    @Test
+    public void when_insert_then_slotsZeroAndFound() {
+        int offset = state.insert("a");
+
+        assertEquals(offset, state.offsetOf("a"));
+        assertEquals(0, state.slots()[offset]);
+        assertEquals(0, state.slots()[offset + 1]);
+        assertEquals(1, state.size());
+    }
+
+    @Test
+    public void when_manyKeys_then_slotsPreservedOnResize() {
+        int keyCount = PrimitiveKeyedState.INITIAL_CAPACITY * 100;
+        for (int i = 0; i < keyCount; i++) {
+            int offset = state.insert("k" + i);
+            state.slots()[offset] = i;
+            state.slots()[offset + 1] = -i;
+        }
+
+        assertEquals(keyCount, state.size());
+        for (int i = 0; i < keyCount; i++) {
+            int offset = state.offsetOf("k" + i);
+            assertEquals(i, state.slots()[offset]);
+            assertEquals(-i, state.slots()[offset + 1]);
+        }
+    }
+
+    @Test
+    public void when_drain_then_allEntriesAndEmpty() {
+        int keyCount = 1000;
+        for (int i = 0; i < keyCount; i++) {
+            int offset = state.insert("k" + i);
+            state.slots()[offset] = i;
+        }
+
+        Map<String, Long> drained = new HashMap<>();
+        Traverser<Map.Entry<String, Long>> traverser =
+                state.drain((key, slots, offset) -> entry(key, slots[offset]));
+        for (Map.Entry<String, Long> e; (e = traverser.next()) != null; ) {
+            drained.put(e.getKey(), e.getValue());
+        }
+
+        assertEquals(keyCount, drained.size());
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals(Long.valueOf(i), drained.get("k" + i));
+        }
+        assertEquals(0, state.size());
+        assertEquals(-1, state.offsetOf("k0"));
+    }
+
+    @Test
+    public void when_iterate_then_allEntriesAndNotRemoved() {
+        int keyCount = 1000;
+        for (int i = 0; i < keyCount; i++) {
+            int offset = state.insert("k" + i);
+            state.slots()[offset] = i;
+        }
+
+        Map<String, Long> iterated = new HashMap<>();
+        Iterator<Map.Entry<String, Long>> iterator = state.iterator((key, slots, offset) -> entry(key, slots[offset]));
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> e = iterator.next();
+            iterated.put(e.getKey(), e.getValue());
+        }
+
+        assertEquals(keyCount, iterated.size());
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals(Long.valueOf(i), iterated.get("k" + i));
+        }
+        assertEquals(keyCount, state.size());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void when_drainMapsToNull_then_skipped() {
+        state.insert("a");
+        state.insert("b");
+
+        Traverser<String> traverser = state.drain((key, slots, offset) -> key.equals("a") ? null : key);
+
+        assertEquals("b", traverser.next());
+        assertNull(traverser.next());
+    }
+}
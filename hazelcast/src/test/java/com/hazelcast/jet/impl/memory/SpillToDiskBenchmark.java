@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.function.ComparatorEx;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.pipeline.BatchSource;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.SourceBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+
+/**
+ * Compares the duration and the heap usage of a grouping and a sorting job
+ * when the processors keep their state in memory and when they spill it to
+ * the local disk, see {@link JobConfigArguments#KEY_SPILL_TO_DISK_ENABLED}.
+ * <p>
+ * The grouping job counts {@value #ITEM_COUNT} items by {@value #KEY_COUNT}
+ * keys, the sorting job sorts {@value #ITEM_COUNT} items in reverse order.
+ * When spilling, each processor accumulates at most {@value
+ * #SPILL_ACCUMULATION_LIMIT} records. The heap is sampled while the job
+ * runs, the peak is printed.
+ * <p>
+ * This is no JUnit test.
+ */
+public class SpillToDiskBenchmark {
+
+    private static final int ITEM_COUNT = 20_000_000;
+    private static final int KEY_COUNT = 5_000_000;
+    private static final int SPILL_ACCUMULATION_LIMIT = 500_000;
+    private static final long HEAP_SAMPLE_INTERVAL_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        config.setClusterName("spill-to-disk-benchmark");
+        config.getJetConfig().setEnabled(true);
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+        Path spillDirectory = Files.createTempDirectory("spill-to-disk-benchmark");
+        try {
+            for (boolean spilling : new boolean[] {false, true}) {
+                run(instance, "group", spilling, spillDirectory, p -> p
+                        .readFrom(source())
+                        .groupingKey(i -> i % KEY_COUNT)
+                        .aggregate(counting())
+                        .writeTo(Sinks.noop()));
+                run(instance, "sort", spilling, spillDirectory, p -> p
+                        .readFrom(source())
+                        .sort(ComparatorEx.reverseOrder())
+                        .writeTo(Sinks.noop()));
+            }
+        } finally {
+            instance.shutdown();
+        }
+    }
+
+    // generates the items instead of holding them in a list, which would skew the heap usage
+    private static BatchSource<Long> source() {
+        return SourceBuilder.batch("longs", ctx -> new long[1])
+                            .<Long>fillBufferFn((next, buffer) -> {
+                                for (int i = 0; i < 1024 && next[0] < ITEM_COUNT; i++) {
+                                    buffer.add(next[0]++);
+                                }
+                                if (next[0] == ITEM_COUNT) {
+                                    buffer.close();
+                                }
+                            })
+                            .build();
+    }
+
+    private static void run(HazelcastInstance instance, String name, boolean spilling, Path spillDirectory,
+                            Consumer<Pipeline> pipelineFn) throws Exception {
+        Pipeline p = Pipeline.create();
+        pipelineFn.accept(p);
+        JobConfig jobConfig = new JobConfig();
+        if (spilling) {
+            jobConfig.setMaxProcessorAccumulatedRecords(SPILL_ACCUMULATION_LIMIT)
+                     .setArgument(JobConfigArguments.KEY_SPILL_TO_DISK_ENABLED, true)
+                     .setArgument(JobConfigArguments.KEY_SPILL_DIRECTORY, spillDirectory.toString());
+        }
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        Job job = instance.getJet().newJob(p, jobConfig);
+        long peakHeap = 0;
+        while (!job.getFuture().isDone()) {
+            peakHeap = Math.max(peakHeap, Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+            Thread.sleep(HEAP_SAMPLE_INTERVAL_MILLIS);
+        }
+        job.join();
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%s, spilling=%b: duration %,d ms, peak heap used %,d MB%n",
+                name, spilling, durationMillis, (peakHeap - heapBefore) / (1024 * 1024));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.datamodel.Tuple2;
+import com.hazelcast.jet.pipeline.BatchStage;
+import com.hazelcast.jet.pipeline.JoinClause;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.test.TestSources;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.function.Functions.wholeItem;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.pipeline.test.AssertionSinks.assertAnyOrder;
+import static com.hazelcast.jet.pipeline.test.AssertionSinks.assertOrdered;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillToDiskTest extends SimpleTestInClusterSupport {
+
+    private static final int MAX_PROCESSOR_ACCUMULATED_RECORDS = 100;
+    private static final int ITEM_COUNT = 10_000;
+
+    @Rule
+    public TemporaryFolder spillDirectory = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() {
+        Config config = smallInstanceConfig();
+        config.getJetConfig().setCooperativeThreadCount(2);
+        initialize(1, config);
+    }
+
+    @Test
+    public void whenSortingWithSpilling_thenSortedOutput() {
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).boxed().collect(toList());
+        List<Integer> shuffled = new ArrayList<>(items);
+        Collections.shuffle(shuffled, new Random(42));
+
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffled))
+                .sort()
+                .writeTo(assertOrdered(items));
+
+        instance().getJet().newJob(pipeline, spillingJobConfig()).join();
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void whenGroupingWithSpilling_thenAllGroupsCombined() {
+        int keyCount = ITEM_COUNT / 10;
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).map(i -> i % keyCount).boxed().collect(toList());
+        List<Entry<Integer, Long>> expected = IntStream.range(0, keyCount)
+                .mapToObj(k -> entry(k, 10L)).collect(toList());
+
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(items))
+                .groupingKey(wholeItem())
+                .aggregate(counting())
+                .writeTo(assertAnyOrder(expected));
+
+        instance().getJet().newJob(pipeline, spillingJobConfig()).join();
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void whenGroupingWithSpillingAndAccumulatorObjects_thenAllGroupsCombined() {
+        // unlike counting(), this operation has no primitive accumulation, so the groups are kept in a HashMap
+        int keyCount = ITEM_COUNT / 10;
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).map(i -> i % keyCount).boxed().collect(toList());
+        List<Entry<Integer, Long>> expected = IntStream.range(0, keyCount)
+                .mapToObj(k -> entry(k, 10L)).collect(toList());
+
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(items))
+                .groupingKey(wholeItem())
+                .aggregate(AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .<Integer>andAccumulate((acc, item) -> acc.add(1))
+                        .andCombine(LongAccumulator::add)
+                        .andExportFinish(LongAccumulator::get))
+                .writeTo(assertAnyOrder(expected));
+
+        instance().getJet().newJob(pipeline, spillingJobConfig()).join();
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void whenMoreRunsThanMergeFanIn_thenSortedOutput() {
+        // more runs than SortP.MAX_MERGE_FAN_IN, they are merged in multiple passes
+        int itemCount = 200 * MAX_PROCESSOR_ACCUMULATED_RECORDS;
+        List<Integer> items = IntStream.range(0, itemCount).boxed().collect(toList());
+        List<Integer> shuffled = new ArrayList<>(items);
+        Collections.shuffle(shuffled, new Random(42));
+
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(shuffled))
+                .sort()
+                .writeTo(assertOrdered(items));
+
+        instance().getJet().newJob(pipeline, spillingJobConfig()).join();
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void whenSpillPartitionExceedsLimit_thenSplitAndAllGroupsCombined() {
+        // each of the GroupP.SPILL_PARTITION_COUNT partitions has more keys than the limit
+        int keyCount = ITEM_COUNT / 2;
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).map(i -> i % keyCount).boxed().collect(toList());
+        List<Entry<Integer, Long>> expected = IntStream.range(0, keyCount)
+                .mapToObj(k -> entry(k, 2L)).collect(toList());
+
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(items))
+                .groupingKey(wholeItem())
+                .aggregate(counting())
+                .writeTo(assertAnyOrder(expected));
+
+        instance().getJet().newJob(pipeline, spillingJobConfig()).join();
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void whenKeysHaveSameHashCode_thenAccumulationLimitApplies() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(IntStream.range(0, ITEM_COUNT).boxed().collect(toList())))
+                .groupingKey(CollidingKey::new)
+                .aggregate(counting())
+                .writeTo(assertAnyOrder(Collections.emptyList()));
+
+        assertThatThrownBy(() -> instance().getJet().newJob(pipeline, spillingJobConfig()).join())
+                .hasMessageContaining("Exception thrown to prevent an OutOfMemoryError");
+    }
+
+    @Test
+    public void whenNoCombineFn_thenAccumulationLimitStillApplies() {
+        Pipeline pipeline = Pipeline.create();
+        pipeline.readFrom(TestSources.items(IntStream.range(0, ITEM_COUNT).boxed().collect(toList())))
+                .groupingKey(wholeItem())
+                .aggregate(AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .<Integer>andAccumulate((acc, item) -> acc.add(1))
+                        .andExportFinish(LongAccumulator::get))
+                .writeTo(assertAnyOrder(Collections.emptyList()));
+
+        assertThatThrownBy(() -> instance().getJet().newJob(pipeline, spillingJobConfig()).join())
+                .hasMessageContaining("Exception thrown to prevent an OutOfMemoryError");
+    }
+
+    @Test
+    public void whenHashJoinTableExceedsLimit_thenFailsDespiteSpilling() {
+        List<Integer> items = IntStream.range(0, ITEM_COUNT).boxed().collect(toList());
+        Pipeline pipeline = Pipeline.create();
+        BatchStage<Integer> joined = pipeline.readFrom(TestSources.items(items));
+        pipeline.readFrom(TestSources.items(items))
+                .hashJoin(joined, JoinClause.onKeys(wholeItem(), wholeItem()), Tuple2::tuple2)
+                .writeTo(Sinks.noop());
+
+        assertThatThrownBy(() -> instance().getJet().newJob(pipeline, spillingJobConfig()).join())
+                .hasMessageContaining("Exception thrown to prevent an OutOfMemoryError");
+    }
+
+    private JobConfig spillingJobConfig() {
+        return new JobConfig()
+                .setMaxProcessorAccumulatedRecords(MAX_PROCESSOR_ACCUMULATED_RECORDS)
+                .setArgument(JobConfigArguments.KEY_SPILL_TO_DISK_ENABLED, true)
+                .setArgument(JobConfigArguments.KEY_SPILL_DIRECTORY, spillDirectory.getRoot().getAbsolutePath());
+    }
+
+    private void assertSpillDirectoryEmpty() {
+        assertThat(spillDirectory.getRoot().list()).isEmpty();
+    }
+
+    private static final class CollidingKey implements Serializable {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
@@ -49,6 +49,7 @@ import java.util.Map.Entry;
 import java.util.stream.LongStream;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingLong;
 import static com.hazelcast.jet.core.JetTestSupport.wm;
 import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
 import static com.hazelcast.jet.core.processor.Processors.aggregateToSlidingWindowP;
@@ -77,16 +78,22 @@ public class SlidingWindowPTest {
     @Parameter(1)
     public boolean singleStageProcessor;
 
+    @Parameter(2)
+    public boolean primitiveAccumulation;
+
     private SupplierEx<Processor> supplier;
     private SlidingWindowP lastSuppliedProcessor;
 
-    @Parameters(name = "hasDeduct={0}, singleStageProcessor={1}")
+    @Parameters(name = "hasDeduct={0}, singleStageProcessor={1}, primitiveAccumulation={2}")
     public static Collection<Object[]> parameters() {
         return Arrays.asList(
-                new Object[]{true, true},
-                new Object[]{true, false},
-                new Object[]{false, true},
-                new Object[]{false, false}
+                new Object[]{true, true, false},
+                new Object[]{true, false, false},
+                new Object[]{false, true, false},
+                new Object[]{false, false, false},
+                // summingLong() has a deduct primitive
+                new Object[]{true, true, true},
+                new Object[]{true, false, true}
         );
     }
 
@@ -94,12 +101,14 @@ public class SlidingWindowPTest {
     public void before() {
         SlidingWindowPolicy winPolicy = slidingWinPolicy(4, 1);
 
-        AggregateOperation1<Entry<?, Long>, LongAccumulator, Long> operation = AggregateOperation
-                .withCreate(LongAccumulator::new)
-                .andAccumulate((LongAccumulator acc, Entry<?, Long> item) -> acc.add(item.getValue()))
-                .andCombine(LongAccumulator::add)
-                .andDeduct(hasDeduct ? LongAccumulator::subtract : null)
-                .andExportFinish(LongAccumulator::get);
+        AggregateOperation1<Entry<?, Long>, LongAccumulator, Long> operation = primitiveAccumulation
+                ? summingLong(Entry::getValue)
+                : AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .andAccumulate((LongAccumulator acc, Entry<?, Long> item) -> acc.add(item.getValue()))
+                        .andCombine(LongAccumulator::add)
+                        .andDeduct(hasDeduct ? LongAccumulator::subtract : null)
+                        .andExportFinish(LongAccumulator::get);
 
         FunctionEx<?, Long> keyFn = t -> KEY;
         ToLongFunctionEx<Entry<Long, Long>> timestampFn = Entry::getKey;
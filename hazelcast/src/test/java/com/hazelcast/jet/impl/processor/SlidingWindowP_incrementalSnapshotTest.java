@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.SlidingWindowPolicy;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.jet.impl.processor.SlidingWindowP.SnapshotKey;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static com.hazelcast.function.Functions.entryKey;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SlidingWindowP_incrementalSnapshotTest {
+
+    private SlidingWindowP<Entry<String, Long>, ?, Long, ?> p;
+    private TestOutbox outbox;
+
+    private void init(Integer maxChainLength) throws Exception {
+        SlidingWindowPolicy wDef = SlidingWindowPolicy.tumblingWinPolicy(10);
+        AggregateOperation1<Object, LongAccumulator, Long> aggrOp = counting();
+        p = new SlidingWindowP<>(
+                singletonList(entryKey()),
+                singletonList((ToLongFunctionEx<Entry<?, Long>>) Entry::getValue),
+                wDef,
+                0L,
+                aggrOp,
+                KeyedWindowResult::new,
+                true,
+                (byte) 0);
+
+        JobConfig jobConfig = new JobConfig();
+        if (maxChainLength != null) {
+            jobConfig.setArgument(JobConfigArguments.KEY_INCREMENTAL_SNAPSHOT_MAX_CHAIN_LENGTH, maxChainLength);
+        }
+        outbox = new TestOutbox(new int[]{128}, 128);
+        p.init(outbox, new TestProcessorContext()
+                .setProcessingGuarantee(EXACTLY_ONCE)
+                .setJobConfig(jobConfig));
+    }
+
+    @Test
+    public void when_incrementalSnapshot_then_onlyChangedFramesSaved() throws Exception {
+        init(3);
+        process(entry("a", 10L), entry("b", 20L));
+        assertEquals(asSet("a@10", "b@20"), saveSnapshot(false));
+
+        // When
+        process(entry("c", 20L));
+
+        // Then
+        // the whole frame 20 is saved, frame 10 is unchanged
+        assertEquals(asSet("b@20", "c@20"), saveSnapshot(true));
+        // nothing changed
+        assertEquals(emptySet(), saveSnapshot(true));
+        // a full snapshot saves all frames
+        assertEquals(asSet("a@10", "b@20", "c@20"), saveSnapshot(false));
+    }
+
+    @Test
+    public void when_incrementalSnapshotsDisabled_then_fullSnapshotSaved() throws Exception {
+        init(null);
+        process(entry("a", 10L), entry("b", 20L));
+        assertEquals(asSet("a@10", "b@20"), saveSnapshot(false));
+
+        assertEquals(asSet("a@10", "b@20"), saveSnapshot(true));
+    }
+
+    @SafeVarargs
+    private final void process(Entry<String, Long>... items) {
+        for (Entry<String, Long> item : items) {
+            assertTrue(p.tryProcess(0, item));
+        }
+    }
+
+    /**
+     * Saves a snapshot and returns the saved frames as {@code key@frameTs},
+     * checks that the {@code nextWinToEmit} broadcast key is always saved.
+     */
+    private Set<String> saveSnapshot(boolean incremental) {
+        p.beginSnapshot(incremental);
+        assertTrue(p.saveToSnapshot());
+        List<Entry<Object, Object>> entries = new ArrayList<>();
+        outbox.drainSnapshotQueueAndReset(entries, false);
+        Set<String> frames = new HashSet<>();
+        boolean nextWinToEmitSaved = false;
+        for (Entry<Object, Object> e : entries) {
+            if (e.getKey() instanceof BroadcastKey) {
+                nextWinToEmitSaved = true;
+            } else {
+                SnapshotKey key = (SnapshotKey) e.getKey();
+                frames.add(key.key + "@" + key.timestamp);
+            }
+        }
+        assertTrue("nextWinToEmit not saved", nextWinToEmitSaved);
+        return frames;
+    }
+
+    private static Set<String> asSet(String... frames) {
+        return new HashSet<>(asList(frames));
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.LocalDiskSnapshotChunkStore.ChunkFileReader;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.Sources;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.JobStatus.FAILED;
+import static com.hazelcast.jet.core.JobStatus.RUNNING;
+import static com.hazelcast.jet.core.JobStatus.SUSPENDED;
+import static com.hazelcast.jet.pipeline.JournalInitialPosition.START_FROM_CURRENT;
+import static com.hazelcast.jet.pipeline.JournalInitialPosition.START_FROM_OLDEST;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LocalDiskSnapshotChunkStoreTest extends SimpleTestInClusterSupport {
+
+    private static final int KEY_COUNT = 100;
+
+    @Rule
+    public TemporaryFolder snapshotDirectory = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @BeforeClass
+    public static void setUp() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("source*").getEventJournalConfig().setEnabled(true);
+        initialize(2, config);
+    }
+
+    @Test
+    public void when_recordsWritten_then_readBack() throws IOException {
+        Path file = snapshotDirectory.newFile().toPath();
+        Data key1 = serializationService.toData(new SnapshotDataKey(1, 2, "vertex", 3));
+        Data chunk1 = serializationService.toData(new byte[] {1, 2, 3});
+        Data key2 = serializationService.toData(new SnapshotDataKey(4, 2, "vertex", 5));
+        Data chunk2 = serializationService.toData(new byte[0]);
+        Files.write(file, LocalDiskSnapshotChunkStore.encodeRecord(key1, chunk1));
+        Files.write(file, LocalDiskSnapshotChunkStore.encodeRecord(key2, chunk2), APPEND);
+
+        try (ChunkFileReader reader = new ChunkFileReader(file)) {
+            Entry<Data, Data> record = reader.next();
+            assertEquals(key1, record.getKey());
+            assertArrayEquals(new byte[] {1, 2, 3}, serializationService.toObject(record.getValue()));
+            record = reader.next();
+            assertEquals(new SnapshotDataKey(4, 2, "vertex", 5), serializationService.toObject(record.getKey()));
+            assertEquals(chunk2, record.getValue());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void when_recordCorrupted_then_checksumMismatch() throws IOException {
+        Path file = snapshotDirectory.newFile().toPath();
+        Data key = serializationService.toData(new SnapshotDataKey(1, 2, "vertex", 3));
+        Data chunk = serializationService.toData(new byte[] {1, 2, 3});
+        Files.write(file, LocalDiskSnapshotChunkStore.encodeRecord(key, chunk));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // flip the last byte of the chunk, just before the checksum
+            long position = raf.length() - Long.BYTES - 1;
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xff);
+        }
+
+        try (ChunkFileReader reader = new ChunkFileReader(file)) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Checksum mismatch");
+        }
+    }
+
+    @Test
+    public void test_filesToRestore() throws IOException {
+        UUID local = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID left = UUID.randomUUID();
+        Path mapDirectory = snapshotDirectory.newFolder("map").toPath();
+        Path snapshotDir = Files.createDirectory(mapDirectory.resolve("5"));
+        Path ownFile = Files.createFile(snapshotDir.resolve(local + ".chunks"));
+        Files.createFile(snapshotDir.resolve(other + ".chunks"));
+        // replica of a member still in the cluster, not restored
+        Files.createFile(snapshotDir.resolve(other + ".replica." + local + ".chunks"));
+        // replica of a member that left, restored
+        Path replicaFile = Files.createFile(snapshotDir.resolve(left + ".replica." + local + ".chunks"));
+        // replica held by another member
+        Files.createFile(snapshotDir.resolve(left + ".replica." + other + ".chunks"));
+
+        List<Path> files = LocalDiskSnapshotChunkStore.filesToRestore(mapDirectory, local, asSet(local, other));
+
+        assertThat(files).containsExactlyInAnyOrder(ownFile, replicaFile);
+    }
+
+    @Test
+    public void test_filesToRestore_noDirectory() throws IOException {
+        Path mapDirectory = snapshotDirectory.getRoot().toPath().resolve("missing");
+        UUID local = UUID.randomUUID();
+
+        assertThat(LocalDiskSnapshotChunkStore.filesToRestore(mapDirectory, local, singleton(local))).isEmpty();
+    }
+
+    @Test
+    public void when_jobRestarted_then_stateRestoredFromLocalDisk() throws IOException {
+        IMap<Integer, Integer> source = instance().getMap(randomMapName("source"));
+        IMap<Integer, Long> sink = instance().getMap(randomMapName("sink"));
+
+        Pipeline p = Pipeline.create();
+        p.readFrom(Sources.<Integer, Integer>mapJournal(source.getName(), START_FROM_CURRENT))
+         .withoutTimestamps()
+         .groupingKey(Entry::getKey)
+         .rollingAggregate(counting())
+         .writeTo(Sinks.map(sink));
+
+        JobConfig config = new JobConfig()
+                .setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE)
+                .setSnapshotIntervalMillis(100)
+                .setArgument(JobConfigArguments.KEY_SNAPSHOT_STORE, JobConfigArguments.SNAPSHOT_STORE_LOCAL_DISK)
+                .setArgument(JobConfigArguments.KEY_SNAPSHOT_DIRECTORY, snapshotDirectory.getRoot().getPath());
+        Job job = instance().getJet().newJob(p, config);
+        assertJobStatusEventually(job, RUNNING);
+        // wait until the source reads from the journal
+        assertTrueEventually(() -> {
+            source.put(-1, 0);
+            assertTrue(sink.containsKey(-1));
+        });
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            source.put(i, 0);
+        }
+        assertTrueEventually(() -> assertEquals(KEY_COUNT + 1, sink.size()));
+        JobRepository jobRepository = getJetServiceBackend(instance()).getJobRepository();
+        waitForNextSnapshot(jobRepository, job.getId(), 30, false);
+        assertThat(chunkFiles(job.getId())).isNotEmpty();
+
+        job.restart();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            source.put(i, 1);
+        }
+
+        // the counts are only 2, if both the state and the journal offsets were restored
+        assertTrueEventually(() -> {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                assertEquals("key " + i, Long.valueOf(2), sink.get(i));
+            }
+        });
+        job.cancel();
+    }
+
+    @Test
+    public void when_chunkFileMissing_then_restoreFails() throws IOException {
+        IMap<Integer, Integer> source = instance().getMap(randomMapName("source"));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            source.put(i, i);
+        }
+
+        Pipeline p = Pipeline.create();
+        p.readFrom(Sources.<Integer, Integer>mapJournal(source.getName(), START_FROM_OLDEST))
+         .withoutTimestamps()
+         .groupingKey(Entry::getKey)
+         .rollingAggregate(counting())
+         .writeTo(Sinks.noop());
+
+        JobConfig config = new JobConfig()
+                .setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE)
+                .setSnapshotIntervalMillis(100)
+                .setArgument(JobConfigArguments.KEY_SNAPSHOT_STORE, JobConfigArguments.SNAPSHOT_STORE_LOCAL_DISK)
+                .setArgument(JobConfigArguments.KEY_SNAPSHOT_DIRECTORY, snapshotDirectory.getRoot().getPath());
+        Job job = instance().getJet().newJob(p, config);
+        assertJobStatusEventually(job, RUNNING);
+        JobRepository jobRepository = getJetServiceBackend(instance()).getJobRepository();
+        waitForNextSnapshot(jobRepository, job.getId(), 30, false);
+        job.suspend();
+        assertJobStatusEventually(job, SUSPENDED);
+
+        // delete a non-empty file written by a member of the last snapshot, its replica isn't restored
+        // because the member didn't leave
+        Path lastSnapshotFile = chunkFiles(job.getId()).stream()
+                .filter(file -> !file.getFileName().toString().contains(".replica."))
+                .filter(file -> file.toFile().length() > 0)
+                .max(Comparator.comparing(file -> Long.parseLong(file.getParent().getFileName().toString())))
+                .get();
+        Files.delete(lastSnapshotFile);
+
+        job.resume();
+        assertThatThrownBy(() -> job.getFuture().join())
+                .hasMessageContaining("is corrupted");
+        assertEquals(FAILED, job.getStatus());
+    }
+
+    private List<Path> chunkFiles(long jobId) throws IOException {
+        Path jobDirectory = LocalDiskSnapshotChunkStore.jobDirectory(snapshotDirectory.getRoot().getPath(), jobId);
+        try (Stream<Path> files = Files.walk(jobDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".chunks")).collect(toList());
+        }
+    }
+
+    private static Set<UUID> asSet(UUID... uuids) {
+        return new HashSet<>(asList(uuids));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.metrics.Measurement;
+import com.hazelcast.jet.core.metrics.MetricNames;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.test.TestSources;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+
+/**
+ * Compares the snapshot time and the heap usage of a job with a large state
+ * when the snapshots are stored in an {@code IMap} and when they are stored
+ * by the {@link LocalDiskSnapshotChunkStore}.
+ * <p>
+ * The job keeps a rolling count for {@value #KEY_COUNT} keys. After the job
+ * ran for a while, the duration and size of the last snapshot are read from
+ * the job metrics and the heap used by the cluster, which includes the
+ * snapshot maps and their backups, is measured after a GC.
+ * <p>
+ * This is no JUnit test.
+ */
+public class SnapshotStoreBenchmark {
+
+    private static final int MEMBER_COUNT = 3;
+    private static final int KEY_COUNT = 2_000_000;
+    private static final int ITEMS_PER_SECOND = 1_000_000;
+    private static final int SNAPSHOT_INTERVAL_MILLIS = 5_000;
+    private static final int DURATION_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception {
+        run(JobConfigArguments.SNAPSHOT_STORE_IMAP);
+        run(JobConfigArguments.SNAPSHOT_STORE_LOCAL_DISK);
+    }
+
+    private static void run(String snapshotStore) throws Exception {
+        Config config = new Config();
+        config.setClusterName("snapshot-store-" + snapshotStore);
+        config.getJetConfig().setEnabled(true);
+        config.getMetricsConfig().setCollectionFrequencySeconds(1);
+        HazelcastInstance[] instances = new HazelcastInstance[MEMBER_COUNT];
+        Path snapshotDirectory = Files.createTempDirectory("snapshot-store-benchmark");
+        try {
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                instances[i] = Hazelcast.newHazelcastInstance(config);
+            }
+            long heapBefore = usedHeap();
+
+            Pipeline p = Pipeline.create();
+            p.readFrom(TestSources.itemStream(ITEMS_PER_SECOND))
+             .withIngestionTimestamps()
+             .groupingKey(event -> event.sequence() % KEY_COUNT)
+             .rollingAggregate(counting())
+             .writeTo(Sinks.noop());
+            JobConfig jobConfig = new JobConfig()
+                    .setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE)
+                    .setSnapshotIntervalMillis(SNAPSHOT_INTERVAL_MILLIS)
+                    .setArgument(JobConfigArguments.KEY_SNAPSHOT_STORE, snapshotStore)
+                    .setArgument(JobConfigArguments.KEY_SNAPSHOT_DIRECTORY, snapshotDirectory.toString());
+            Job job = instances[0].getJet().newJob(p, jobConfig);
+
+            TimeUnit.SECONDS.sleep(DURATION_SECONDS);
+            long heapAfter = usedHeap();
+            List<Measurement> durations = job.getMetrics().get(MetricNames.SNAPSHOT_DURATION);
+            List<Measurement> bytes = job.getMetrics().get(MetricNames.SNAPSHOT_BYTES);
+            job.cancel();
+
+            System.out.printf("store=%s: snapshot duration %d ms, snapshot size %,d bytes, heap used %,d MB%n",
+                    snapshotStore,
+                    durations.stream().mapToLong(Measurement::value).max().orElse(-1),
+                    bytes.stream().mapToLong(Measurement::value).sum(),
+                    (heapAfter - heapBefore) / (1024 * 1024));
+        } finally {
+            for (HazelcastInstance instance : instances) {
+                if (instance != null) {
+                    instance.shutdown();
+                }
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
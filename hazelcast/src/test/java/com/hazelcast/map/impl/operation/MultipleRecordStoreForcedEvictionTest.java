@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionThreadBalancerAccessor;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MultipleRecordStoreForcedEvictionTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenNoRebalancing_thenPartitionsOfSameThreadEvicted() {
+        HazelcastInstance instance = createHazelcastInstance(config(false));
+
+        Set<Integer> evictedPartitions = forceEvict(instance, 1);
+
+        assertEquals(new HashSet<>(asList(1, 3, 5, 7)), evictedPartitions);
+    }
+
+    @Test
+    public void whenPartitionHandedOff_thenPartitionsOwnedBySameThreadEvicted() {
+        HazelcastInstance instance = createHazelcastInstance(config(true));
+        OperationExecutor operationExecutor = getOperationService(instance).getOperationExecutor();
+        // partition 2 moves from partition thread 0 to partition thread 1
+        assertTrue(PartitionThreadBalancerAccessor.handOff(instance, 2, 1));
+        assertTrueEventually(() -> assertEquals(1, operationExecutor.getPartitionThreadId(2)));
+
+        Set<Integer> evictedPartitions = forceEvict(instance, 1);
+
+        assertEquals(new HashSet<>(asList(1, 2, 3, 5, 7)), evictedPartitions);
+        assertEquals(new HashSet<>(asList(0, 4, 6)), forceEvict(instance, 0));
+    }
+
+    private static Config config(boolean rebalance) {
+        return smallInstanceConfig()
+                .setProperty(PARTITION_COUNT.getName(), "8")
+                .setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2")
+                .setProperty("hazelcast.operation.partitionthread.rebalance.enabled", "" + rebalance);
+    }
+
+    /**
+     * Runs the forced eviction on the partition thread of the given partition and
+     * returns the partitions it evicted from.
+     */
+    private static Set<Integer> forceEvict(HazelcastInstance instance, int partitionId) {
+        OperationServiceImpl operationService = getOperationService(instance);
+        ForcedEvictionOperation operation = new ForcedEvictionOperation();
+        operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId).join();
+        return operation.eviction.evictedPartitions;
+    }
+
+    private static class ForcedEvictionOperation extends Operation {
+
+        private final RecordingForcedEviction eviction = new RecordingForcedEviction();
+
+        @Override
+        public void run() {
+            MapOperation mapOperation = new ContainsKeyOperation("map", null);
+            mapOperation.setNodeEngine(getNodeEngine());
+            mapOperation.setPartitionId(getPartitionId());
+            eviction.forceEvictAndRun(mapOperation, ForcedEviction.HUNDRED_PERCENT, () -> { });
+        }
+    }
+
+    private static class RecordingForcedEviction extends MultipleRecordStoreForcedEviction {
+
+        // only accessed by the partition thread running the eviction
+        private final Set<Integer> evictedPartitions = new HashSet<>();
+
+        @Override
+        public ConcurrentMap<String, RecordStore> partitionMaps(MapOperation mapOperation, int partitionId) {
+            evictedPartitions.add(partitionId);
+            return new ConcurrentHashMap<>();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.nio;
 
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
 import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
@@ -189,6 +190,36 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void batchPacket() {
+        Packet[] packets = {
+                new Packet(generateRandomString(1000).getBytes(), 1).setPacketType(Packet.Type.OPERATION),
+                new Packet(new byte[0], 2).setPacketType(Packet.Type.OPERATION).raiseFlags(Packet.FLAG_URGENT),
+                new Packet("foobarbaz".getBytes(), 3).setPacketType(Packet.Type.OPERATION),
+        };
+        Packet originalPacket = PacketBatchCodec.pack(packets, packets.length, Packet.Type.OPERATION);
+
+        Packet clonedPacket;
+        ByteBuffer bb = ByteBuffer.allocate(20);
+        boolean writeCompleted;
+        do {
+            writeCompleted = packetWriter.writeTo(originalPacket, bb);
+            upcast(bb).flip();
+            clonedPacket = packetReader.readFrom(bb);
+            upcast(bb).clear();
+        } while (!writeCompleted);
+
+        assertNotNull(clonedPacket);
+        assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
+        assertEquals(originalPacket.getFrameLength(), clonedPacket.getFrameLength());
+        Packet[] clonedPackets = clonedPacket.getBatchedPackets();
+        assertEquals(packets.length, clonedPackets.length);
+        for (int k = 0; k < packets.length; k++) {
+            assertEquals(packets[k].getPartitionId(), clonedPackets[k].getPartitionId());
+            assertPacketEquals(packets[k], clonedPackets[k]);
+        }
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
+import com.hazelcast.spi.impl.eventservice.CoalescableEvent;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_EVENT_BATCH;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EventBatcherTest {
+
+    private final Address subscriber = newAddress(5701);
+    private final UUID registrationId = UUID.randomUUID();
+    private final List<Packet> sent = new ArrayList<>();
+
+    @Test
+    public void whenMaxSizeReached_thenBatchSent() {
+        EventBatcher batcher = new EventBatcher(3, false, (packet, address) -> sent.add(packet));
+
+        batcher.offer(subscriber, registrationId, envelope(1), 10, null);
+        batcher.offer(subscriber, registrationId, envelope(2), 20, null);
+        assertEquals(0, sent.size());
+        batcher.offer(subscriber, registrationId, envelope(3), 30, null);
+
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).isFlagRaised(FLAG_EVENT_BATCH));
+        List<Packet> events = unpack(sent.get(0));
+        assertEquals(3, events.size());
+        for (int k = 0; k < 3; k++) {
+            assertEquals((k + 1) * 10, events.get(k).getPartitionId());
+            assertEquals(k + 1, events.get(k).toByteArray()[0]);
+            assertEquals(Packet.Type.EVENT, events.get(k).getPacketType());
+        }
+        assertEquals(1, batcher.batchCount());
+        assertEquals(3, batcher.batchedEventCount());
+    }
+
+    @Test
+    public void whenFlushed_thenPendingEventsSent() {
+        EventBatcher batcher = new EventBatcher(100, false, (packet, address) -> sent.add(packet));
+        Address otherSubscriber = newAddress(5702);
+
+        batcher.offer(subscriber, registrationId, envelope(1), 1, null);
+        batcher.offer(subscriber, registrationId, envelope(2), 2, null);
+        batcher.offer(otherSubscriber, registrationId, envelope(3), 3, null);
+        batcher.flush(subscriber);
+
+        assertEquals(1, sent.size());
+        assertEquals(2, unpack(sent.get(0)).size());
+
+        batcher.flushAll();
+        assertEquals(2, sent.size());
+        // a single event isn't sent as a batch
+        assertFalse(sent.get(1).isFlagRaised(FLAG_EVENT_BATCH));
+        assertEquals(3, sent.get(1).getPartitionId());
+
+        batcher.flushAll();
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void whenCoalescing_thenOnlyLastUpdateSent() {
+        EventBatcher batcher = new EventBatcher(100, true, (packet, address) -> sent.add(packet));
+
+        batcher.offer(subscriber, registrationId, envelope(1), 1, new Event("a", true));
+        batcher.offer(subscriber, registrationId, envelope(2), 1, new Event("b", true));
+        batcher.offer(subscriber, registrationId, envelope(3), 1, new Event("a", true));
+        // a different listener
+        batcher.offer(subscriber, UUID.randomUUID(), envelope(4), 1, new Event("a", true));
+        batcher.flushAll();
+
+        assertArrayEquals(new byte[]{2, 3, 4}, payloads(unpack(sent.get(0))));
+        assertEquals(1, batcher.coalescedEventCount());
+    }
+
+    @Test
+    public void whenCoalescing_thenNotAcrossNonCoalescableEvent() {
+        EventBatcher batcher = new EventBatcher(100, true, (packet, address) -> sent.add(packet));
+
+        batcher.offer(subscriber, registrationId, envelope(1), 1, new Event("a", true));
+        // e.g. a removal
+        batcher.offer(subscriber, registrationId, envelope(2), 1, new Event("a", false));
+        batcher.offer(subscriber, registrationId, envelope(3), 1, new Event("a", true));
+        batcher.offer(subscriber, registrationId, envelope(4), 1, new Event("a", true));
+        batcher.flushAll();
+
+        assertArrayEquals(new byte[]{1, 2, 4}, payloads(unpack(sent.get(0))));
+        assertEquals(1, batcher.coalescedEventCount());
+    }
+
+    @Test
+    public void whenCoalescingDisabled_thenAllEventsSent() {
+        EventBatcher batcher = new EventBatcher(100, false, (packet, address) -> sent.add(packet));
+
+        batcher.offer(subscriber, registrationId, envelope(1), 1, new Event("a", true));
+        batcher.offer(subscriber, registrationId, envelope(2), 1, new Event("a", true));
+        batcher.flushAll();
+
+        assertEquals(2, unpack(sent.get(0)).size());
+        assertEquals(0, batcher.coalescedEventCount());
+    }
+
+    private static List<Packet> unpack(Packet batch) {
+        List<Packet> packets = new ArrayList<>();
+        PacketBatchCodec.unpack(batch, packets::add);
+        return packets;
+    }
+
+    private static byte[] payloads(List<Packet> packets) {
+        byte[] payloads = new byte[packets.size()];
+        for (int k = 0; k < payloads.length; k++) {
+            payloads[k] = packets.get(k).toByteArray()[0];
+        }
+        return payloads;
+    }
+
+    private static byte[] envelope(int id) {
+        return new byte[]{(byte) id, 0, 0, 0, 0, 0, 0, 0};
+    }
+
+    private static Address newAddress(int port) {
+        try {
+            return new Address("127.0.0.1", port);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class Event implements CoalescableEvent {
+        private final Object key;
+        private final boolean coalescable;
+
+        private Event(Object key, boolean coalescable) {
+            this.key = key;
+            this.coalescable = coalescable;
+        }
+
+        @Override
+        public Object getCoalescingKey() {
+            return key;
+        }
+
+        @Override
+        public boolean isCoalescable() {
+            return coalescable;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl.EVENT_BATCHING_ENABLED;
+import static com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl.EVENT_COALESCING_ENABLED;
+
+/**
+ * Compares the throughput of map updates with many entry listeners on another member without
+ * event batching, with {@link EventServiceImpl#EVENT_BATCHING_ENABLED batching} and with batching
+ * and {@link EventServiceImpl#EVENT_COALESCING_ENABLED coalescing}.
+ * <p>
+ * The listeners are registered on the member that doesn't do the updates, so roughly half of the
+ * events are sent over the network. Next to the update throughput, the number of events received
+ * by the listeners is printed; with coalescing this is lower than the number of updates times the
+ * number of listeners.
+ * <p>
+ * This is no JUnit test.
+ */
+public class EventBatchingBenchmark {
+
+    private static final int LISTENER_COUNT = 50;
+    private static final int THREAD_COUNT = 8;
+    private static final int KEY_COUNT = 1_000;
+    private static final int DURATION_SECONDS = 30;
+
+    public static void main(String[] args) throws Exception {
+        run(false, false);
+        run(true, false);
+        run(true, true);
+    }
+
+    private static void run(boolean batching, boolean coalescing) throws Exception {
+        Config config = new Config();
+        config.setClusterName("batching-" + batching + "-coalescing-" + coalescing);
+        config.setProperty(EVENT_BATCHING_ENABLED.getName(), Boolean.toString(batching));
+        config.setProperty(EVENT_COALESCING_ENABLED.getName(), Boolean.toString(coalescing));
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        try {
+            LongAdder received = new LongAdder();
+            IMap<Integer, Integer> listenerMap = hz2.getMap("map");
+            for (int k = 0; k < LISTENER_COUNT; k++) {
+                listenerMap.addEntryListener((EntryUpdatedListener<Integer, Integer>) event -> received.increment(), true);
+            }
+
+            IMap<Integer, Integer> map = hz1.getMap("map");
+            for (int k = 0; k < KEY_COUNT; k++) {
+                map.set(k, 0);
+            }
+
+            AtomicBoolean stop = new AtomicBoolean();
+            LongAdder updates = new LongAdder();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                Thread thread = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!stop.get()) {
+                        map.set(random.nextInt(KEY_COUNT), random.nextInt());
+                        updates.increment();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            TimeUnit.SECONDS.sleep(DURATION_SECONDS);
+            stop.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long receivedAtStop = received.sum();
+
+            System.out.printf("batching=%s coalescing=%s: %.0f updates per second, %.0f events received per second%n",
+                    batching, coalescing, updates.sum() / (double) DURATION_SECONDS,
+                    receivedAtStop / (double) DURATION_SECONDS);
+        } finally {
+            hz2.shutdown();
+            hz1.shutdown();
+        }
+    }
+}
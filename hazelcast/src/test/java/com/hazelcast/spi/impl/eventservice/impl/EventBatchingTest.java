@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EventBatchingTest extends HazelcastTestSupport {
+
+    private static final int UPDATE_COUNT = 1000;
+
+    @Test
+    public void whenBatching_thenAllEventsReceivedInOrder() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(newConfig(false));
+        String key = generateKeyOwnedBy(instances[1]);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        instances[0].<String, Integer>getMap("map").addEntryListener(new RecordingListener(received), key, true);
+        IMap<String, Integer> map = instances[1].getMap("map");
+
+        for (int k = 0; k < UPDATE_COUNT; k++) {
+            map.put(key, k);
+        }
+        map.remove(key);
+
+        assertTrueEventually(() -> assertEquals(UPDATE_COUNT + 1, received.size()));
+        for (int k = 0; k < UPDATE_COUNT; k++) {
+            assertEquals(k, received.get(k));
+        }
+        assertEquals("removed", received.get(UPDATE_COUNT));
+        assertTrue(getEventBatcher(instances[1]).batchCount() > 0);
+    }
+
+    @Test
+    public void whenCoalescing_thenLastUpdateAndRemovalReceived() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(newConfig(true));
+        String key = generateKeyOwnedBy(instances[1]);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        instances[0].<String, Integer>getMap("map").addEntryListener(new RecordingListener(received), key, true);
+        IMap<String, Integer> map = instances[1].getMap("map");
+
+        for (int k = 0; k < UPDATE_COUNT; k++) {
+            map.put(key, k);
+        }
+        map.remove(key);
+
+        assertTrueEventually(() -> assertEquals("removed", received.get(received.size() - 1)));
+        assertEquals(UPDATE_COUNT - 1, received.get(received.size() - 2));
+        // the added event is never coalesced
+        assertEquals(0, received.get(0));
+        assertEquals(received.size(), UPDATE_COUNT + 1 - getEventBatcher(instances[1]).coalescedEventCount());
+    }
+
+    private Config newConfig(boolean coalescing) {
+        return smallInstanceConfig()
+                .setProperty(EventServiceImpl.EVENT_BATCHING_ENABLED.getName(), "true")
+                // a long delay, so that events pile up between flushes
+                .setProperty(EventServiceImpl.EVENT_BATCHING_MAX_DELAY_MILLIS.getName(), "50")
+                .setProperty(EventServiceImpl.EVENT_COALESCING_ENABLED.getName(), String.valueOf(coalescing));
+    }
+
+    private static EventBatcher getEventBatcher(HazelcastInstance instance) {
+        return ((EventServiceImpl) getNodeEngineImpl(instance).getEventService()).getEventBatcher();
+    }
+
+    private static final class RecordingListener implements EntryAddedListener<String, Integer>,
+            EntryUpdatedListener<String, Integer>, EntryRemovedListener<String, Integer> {
+
+        private final List<Object> received;
+
+        private RecordingListener(List<Object> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, Integer> event) {
+            received.add(event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Integer> event) {
+            received.add(event.getValue());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, Integer> event) {
+            received.add("removed");
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBatchCodec;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
@@ -84,6 +85,28 @@ public class OperationExecutorImpl_HandlePacketTest extends OperationExecutorImp
         });
     }
 
+    @Test
+    public void test_whenBatchPacket() {
+        initExecutor();
+
+        final DummyOperation operation1 = new DummyOperation(0);
+        final Packet packet1 = new Packet(serializationService.toBytes(operation1), operation1.getPartitionId())
+                .setPacketType(Packet.Type.OPERATION);
+        final DummyOperation operation2 = new DummyOperation(1);
+        final Packet packet2 = new Packet(serializationService.toBytes(operation2), operation2.getPartitionId())
+                .setPacketType(Packet.Type.OPERATION);
+        executor.accept(PacketBatchCodec.pack(new Packet[]{packet1, packet2}, 2, Packet.Type.OPERATION));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                OperationRunner[] partitionHandlers = executor.getPartitionOperationRunners();
+                assertContains(((DummyOperationRunner) partitionHandlers[0]).packets, packet1);
+                assertContains(((DummyOperationRunner) partitionHandlers[1]).packets, packet2);
+            }
+        });
+    }
+
     @Test
     public void test_whenGenericOperationPacket() {
         initExecutor();
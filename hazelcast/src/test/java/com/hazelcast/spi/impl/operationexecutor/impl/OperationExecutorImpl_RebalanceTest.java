@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationExecutorImpl_RebalanceTest extends OperationExecutorImpl_AbstractTest {
+
+    private static final int PARTITIONS = 8;
+
+    @Before
+    public void before() {
+        config.setProperty(PARTITION_COUNT.getName(), "" + PARTITIONS);
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PartitionThreadBalancer.ENABLED.getName(), "true");
+    }
+
+    @Test
+    public void whenDisabled() {
+        config.setProperty(PartitionThreadBalancer.ENABLED.getName(), "false");
+        initExecutor();
+
+        assertNull(executor.getBalancer());
+        assertEquals(1, executor.toPartitionThreadIndex(3));
+    }
+
+    @Test
+    public void whenEnabled_thenInitialMappingIsModulo() {
+        initExecutor();
+
+        for (int partitionId = 0; partitionId < PARTITIONS; partitionId++) {
+            assertEquals(partitionId % 2, executor.toPartitionThreadIndex(partitionId));
+        }
+        assertEquals(PARTITIONS / 2, executor.getPartitionThreads()[0].ownedPartitionCount());
+    }
+
+    @Test
+    public void handOff() {
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+
+        assertTrue(balancer.handOff(0, 1));
+
+        assertTrueEventually(() -> assertEquals(1, executor.toPartitionThreadIndex(0)));
+        assertEquals(1, balancer.route(0));
+        assertEquals(1, balancer.handoffCount());
+        PartitionOperationThread thread = executor.getPartitionThreads()[1];
+        assertSame(thread, executor.getPartitionOperationRunners()[0].currentThread());
+        assertEquals(PARTITIONS / 2 + 1, thread.ownedPartitionCount());
+
+        AtomicReference<Thread> executingThread = new AtomicReference<>();
+        executor.execute(new PartitionTask(0, () -> executingThread.set(Thread.currentThread())));
+        assertTrueEventually(() -> assertSame(thread, executingThread.get()));
+    }
+
+    @Test
+    public void handOff_whenAlreadyOwner_thenIgnored() {
+        initExecutor();
+
+        assertFalse(executor.getBalancer().handOff(0, 0));
+        assertEquals(0, executor.getBalancer().handoffCount());
+    }
+
+    @Test
+    public void handOff_whenInProgress_thenIgnored() {
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+        BlockingTask blocker = new BlockingTask(2);
+        executor.execute(blocker);
+        blocker.awaitStarted();
+
+        // the hand off can't complete while partition thread 0 is blocked
+        assertTrue(balancer.handOff(0, 1));
+        assertFalse(balancer.handOff(0, 1));
+        assertEquals(0, balancer.owner(0));
+
+        blocker.release();
+        assertTrueEventually(() -> assertEquals(1, balancer.owner(0)));
+    }
+
+    @Test
+    public void handOff_whenTasksPending_thenRunInOrderAndNeverConcurrently() {
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+        BlockingTask blocker = new BlockingTask(0);
+        executor.execute(blocker);
+        blocker.awaitStarted();
+
+        AtomicBoolean running = new AtomicBoolean();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        int taskCount = 1000;
+        for (int k = 0; k < taskCount; k++) {
+            if (k == taskCount / 2) {
+                // the first half is queued at thread 0, the second half at thread 1
+                balancer.handOff(0, 1);
+            }
+            int expected = k;
+            executor.execute(new PartitionTask(0, () -> {
+                if (!running.compareAndSet(false, true) || next.getAndIncrement() != expected) {
+                    errors.incrementAndGet();
+                }
+                running.set(false);
+            }));
+        }
+        blocker.release();
+
+        assertTrueEventually(() -> assertEquals(taskCount, next.get()));
+        assertEquals(0, errors.get());
+        assertEquals(1, balancer.owner(0));
+    }
+
+    @Test
+    public void executeOnPartitions_whenHandedOff_thenEveryPartitionOnce() {
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+        BlockingTask blocker = new BlockingTask(0);
+        executor.execute(blocker);
+        blocker.awaitStarted();
+
+        AtomicInteger[] counts = new AtomicInteger[PARTITIONS];
+        for (int k = 0; k < PARTITIONS; k++) {
+            counts[k] = new AtomicInteger();
+        }
+        BitSet partitions = new BitSet();
+        partitions.set(0, PARTITIONS);
+        PartitionTaskFactory taskFactory = partitionId -> (Runnable) counts[partitionId]::incrementAndGet;
+        executor.executeOnPartitions(taskFactory, partitions);
+        balancer.handOff(2, 1);
+        blocker.release();
+
+        assertTrueEventually(() -> {
+            for (int k = 0; k < PARTITIONS; k++) {
+                assertEquals("partition " + k, 1, counts[k].get());
+            }
+        });
+    }
+
+    @Test
+    public void rebalance_whenHotPartitionsOnSameThread_thenSeparated() {
+        config.setProperty(PartitionThreadBalancer.INTERVAL_MILLIS.getName(), "100");
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+
+        // partitions 0 and 2 are both mapped to thread 0
+        AtomicBoolean stop = new AtomicBoolean();
+        for (int partitionId : new int[]{0, 2}) {
+            executor.execute(new PartitionTask(partitionId, new Runnable() {
+                @Override
+                public void run() {
+                    sleepMillis(1);
+                    if (!stop.get()) {
+                        executor.execute(new PartitionTask(partitionId, this));
+                    }
+                }
+            }));
+        }
+
+        try {
+            assertTrueEventually(() -> assertNotEquals(balancer.owner(0), balancer.owner(2)));
+            assertTrue(balancer.handoffCount() > 0);
+            assertTrue(balancer.utilizationSkew() > 0);
+        } finally {
+            stop.set(true);
+        }
+    }
+
+    @Test
+    public void rebalance_whenHotPartitionsLoadedByBatches_thenSeparated() {
+        config.setProperty(PartitionThreadBalancer.INTERVAL_MILLIS.getName(), "100");
+        initExecutor();
+        PartitionThreadBalancer balancer = executor.getBalancer();
+
+        // partitions 0 and 2 are both mapped to thread 0, the load only comes from task batches
+        AtomicBoolean stop = new AtomicBoolean();
+        PartitionTaskFactory<Runnable> taskFactory = new PartitionTaskFactory<Runnable>() {
+            @Override
+            public Runnable create(int partitionId) {
+                return () -> {
+                    sleepMillis(1);
+                    if (!stop.get()) {
+                        BitSet partitions = new BitSet();
+                        partitions.set(partitionId);
+                        executor.executeOnPartitions(this, partitions);
+                    }
+                };
+            }
+        };
+        BitSet partitions = new BitSet();
+        partitions.set(0);
+        partitions.set(2);
+        executor.executeOnPartitions(taskFactory, partitions);
+
+        try {
+            assertTrueEventually(() -> assertNotEquals(balancer.owner(0), balancer.owner(2)));
+            assertTrue(balancer.handoffCount() > 0);
+        } finally {
+            stop.set(true);
+        }
+    }
+
+    private static class PartitionTask implements PartitionSpecificRunnable {
+        private final int partitionId;
+        private final Runnable task;
+
+        PartitionTask(int partitionId, Runnable task) {
+            this.partitionId = partitionId;
+            this.task = task;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * Blocks the partition thread of the given partition until released.
+     */
+    private static class BlockingTask implements PartitionSpecificRunnable {
+        private final int partitionId;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        BlockingTask(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            started.countDown();
+            assertOpenEventually(released);
+        }
+
+        void awaitStarted() {
+            assertOpenEventually(started);
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
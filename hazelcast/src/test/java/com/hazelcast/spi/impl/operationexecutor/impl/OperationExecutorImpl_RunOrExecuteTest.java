@@ -247,6 +247,69 @@ public class OperationExecutorImpl_RunOrExecuteTest extends OperationExecutorImp
         });
     }
 
+    // ===================== partition specific runnables ========================
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullTask() {
+        initExecutor();
+
+        executor.runOrExecuteTask(null);
+    }
+
+    @Test
+    public void whenPartitionSpecificRunnable_andCallingFromUserThread() {
+        initExecutor();
+
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        };
+
+        executor.runOrExecuteTask(task);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertInstanceOf(PartitionOperationThread.class, task.getResult());
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionSpecificRunnable_andCallingFromPartitionOperationThread_thenNotNested() {
+        initExecutor();
+
+        final AtomicReference<Boolean> outerCompleted = new AtomicReference<Boolean>(false);
+        final AtomicReference<Boolean> outerCompletedBeforeInner = new AtomicReference<Boolean>();
+        final PartitionSpecificCallable<Thread> inner = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                outerCompletedBeforeInner.set(outerCompleted.get());
+                return Thread.currentThread();
+            }
+        };
+        final PartitionSpecificCallable<Thread> outer = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                executor.runOrExecuteTask(inner);
+                outerCompleted.set(true);
+                return Thread.currentThread();
+            }
+        };
+
+        executor.execute(outer);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertSame(outer.getResult(), inner.getResult());
+                assertSame(Boolean.TRUE, outerCompletedBeforeInner.get());
+            }
+        });
+    }
+
     private static class ThreadCapturingOperation extends Operation {
 
         private final AtomicReference<Thread> executingThread;
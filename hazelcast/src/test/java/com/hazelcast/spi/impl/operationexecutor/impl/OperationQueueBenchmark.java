@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.LatencyDistribution;
+import com.hazelcast.internal.util.concurrent.MPSCArrayQueue;
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Compares the throughput and the latency of the {@link OperationQueueImpl} of a partition
+ * thread when it uses a {@link MPSCQueue} and when it uses a {@link MPSCArrayQueue}, for
+ * 8 up to 64 producer threads.
+ * <p>
+ * This is no JUnit test.
+ */
+public class OperationQueueBenchmark {
+
+    private static final int[] PRODUCER_COUNTS = {8, 16, 32, 64};
+    private static final int TOTAL_ITEMS = 20_000_000;
+    private static final int ARRAY_QUEUE_CAPACITY = 1 << 14;
+    private static final int ARRAY_QUEUE_SPINS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        for (int producerCount : PRODUCER_COUNTS) {
+            run("linked", producerCount);
+            run("array", producerCount);
+        }
+    }
+
+    private static void run(String queueType, int producerCount) throws Exception {
+        BlockingQueue<Object> normalQueue = "array".equals(queueType)
+                ? new MPSCArrayQueue<>(ARRAY_QUEUE_CAPACITY, ARRAY_QUEUE_SPINS)
+                : new MPSCQueue<>(null);
+        OperationQueue queue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
+        int itemsPerProducer = TOTAL_ITEMS / producerCount;
+        LatencyDistribution latency = new LatencyDistribution();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                for (long k = 0; k < (long) itemsPerProducer * producerCount; k++) {
+                    latency.done(((Item) queue.take(false)).startNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        if (normalQueue instanceof MPSCArrayQueue) {
+            ((MPSCArrayQueue<Object>) normalQueue).setConsumerThread(consumer);
+        } else {
+            ((MPSCQueue<Object>) normalQueue).setConsumerThread(consumer);
+        }
+
+        long start = System.nanoTime();
+        consumer.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            Thread producer = new Thread(() -> {
+                for (int k = 0; k < itemsPerProducer; k++) {
+                    queue.add(new Item(System.nanoTime()), false);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        consumer.join();
+        long durationNanos = System.nanoTime() - start;
+
+        System.out.printf("queue=%s producers=%d: %.0f ops/s, latency avg=%dus max=%dus%n",
+                queueType, producerCount, latency.count() * 1_000_000_000d / durationNanos,
+                latency.avgMicros(), latency.maxMicros());
+    }
+
+    private static final class Item {
+        private final long startNanos;
+
+        private Item(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.Accessors.getPartitionService;
+
+/**
+ * Compares the throughput of a skewed key distribution with and without the
+ * {@link PartitionThreadBalancer rebalancing} of the partitions over the partition threads.
+ * <p>
+ * Most of the operations are done on a few hot keys whose partitions are all mapped to the same
+ * partition thread by the default mapping, so without rebalancing a single partition thread does
+ * most of the work.
+ * <p>
+ * This is no JUnit test.
+ */
+public class PartitionThreadRebalanceBenchmark {
+
+    private static final int PARTITION_THREAD_COUNT = 4;
+    private static final int HOT_KEY_COUNT = PARTITION_THREAD_COUNT;
+    private static final int HOT_PERCENTAGE = 90;
+    private static final int KEY_COUNT = 10_000;
+    private static final int THREAD_COUNT = 16;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private static void run(boolean rebalance) throws Exception {
+        Config config = new Config();
+        config.setClusterName("rebalance-" + rebalance);
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "" + PARTITION_THREAD_COUNT);
+        config.setProperty(PartitionThreadBalancer.ENABLED.getName(), Boolean.toString(rebalance));
+        HazelcastInstance hz = Hazelcast.newHazelcastInstance(config);
+        try {
+            IMap<Integer, Long> map = hz.getMap("map");
+            int[] hotKeys = hotKeys(hz);
+
+            List<Thread> threads = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                Thread thread = new Thread(() -> {
+                    loop(map, hotKeys, WARMUP_ITERATIONS);
+                    loop(map, hotKeys, ITERATIONS);
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long durationNanos = System.nanoTime() - start;
+
+            long operations = (long) THREAD_COUNT * (WARMUP_ITERATIONS + ITERATIONS);
+            OperationExecutorImpl executor = (OperationExecutorImpl) getOperationService(hz).getOperationExecutor();
+            PartitionThreadBalancer balancer = executor.getBalancer();
+            System.out.printf("rebalance=%s: %.0f operations per second, handoffs=%d, utilization skew=%d%%%n",
+                    rebalance, operations * 1_000_000_000d / durationNanos,
+                    balancer == null ? 0 : balancer.handoffCount(),
+                    balancer == null ? 0 : balancer.utilizationSkew());
+        } finally {
+            hz.shutdown();
+        }
+    }
+
+    // returns keys of different partitions that are all mapped to partition thread 0 by default
+    private static int[] hotKeys(HazelcastInstance hz) {
+        int[] hotKeys = new int[HOT_KEY_COUNT];
+        int found = 0;
+        for (int key = 0; found < HOT_KEY_COUNT; key++) {
+            int partitionId = getPartitionService(hz).getPartitionId(key);
+            if (partitionId % PARTITION_THREAD_COUNT != 0) {
+                continue;
+            }
+            boolean samePartition = false;
+            for (int k = 0; k < found; k++) {
+                samePartition |= getPartitionService(hz).getPartitionId(hotKeys[k]) == partitionId;
+            }
+            if (!samePartition) {
+                hotKeys[found++] = key;
+            }
+        }
+        return hotKeys;
+    }
+
+    private static void loop(IMap<Integer, Long> map, int[] hotKeys, int iterations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int k = 0; k < iterations; k++) {
+            int key = random.nextInt(100) < HOT_PERCENTAGE
+                    ? hotKeys[random.nextInt(hotKeys.length)]
+                    : random.nextInt(KEY_COUNT);
+            map.executeOnKey(key, new BusyEntryProcessor());
+        }
+    }
+
+    private static final class BusyEntryProcessor implements EntryProcessor<Integer, Long, Object> {
+        private static final int WORK = 10_000;
+
+        @Override
+        public Object process(Map.Entry<Integer, Long> entry) {
+            // simulates an expensive operation so the partition thread is the bottleneck
+            long value = entry.getValue() == null ? 0 : entry.getValue();
+            for (int k = 0; k < WORK; k++) {
+                value = value * 31 + k;
+            }
+            entry.setValue(value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.TargetLimit;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.DECREASE_INTERVAL_NANOS;
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.INITIAL_LIMIT;
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.MAX_LIMIT;
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.MIN_LATENCY_WINDOW_NANOS;
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.MIN_LIMIT;
+import static com.hazelcast.spi.impl.operationservice.impl.AdaptiveConcurrencyLimiter.TARGET_QUEUE_WAIT_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveConcurrencyLimiterTest extends HazelcastTestSupport {
+
+    private static final long TARGET_QUEUE_WAIT_NANOS = MICROSECONDS.toNanos(1000);
+
+    private final AtomicLong localQueueWaitNanos = new AtomicLong();
+    private Address thisAddress;
+    private Address remoteAddress;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Before
+    public void setup() throws Exception {
+        thisAddress = new Address("127.0.0.1", 5701);
+        remoteAddress = new Address("127.0.0.1", 5702);
+
+        Config config = new Config()
+                .setProperty(TARGET_QUEUE_WAIT_MICROS.getName(), "1000")
+                .setProperty(INITIAL_LIMIT.getName(), "100")
+                .setProperty(MIN_LIMIT.getName(), "10")
+                .setProperty(MAX_LIMIT.getName(), "200")
+                .setProperty(BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS.getName(), "10");
+        limiter = new AdaptiveConcurrencyLimiter(thisAddress, localQueueWaitNanos::get, new HazelcastProperties(config));
+    }
+
+    @Test
+    public void acquire_whenSpace() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        assertSame(limit, limiter.getLimit(remoteAddress));
+        assertEquals(1, limit.inFlight);
+        assertEquals(100, limit.limit, 0);
+    }
+
+    @Test
+    public void acquire_whenLimitReached_thenOverload() {
+        TargetLimit limit = null;
+        for (int k = 0; k < 100; k++) {
+            limit = limiter.acquire(remoteAddress);
+        }
+
+        assertThrows(HazelcastOverloadException.class, () -> limiter.acquire(remoteAddress));
+        assertEquals(1, limit.throttled.get());
+        assertEquals(1, limit.rejections.get());
+        assertEquals(100, limit.inFlight);
+    }
+
+    @Test
+    public void release() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        limiter.release(limit, System.nanoTime());
+
+        assertEquals(0, limit.inFlight);
+    }
+
+    @Test
+    public void adapt_whenQueueWaitAboveTarget_thenMultiplicativeDecrease() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        limiter.adapt(limit, TARGET_QUEUE_WAIT_NANOS + 1, 0);
+
+        assertEquals(90, limit.limit, 0.0001);
+    }
+
+    @Test
+    public void adapt_whenDecreasedRecently_thenNoDecrease() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        limiter.adapt(limit, TARGET_QUEUE_WAIT_NANOS + 1, 0);
+        limiter.adapt(limit, TARGET_QUEUE_WAIT_NANOS + 1, DECREASE_INTERVAL_NANOS - 1);
+        assertEquals(90, limit.limit, 0.0001);
+
+        limiter.adapt(limit, TARGET_QUEUE_WAIT_NANOS + 1, DECREASE_INTERVAL_NANOS);
+        assertEquals(81, limit.limit, 0.0001);
+    }
+
+    @Test
+    public void adapt_whenOverloaded_thenNotBelowMinLimit() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        for (int k = 0; k < 100; k++) {
+            limiter.adapt(limit, TARGET_QUEUE_WAIT_NANOS + 1, k * DECREASE_INTERVAL_NANOS);
+        }
+
+        assertEquals(10, limit.limit, 0);
+    }
+
+    @Test
+    public void adapt_whenQueueWaitBelowTargetAndLimitUsed_thenAdditiveIncrease() {
+        TargetLimit limit = null;
+        for (int k = 0; k < 100; k++) {
+            limit = limiter.acquire(remoteAddress);
+        }
+
+        limiter.adapt(limit, 0, 0);
+
+        assertEquals(100.01, limit.limit, 0.0001);
+    }
+
+    @Test
+    public void adapt_whenQueueWaitBelowTargetAndLimitNotUsed_thenNoIncrease() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        limiter.adapt(limit, 0, 0);
+
+        assertEquals(100, limit.limit, 0);
+    }
+
+    @Test
+    public void release_whenLocal_thenExecutorQueueWaitUsed() {
+        TargetLimit limit = limiter.acquire(thisAddress);
+
+        localQueueWaitNanos.set(TARGET_QUEUE_WAIT_NANOS * 10);
+        // the latency is ignored for the local member
+        limiter.release(limit, System.nanoTime());
+
+        assertEquals(90, limit.limit, 0.0001);
+    }
+
+    @Test
+    public void latencyAboveMin() {
+        TargetLimit limit = limiter.acquire(remoteAddress);
+
+        assertEquals(0, limit.latencyAboveMin(100, 0));
+        assertEquals(50, limit.latencyAboveMin(150, 1));
+        assertEquals(0, limit.latencyAboveMin(80, 2));
+        assertEquals(20, limit.latencyAboveMin(100, 3));
+
+        // the window has expired, so the min latency is forgotten
+        assertEquals(0, limit.latencyAboveMin(500, MIN_LATENCY_WINDOW_NANOS));
+    }
+
+    @Test
+    public void onEndpointLeft() {
+        limiter.acquire(remoteAddress);
+
+        limiter.onEndpointLeft(remoteAddress);
+
+        assertNull(limiter.getLimit(remoteAddress));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupAckBatchOperation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallTimeout;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setInvocationTime;
+import static com.hazelcast.spi.impl.operationservice.OperationResponseHandlerFactory.createEmptyResponseHandler;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_TIMEOUT_MILLIS;
+import static com.hazelcast.test.Accessors.getAddress;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BackupPipelineTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+
+    @Test
+    public void whenLocalCaller_thenBackupsAckedCumulatively() {
+        // a long backup timeout, so a lost ack makes the test time out instead of passing slowly
+        startCluster(Integer.MAX_VALUE);
+        IMap<String, Integer> map = local.getMap(randomMapName());
+        List<CompletionStage<Integer>> futures = new ArrayList<>();
+        for (int k = 0; k < ENTRY_COUNT; k++) {
+            futures.add(map.putAsync(generateKeyOwnedBy(local), k));
+        }
+        for (CompletionStage<Integer> future : futures) {
+            assertCompletesEventually(future.toCompletableFuture());
+        }
+
+        BackupPipeline pipeline = getOperationService(local).getBackupPipeline();
+        assertEquals(ENTRY_COUNT, pipeline.sequencedBackups());
+        assertTrue(pipeline.acksReceived() > 0);
+        assertTrue(pipeline.acksReceived() <= ENTRY_COUNT);
+        assertEquals(ENTRY_COUNT, remote.getMap(map.getName()).getLocalMapStats().getBackupEntryCount());
+    }
+
+    @Test
+    public void whenRemoteCaller_thenBackupsNotSequenced() {
+        startCluster(Integer.MAX_VALUE);
+        IMap<String, Integer> map = remote.getMap(randomMapName());
+        for (int k = 0; k < 100; k++) {
+            map.put(generateKeyOwnedBy(local), k);
+        }
+
+        assertEquals(0, getOperationService(local).getBackupPipeline().sequencedBackups());
+    }
+
+    @Test
+    public void whenBackupLost_thenFollowingBackupsAckedAfterBackupTimeout() {
+        startCluster(SECONDS.toMillis(1));
+        BackupPipeline localPipeline = getOperationService(local).getBackupPipeline();
+        BackupPipeline remotePipeline = getOperationService(remote).getBackupPipeline();
+        Address remoteAddress = getAddress(remote);
+        // the backup with the first sequence is lost
+        localPipeline.nextSequence(remoteAddress, 0);
+        long sequence = localPipeline.nextSequence(remoteAddress, 0);
+
+        // no more backups arrive after the gap, so it has to be expired by the invocation monitor
+        remotePipeline.complete(getAddress(local), sequence, true);
+        assertEquals(0, localPipeline.acksReceived());
+
+        assertTrueEventually(() -> {
+            assertEquals(1, remotePipeline.skippedSequences());
+            assertEquals(1, localPipeline.acksReceived());
+        });
+    }
+
+    @Test
+    public void whenBackupTimedOut_thenSequenceCompleted() {
+        startCluster(Integer.MAX_VALUE);
+        BackupPipeline localPipeline = getOperationService(local).getBackupPipeline();
+        BackupPipeline remotePipeline = getOperationService(remote).getBackupPipeline();
+        long timedOutSequence = localPipeline.nextSequence(getAddress(remote), 0);
+        long sequence = localPipeline.nextSequence(getAddress(remote), 0);
+
+        Backup backup = new Backup(new DummyBackupOperation(), getAddress(local), new long[0], true);
+        backup.setSequence(timedOutSequence);
+        backup.setPartitionId(0);
+        backup.setNodeEngine(getNodeEngineImpl(remote));
+        backup.setOperationResponseHandler(createEmptyResponseHandler());
+        setCallTimeout(backup, 1);
+        setInvocationTime(backup, getNodeEngineImpl(remote).getClusterService().getClusterTime() - 1000);
+        getOperationService(remote).execute(backup);
+        remotePipeline.complete(getAddress(local), sequence, true);
+
+        // the backup timeout is never reached, so the timed out backup must have completed its sequence
+        assertTrueEventually(() -> assertTrue(localPipeline.acksReceived() > 0));
+        assertEquals(0, remotePipeline.skippedSequences());
+    }
+
+    @Test
+    public void testAckBatchIsUrgent() {
+        // cumulative acks must not queue behind user operations, just like single backup acks
+        assertTrue(new BackupAckBatchOperation(0, 1, new long[0]).isUrgent());
+    }
+
+    private void startCluster(long backupTimeoutMillis) {
+        Config config = smallInstanceConfig()
+                .setProperty(BackupPipeline.ENABLED.getName(), "true")
+                .setProperty(OPERATION_BACKUP_TIMEOUT_MILLIS.getName(), "" + backupTimeoutMillis);
+        HazelcastInstance[] cluster = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(cluster);
+        local = cluster[0];
+        remote = cluster[1];
+    }
+
+    private static class DummyBackupOperation extends Operation implements BackupOperation {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static com.hazelcast.spi.impl.operationservice.impl.InvocationRegistry.SLOTS_ENABLED;
+
+/**
+ * Compares the register/lookup/deregister throughput of the {@link InvocationRegistry} with the
+ * invocations stored in a map and with the invocations stored in {@link InvocationSlots}.
+ * <p>
+ * Every thread keeps a window of pending invocations, so the registry always contains
+ * {@code THREAD_COUNT * WINDOW} invocations.
+ * <p>
+ * This is no JUnit test.
+ */
+public class InvocationRegistryBenchmark {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int WINDOW = 128;
+    private static final int WARMUP_ITERATIONS = 2_000_000;
+    private static final int ITERATIONS = 10_000_000;
+
+    public static void main(String[] args) throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private static void run(boolean slotsEnabled) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(SLOTS_ENABLED.getName(), Boolean.toString(slotsEnabled));
+        ILogger logger = Logger.getLogger(InvocationRegistryBenchmark.class);
+        InvocationRegistry registry = new InvocationRegistry(logger, new CallIdSequenceWithoutBackpressure(),
+                new HazelcastProperties(properties));
+
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            Invocation[] window = new Invocation[WINDOW];
+            for (int k = 0; k < WINDOW; k++) {
+                Context context = new Context(null, null, null, null, null,
+                        1000, registry, null, logger, null, null, null, null, null, null, null, null, null, null);
+                window[k] = new PartitionInvocation(context, new DummyOperation(), 0, 0, 0, false, false);
+            }
+            Thread thread = new Thread(() -> {
+                loop(registry, window, WARMUP_ITERATIONS);
+                loop(registry, window, ITERATIONS);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long durationNanos = System.nanoTime() - start;
+
+        long operations = (long) THREAD_COUNT * (WARMUP_ITERATIONS + ITERATIONS);
+        System.out.printf("slots=%s: %.0f register/get/deregister per second%n",
+                slotsEnabled, operations * 1_000_000_000d / durationNanos);
+    }
+
+    private static void loop(InvocationRegistry registry, Invocation[] window, int iterations) {
+        for (Invocation invocation : window) {
+            registry.register(invocation);
+        }
+
+        for (int k = 0; k < iterations; k++) {
+            Invocation invocation = window[k % WINDOW];
+            if (registry.get(invocation.op.getCallId()) != invocation) {
+                throw new AssertionError();
+            }
+            registry.deregister(invocation);
+            registry.register(invocation);
+        }
+
+        for (Invocation invocation : window) {
+            registry.deregister(invocation);
+        }
+    }
+}
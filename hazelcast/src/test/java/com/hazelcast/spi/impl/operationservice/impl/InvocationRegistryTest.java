@@ -54,10 +54,14 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
         logger = Mockito.mock(ILogger.class);
         int capacity = 2;
         CallIdSequenceWithBackpressure callIdSequence = new CallIdSequenceWithBackpressure(capacity, 1000, ConcurrencyDetection.createDisabled());
-        HazelcastProperties properties = new HazelcastProperties(new Properties());
+        HazelcastProperties properties = new HazelcastProperties(newProperties());
         invocationRegistry = new InvocationRegistry(logger, callIdSequence, properties);
     }
 
+    protected Properties newProperties() {
+        return new Properties();
+    }
+
     private Invocation newInvocation() {
         return newInvocation(new DummyBackupAwareOperation());
     }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Properties;
+
+import static com.hazelcast.spi.impl.operationservice.impl.InvocationRegistry.SLOTS_ENABLED;
+
+/**
+ * Runs the {@link InvocationRegistryTest} with the invocations stored in {@link InvocationSlots}.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class InvocationRegistry_SlotsTest extends InvocationRegistryTest {
+
+    @Override
+    protected Properties newProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(SLOTS_ENABLED.getName(), "true");
+        return properties;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.spi.impl.operationservice.impl.InvocationSlots.STRIPE_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class InvocationSlotsTest {
+
+    private final InvocationSlots slots = new InvocationSlots(64);
+
+    private Invocation newInvocation(long callId) {
+        Operation op = new DummyOperation();
+        OperationAccessor.setCallId(op, callId);
+        Context context = new Context(null, null, null, null, null,
+                1000, null, null, Mockito.mock(ILogger.class), null, null, null, null, null, null, null, null, null, null);
+        return new PartitionInvocation(context, op, 0, 0, 0, false, false);
+    }
+
+    @Test
+    public void capacity_roundedUpToPowerOfTwo() {
+        assertEquals(128, new InvocationSlots(100).capacity());
+        assertEquals(STRIPE_COUNT, new InvocationSlots(1).capacity());
+    }
+
+    @Test
+    public void put_thenGet() {
+        Invocation invocation = newInvocation(1);
+
+        slots.put(1, invocation);
+
+        assertSame(invocation, slots.get(1));
+        assertEquals(1, slots.size());
+        assertEquals(0, slots.overflowSize());
+    }
+
+    @Test
+    public void get_whenStaleCallId_thenNull() {
+        // both call IDs map to the same slot
+        long staleCallId = 1;
+        long callId = staleCallId + slots.capacity();
+        slots.put(callId, newInvocation(callId));
+
+        assertNull(slots.get(staleCallId));
+    }
+
+    @Test
+    public void put_whenSlotOccupied_thenOverflow() {
+        long callId1 = 1;
+        long callId2 = callId1 + slots.capacity();
+        Invocation invocation1 = newInvocation(callId1);
+        Invocation invocation2 = newInvocation(callId2);
+
+        slots.put(callId1, invocation1);
+        slots.put(callId2, invocation2);
+
+        assertEquals(1, slots.overflowSize());
+        assertEquals(2, slots.size());
+        assertSame(invocation1, slots.get(callId1));
+        assertSame(invocation2, slots.get(callId2));
+
+        assertTrue(slots.remove(callId2, invocation2));
+        assertEquals(0, slots.overflowSize());
+        assertNull(slots.get(callId2));
+        assertSame(invocation1, slots.get(callId1));
+    }
+
+    @Test
+    public void remove() {
+        Invocation invocation = newInvocation(5);
+        slots.put(5, invocation);
+
+        assertTrue(slots.remove(5, invocation));
+        assertFalse(slots.remove(5, invocation));
+        assertNull(slots.get(5));
+        assertEquals(0, slots.size());
+    }
+
+    @Test
+    public void iterator_includesSlotsAndOverflow() {
+        Set<Invocation> expected = new HashSet<>();
+        for (long callId = 1; callId <= slots.capacity() + 10; callId++) {
+            Invocation invocation = newInvocation(callId);
+            slots.put(callId, invocation);
+            expected.add(invocation);
+        }
+
+        Set<Invocation> found = new HashSet<>();
+        for (Invocation invocation : slots) {
+            found.add(invocation);
+        }
+
+        assertEquals(10, slots.overflowSize());
+        assertEquals(expected, found);
+        assertEquals(expected.size(), slots.entrySnapshot().size());
+    }
+}
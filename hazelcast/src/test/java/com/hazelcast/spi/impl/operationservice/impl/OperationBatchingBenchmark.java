@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundOperationHandler.BATCHING_ENABLED;
+
+/**
+ * Compares the throughput of small map operations between 2 members with and without the
+ * {@link OutboundOperationHandler#BATCHING_ENABLED operation batching}.
+ * <p>
+ * Every thread keeps a window of async set operations pending, so that many operations for the
+ * same member are sent at the same time. Roughly half of the operations are sent to the other member.
+ * <p>
+ * This is no JUnit test.
+ */
+public class OperationBatchingBenchmark {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int WINDOW = 64;
+    private static final int KEY_COUNT = 10_000;
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private static void run(boolean batching) throws Exception {
+        Config config = new Config();
+        config.setClusterName("batching-" + batching);
+        config.setProperty(BATCHING_ENABLED.getName(), Boolean.toString(batching));
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        try {
+            IMap<Integer, Integer> map = hz1.getMap("map");
+
+            List<Thread> threads = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                Thread thread = new Thread(() -> {
+                    loop(map, WARMUP_ITERATIONS);
+                    loop(map, ITERATIONS);
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long durationNanos = System.nanoTime() - start;
+
+            long operations = (long) THREAD_COUNT * (WARMUP_ITERATIONS + ITERATIONS);
+            System.out.printf("batching=%s: %.0f operations per second%n",
+                    batching, operations * 1_000_000_000d / durationNanos);
+        } finally {
+            hz2.shutdown();
+            hz1.shutdown();
+        }
+    }
+
+    private static void loop(IMap<Integer, Integer> map, int iterations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletionStage[] window = new CompletionStage[WINDOW];
+        for (int k = 0; k < iterations; k++) {
+            int index = k % WINDOW;
+            if (window[index] != null) {
+                window[index].toCompletableFuture().join();
+            }
+            window[index] = map.setAsync(random.nextInt(KEY_COUNT), k);
+        }
+        for (CompletionStage stage : window) {
+            if (stage != null) {
+                stage.toCompletableFuture().join();
+            }
+        }
+    }
+}
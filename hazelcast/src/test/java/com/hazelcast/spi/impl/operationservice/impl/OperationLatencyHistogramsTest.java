@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.internal.metrics.impl.CapturingCollector;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_OPERATION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationLatencyHistogramsTest {
+
+    private OperationLatencyHistograms histograms;
+    private MetricsRegistry registry;
+
+    @Before
+    public void setup() {
+        histograms = new OperationLatencyHistograms();
+        registry = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class), INFO);
+        registry.registerDynamicMetricsProvider(histograms);
+    }
+
+    @Test
+    public void recordExecution_doesNotCreateOtherHistograms() {
+        histograms.recordExecution(new DummyOperation(), 100);
+
+        OperationLatencyHistograms.Histograms h = histograms.get(DummyOperation.class);
+        assertNotNull(h);
+        assertNull(h.queueWait);
+        assertNull(h.backupAckWait);
+    }
+
+    @Test
+    public void collect() {
+        histograms.recordExecution(new DummyOperation(), MICROSECONDS.toNanos(100));
+        histograms.recordExecution(new DummyOperation(), MICROSECONDS.toNanos(200));
+        histograms.recordQueueWait(new DummyOperation(), MICROSECONDS.toNanos(50));
+
+        CapturingCollector collector = new CapturingCollector();
+        registry.collect(collector);
+
+        assertEquals(2L, value(collector, "executionCount", COUNT));
+        long max = value(collector, "executionMax", NS);
+        assertTrue("max " + max, max >= MICROSECONDS.toNanos(200) && max < MICROSECONDS.toNanos(230));
+        assertEquals(1L, value(collector, "queueWaitCount", COUNT));
+        assertFalse(collector.isCaptured(descriptor("backupAckWaitCount", COUNT)));
+    }
+
+    @Test
+    public void collect_onlyContainsInterval() {
+        histograms.recordBackupAckWait(new DummyOperation(), MICROSECONDS.toNanos(100));
+        registry.collect(new CapturingCollector());
+
+        CapturingCollector collector = new CapturingCollector();
+        registry.collect(collector);
+
+        assertEquals(0L, value(collector, "backupAckWaitCount", COUNT));
+        assertEquals(0L, value(collector, "backupAckWaitP99", NS));
+    }
+
+    private long value(CapturingCollector collector, String metric, ProbeUnit unit) {
+        return collector.captures().get(descriptor(metric, unit)).singleCapturedValue().longValue();
+    }
+
+    private MetricDescriptor descriptor(String metric, ProbeUnit unit) {
+        return registry.newMetricDescriptor()
+                .withPrefix(OPERATION_PREFIX_LATENCY)
+                .withDiscriminator(OPERATION_DISCRIMINATOR_OPERATION, DummyOperation.class.getName())
+                .withMetric(metric)
+                .withUnit(unit);
+    }
+}
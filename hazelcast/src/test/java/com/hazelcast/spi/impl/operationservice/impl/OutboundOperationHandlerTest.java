@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundOperationHandler.BATCHING_ENABLED;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundOperationHandler.BATCHING_MAX_SIZE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OutboundOperationHandlerTest extends HazelcastTestSupport {
+
+    private Node node;
+    private ClusterServiceImpl clusterService;
+    private ServerConnection connection;
+    private OutboundOperationHandler handler;
+
+    @Before
+    public void setup() throws Exception {
+        Config config = new Config().setProperty(BATCHING_ENABLED.getName(), "true");
+        node = mock(Node.class);
+        clusterService = mock(ClusterServiceImpl.class);
+        when(node.getThisAddress()).thenReturn(new Address("127.0.0.1", 5701));
+        when(node.getProperties()).thenReturn(new HazelcastProperties(config));
+        when(node.getClusterService()).thenReturn(clusterService);
+        when(clusterService.getClusterVersion()).thenReturn(Versions.V5_4);
+        connection = mock(ServerConnection.class);
+        handler = new OutboundOperationHandler(node, new DefaultSerializationServiceBuilder().build());
+    }
+
+    @Test
+    public void when_writeFails_then_failureReturnedToOwnerOfPacket() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch firstWriteReleased = new CountDownLatch(1);
+        // only the first packet is written, all later writes, batched or not, fail
+        when(connection.write(any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() == 0) {
+                return false;
+            }
+            firstWriteStarted.countDown();
+            firstWriteReleased.await();
+            return true;
+        });
+
+        Future<Boolean> first = spawn(() -> handler.send(partitionOperation(0), connection));
+        assertOpenEventually(firstWriteStarted);
+        Future<Boolean> second = spawn(() -> handler.send(partitionOperation(1), connection));
+        Future<Boolean> third = spawn(() -> handler.send(partitionOperation(2), connection));
+        // give the others the time to queue their packets, so the first sender writes them in a batch
+        sleepMillis(100);
+        firstWriteReleased.countDown();
+
+        assertTrue(first.get());
+        assertFalse(second.get());
+        assertFalse(third.get());
+    }
+
+    @Test
+    public void when_packetsQueued_then_writerWritesSingleBatch() throws Exception {
+        Config config = new Config()
+                .setProperty(BATCHING_ENABLED.getName(), "true")
+                .setProperty(BATCHING_MAX_SIZE.getName(), "2");
+        when(node.getProperties()).thenReturn(new HazelcastProperties(config));
+        handler = new OutboundOperationHandler(node, new DefaultSerializationServiceBuilder().build());
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch firstWriteReleased = new CountDownLatch(1);
+        List<Thread> writers = new CopyOnWriteArrayList<>();
+        when(connection.write(any())).thenAnswer(invocation -> {
+            writers.add(Thread.currentThread());
+            if (firstWriteStarted.getCount() == 1) {
+                firstWriteStarted.countDown();
+                firstWriteReleased.await();
+            }
+            return true;
+        });
+
+        AtomicReference<Thread> firstSender = new AtomicReference<>();
+        Future<Boolean> first = spawn(() -> {
+            firstSender.set(Thread.currentThread());
+            return handler.send(partitionOperation(0), connection);
+        });
+        assertOpenEventually(firstWriteStarted);
+        List<Future<Boolean>> others = new ArrayList<>();
+        for (int k = 1; k <= 4; k++) {
+            int partitionId = k;
+            others.add(spawn(() -> handler.send(partitionOperation(partitionId), connection)));
+        }
+        // give the others the time to queue their packets
+        sleepMillis(100);
+        firstWriteReleased.countDown();
+
+        assertTrue(first.get());
+        for (Future<Boolean> other : others) {
+            assertTrue(other.get());
+        }
+        // the first sender only wrote its own packet, the 4 queued packets are written in 2 batches by their owners
+        assertEquals(3, writers.size());
+        assertEquals(1, writers.stream().filter(thread -> thread == firstSender.get()).count());
+    }
+
+    @Test
+    public void when_clusterVersionBefore_5_4_then_notBatched() throws Exception {
+        when(clusterService.getClusterVersion()).thenReturn(Versions.V5_3);
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch firstWriteReleased = new CountDownLatch(1);
+        when(connection.write(any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() == 1) {
+                firstWriteStarted.countDown();
+                firstWriteReleased.await();
+            }
+            return true;
+        });
+
+        Future<Boolean> first = spawn(() -> handler.send(partitionOperation(0), connection));
+        assertOpenEventually(firstWriteStarted);
+        // the second packet isn't queued behind the first one
+        Future<Boolean> second = spawn(() -> handler.send(partitionOperation(1), connection));
+        assertTrue(second.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        firstWriteReleased.countDown();
+        assertTrue(first.get());
+
+        verify(connection, never()).write(argThat((Packet packet) -> packet.isFlagRaised(FLAG_OP_BATCH)));
+    }
+
+    private static Operation partitionOperation(int partitionId) {
+        return new DummyOperation().setPartitionId(partitionId);
+    }
+}